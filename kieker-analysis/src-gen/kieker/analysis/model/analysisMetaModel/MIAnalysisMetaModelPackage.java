@@ -357,6 +357,15 @@ public interface MIAnalysisMetaModelPackage extends EPackage {
 	 */
 	int INPUT_PORT__PARENT = PORT_FEATURE_COUNT + 0;
 
+	/**
+	 * The feature id for the '<em><b>Async Queue Capacity</b></em>' attribute.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 * @generated
+	 * @ordered
+	 */
+	int INPUT_PORT__ASYNC_QUEUE_CAPACITY = PORT_FEATURE_COUNT + 1;
+
 	/**
 	 * The number of structural features of the '<em>Input Port</em>' class.
 	 * <!-- begin-user-doc -->
@@ -364,7 +373,7 @@ public interface MIAnalysisMetaModelPackage extends EPackage {
 	 * @generated
 	 * @ordered
 	 */
-	int INPUT_PORT_FEATURE_COUNT = PORT_FEATURE_COUNT + 1;
+	int INPUT_PORT_FEATURE_COUNT = PORT_FEATURE_COUNT + 2;
 
 	/**
 	 * The meta object id for the '{@link kieker.analysis.model.analysisMetaModel.impl.MOutputPort <em>Output Port</em>}' class.
@@ -1100,6 +1109,17 @@ public interface MIAnalysisMetaModelPackage extends EPackage {
 	 */
 	EReference getInputPort_Parent();
 
+	/**
+	 * Returns the meta object for the attribute '{@link kieker.analysis.model.analysisMetaModel.MIInputPort#getAsyncQueueCapacity <em>Async Queue Capacity</em>}'.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 * @return the meta object for the attribute '<em>Async Queue Capacity</em>'.
+	 * @see kieker.analysis.model.analysisMetaModel.MIInputPort#getAsyncQueueCapacity()
+	 * @see #getInputPort()
+	 * @generated
+	 */
+	EAttribute getInputPort_AsyncQueueCapacity();
+
 	/**
 	 * Returns the meta object for class '{@link kieker.analysis.model.analysisMetaModel.MIOutputPort <em>Output Port</em>}'.
 	 * <!-- begin-user-doc -->
@@ -1629,6 +1649,14 @@ public interface MIAnalysisMetaModelPackage extends EPackage {
 		 */
 		EReference INPUT_PORT__PARENT = eINSTANCE.getInputPort_Parent();
 
+		/**
+		 * The meta object literal for the '<em><b>Async Queue Capacity</b></em>' attribute feature.
+		 * <!-- begin-user-doc -->
+		 * <!-- end-user-doc -->
+		 * @generated
+		 */
+		EAttribute INPUT_PORT__ASYNC_QUEUE_CAPACITY = eINSTANCE.getInputPort_AsyncQueueCapacity();
+
 		/**
 		 * The meta object literal for the '{@link kieker.analysis.model.analysisMetaModel.impl.MOutputPort <em>Output Port</em>}' class.
 		 * <!-- begin-user-doc -->
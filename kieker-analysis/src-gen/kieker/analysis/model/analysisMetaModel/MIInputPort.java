@@ -12,6 +12,7 @@ package kieker.analysis.model.analysisMetaModel;
  * The following features are supported:
  * <ul>
  *   <li>{@link kieker.analysis.model.analysisMetaModel.MIInputPort#getParent <em>Parent</em>}</li>
+ *   <li>{@link kieker.analysis.model.analysisMetaModel.MIInputPort#getAsyncQueueCapacity <em>Async Queue Capacity</em>}</li>
  * </ul>
  * </p>
  *
@@ -48,4 +49,31 @@ public interface MIInputPort extends MIPort {
 	 */
 	void setParent(MIFilter value);
 
+	/**
+	 * Returns the value of the '<em><b>Async Queue Capacity</b></em>' attribute.
+	 * The default value is <code>"0"</code>.
+	 * <!-- begin-user-doc -->
+	 * <p>
+	 * A value greater than zero marks the input port as asynchronous: incoming data is buffered in a bounded queue of the given capacity and consumed by a
+	 * dedicated thread. A value of zero denotes a synchronous input port.
+	 * </p>
+	 * <!-- end-user-doc -->
+	 * @return the value of the '<em>Async Queue Capacity</em>' attribute.
+	 * @see #setAsyncQueueCapacity(int)
+	 * @see kieker.analysis.model.analysisMetaModel.MIAnalysisMetaModelPackage#getInputPort_AsyncQueueCapacity()
+	 * @model default="0"
+	 * @generated
+	 */
+	int getAsyncQueueCapacity();
+
+	/**
+	 * Sets the value of the '{@link kieker.analysis.model.analysisMetaModel.MIInputPort#getAsyncQueueCapacity <em>Async Queue Capacity</em>}' attribute.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 * @param value the new value of the '<em>Async Queue Capacity</em>' attribute.
+	 * @see #getAsyncQueueCapacity()
+	 * @generated
+	 */
+	void setAsyncQueueCapacity(int value);
+
 } // MIInputPort
@@ -24,12 +24,33 @@ import org.eclipse.emf.ecore.util.EcoreUtil;
  * The following features are implemented:
  * <ul>
  *   <li>{@link kieker.analysis.model.analysisMetaModel.impl.MInputPort#getParent <em>Parent</em>}</li>
+ *   <li>{@link kieker.analysis.model.analysisMetaModel.impl.MInputPort#getAsyncQueueCapacity <em>Async Queue Capacity</em>}</li>
  * </ul>
  * </p>
  *
  * @generated
  */
 public class MInputPort extends MPort implements MIInputPort {
+	/**
+	 * The default value of the '{@link #getAsyncQueueCapacity() <em>Async Queue Capacity</em>}' attribute.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 * @see #getAsyncQueueCapacity()
+	 * @generated
+	 * @ordered
+	 */
+	protected static final int ASYNC_QUEUE_CAPACITY_EDEFAULT = 0;
+
+	/**
+	 * The cached value of the '{@link #getAsyncQueueCapacity() <em>Async Queue Capacity</em>}' attribute.
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 * @see #getAsyncQueueCapacity()
+	 * @generated
+	 * @ordered
+	 */
+	protected int asyncQueueCapacity = ASYNC_QUEUE_CAPACITY_EDEFAULT;
+
 	/**
 	 * <!-- begin-user-doc -->
 	 * <!-- end-user-doc -->
@@ -90,6 +111,27 @@ public class MInputPort extends MPort implements MIInputPort {
 			eNotify(new ENotificationImpl(this, Notification.SET, MIAnalysisMetaModelPackage.INPUT_PORT__PARENT, newParent, newParent));
 	}
 
+	/**
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 * @generated
+	 */
+	public int getAsyncQueueCapacity() {
+		return asyncQueueCapacity;
+	}
+
+	/**
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 * @generated
+	 */
+	public void setAsyncQueueCapacity(int newAsyncQueueCapacity) {
+		int oldAsyncQueueCapacity = asyncQueueCapacity;
+		asyncQueueCapacity = newAsyncQueueCapacity;
+		if (eNotificationRequired())
+			eNotify(new ENotificationImpl(this, Notification.SET, MIAnalysisMetaModelPackage.INPUT_PORT__ASYNC_QUEUE_CAPACITY, oldAsyncQueueCapacity, asyncQueueCapacity));
+	}
+
 	/**
 	 * <!-- begin-user-doc -->
 	 * <!-- end-user-doc -->
@@ -144,6 +186,8 @@ public class MInputPort extends MPort implements MIInputPort {
 		switch (featureID) {
 			case MIAnalysisMetaModelPackage.INPUT_PORT__PARENT:
 				return getParent();
+			case MIAnalysisMetaModelPackage.INPUT_PORT__ASYNC_QUEUE_CAPACITY:
+				return getAsyncQueueCapacity();
 		}
 		return super.eGet(featureID, resolve, coreType);
 	}
@@ -159,6 +203,9 @@ public class MInputPort extends MPort implements MIInputPort {
 			case MIAnalysisMetaModelPackage.INPUT_PORT__PARENT:
 				setParent((MIFilter)newValue);
 				return;
+			case MIAnalysisMetaModelPackage.INPUT_PORT__ASYNC_QUEUE_CAPACITY:
+				setAsyncQueueCapacity((Integer)newValue);
+				return;
 		}
 		super.eSet(featureID, newValue);
 	}
@@ -174,6 +221,9 @@ public class MInputPort extends MPort implements MIInputPort {
 			case MIAnalysisMetaModelPackage.INPUT_PORT__PARENT:
 				setParent((MIFilter)null);
 				return;
+			case MIAnalysisMetaModelPackage.INPUT_PORT__ASYNC_QUEUE_CAPACITY:
+				setAsyncQueueCapacity(ASYNC_QUEUE_CAPACITY_EDEFAULT);
+				return;
 		}
 		super.eUnset(featureID);
 	}
@@ -188,8 +238,26 @@ public class MInputPort extends MPort implements MIInputPort {
 		switch (featureID) {
 			case MIAnalysisMetaModelPackage.INPUT_PORT__PARENT:
 				return getParent() != null;
+			case MIAnalysisMetaModelPackage.INPUT_PORT__ASYNC_QUEUE_CAPACITY:
+				return asyncQueueCapacity != ASYNC_QUEUE_CAPACITY_EDEFAULT;
 		}
 		return super.eIsSet(featureID);
 	}
 
+	/**
+	 * <!-- begin-user-doc -->
+	 * <!-- end-user-doc -->
+	 * @generated
+	 */
+	@Override
+	public String toString() {
+		if (eIsProxy()) return super.toString();
+
+		StringBuffer result = new StringBuffer(super.toString());
+		result.append(" (asyncQueueCapacity: ");
+		result.append(asyncQueueCapacity);
+		result.append(')');
+		return result.toString();
+	}
+
 } //MInputPort
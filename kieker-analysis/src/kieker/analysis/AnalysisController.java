@@ -348,7 +348,8 @@ public final class AnalysisController implements IAnalysisController { // NOPMD
 				repositoryMap, pluginMap);
 
 		for (final PluginConnection connection : pluginConnections) {
-			this.connect(connection.getSource(), connection.getOutputName(), connection.getDestination(), connection.getInputName());
+			this.connect(connection.getSource(), connection.getOutputName(), connection.getDestination(), connection.getInputName(),
+					connection.getAsyncQueueCapacity());
 		}
 		for (final RepositoryConnection connection : repositoryConnections) {
 			this.connect(connection.getSource(), connection.getOutputName(), connection.getRepository());
@@ -382,6 +383,15 @@ public final class AnalysisController implements IAnalysisController { // NOPMD
 	@Override
 	public final void connect(final AbstractPlugin src, final String outputPortName, final AbstractPlugin dst, final String inputPortName)
 			throws IllegalStateException, AnalysisConfigurationException {
+		this.connect(src, outputPortName, dst, inputPortName, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final void connect(final AbstractPlugin src, final String outputPortName, final AbstractPlugin dst, final String inputPortName,
+			final int asyncQueueCapacity) throws IllegalStateException, AnalysisConfigurationException {
 		if (this.state != STATE.READY) {
 			throw new IllegalStateException("Unable to connect readers and filters after starting analysis.");
 		}
@@ -399,8 +409,11 @@ public final class AnalysisController implements IAnalysisController { // NOPMD
 		if (!this.filters.contains(dst)) {
 			throw new AnalysisConfigurationException("The plugin '" + dst.getName() + "' (" + dst.getPluginName() + ") is not registered.");
 		}
+		if (asyncQueueCapacity < 0) {
+			throw new AnalysisConfigurationException("The queue capacity of an asynchronous input port must not be negative: " + asyncQueueCapacity);
+		}
 		// Use the method of AbstractPlugin (This should be the only allowed call to this method) to check the connection.
-		AbstractPlugin.connect(src, outputPortName, dst, inputPortName); // throws AnalysisConfigurationException
+		AbstractPlugin.connect(src, outputPortName, dst, inputPortName, asyncQueueCapacity); // throws AnalysisConfigurationException
 	}
 
 	/**
@@ -111,6 +111,36 @@ public interface IAnalysisController extends IProjectContext {
 	public void connect(final AbstractPlugin src, final String outputPortName, final AbstractPlugin dst,
 			final String inputPortName) throws IllegalStateException, AnalysisConfigurationException;
 
+	/**
+	 * This method should be used to connect two plugins via an asynchronous input port. The plugins have to be registered within this controller instance.
+	 * Data sent to an asynchronous input port is buffered in a bounded queue and processed by a dedicated thread of the destination plugin, which allows
+	 * the plugins of an analysis to run on several cores. A full queue blocks the delivering plugin. On termination, the queue is drained before the
+	 * destination plugin terminates.
+	 * 
+	 * The queue belongs to the input port and is shared by all connections to it. Hence, all connections to the input port are asynchronous afterwards. All
+	 * asynchronous input ports of a plugin are served by the same thread, so the input port methods of a plugin are never called concurrently. For the same
+	 * reason, a plugin cannot have both synchronous and asynchronous connected input ports.
+	 * 
+	 * @param src
+	 *            The source plugin.
+	 * @param outputPortName
+	 *            The output port of the source plugin.
+	 * @param dst
+	 *            The destination plugin.
+	 * @param inputPortName
+	 *            The input port of the destination port.
+	 * @param asyncQueueCapacity
+	 *            The capacity of the queue of the input port. A value of zero results in a synchronous connection.
+	 * @throws IllegalStateException
+	 *             If this instance has already been started or has already been terminated.
+	 * @throws AnalysisConfigurationException
+	 *             If the port names or the given plugins are invalid or not compatible, if the input port is already asynchronous with another capacity,
+	 *             or if synchronous and asynchronous input ports of the destination plugin would be mixed.
+	 * @since 1.13
+	 */
+	public void connect(final AbstractPlugin src, final String outputPortName, final AbstractPlugin dst,
+			final String inputPortName, final int asyncQueueCapacity) throws IllegalStateException, AnalysisConfigurationException;
+
 	/**
 	 * Connects the given repository to this plugin via the given name.
 	 * 
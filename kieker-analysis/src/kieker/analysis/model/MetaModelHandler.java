@@ -357,6 +357,7 @@ public final class MetaModelHandler {
 					final MIInputPort mInputPort = factory.createInputPort();
 					mInputPort.setId(EcoreUtil.generateUUID());
 					mInputPort.setName(in);
+					mInputPort.setAsyncQueueCapacity(plugin.getAsyncQueueCapacity(in));
 					((MIFilter) mPlugin).getInputPorts().add(mInputPort);
 				}
 				mProject.getPlugins().add(mPlugin);
@@ -481,7 +482,7 @@ public final class MetaModelHandler {
 					// Find the mapping and subscribe
 					final String inputPortName = mSubscriber.getName();
 					final AbstractPlugin dstPlugin = pluginMap.get(mSubscriber.getParent());
-					pluginConnections.add(new PluginConnection(srcPlugin, dstPlugin, outputPortName, inputPortName));
+					pluginConnections.add(new PluginConnection(srcPlugin, dstPlugin, outputPortName, inputPortName, mSubscriber.getAsyncQueueCapacity()));
 				}
 			}
 		}
@@ -626,6 +627,7 @@ public final class MetaModelHandler {
 		private final AbstractPlugin destination;
 		private final String outputName;
 		private final String inputName;
+		private final int asyncQueueCapacity;
 
 		/**
 		 * Creates a new connection between two filters.
@@ -640,10 +642,32 @@ public final class MetaModelHandler {
 		 *            The name of the input port.
 		 */
 		public PluginConnection(final AbstractPlugin source, final AbstractPlugin destination, final String outputName, final String inputName) {
+			this(source, destination, outputName, inputName, 0);
+		}
+
+		/**
+		 * Creates a new connection between two filters.
+		 * 
+		 * @param source
+		 *            The source filter.
+		 * @param destination
+		 *            The destination filter.
+		 * @param outputName
+		 *            The name of the output port.
+		 * @param inputName
+		 *            The name of the input port.
+		 * @param asyncQueueCapacity
+		 *            The queue capacity of the asynchronous input port or zero for a synchronous input port.
+		 * 
+		 * @since 1.13
+		 */
+		public PluginConnection(final AbstractPlugin source, final AbstractPlugin destination, final String outputName, final String inputName,
+				final int asyncQueueCapacity) {
 			this.source = source;
 			this.destination = destination;
 			this.outputName = outputName;
 			this.inputName = inputName;
+			this.asyncQueueCapacity = asyncQueueCapacity;
 		}
 
 		public AbstractPlugin getSource() {
@@ -662,5 +686,9 @@ public final class MetaModelHandler {
 			return this.inputName;
 		}
 
+		public int getAsyncQueueCapacity() {
+			return this.asyncQueueCapacity;
+		}
+
 	}
 }
@@ -35,6 +35,7 @@ import kieker.analysis.IProjectContext;
 import kieker.analysis.analysisComponent.AbstractAnalysisComponent;
 import kieker.analysis.display.annotation.Display;
 import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.OutputPortDispatcher.Target;
 import kieker.analysis.plugin.annotation.InputPort;
 import kieker.analysis.plugin.annotation.OutputPort;
 import kieker.analysis.plugin.annotation.Plugin;
@@ -57,12 +58,14 @@ import kieker.common.record.misc.KiekerMetadataRecord;
 @Plugin
 public abstract class AbstractPlugin extends AbstractAnalysisComponent implements IPlugin {
 
-	private final ConcurrentHashMap<String, List<PluginInputPortReference>> registeredMethods;
+	private final ConcurrentHashMap<String, OutputPortDispatcher> registeredMethods;
 	private final ConcurrentHashMap<String, AbstractRepository> registeredRepositories;
-	private final Map<OutputPort, Class<?>[]> outputPortTypes; // NOCS
 	private final Map<String, RepositoryPort> repositoryPorts;
 	private final Map<String, OutputPort> outputPorts;
 	private final Map<String, InputPort> inputPorts;
+	private final ConcurrentHashMap<String, AsynchronousInputPort> asynchronousInputPorts;
+	private final Set<String> connectedInputPortNames; // only accessed in synchronized blocks
+	private AsynchronousInputPortConsumer asynchronousInputPortConsumer; // only accessed in synchronized blocks
 
 	// Shutdown mechanism
 	private final List<AbstractPlugin> incomingPlugins;
@@ -84,7 +87,6 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 		// Get all repository and output ports.
 		this.repositoryPorts = new ConcurrentHashMap<String, RepositoryPort>();
 		this.outputPorts = new ConcurrentHashMap<String, OutputPort>();
-		this.outputPortTypes = new ConcurrentHashMap<OutputPort, Class<?>[]>(); // NOCS
 		final Plugin annotation = this.getClass().getAnnotation(Plugin.class);
 		for (final RepositoryPort repoPort : annotation.repositoryPorts()) {
 			if (this.repositoryPorts.put(repoPort.name(), repoPort) != null) {
@@ -97,11 +99,6 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 				if (this.outputPorts.put(outputPort.name(), outputPort) != null) {
 					this.log.error("Two OutputPorts use the same name: " + outputPort.name());
 				}
-				Class<?>[] outTypes = outputPort.eventTypes();
-				if (outTypes.length == 0) {
-					outTypes = new Class<?>[] { Object.class };
-				}
-				this.outputPortTypes.put(outputPort, outTypes);
 			}
 		} else {
 			// But inform the user about these invalid ports
@@ -148,11 +145,13 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 			}
 		}
 		this.registeredRepositories = new ConcurrentHashMap<String, AbstractRepository>(this.repositoryPorts.size());
+		this.asynchronousInputPorts = new ConcurrentHashMap<String, AsynchronousInputPort>();
+		this.connectedInputPortNames = new HashSet<String>();
 
 		// Now create a linked queue for every output port of the class, to store the registered methods.
-		this.registeredMethods = new ConcurrentHashMap<String, List<PluginInputPortReference>>();
+		this.registeredMethods = new ConcurrentHashMap<String, OutputPortDispatcher>();
 		for (final OutputPort outputPort : annotation.outputPorts()) {
-			this.registeredMethods.put(outputPort.name(), new ArrayList<PluginInputPortReference>(1));
+			this.registeredMethods.put(outputPort.name(), new OutputPortDispatcher(outputPort.eventTypes()));
 		}
 		// and a List for every incoming and outgoing plugin
 		this.incomingPlugins = new ArrayList<AbstractPlugin>(1); // usually only one incoming
@@ -184,51 +183,46 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 			return false;
 		}
 
-		// Second step: Check whether the data fits the event types.
-		final Class<?>[] outTypes = this.outputPortTypes.get(outputPort);
-		boolean outTypeMatch = false;
-		for (final Class<?> eventType : outTypes) {
-			if (eventType.isInstance(data)) {
-				outTypeMatch = true;
-				break; // for
-			}
-		}
-		if (!outTypeMatch) {
+		// Second step: Get the input ports accepting the data (or null if the data does not fit the event types).
+		final Target[] targets = this.registeredMethods.get(outputPortName).getTargets(data.getClass());
+		if (targets == null) {
 			return false;
 		}
 
 		// Third step: Send everything to the registered ports.
-		final List<PluginInputPortReference> registeredMethodsOfPort = this.registeredMethods.get(outputPortName);
-
-		for (final PluginInputPortReference pluginInputPortReference : registeredMethodsOfPort) {
-			// Check whether the data fits the event types.
-			Class<?>[] eventTypes = pluginInputPortReference.getEventTypes();
-			if (eventTypes.length == 0) {
-				eventTypes = new Class<?>[] { Object.class };
-			}
-			for (final Class<?> eventType : eventTypes) {
-				if (eventType.isAssignableFrom(data.getClass())) { // data instanceof eventType
-					try {
-						pluginInputPortReference.getInputPortMethod().invoke(pluginInputPortReference.getPlugin(), data);
-					} catch (final InvocationTargetException e) {
-						// This is an exception wrapped by invoke
-						final Throwable cause = e.getCause();
-						if (cause instanceof Error) {
-							// This is a severe case and there is little chance to terminate appropriately
-							throw (Error) cause;
-						} else {
-							this.log.warn("Caught exception when sending data from " + this.getClass().getName() + ": OutputPort " + outputPort.name()
-									+ " to "
-									+ pluginInputPortReference.getPlugin().getClass().getName() + "'s InputPort "
-									+ pluginInputPortReference.getInputPortMethod().getName(), cause);
-						}
-					} catch (final Exception e) { // NOPMD NOCS (catch multiple)
-						// This is an exception wrapped by invoke
-						this.log.error("Caught exception when invoking "
+		for (final Target target : targets) {
+			final PluginInputPortReference pluginInputPortReference = target.getReference();
+			final AsynchronousInputPort asynchronousInputPort = target.getAsynchronousInputPort();
+			if (asynchronousInputPort != null) {
+				try {
+					asynchronousInputPort.put(data);
+				} catch (final InterruptedException e) {
+					this.log.warn("Interrupted when sending data from " + this.getClass().getName() + ": OutputPort " + outputPort.name() + " to "
+							+ pluginInputPortReference.getPlugin().getClass().getName() + "'s InputPort "
+							+ pluginInputPortReference.getInputPortMethod().getName(), e);
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			} else {
+				try {
+					pluginInputPortReference.getInputPortMethod().invoke(pluginInputPortReference.getPlugin(), data);
+				} catch (final InvocationTargetException e) {
+					// This is an exception wrapped by invoke
+					final Throwable cause = e.getCause();
+					if (cause instanceof Error) {
+						// This is a severe case and there is little chance to terminate appropriately
+						throw (Error) cause;
+					} else {
+						this.log.warn("Caught exception when sending data from " + this.getClass().getName() + ": OutputPort " + outputPort.name()
+								+ " to "
 								+ pluginInputPortReference.getPlugin().getClass().getName() + "'s InputPort "
-								+ pluginInputPortReference.getInputPortMethod().getName(), e);
+								+ pluginInputPortReference.getInputPortMethod().getName(), cause);
 					}
-					break; // for
+				} catch (final Exception e) { // NOPMD NOCS (catch multiple)
+					// This is an exception wrapped by invoke
+					this.log.error("Caught exception when invoking "
+							+ pluginInputPortReference.getPlugin().getClass().getName() + "'s InputPort "
+							+ pluginInputPortReference.getInputPortMethod().getName(), e);
 				}
 			}
 		}
@@ -281,6 +275,30 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 	 */
 	public static final void connect(final AbstractPlugin src, final String outputPortName, final AbstractPlugin dst, final String inputPortName) throws
 			AnalysisConfigurationException {
+		AbstractPlugin.connect(src, outputPortName, dst, inputPortName, 0);
+	}
+
+	/**
+	 * This method connects two plugins and optionally makes the input port asynchronous. <b>DO NOT USE THIS METHOD!</b> Use
+	 * <code>AnalysisController.connect</code> instead!
+	 * 
+	 * @param src
+	 *            The source plugin.
+	 * @param outputPortName
+	 *            The output port of the source plugin.
+	 * @param dst
+	 *            The destination plugin.
+	 * @param inputPortName
+	 *            The input port of the destination port.
+	 * @param asyncQueueCapacity
+	 *            The queue capacity of the asynchronous input port or zero if the input port should not be made asynchronous.
+	 * @throws AnalysisConfigurationException
+	 *             if any given plugin is invalid, any output or input port doesn't exist or if they are incompatible.
+	 *             Furthermore the destination plugin must not be a reader, an asynchronous input port must not be redeclared with another capacity, and the
+	 *             connected input ports of a plugin must be either all synchronous or all asynchronous.
+	 */
+	public static final void connect(final AbstractPlugin src, final String outputPortName, final AbstractPlugin dst, final String inputPortName,
+			final int asyncQueueCapacity) throws AnalysisConfigurationException {
 		if (!AbstractPlugin.isConnectionAllowed(src, outputPortName, dst, inputPortName)) {
 			throw new AnalysisConfigurationException("Failed to connect plugin '" + src.getName() + "' (" + src.getPluginName() + ") to plugin '"
 					+ dst.getName() + "' (" + dst.getPluginName() + ").");
@@ -297,7 +315,8 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 						return null;
 					}
 				});
-				src.registeredMethods.get(outputPortName).add(new PluginInputPortReference(dst, inputPortName, m, dst.inputPorts.get(inputPortName).eventTypes()));
+				dst.declareInputPortConnection(inputPortName, m, asyncQueueCapacity);
+				src.registeredMethods.get(outputPortName).addReference(new PluginInputPortReference(dst, inputPortName, m, dst.inputPorts.get(inputPortName).eventTypes()));
 				src.outgoingPlugins.add(dst);
 				dst.incomingPlugins.add(src);
 
@@ -528,11 +547,74 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 			return null;
 		}
 		// Now get the connections.
-		final List<PluginInputPortReference> result = new ArrayList<PluginInputPortReference>();
-		for (final PluginInputPortReference ref : this.registeredMethods.get(outputPortName)) {
-			result.add(ref);
+		return this.registeredMethods.get(outputPortName).getReferences();
+	}
+
+	/**
+	 * Delivers the queue capacity of the given input port.
+	 * 
+	 * @param inputPortName
+	 *            The name of the input port.
+	 * @return The capacity of the queue if the input port is asynchronous, zero otherwise.
+	 * 
+	 * @since 1.13
+	 */
+	public final int getAsyncQueueCapacity(final String inputPortName) {
+		final AsynchronousInputPort asynchronousInputPort = this.asynchronousInputPorts.get(inputPortName);
+		if (asynchronousInputPort == null) {
+			return 0;
+		}
+		return asynchronousInputPort.getCapacity();
+	}
+
+	/**
+	 * Delivers the asynchronous input port with the given name.
+	 * 
+	 * @param inputPortName
+	 *            The name of the input port.
+	 * @return The asynchronous input port or null if the input port is synchronous.
+	 */
+	final AsynchronousInputPort getAsynchronousInputPort(final String inputPortName) {
+		return this.asynchronousInputPorts.get(inputPortName);
+	}
+
+	/**
+	 * Registers a new connection to the given input port. All asynchronous input ports of a plugin share a single consumer thread. As the input port methods
+	 * of a plugin must not be called concurrently, synchronous and asynchronous input ports cannot be mixed within a plugin.
+	 */
+	private void declareInputPortConnection(final String inputPortName, final Method inputPortMethod, final int asyncQueueCapacity)
+			throws AnalysisConfigurationException {
+		synchronized (this) {
+			if (asyncQueueCapacity > 0) {
+				for (final String connectedInputPortName : this.connectedInputPortNames) {
+					if (!connectedInputPortName.equals(inputPortName) && !this.asynchronousInputPorts.containsKey(connectedInputPortName)) {
+						throw new AnalysisConfigurationException("The input port '" + inputPortName + "' of plugin '" + this.getName() + "' ("
+								+ this.getPluginName() + ") cannot be asynchronous, as the input port '" + connectedInputPortName + "' is synchronous.");
+					}
+				}
+				final AsynchronousInputPort asynchronousInputPort = this.asynchronousInputPorts.get(inputPortName);
+				if (asynchronousInputPort == null) {
+					if (this.asynchronousInputPortConsumer == null) {
+						this.asynchronousInputPortConsumer = new AsynchronousInputPortConsumer(this, this.projectContext);
+					}
+					this.asynchronousInputPorts.put(inputPortName,
+							new AsynchronousInputPort(this, inputPortMethod, this.asynchronousInputPortConsumer, asyncQueueCapacity));
+				} else if (asynchronousInputPort.getCapacity() != asyncQueueCapacity) {
+					throw new AnalysisConfigurationException("The input port '" + inputPortName + "' of plugin '" + this.getName() + "' ("
+							+ this.getPluginName() + ") is already asynchronous with a queue capacity of " + asynchronousInputPort.getCapacity() + ".");
+				}
+			} else if (!this.asynchronousInputPorts.isEmpty() && !this.asynchronousInputPorts.containsKey(inputPortName)) {
+				throw new AnalysisConfigurationException("The input port '" + inputPortName + "' of plugin '" + this.getName() + "' (" + this.getPluginName()
+						+ ") cannot be synchronous, as the plugin has asynchronous input ports.");
+			}
+			this.connectedInputPortNames.add(inputPortName);
+		}
+	}
+
+	private AsynchronousInputPortConsumer getAsynchronousInputPortConsumer() {
+		synchronized (this) {
+			return this.asynchronousInputPortConsumer;
 		}
-		return result;
 	}
 
 	/**
@@ -553,7 +635,14 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 			return false;
 		}
 		this.state = STATE.RUNNING;
-		return this.init();
+		if (!this.init()) {
+			return false;
+		}
+		final AsynchronousInputPortConsumer consumer = this.getAsynchronousInputPortConsumer();
+		if (consumer != null) {
+			consumer.start();
+		}
+		return true;
 	}
 
 	/**
@@ -574,7 +663,11 @@ public abstract class AbstractPlugin extends AbstractAnalysisComponent implement
 		for (final AbstractPlugin plugin : this.incomingPlugins) {
 			plugin.shutdown(error);
 		}
-		// when we arrive here, all incoming plugins are terminated!
+		// when we arrive here, all incoming plugins are terminated! Now the asynchronous input ports can process their remaining data.
+		final AsynchronousInputPortConsumer consumer = this.getAsynchronousInputPortConsumer();
+		if (consumer != null) {
+			consumer.shutdown(error);
+		}
 		this.terminate(error);
 		if (error) {
 			this.state = STATE.FAILED;
@@ -0,0 +1,123 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.analysis.plugin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Semaphore;
+
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+
+/**
+ * An asynchronous input port decouples a plugin from the plugins delivering data to it. Data is queued and the input port method is invoked by the
+ * consumer thread of the plugin ({@link AsynchronousInputPortConsumer}), which serves all asynchronous input ports of the plugin. If the capacity of the
+ * input port is exhausted, the delivering plugin blocks until space becomes available (backpressure). Consequently, the input port methods of the plugin
+ * are still called by only one thread at a time.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+final class AsynchronousInputPort {
+
+	private static final Log LOG = LogFactory.getLog(AsynchronousInputPort.class);
+
+	private final AbstractPlugin plugin;
+	private final Method inputPortMethod;
+	private final AsynchronousInputPortConsumer consumer;
+	private final int capacity;
+	/** One permit for each object which can still be queued. */
+	private final Semaphore permits;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 * 
+	 * @param plugin
+	 *            The plugin owning the input port.
+	 * @param inputPortMethod
+	 *            The method representing the input port.
+	 * @param consumer
+	 *            The consumer thread of the plugin.
+	 * @param capacity
+	 *            The maximal number of queued objects; must be greater than zero.
+	 */
+	public AsynchronousInputPort(final AbstractPlugin plugin, final Method inputPortMethod, final AsynchronousInputPortConsumer consumer,
+			final int capacity) {
+		this.plugin = plugin;
+		this.inputPortMethod = inputPortMethod;
+		this.consumer = consumer;
+		this.capacity = capacity;
+		this.permits = new Semaphore(capacity);
+	}
+
+	/**
+	 * @return The maximal number of queued objects.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Queues the given data. Blocks as long as the capacity is exhausted. Data delivered after a failure of the plugin's input ports is discarded.
+	 * 
+	 * @param data
+	 *            The data to be delivered to the input port.
+	 * @throws InterruptedException
+	 *             If the calling thread has been interrupted while waiting for space in the queue.
+	 */
+	public void put(final Object data) throws InterruptedException {
+		if (!this.consumer.isFailed()) {
+			this.permits.acquire();
+			this.consumer.add(this, data);
+		}
+	}
+
+	/**
+	 * Releases the permit of a data object removed from the queue.
+	 */
+	void release() {
+		this.permits.release();
+	}
+
+	/**
+	 * Invokes the input port method with the given data.
+	 * 
+	 * @param data
+	 *            The data to be delivered to the input port.
+	 * @return false if and only if an error occurred, such that the analysis should be terminated
+	 */
+	boolean invoke(final Object data) {
+		try {
+			this.inputPortMethod.invoke(this.plugin, data);
+		} catch (final InvocationTargetException e) {
+			// This is an exception wrapped by invoke
+			final Throwable cause = e.getCause();
+			if (cause instanceof Error) {
+				// This is a severe case and there is little chance to continue appropriately
+				LOG.error("Caught error when sending data to " + this.plugin.getClass().getName() + "'s InputPort " + this.inputPortMethod.getName(), cause);
+				return false;
+			} else {
+				LOG.warn("Caught exception when sending data to " + this.plugin.getClass().getName() + "'s InputPort " + this.inputPortMethod.getName(), cause);
+			}
+		} catch (final Exception e) { // NOPMD NOCS (catch multiple)
+			LOG.error("Caught exception when invoking " + this.plugin.getClass().getName() + "'s InputPort " + this.inputPortMethod.getName(), e);
+		}
+		return true;
+	}
+}
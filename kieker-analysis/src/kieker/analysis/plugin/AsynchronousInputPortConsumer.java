@@ -0,0 +1,194 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.plugin;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import kieker.analysis.IAnalysisController;
+import kieker.analysis.IProjectContext;
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+
+/**
+ * The consumer thread of a plugin with asynchronous input ports. All asynchronous input ports of the plugin share this thread, so the input port methods
+ * of the plugin are called by only one thread at a time and in the order the data has been delivered. The number of queued objects is bounded by the
+ * capacities of the input ports.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+final class AsynchronousInputPortConsumer implements Runnable {
+
+	private static final Log LOG = LogFactory.getLog(AsynchronousInputPortConsumer.class);
+
+	/** Marks the end of the data in the queue. */
+	private static final Entry END_OF_DATA = new Entry(null, null);
+
+	private final AbstractPlugin plugin;
+	private final IProjectContext projectContext;
+	/** Bounded by the permits of the input ports. */
+	private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<Entry>();
+
+	private volatile Thread consumerThread;
+	private volatile boolean failed;
+	private volatile boolean stopped;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 * 
+	 * @param plugin
+	 *            The plugin owning the asynchronous input ports.
+	 * @param projectContext
+	 *            The project context of the plugin, used to terminate the analysis if an input port fails severely.
+	 */
+	public AsynchronousInputPortConsumer(final AbstractPlugin plugin, final IProjectContext projectContext) {
+		this.plugin = plugin;
+		this.projectContext = projectContext;
+	}
+
+	/**
+	 * Starts the consumer thread.
+	 */
+	public synchronized void start() {
+		if (this.consumerThread == null) {
+			this.consumerThread = new Thread(this, this.plugin.getName() + "-AsynchronousInputPorts");
+			this.consumerThread.start();
+		}
+	}
+
+	/**
+	 * @return true if and only if the queued data is discarded due to an error
+	 */
+	public boolean isFailed() {
+		return this.failed;
+	}
+
+	/**
+	 * Queues the given data for the given input port. The caller must hold a permit of the input port, which is released as soon as the data is removed
+	 * from the queue.
+	 * 
+	 * @param inputPort
+	 *            The receiving input port.
+	 * @param data
+	 *            The data to be delivered to the input port.
+	 */
+	public void add(final AsynchronousInputPort inputPort, final Object data) {
+		this.queue.add(new Entry(inputPort, data));
+		if (this.failed) {
+			this.discardQueuedData();
+		}
+	}
+
+	/**
+	 * Stops the consumer thread. Unless an error occurred, all data already queued is delivered to the input ports before this method returns. Otherwise
+	 * the queued data is discarded.
+	 * 
+	 * @param error
+	 *            Determines whether the shutdown is caused by an error.
+	 */
+	public void shutdown(final boolean error) {
+		final Thread thread;
+		synchronized (this) {
+			thread = this.consumerThread;
+		}
+		if (error) {
+			this.failed = true;
+			this.discardQueuedData();
+		}
+		if ((thread == null) || (thread == Thread.currentThread())) { // NOPMD (CompareObjectsWithEquals)
+			// the thread has either never been started or is shutting down the analysis by itself
+			this.stopped = true;
+			this.discardQueuedData();
+			return;
+		}
+		try {
+			this.queue.put(END_OF_DATA);
+			thread.join();
+		} catch (final InterruptedException ex) {
+			LOG.warn("Interrupted while waiting for the asynchronous input ports of " + this.plugin.getName() + " to terminate", ex);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Delivers the queued data to the input ports until the end of the data is reached.
+	 */
+	@Override
+	public void run() {
+		try {
+			while (!this.stopped) {
+				final Entry entry = this.queue.take();
+				if (entry == END_OF_DATA) { // NOPMD (CompareObjectsWithEquals)
+					return;
+				}
+				entry.inputPort.release();
+				if (!this.failed && !entry.inputPort.invoke(entry.data)) {
+					this.fail();
+				}
+			}
+		} catch (final InterruptedException ex) {
+			LOG.warn("Asynchronous input ports of " + this.plugin.getName() + " have been interrupted", ex);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Removes all queued data (but not the end of the data) and releases the permits of the input ports, such that blocked plugins can continue.
+	 */
+	private void discardQueuedData() {
+		boolean endOfData = false;
+		Entry entry = this.queue.poll();
+		while (entry != null) {
+			if (entry == END_OF_DATA) { // NOPMD (CompareObjectsWithEquals)
+				endOfData = true;
+			} else {
+				entry.inputPort.release();
+			}
+			entry = this.queue.poll();
+		}
+		if (endOfData) {
+			this.queue.add(END_OF_DATA);
+		}
+	}
+
+	private void fail() {
+		this.failed = true;
+		this.discardQueuedData();
+		if (this.projectContext instanceof IAnalysisController) {
+			((IAnalysisController) this.projectContext).terminate(true);
+		}
+	}
+
+	/**
+	 * Data queued for an input port.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	private static final class Entry {
+		final AsynchronousInputPort inputPort; // NOCS (package visible for outer class)
+		final Object data; // NOCS (package visible for outer class)
+
+		public Entry(final AsynchronousInputPort inputPort, final Object data) {
+			this.inputPort = inputPort;
+			this.data = data;
+		}
+	}
+}
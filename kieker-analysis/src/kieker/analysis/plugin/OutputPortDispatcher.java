@@ -0,0 +1,163 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.analysis.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import kieker.analysis.plugin.IPlugin.PluginInputPortReference;
+
+/**
+ * The dispatch table of a single output port. The receivers of an output port are compiled into an array once a connection is established. Moreover, the
+ * receivers which accept a specific data type are determined only once per concrete type and are cached afterwards. This avoids repeated type checks of every
+ * event type of every connected input port for each delivered object.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+final class OutputPortDispatcher {
+
+	private static final Target[] NO_TARGETS = new Target[0];
+	private static final PluginInputPortReference[] NO_REFERENCES = new PluginInputPortReference[0];
+
+	private final Class<?>[] outTypes;
+	private final ConcurrentHashMap<Class<?>, Target[]> targetCache = new ConcurrentHashMap<Class<?>, Target[]>();
+	private final List<PluginInputPortReference> references = new ArrayList<PluginInputPortReference>(1);
+	private volatile PluginInputPortReference[] compiledReferences = NO_REFERENCES;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 * 
+	 * @param outTypes
+	 *            The event types of the output port. An empty array means that the port accepts every object.
+	 */
+	public OutputPortDispatcher(final Class<?>[] outTypes) {
+		this.outTypes = OutputPortDispatcher.normalizeEventTypes(outTypes);
+	}
+
+	/**
+	 * Adds a new receiver to this output port and recompiles the dispatch table.
+	 * 
+	 * @param reference
+	 *            The input port to be added.
+	 */
+	public synchronized void addReference(final PluginInputPortReference reference) {
+		this.references.add(reference);
+		this.compiledReferences = this.references.toArray(new PluginInputPortReference[this.references.size()]);
+		this.targetCache.clear();
+	}
+
+	/**
+	 * @return A copy of all receivers of this output port.
+	 */
+	public List<PluginInputPortReference> getReferences() {
+		final PluginInputPortReference[] currentReferences = this.compiledReferences;
+		final List<PluginInputPortReference> result = new ArrayList<PluginInputPortReference>(currentReferences.length);
+		for (final PluginInputPortReference reference : currentReferences) {
+			result.add(reference);
+		}
+		return result;
+	}
+
+	/**
+	 * Delivers the receivers of the given type of data.
+	 * 
+	 * @param dataType
+	 *            The concrete class of the data to be delivered.
+	 * @return The input ports accepting the data or null if the data does not suit the event types of the output port. The returned array must not be modified.
+	 */
+	public Target[] getTargets(final Class<?> dataType) {
+		final Target[] cachedTargets = this.targetCache.get(dataType);
+		if (cachedTargets != null) {
+			return (cachedTargets == NO_TARGETS) ? null : cachedTargets; // NOPMD (CompareObjectsWithEquals)
+		}
+		// Read the references only once to stay consistent with concurrent connections.
+		final PluginInputPortReference[] currentReferences = this.compiledReferences;
+		final Target[] targets = OutputPortDispatcher.computeTargets(this.outTypes, currentReferences, dataType);
+		if (currentReferences == this.compiledReferences) { // NOPMD (CompareObjectsWithEquals)
+			this.targetCache.put(dataType, (targets == null) ? NO_TARGETS : targets);
+		}
+		return targets;
+	}
+
+	private static Target[] computeTargets(final Class<?>[] outTypes, final PluginInputPortReference[] references, final Class<?> dataType) {
+		if (!OutputPortDispatcher.isAssignable(outTypes, dataType)) {
+			return null; // NOPMD (null marks a type mismatch)
+		}
+		final List<Target> targets = new ArrayList<Target>(references.length);
+		for (final PluginInputPortReference reference : references) {
+			if (OutputPortDispatcher.isAssignable(OutputPortDispatcher.normalizeEventTypes(reference.getEventTypes()), dataType)) {
+				final AsynchronousInputPort asynchronousInputPort = ((AbstractPlugin) reference.getPlugin()).getAsynchronousInputPort(reference.getInputPortName());
+				targets.add(new Target(reference, asynchronousInputPort));
+			}
+		}
+		return targets.toArray(new Target[targets.size()]);
+	}
+
+	private static boolean isAssignable(final Class<?>[] eventTypes, final Class<?> dataType) {
+		for (final Class<?> eventType : eventTypes) {
+			if (eventType.isAssignableFrom(dataType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Class<?>[] normalizeEventTypes(final Class<?>[] eventTypes) {
+		if (eventTypes.length == 0) {
+			return new Class<?>[] { Object.class };
+		}
+		return eventTypes;
+	}
+
+	/**
+	 * A single receiver of an output port.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	static final class Target {
+
+		private final PluginInputPortReference reference;
+		private final AsynchronousInputPort asynchronousInputPort;
+
+		/**
+		 * Creates a new instance of this class using the given parameters.
+		 * 
+		 * @param reference
+		 *            The receiving input port.
+		 * @param asynchronousInputPort
+		 *            The queue of the receiving input port or null if the input port is synchronous.
+		 */
+		public Target(final PluginInputPortReference reference, final AsynchronousInputPort asynchronousInputPort) {
+			this.reference = reference;
+			this.asynchronousInputPort = asynchronousInputPort;
+		}
+
+		public PluginInputPortReference getReference() {
+			return this.reference;
+		}
+
+		public AsynchronousInputPort getAsynchronousInputPort() {
+			return this.asynchronousInputPort;
+		}
+	}
+}
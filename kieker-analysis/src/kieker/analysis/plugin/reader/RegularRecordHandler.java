@@ -75,7 +75,8 @@ public class RegularRecordHandler implements Runnable {
 	}
 
 	/**
-	 * Enqueues an unparsed regular record for processing.
+	 * Enqueues an unparsed regular record for processing. The buffer may also contain a batch of regular records sharing the same string registry, i.e., the
+	 * registry id is followed by several records until the end of the buffer.
 	 *
 	 * @param buffer
 	 *            The unparsed data in an appropriately positioned byte buffer
@@ -94,18 +95,20 @@ public class RegularRecordHandler implements Runnable {
 
 	private void readRegularRecord(final ByteBuffer buffer) {
 		final long registryId = buffer.getLong();
-		final int classId = buffer.getInt();
-		final long loggingTimestamp = buffer.getLong();
-
 		final ILookup<String> stringRegistry = this.getStringRegistry(registryId);
 
 		try {
-			final String recordClassName = stringRegistry.get(classId);
-			final IRecordFactory<? extends IMonitoringRecord> recordFactory = this.cachedRecordFactoryCatalog.get(recordClassName);
-			final IMonitoringRecord record = recordFactory.create(buffer, stringRegistry);
-			record.setLoggingTimestamp(loggingTimestamp);
+			do {
+				final int classId = buffer.getInt();
+				final long loggingTimestamp = buffer.getLong();
+
+				final String recordClassName = stringRegistry.get(classId);
+				final IRecordFactory<? extends IMonitoringRecord> recordFactory = this.cachedRecordFactoryCatalog.get(recordClassName);
+				final IMonitoringRecord record = recordFactory.create(buffer, stringRegistry);
+				record.setLoggingTimestamp(loggingTimestamp);
 
-			this.reader.deliverRecord(record);
+				this.reader.deliverRecord(record);
+			} while (buffer.hasRemaining());
 		} catch (final RecordInstantiationException e) {
 			LOG.error("Error instantiating record", e);
 		}
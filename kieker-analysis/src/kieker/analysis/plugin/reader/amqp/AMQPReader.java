@@ -73,6 +73,9 @@ public final class AMQPReader extends AbstractStringRegistryReaderPlugin {
 	/** ID for regular records. */
 	private static final byte REGULAR_RECORD_ID = (byte) 0x01;
 
+	/** ID for batches of regular records. */
+	private static final byte BATCH_RECORD_ID = (byte) 0x02;
+
 	private final String uri;
 	private final String queueName;
 	private final int heartbeat;
@@ -179,6 +182,7 @@ public final class AMQPReader extends AbstractStringRegistryReaderPlugin {
 					this.handleRegistryRecord(buffer);
 					break;
 				case REGULAR_RECORD_ID:
+				case BATCH_RECORD_ID: // the records of a batch share the envelope of a regular record
 					this.handleRegularRecord(buffer);
 					break;
 				default:
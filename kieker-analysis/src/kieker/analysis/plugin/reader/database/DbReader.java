@@ -21,6 +21,9 @@ import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
 
 import kieker.analysis.IProjectContext;
 import kieker.analysis.plugin.annotation.OutputPort;
@@ -31,9 +34,12 @@ import kieker.common.configuration.Configuration;
 import kieker.common.exception.MonitoringRecordException;
 import kieker.common.record.AbstractMonitoringRecord;
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
 
 /**
- * A very simple database reader that probably only works for small data sets.
+ * A database reader which streams the records of all record tables at once and merges them by their logging timestamps. Hence, the records are delivered in
+ * the order of their logging timestamps.
  * 
  * @author Jan Waller
  * 
@@ -49,7 +55,9 @@ import kieker.common.record.IMonitoringRecord;
 			@Property(name = DbReader.CONFIG_PROPERTY_NAME_CONNECTIONSTRING, defaultValue = "jdbc:derby:tmp/KIEKER;user=DBUSER;password=DBPASS",
 					description = "The connection string used to establish the connection."),
 			@Property(name = DbReader.CONFIG_PROPERTY_NAME_TABLEPREFIX, defaultValue = "kieker",
-					description = "The prefix of the used table within the database.")
+					description = "The prefix of the used table within the database."),
+			@Property(name = DbReader.CONFIG_PROPERTY_NAME_FETCHSIZE, defaultValue = "1000",
+					description = "The number of rows fetched from the database at once per table (0 leaves the decision to the driver).")
 		})
 public class DbReader extends AbstractReaderPlugin {
 
@@ -62,10 +70,15 @@ public class DbReader extends AbstractReaderPlugin {
 	public static final String CONFIG_PROPERTY_NAME_CONNECTIONSTRING = "ConnectionString";
 	/** The name of the property containing the prefix for the tables to read. */
 	public static final String CONFIG_PROPERTY_NAME_TABLEPREFIX = "TablePrefix";
+	/** The name of the property containing the number of rows fetched at once per table. */
+	public static final String CONFIG_PROPERTY_NAME_FETCHSIZE = "FetchSize";
 
 	private final String driverClassname;
 	private final String connectionString;
 	private final String tablePrefix;
+	private final int fetchSize;
+
+	private final CachedRecordFactoryCatalog recordFactories = CachedRecordFactoryCatalog.getInstance();
 
 	private volatile boolean running = true;
 
@@ -86,6 +99,7 @@ public class DbReader extends AbstractReaderPlugin {
 		this.driverClassname = configuration.getStringProperty(CONFIG_PROPERTY_NAME_DRIVERCLASSNAME);
 		this.connectionString = configuration.getStringProperty(CONFIG_PROPERTY_NAME_CONNECTIONSTRING);
 		this.tablePrefix = configuration.getStringProperty(CONFIG_PROPERTY_NAME_TABLEPREFIX);
+		this.fetchSize = configuration.getIntProperty(CONFIG_PROPERTY_NAME_FETCHSIZE);
 		try {
 			Class.forName(this.driverClassname).newInstance();
 		} catch (final Exception ex) { // NOPMD NOCS (IllegalCatchCheck)
@@ -99,39 +113,50 @@ public class DbReader extends AbstractReaderPlugin {
 	@Override
 	public boolean read() {
 		Connection connection = null;
+		final List<TableCursor> cursors = new ArrayList<TableCursor>();
 		try {
 			connection = DriverManager.getConnection(this.connectionString);
-			Statement getIndexTable = null;
-			try {
-				getIndexTable = connection.createStatement();
-				ResultSet indexTable = null;
-				try { // NOCS (nested try)
-					indexTable = getIndexTable.executeQuery("SELECT * from " + this.tablePrefix);
-					while (this.running && indexTable.next()) {
-						final String tablename = indexTable.getString(1);
-						final String classname = indexTable.getString(2);
-						try { // NOCS (nested try)
-							this.table2record(connection, tablename, AbstractMonitoringRecord.classForName(classname));
-						} catch (final MonitoringRecordException ex) {
-							// log error but continue with next table
-							this.log.error("Failed to load records of type " + classname + " from table " + tablename, ex);
-							continue;
-						}
-					}
-				} finally {
-					if (indexTable != null) {
-						indexTable.close();
+			// some drivers (e.g., PostgreSQL) only respect the fetch size within a transaction
+			connection.setAutoCommit(false);
+			final PriorityQueue<TableCursor> mergeQueue = new PriorityQueue<TableCursor>();
+			for (final String[] table : this.readIndexTable(connection)) {
+				final String tablename = table[0];
+				final String classname = table[1];
+				try {
+					final TableCursor cursor = this.openTable(connection, tablename, classname);
+					cursors.add(cursor);
+					if (cursor.next()) {
+						mergeQueue.add(cursor);
 					}
+				} catch (final MonitoringRecordException ex) {
+					// log error but continue with next table
+					this.log.error("Failed to load records of type " + classname + " from table " + tablename, ex);
 				}
-			} finally {
-				if (getIndexTable != null) {
-					getIndexTable.close();
+			}
+			while (this.running && !mergeQueue.isEmpty()) {
+				final TableCursor cursor = mergeQueue.poll();
+				super.deliver(OUTPUT_PORT_NAME_RECORDS, cursor.getRecord());
+				try {
+					if (cursor.next()) {
+						mergeQueue.add(cursor);
+					}
+				} catch (final MonitoringRecordException ex) {
+					// log error but continue with the remaining tables
+					this.log.error("Failed to load records of type " + cursor.getClassname() + " from table " + cursor.getTablename(), ex);
 				}
 			}
+			connection.commit();
 		} catch (final SQLException ex) {
 			this.log.error("SQLException with SQLState: '" + ex.getSQLState() + "' and VendorError: '" + ex.getErrorCode() + "'", ex);
 			return false;
 		} finally {
+			for (final TableCursor cursor : cursors) {
+				try {
+					cursor.close();
+				} catch (final SQLException ex) {
+					this.log.error("SQLException with SQLState: '" + ex.getSQLState() + "' and VendorError: '" + ex.getErrorCode() + "'", ex);
+				}
+			}
 			if (connection != null) {
 				try {
 					connection.close();
@@ -144,47 +169,66 @@ public class DbReader extends AbstractReaderPlugin {
 	}
 
 	/**
-	 * This method uses the given table to read records and sends them to the output port.
+	 * Reads the index table containing the names of the record tables and the classes of their records.
 	 * 
 	 * @param connection
 	 *            The connection to the database which will be used.
-	 * @param tablename
-	 *            The name of the table containing records.
-	 * @param clazz
-	 *            The class of the monitoring records. This will be used to convert the array into the record.
+	 * @return A list containing the name of the table and the name of the record class for each record table.
 	 * @throws SQLException
 	 *             If something went wrong during the database access.
-	 * @throws MonitoringRecordException
-	 *             If the data within the table could not be converted into a valid record.
 	 */
-	private void table2record(final Connection connection, final String tablename, final Class<? extends IMonitoringRecord> clazz) throws SQLException,
-			MonitoringRecordException {
-		Statement selectRecord = null;
+	private List<String[]> readIndexTable(final Connection connection) throws SQLException {
+		final List<String[]> tables = new ArrayList<String[]>();
+		Statement getIndexTable = null;
 		try {
-			selectRecord = connection.createStatement();
-			ResultSet records = null;
+			getIndexTable = connection.createStatement();
+			ResultSet indexTable = null;
 			try {
-				records = selectRecord.executeQuery("SELECT * from " + tablename);
-				final int size = records.getMetaData().getColumnCount() - 2; // remove index column
-				while (this.running && records.next()) {
-					final Object[] recordValues = new Object[size];
-					for (int i = 0; i < size; i++) {
-						recordValues[i] = records.getObject(i + 3);
-					}
-					final IMonitoringRecord record = AbstractMonitoringRecord.createFromArray(clazz, recordValues);
-					record.setLoggingTimestamp(records.getLong(2));
-					super.deliver(OUTPUT_PORT_NAME_RECORDS, record);
+				indexTable = getIndexTable.executeQuery("SELECT * from " + this.tablePrefix);
+				while (indexTable.next()) {
+					tables.add(new String[] { indexTable.getString(1), indexTable.getString(2), });
 				}
 			} finally {
-				if (records != null) {
-					records.close();
+				if (indexTable != null) {
+					indexTable.close();
 				}
 			}
 		} finally {
-			if (selectRecord != null) {
-				selectRecord.close();
+			if (getIndexTable != null) {
+				getIndexTable.close();
 			}
 		}
+		return tables;
+	}
+
+	/**
+	 * Opens a cursor on the given table delivering its records ordered by their logging timestamps.
+	 * 
+	 * @param connection
+	 *            The connection to the database which will be used.
+	 * @param tablename
+	 *            The name of the table containing records.
+	 * @param classname
+	 *            The name of the class of the monitoring records.
+	 * @return The cursor positioned before the first record.
+	 * @throws SQLException
+	 *             If something went wrong during the database access.
+	 * @throws MonitoringRecordException
+	 *             If the record class could not be found.
+	 */
+	private TableCursor openTable(final Connection connection, final String tablename, final String classname) throws SQLException, MonitoringRecordException {
+		final Class<?>[] types = AbstractMonitoringRecord.typesForClass(AbstractMonitoringRecord.classForName(classname));
+		final Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		try {
+			if (this.fetchSize > 0) {
+				statement.setFetchSize(this.fetchSize);
+			}
+			final ResultSet resultSet = statement.executeQuery("SELECT * from " + tablename + " ORDER BY timestamp, id");
+			return new TableCursor(tablename, classname, this.recordFactories.get(classname), types, statement, resultSet);
+		} catch (final SQLException ex) {
+			statement.close();
+			throw ex;
+		}
 	}
 
 	/**
@@ -205,7 +249,123 @@ public class DbReader extends AbstractReaderPlugin {
 		configuration.setProperty(CONFIG_PROPERTY_NAME_DRIVERCLASSNAME, this.driverClassname);
 		configuration.setProperty(CONFIG_PROPERTY_NAME_CONNECTIONSTRING, this.connectionString);
 		configuration.setProperty(CONFIG_PROPERTY_NAME_TABLEPREFIX, this.tablePrefix);
+		configuration.setProperty(CONFIG_PROPERTY_NAME_FETCHSIZE, Integer.toString(this.fetchSize));
 		return configuration;
 	}
 
+	/**
+	 * A cursor on the rows of a single record table. The cursors are ordered by the logging timestamp (and the id) of their current records.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	private static final class TableCursor implements Comparable<TableCursor> {
+		private final String tablename;
+		private final String classname;
+		private final IRecordFactory<? extends IMonitoringRecord> recordFactory;
+		private final Class<?>[] types;
+		private final Statement statement;
+		private final ResultSet resultSet;
+
+		private IMonitoringRecord record;
+		private long timestamp;
+		private long id;
+
+		public TableCursor(final String tablename, final String classname, final IRecordFactory<? extends IMonitoringRecord> recordFactory,
+				final Class<?>[] types, final Statement statement, final ResultSet resultSet) {
+			this.tablename = tablename;
+			this.classname = classname;
+			this.recordFactory = recordFactory;
+			this.types = types;
+			this.statement = statement;
+			this.resultSet = resultSet;
+		}
+
+		/**
+		 * Moves the cursor to the next row and creates its record.
+		 * 
+		 * @return true iff another record is available.
+		 * @throws SQLException
+		 *             If something went wrong during the database access.
+		 * @throws MonitoringRecordException
+		 *             If the row could not be converted into a valid record.
+		 */
+		public boolean next() throws SQLException, MonitoringRecordException {
+			final ResultSet rs = this.resultSet;
+			if (!rs.next()) {
+				return false;
+			}
+			this.id = rs.getLong(1);
+			this.timestamp = rs.getLong(2);
+			final Class<?>[] typesLocal = this.types;
+			final Object[] values = new Object[typesLocal.length];
+			for (int i = 0; i < typesLocal.length; i++) {
+				values[i] = TableCursor.getValue(rs, i + 3, typesLocal[i]);
+			}
+			try {
+				this.record = this.recordFactory.create(values);
+			} catch (final RuntimeException ex) { // NOPMD NOCS (the factories signal invalid values by runtime exceptions)
+				throw new MonitoringRecordException("Failed to create record of type " + this.classname, ex);
+			}
+			this.record.setLoggingTimestamp(this.timestamp);
+			return true;
+		}
+
+		/**
+		 * Reads a column using the getter matching the type of the record field instead of the (driver dependent) type returned by {@link ResultSet#getObject}.
+		 */
+		private static Object getValue(final ResultSet rs, final int column, final Class<?> type) throws SQLException {
+			if (type == String.class) {
+				return rs.getString(column);
+			} else if ((type == int.class) || (type == Integer.class)) {
+				return rs.getInt(column);
+			} else if ((type == long.class) || (type == Long.class)) {
+				return rs.getLong(column);
+			} else if ((type == float.class) || (type == Float.class)) {
+				return rs.getFloat(column);
+			} else if ((type == double.class) || (type == Double.class)) {
+				return rs.getDouble(column);
+			} else if ((type == byte.class) || (type == Byte.class)) {
+				return rs.getByte(column);
+			} else if ((type == short.class) || (type == Short.class)) { // NOPMD (short)
+				return rs.getShort(column);
+			} else if ((type == boolean.class) || (type == Boolean.class)) {
+				return rs.getBoolean(column);
+			} else {
+				return rs.getObject(column);
+			}
+		}
+
+		public IMonitoringRecord getRecord() {
+			return this.record;
+		}
+
+		public String getTablename() {
+			return this.tablename;
+		}
+
+		public String getClassname() {
+			return this.classname;
+		}
+
+		public void close() throws SQLException {
+			try {
+				this.resultSet.close();
+			} finally {
+				this.statement.close();
+			}
+		}
+
+		@Override
+		public int compareTo(final TableCursor other) {
+			if (this.timestamp != other.timestamp) {
+				return (this.timestamp < other.timestamp) ? -1 : 1; // NOCS (inline conditional)
+			}
+			if (this.id != other.id) {
+				return (this.id < other.id) ? -1 : 1; // NOCS (inline conditional)
+			}
+			return 0;
+		}
+	}
 }
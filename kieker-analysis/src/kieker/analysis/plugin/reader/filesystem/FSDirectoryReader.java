@@ -24,11 +24,17 @@ import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
 import kieker.common.exception.MonitoringRecordException;
@@ -37,8 +43,14 @@ import kieker.common.logging.LogFactory;
 import kieker.common.record.AbstractMonitoringRecord;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
 import kieker.common.util.filesystem.BinaryCompressionMethod;
+import kieker.common.util.filesystem.AsciiRecordCodec;
+import kieker.common.util.filesystem.BlockIndex;
+import kieker.common.util.filesystem.ColumnarArchiveReader;
 import kieker.common.util.filesystem.FSUtil;
+import kieker.common.util.registry.StringDictionary;
 
 /**
  * Reads the contents of a single file system log directory and passes the records to the registered receiver of type {@link IMonitoringRecordReceiver}.
@@ -52,15 +64,18 @@ final class FSDirectoryReader implements Runnable {
 
 	String filePrefix = FSUtil.FILE_PREFIX; // NOPMD NOCS (package visible for inner class)
 
-	private final Map<Integer, String> stringRegistry = new HashMap<Integer, String>(); // NOPMD (no synchronization needed)
+	private final StringDictionary stringRegistry = new StringDictionary();
 
 	private final IMonitoringRecordReceiver recordReceiver;
 	private final File inputDir;
 	private boolean terminated;
 
 	private final boolean ignoreUnknownRecordTypes;
+	private final boolean memoryMapBinaryFiles;
+	private final RecordRange range;
 	// This set of classes is used to filter only records of a specific type. The value null means all record types are read.
 	private final Set<String> unknownTypesObserved = new HashSet<String>();
+	private final AsciiRecordCodec asciiCodec = new AsciiRecordCodec();
 
 	/**
 	 * Creates a new instance of this class.
@@ -71,15 +86,21 @@ final class FSDirectoryReader implements Runnable {
 	 *            The receiver handling the records.
 	 * @param ignoreUnknownRecordTypes
 	 *            select only records of this type; null selects all
+	 * @param memoryMapBinaryFiles
+	 *            whether uncompressed binary files are read via memory mapping instead of input streams
+	 * @param range
+	 *            the selected records, used to skip blocks of indexed binary files
 	 */
 	public FSDirectoryReader(final File inputDir, final IMonitoringRecordReceiver recordReceiver,
-			final boolean ignoreUnknownRecordTypes) {
+			final boolean ignoreUnknownRecordTypes, final boolean memoryMapBinaryFiles, final RecordRange range) {
 		if ((inputDir == null) || !inputDir.isDirectory()) {
 			throw new IllegalArgumentException("Invalid or empty inputDir");
 		}
 		this.inputDir = inputDir;
 		this.recordReceiver = recordReceiver;
 		this.ignoreUnknownRecordTypes = ignoreUnknownRecordTypes;
+		this.memoryMapBinaryFiles = memoryMapBinaryFiles;
+		this.range = range;
 	}
 
 	/**
@@ -95,7 +116,8 @@ final class FSDirectoryReader implements Runnable {
 				final String name = pathname.getName();
 				return pathname.isFile()
 						&& name.startsWith(FSDirectoryReader.this.filePrefix)
-						&& (name.endsWith(FSUtil.NORMAL_FILE_EXTENSION) || BinaryCompressionMethod.hasValidFileExtension(name));
+						&& (name.endsWith(FSUtil.NORMAL_FILE_EXTENSION) || name.endsWith(FSUtil.MAPPED_BINARY_FILE_EXTENSION)
+								|| name.endsWith(FSUtil.COLUMNAR_FILE_EXTENSION) || BinaryCompressionMethod.hasValidFileExtension(name));
 			}
 		});
 		if (inputFiles == null) {
@@ -120,15 +142,28 @@ final class FSDirectoryReader implements Runnable {
 				LOG.info("< Loading " + inputFile.getAbsolutePath());
 				if (inputFile.getName().endsWith(FSUtil.NORMAL_FILE_EXTENSION)) {
 					this.processNormalInputFile(inputFile);
+				} else if (inputFile.getName().endsWith(FSUtil.COLUMNAR_FILE_EXTENSION)) {
+					this.processColumnarInputFile(inputFile);
 				} else {
 					if (this.ignoreUnknownRecordTypes && ignoreUnknownRecordTypesWarningAlreadyShown) {
 						ignoreUnknownRecordTypesWarningAlreadyShown = true;
 						LOG.warn("The property '" + FSReader.CONFIG_PROPERTY_NAME_IGNORE_UNKNOWN_RECORD_TYPES
 								+ "' is not supported for binary files. But trying to read '" + inputFile + "'");
 					}
+					if (inputFile.getName().endsWith(FSUtil.MAPPED_BINARY_FILE_EXTENSION)) {
+						this.processMappedBinaryInputFile(inputFile, true);
+						continue;
+					}
 					try {
 						final BinaryCompressionMethod method = BinaryCompressionMethod.getByFileExtension(inputFile.getName());
-						this.processBinaryInputFile(inputFile, method);
+						final BlockIndex index = this.readIndex(inputFile);
+						if (index != null) {
+							this.processIndexedBinaryInputFile(inputFile, method, index);
+						} else if (this.memoryMapBinaryFiles && (method == BinaryCompressionMethod.NONE) && (inputFile.length() <= Integer.MAX_VALUE)) {
+							this.processMappedBinaryInputFile(inputFile, false);
+						} else {
+							this.processBinaryInputFile(inputFile, method);
+						}
 					} catch (final IllegalArgumentException ex) {
 						LOG.warn("Unknown file extension for file " + inputFile);
 						continue;
@@ -217,7 +252,14 @@ final class FSDirectoryReader implements Runnable {
 				if (line.length() == 0) {
 					continue; // ignore empty lines
 				}
-				IMonitoringRecord record = null;
+				IMonitoringRecord record = this.readRecord(line);
+				if (record != null) {
+					if (!this.recordReceiver.newMonitoringRecord(record)) {
+						this.terminated = true;
+						break; // we got the signal to stop processing
+					}
+					continue;
+				}
 				final String[] recordFields = line.split(";");
 				try {
 					if (recordFields[0].charAt(0) == '$') { // modern record
@@ -291,6 +333,32 @@ final class FSDirectoryReader implements Runnable {
 		}
 	}
 
+	/**
+	 * Reads the given line of an ASCII file using the {@link AsciiRecordCodec}.
+	 * 
+	 * @param line
+	 *            The line to read.
+	 * 
+	 * @return The record or null if the line has to be read with the generic methods (e.g., legacy or unknown record types, or malformed lines).
+	 */
+	private final IMonitoringRecord readRecord(final String line) {
+		final int classId = AsciiRecordCodec.parseClassId(line);
+		if (classId < 0) {
+			return null;
+		}
+		final String classname = this.stringRegistry.get(classId);
+		if (classname == null) {
+			return null;
+		}
+		final Class<? extends IMonitoringRecord> clazz;
+		try {
+			clazz = AbstractMonitoringRecord.classForName(classname);
+		} catch (final MonitoringRecordException ex) { // NOPMD (the error is reported by the generic methods)
+			return null;
+		}
+		return this.asciiCodec.read(line, line.indexOf(';') + 1, clazz);
+	}
+
 	/**
 	 * Reads the records contained in the given binary file and passes them to the registered {@link #recordReceiver}.
 	 * 
@@ -376,4 +444,219 @@ final class FSDirectoryReader implements Runnable {
 			}
 		}
 	}
+
+	/**
+	 * Reads the records contained in the given uncompressed binary file via memory mapping and passes them to the registered {@link #recordReceiver}. The records
+	 * are created directly from the mapped file by the record factories, i.e., without copying the data into intermediate streams or arrays.
+	 * 
+	 * @param inputFile
+	 *            The input file which should be processed.
+	 * @param withHeader
+	 *            Whether the file is a memory-mapped segment starting with a header containing the number of valid bytes.
+	 */
+	private final void processMappedBinaryInputFile(final File inputFile, final boolean withHeader) {
+		RandomAccessFile file = null;
+		try {
+			file = new RandomAccessFile(inputFile, "r");
+			final FileChannel channel = file.getChannel();
+			final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if (withHeader) {
+				if (buffer.remaining() < FSUtil.MAPPED_BINARY_HEADER_SIZE) {
+					LOG.error("Missing header in memory-mapped segment " + inputFile);
+					return;
+				}
+				final long usedBytes = buffer.getLong();
+				buffer.limit((int) Math.min(buffer.capacity(), FSUtil.MAPPED_BINARY_HEADER_SIZE + usedBytes));
+			}
+			this.processBinaryBuffer(buffer);
+		} catch (final BufferUnderflowException ex) {
+			LOG.error("Incomplete record at the end of " + inputFile, ex);
+		} catch (final Exception ex) { // NOPMD NOCS (catch Exception)
+			LOG.error("Error reading " + inputFile, ex);
+		} finally {
+			if (file != null) {
+				try {
+					file.close();
+				} catch (final IOException ex) {
+					LOG.error("Exception while closing input file", ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the records contained in the given buffer and passes them to the registered {@link #recordReceiver}.
+	 * 
+	 * @param buffer
+	 *            The buffer containing complete records between its position and its limit.
+	 * 
+	 * @return true if all records have been processed or the remaining records of an ignored unknown record type have been skipped; false on errors or if
+	 *         the processing should be stopped
+	 */
+	private final boolean processBinaryBuffer(final ByteBuffer buffer) {
+		final CachedRecordFactoryCatalog catalog = CachedRecordFactoryCatalog.getInstance();
+		while (buffer.hasRemaining()) {
+			final int id = buffer.getInt();
+			final String classname = this.stringRegistry.get(id);
+			if (classname == null) {
+				LOG.error("Missing classname mapping for record type id " + "'" + id + "'");
+				return false; // we can't easily recover on errors
+			}
+			try {
+				AbstractMonitoringRecord.classForName(classname);
+			} catch (final MonitoringRecordException ex) {
+				if (!this.ignoreUnknownRecordTypes) {
+					this.terminated = true;
+					LOG.error("Failed to load record type " + classname, ex);
+				} else if (!this.unknownTypesObserved.contains(classname)) {
+					LOG.error("Failed to load record type " + classname, ex); // log once for this type
+					this.unknownTypesObserved.add(classname);
+				}
+				// the size of an unknown record is unknown, so the remaining records of the buffer cannot be read
+				LOG.warn("Skipping the remaining records of the buffer after the unknown record type " + classname);
+				return this.ignoreUnknownRecordTypes;
+			}
+			final IRecordFactory<? extends IMonitoringRecord> recordFactory = catalog.get(classname);
+			final long loggingTimestamp = buffer.getLong();
+			final IMonitoringRecord record = recordFactory.create(buffer, this.stringRegistry);
+			record.setLoggingTimestamp(loggingTimestamp);
+			if (!this.recordReceiver.newMonitoringRecord(record)) {
+				this.terminated = true;
+				return false; // we got the signal to stop processing
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the records contained in the given columnar archive and passes them to the registered {@link #recordReceiver}. The records of each row group are
+	 * passed ordered by their logging timestamps. Row groups outside of the selected timestamps are skipped without reading them.
+	 * 
+	 * @param inputFile
+	 *            The input file which should be processed.
+	 */
+	private final void processColumnarInputFile(final File inputFile) {
+		ColumnarArchiveReader archive = null;
+		try {
+			archive = new ColumnarArchiveReader(inputFile);
+			final int numberOfRowGroups = archive.getNumberOfRowGroups();
+			if (!archive.isComplete()) {
+				LOG.warn(inputFile + " has not been closed properly; reading its " + numberOfRowGroups + " complete row groups");
+			}
+			for (int rowGroup = 0; (rowGroup < numberOfRowGroups) && !this.terminated; rowGroup++) {
+				if (!this.range.selectsTimestamps(archive.getMinTimestamp(rowGroup), archive.getMaxTimestamp(rowGroup))) {
+					continue;
+				}
+				final List<IMonitoringRecord> records = archive.readRecords(rowGroup);
+				Collections.sort(records);
+				for (final IMonitoringRecord record : records) {
+					if (!this.recordReceiver.newMonitoringRecord(record)) {
+						this.terminated = true;
+						break; // we got the signal to stop processing
+					}
+				}
+			}
+		} catch (final Exception ex) { // NOPMD NOCS (catch Exception)
+			LOG.error("Error reading " + inputFile, ex);
+		} finally {
+			if (archive != null) {
+				try {
+					archive.close();
+				} catch (final IOException ex) {
+					LOG.error("Exception while closing input file", ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the block index of the given binary file if the index is of use, i.e., if not all records are selected.
+	 * 
+	 * @param inputFile
+	 *            The binary input file.
+	 * 
+	 * @return the index or null if the file should be read without index
+	 */
+	private final BlockIndex readIndex(final File inputFile) {
+		if (this.range.selectsAll()) {
+			return null;
+		}
+		final File indexFile = BlockIndex.getIndexFile(inputFile);
+		if (!indexFile.isFile()) {
+			return null;
+		}
+		try {
+			return BlockIndex.read(indexFile);
+		} catch (final IOException ex) {
+			LOG.warn("Failed to read index " + indexFile + ". Reading the whole file instead.", ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the records of the blocks of the given binary file which may contain selected records and passes them to the registered {@link #recordReceiver}.
+	 * All other blocks are skipped without decoding them. Uncompressed files are skipped by seeking; compressed files still have to be decompressed.
+	 * 
+	 * @param inputFile
+	 *            The input file which should be processed.
+	 * @param method
+	 *            The compression method of the input file.
+	 * @param index
+	 *            The block index of the input file.
+	 */
+	private final void processIndexedBinaryInputFile(final File inputFile, final BinaryCompressionMethod method, final BlockIndex index) {
+		DataInputStream in = null;
+		try {
+			in = method.getDataInputStream(inputFile, 1024 * 1024); // 1 MiB buffer
+			byte[] bytes = new byte[0];
+			long position = 0;
+			int skippedBlocks = 0;
+			for (final BlockIndex.Block block : index.getBlocks()) {
+				final int length = block.getLength();
+				FSDirectoryReader.skipFully(in, block.getOffset() - position);
+				if (this.range.selects(block)) {
+					if (bytes.length < length) {
+						bytes = new byte[length];
+					}
+					in.readFully(bytes, 0, length);
+					if (!this.processBinaryBuffer(ByteBuffer.wrap(bytes, 0, length))) {
+						return;
+					}
+				} else {
+					FSDirectoryReader.skipFully(in, length);
+					skippedBlocks++;
+				}
+				position = block.getOffset() + length;
+			}
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Skipped " + skippedBlocks + " of " + index.getBlocks().size() + " blocks of " + inputFile);
+			}
+		} catch (final BufferUnderflowException ex) {
+			LOG.error("Incomplete record in " + inputFile, ex);
+		} catch (final Exception ex) { // NOPMD NOCS (catch Exception)
+			LOG.error("Error reading " + inputFile, ex);
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (final IOException ex) {
+					LOG.error("Exception while closing input stream for processing input file", ex);
+				}
+			}
+		}
+	}
+
+	private static void skipFully(final DataInputStream in, final long numberOfBytes) throws IOException {
+		long remaining = numberOfBytes;
+		while (remaining > 0) {
+			final long skipped = in.skip(remaining);
+			if (skipped > 0) {
+				remaining -= skipped;
+			} else if (in.read() < 0) { // skip might return 0 before the end of the stream
+				throw new EOFException("Unexpected end of stream");
+			} else {
+				remaining--;
+			}
+		}
+	}
 }
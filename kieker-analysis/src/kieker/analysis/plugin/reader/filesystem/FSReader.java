@@ -17,7 +17,13 @@
 package kieker.analysis.plugin.reader.filesystem;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import kieker.analysis.IProjectContext;
 import kieker.analysis.plugin.annotation.OutputPort;
@@ -30,7 +36,12 @@ import kieker.common.record.misc.EmptyRecord;
 import kieker.common.util.filesystem.FSUtil;
 
 /**
- * Filesystem reader which reads from multiple directories simultaneously ordered by the logging timestamp.
+ * Filesystem reader which reads from multiple directories simultaneously ordered by the logging timestamp. Each directory is read by its own thread which
+ * passes the records in batches to a bounded buffer. The records of all buffers are merged by the logging timestamp.
+ * 
+ * <p>
+ * Optionally, only records within a range of logging timestamps and trace ids are read. Blocks of binary files outside of these ranges are skipped without
+ * decoding them if the file has a block index (see {@link kieker.common.util.filesystem.BlockIndex}).
  * 
  * @author Andre van Hoorn, Jan Waller
  * 
@@ -43,9 +54,19 @@ import kieker.common.util.filesystem.FSUtil;
 			@Property(name = FSReader.CONFIG_PROPERTY_NAME_INPUTDIRS, defaultValue = ".",
 					description = "The name of the input dirs used to read data (multiple dirs are separated by |)."),
 			@Property(name = FSReader.CONFIG_PROPERTY_NAME_IGNORE_UNKNOWN_RECORD_TYPES, defaultValue = "false",
-					description = "Ignore unknown records? Aborts if encountered and value is false.")
+					description = "Ignore unknown records? Aborts if encountered and value is false."),
+			@Property(name = FSReader.CONFIG_PROPERTY_NAME_MEMORY_MAP_BINARY_FILES, defaultValue = "false",
+					description = "Read uncompressed binary files via memory mapping? Memory-mapped segments (.mbin) are always read this way."),
+			@Property(name = FSReader.CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TIMESTAMP, defaultValue = FSReader.CONFIG_PROPERTY_VALUE_MIN,
+					description = "Records with a lower logging timestamp are ignored."),
+			@Property(name = FSReader.CONFIG_PROPERTY_NAME_IGNORE_AFTER_TIMESTAMP, defaultValue = FSReader.CONFIG_PROPERTY_VALUE_MAX,
+					description = "Records with a higher logging timestamp are ignored."),
+			@Property(name = FSReader.CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TRACE_ID, defaultValue = FSReader.CONFIG_PROPERTY_VALUE_MIN,
+					description = "Records with a lower trace id are ignored (records without a trace id are not affected)."),
+			@Property(name = FSReader.CONFIG_PROPERTY_NAME_IGNORE_AFTER_TRACE_ID, defaultValue = FSReader.CONFIG_PROPERTY_VALUE_MAX,
+					description = "Records with a higher trace id are ignored (records without a trace id are not affected).")
 		})
-public class FSReader extends AbstractReaderPlugin implements IMonitoringRecordReceiver {
+public class FSReader extends AbstractReaderPlugin {
 
 	/** The name of the output port delivering the record read by this plugin. */
 	public static final String OUTPUT_PORT_NAME_RECORDS = "monitoringRecords";
@@ -54,14 +75,41 @@ public class FSReader extends AbstractReaderPlugin implements IMonitoringRecordR
 	public static final String CONFIG_PROPERTY_NAME_INPUTDIRS = "inputDirs";
 	/** The name of the configuration determining whether the reader ignores unknown record types or not. */
 	public static final String CONFIG_PROPERTY_NAME_IGNORE_UNKNOWN_RECORD_TYPES = "ignoreUnknownRecordTypes";
+	/** The name of the configuration determining whether uncompressed binary files are read via memory mapping. */
+	public static final String CONFIG_PROPERTY_NAME_MEMORY_MAP_BINARY_FILES = "memoryMapBinaryFiles";
+	/** The name of the configuration determining the lowest logging timestamp of the read records. */
+	public static final String CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TIMESTAMP = "ignoreBeforeTimestamp";
+	/** The name of the configuration determining the highest logging timestamp of the read records. */
+	public static final String CONFIG_PROPERTY_NAME_IGNORE_AFTER_TIMESTAMP = "ignoreAfterTimestamp";
+	/** The name of the configuration determining the lowest trace id of the read records. */
+	public static final String CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TRACE_ID = "ignoreBeforeTraceId";
+	/** The name of the configuration determining the highest trace id of the read records. */
+	public static final String CONFIG_PROPERTY_NAME_IGNORE_AFTER_TRACE_ID = "ignoreAfterTraceId";
+
+	/** The default value for the lower bounds. */
+	public static final String CONFIG_PROPERTY_VALUE_MIN = "-9223372036854775808"; // Long.toString(Long.MIN_VALUE)
+	/** The default value for the upper bounds. */
+	public static final String CONFIG_PROPERTY_VALUE_MAX = "9223372036854775807"; // Long.toString(Long.MAX_VALUE)
 
 	/** This dummy record can be send to the reader's record queue to mark the end of the current file. */
 	public static final IMonitoringRecord EOF = new EmptyRecord();
 
+	/** The number of records a reader thread passes to the merge at once. */
+	private static final int BATCH_SIZE = 1024;
+	/** The number of batches buffered for each input directory. */
+	private static final int BATCHES_PER_DIRECTORY = 4;
+	/** The time to wait for a batch or for free space before checking whether the reader is still running (in milliseconds). */
+	private static final long BATCH_TIMEOUT = 100;
+
 	private final boolean ignoreUnknownRecordTypes;
+	private final boolean memoryMapBinaryFiles;
+	private final long ignoreBeforeTimestamp;
+	private final long ignoreAfterTimestamp;
+	private final long ignoreBeforeTraceId;
+	private final long ignoreAfterTraceId;
+	private final RecordRange range;
 
 	private final String[] inputDirs;
-	private final PriorityQueue<IMonitoringRecord> recordQueue;
 
 	private volatile boolean running = true;
 
@@ -77,7 +125,7 @@ public class FSReader extends AbstractReaderPlugin implements IMonitoringRecordR
 		super(configuration, projectContext);
 
 		this.inputDirs = this.configuration.getStringArrayProperty(CONFIG_PROPERTY_NAME_INPUTDIRS);
-		int nDirs = this.inputDirs.length;
+		final int nDirs = this.inputDirs.length;
 		for (int i = 0; i < nDirs; i++) {
 			// Workaround for #1323
 			if (!".".equals(this.inputDirs[i])) {
@@ -86,10 +134,14 @@ public class FSReader extends AbstractReaderPlugin implements IMonitoringRecordR
 		}
 		if (nDirs == 0) {
 			this.log.warn("The list of input dirs passed to the " + FSReader.class.getSimpleName() + " is empty");
-			nDirs = 1;
 		}
-		this.recordQueue = new PriorityQueue<IMonitoringRecord>(nDirs);
 		this.ignoreUnknownRecordTypes = this.configuration.getBooleanProperty(CONFIG_PROPERTY_NAME_IGNORE_UNKNOWN_RECORD_TYPES);
+		this.memoryMapBinaryFiles = this.configuration.getBooleanProperty(CONFIG_PROPERTY_NAME_MEMORY_MAP_BINARY_FILES);
+		this.ignoreBeforeTimestamp = this.configuration.getLongProperty(CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TIMESTAMP);
+		this.ignoreAfterTimestamp = this.configuration.getLongProperty(CONFIG_PROPERTY_NAME_IGNORE_AFTER_TIMESTAMP);
+		this.ignoreBeforeTraceId = this.configuration.getLongProperty(CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TRACE_ID);
+		this.ignoreAfterTraceId = this.configuration.getLongProperty(CONFIG_PROPERTY_NAME_IGNORE_AFTER_TRACE_ID);
+		this.range = new RecordRange(this.ignoreBeforeTimestamp, this.ignoreAfterTimestamp, this.ignoreBeforeTraceId, this.ignoreAfterTraceId);
 	}
 
 	/**
@@ -107,66 +159,41 @@ public class FSReader extends AbstractReaderPlugin implements IMonitoringRecordR
 	@Override
 	public boolean read() {
 		// start all reader
-		int notInitializesReaders = 0;
+		final List<BufferedRecordSource> sources = new ArrayList<BufferedRecordSource>(this.inputDirs.length);
 		for (final String inputDirFn : this.inputDirs) {
 			// Make sure that white spaces in paths are handled correctly
 			final File inputDir = new File(inputDirFn);
 
+			final BufferedRecordSource source = new BufferedRecordSource();
 			final Thread readerThread;
 			if (inputDir.isDirectory()) {
-				readerThread = new Thread(new FSDirectoryReader(inputDir, this, this.ignoreUnknownRecordTypes));
+				readerThread = new Thread(new FSDirectoryReader(inputDir, source, this.ignoreUnknownRecordTypes, this.memoryMapBinaryFiles,
+						this.range));
 			} else if (inputDir.isFile() && inputDirFn.endsWith(FSUtil.ZIP_FILE_EXTENSION)) {
-				readerThread = new Thread(new FSZipReader(inputDir, this, this.ignoreUnknownRecordTypes));
+				readerThread = new Thread(new FSZipReader(inputDir, source, this.ignoreUnknownRecordTypes));
 			} else {
 				this.log.warn("Invalid Directory or filename (no Kieker log): " + inputDirFn);
-				notInitializesReaders++;
 				continue;
 			}
+			sources.add(source);
 			readerThread.setDaemon(true);
 			readerThread.start();
 		}
-		// consume incoming records
-		int readingReaders = this.inputDirs.length - notInitializesReaders;
-		while (readingReaders > 0) {
-			synchronized (this.recordQueue) { // with newMonitoringRecord()
-				while (this.recordQueue.size() < readingReaders) {
-					try {
-						this.recordQueue.wait();
-					} catch (final InterruptedException ex) {
-						// ignore InterruptedException
-					}
-				}
-			}
-			final IMonitoringRecord record = this.recordQueue.remove();
-			synchronized (record) { // with newMonitoringRecord()
-				record.notifyAll();
-			}
-			if (record == EOF) { // NOPMD (CompareObjectsWithEquals)
-				readingReaders--;
-			} else {
-				super.deliver(OUTPUT_PORT_NAME_RECORDS, record);
+		// merge the incoming records: the queue contains each source with remaining records ordered by the next record of the source
+		final PriorityQueue<BufferedRecordSource> mergeQueue = new PriorityQueue<BufferedRecordSource>(Math.max(1, sources.size()));
+		for (final BufferedRecordSource source : sources) {
+			if (source.advance()) {
+				mergeQueue.add(source);
 			}
 		}
-		return true;
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	public boolean newMonitoringRecord(final IMonitoringRecord record) {
-		synchronized (record) { // with read()
-			synchronized (this.recordQueue) { // with read()
-				this.recordQueue.add(record);
-				this.recordQueue.notifyAll();
-			}
-			try {
-				record.wait();
-			} catch (final InterruptedException ex) {
-				// ignore InterruptedException
+		while (!mergeQueue.isEmpty() && this.running) {
+			final BufferedRecordSource source = mergeQueue.remove();
+			super.deliver(OUTPUT_PORT_NAME_RECORDS, source.getRecord());
+			if (source.advance()) {
+				mergeQueue.add(source);
 			}
 		}
-		return this.running;
+		return true;
 	}
 
 	/**
@@ -177,8 +204,103 @@ public class FSReader extends AbstractReaderPlugin implements IMonitoringRecordR
 		final Configuration configuration = new Configuration();
 		configuration.setProperty(CONFIG_PROPERTY_NAME_INPUTDIRS, Configuration.toProperty(this.inputDirs));
 		configuration.setProperty(CONFIG_PROPERTY_NAME_IGNORE_UNKNOWN_RECORD_TYPES, Boolean.toString(this.ignoreUnknownRecordTypes));
+		configuration.setProperty(CONFIG_PROPERTY_NAME_MEMORY_MAP_BINARY_FILES, Boolean.toString(this.memoryMapBinaryFiles));
+		configuration.setProperty(CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TIMESTAMP, Long.toString(this.ignoreBeforeTimestamp));
+		configuration.setProperty(CONFIG_PROPERTY_NAME_IGNORE_AFTER_TIMESTAMP, Long.toString(this.ignoreAfterTimestamp));
+		configuration.setProperty(CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TRACE_ID, Long.toString(this.ignoreBeforeTraceId));
+		configuration.setProperty(CONFIG_PROPERTY_NAME_IGNORE_AFTER_TRACE_ID, Long.toString(this.ignoreAfterTraceId));
 		return configuration;
 	}
+
+	/**
+	 * Receives the records of a single reader thread and buffers them in batches for the merge. The reader thread and the merging thread only synchronize
+	 * once per batch.
+	 */
+	private final class BufferedRecordSource implements IMonitoringRecordReceiver, Comparable<BufferedRecordSource> {
+		private final BlockingQueue<IMonitoringRecord[]> batches = new ArrayBlockingQueue<IMonitoringRecord[]>(BATCHES_PER_DIRECTORY);
+
+		// accessed by the reader thread only
+		private IMonitoringRecord[] fillBatch = new IMonitoringRecord[BATCH_SIZE];
+		private int fillIndex;
+		private boolean finished;
+
+		// accessed by the merging thread only
+		private IMonitoringRecord[] readBatch;
+		private int readIndex;
+		private IMonitoringRecord record;
+
+		BufferedRecordSource() {
+			// default constructor
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean newMonitoringRecord(final IMonitoringRecord newRecord) {
+			if (this.finished) {
+				return false;
+			}
+			if ((newRecord != EOF) && !FSReader.this.range.selects(newRecord)) { // NOPMD (CompareObjectsWithEquals)
+				return FSReader.this.running;
+			}
+			this.fillBatch[this.fillIndex++] = newRecord;
+			if (newRecord == EOF) { // NOPMD (CompareObjectsWithEquals)
+				this.finished = true;
+				this.passBatch();
+			} else if (this.fillIndex == BATCH_SIZE) {
+				this.passBatch();
+			}
+			return FSReader.this.running;
+		}
+
+		private void passBatch() {
+			final IMonitoringRecord[] batch = (this.fillIndex == BATCH_SIZE) ? this.fillBatch : Arrays.copyOf(this.fillBatch, this.fillIndex); // NOCS
+			this.fillBatch = new IMonitoringRecord[BATCH_SIZE];
+			this.fillIndex = 0;
+			boolean passed = false;
+			while (!passed && FSReader.this.running) {
+				try {
+					passed = this.batches.offer(batch, BATCH_TIMEOUT, TimeUnit.MILLISECONDS);
+				} catch (final InterruptedException ex) {
+					// ignore InterruptedException
+				}
+			}
+		}
+
+		/**
+		 * Moves on to the next record of this source, waiting for the next batch if necessary.
+		 * 
+		 * @return true if there is a next record; false if the end of the source is reached or the reader is terminated.
+		 */
+		boolean advance() {
+			if ((this.readBatch == null) || (this.readIndex == this.readBatch.length)) {
+				this.readBatch = null;
+				while ((this.readBatch == null) && FSReader.this.running) {
+					try {
+						this.readBatch = this.batches.poll(BATCH_TIMEOUT, TimeUnit.MILLISECONDS);
+					} catch (final InterruptedException ex) {
+						// ignore InterruptedException
+					}
+				}
+				if (this.readBatch == null) {
+					return false;
+				}
+				this.readIndex = 0;
+			}
+			this.record = this.readBatch[this.readIndex++];
+			return this.record != EOF; // NOPMD (CompareObjectsWithEquals)
+		}
+
+		IMonitoringRecord getRecord() {
+			return this.record;
+		}
+
+		@Override
+		public int compareTo(final BufferedRecordSource other) {
+			return this.record.compareTo(other.record);
+		}
+	}
 }
 
 /**
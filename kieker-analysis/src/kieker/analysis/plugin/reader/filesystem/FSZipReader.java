@@ -38,6 +38,7 @@ import kieker.common.logging.LogFactory;
 import kieker.common.record.AbstractMonitoringRecord;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.util.filesystem.AsciiRecordCodec;
 import kieker.common.util.filesystem.FSUtil;
 
 /**
@@ -60,6 +61,7 @@ public final class FSZipReader implements Runnable {
 
 	// This set of classes is used to filter only records of a specific type. The value null means all record types are read.
 	private final Set<String> unknownTypesObserved = new HashSet<String>();
+	private final AsciiRecordCodec asciiCodec = new AsciiRecordCodec();
 
 	/**
 	 * Creates a new instance of this class.
@@ -246,7 +248,14 @@ public final class FSZipReader implements Runnable {
 				if (line.length() == 0) {
 					continue; // ignore empty lines
 				}
-				IMonitoringRecord record = null;
+				IMonitoringRecord record = this.readRecord(line);
+				if (record != null) {
+					if (!this.recordReceiver.newMonitoringRecord(record)) {
+						this.terminated = true;
+						break; // we got the signal to stop processing
+					}
+					continue;
+				}
 				final String[] recordFields = line.split(";");
 				try {
 					if (recordFields[0].charAt(0) == '$') { // modern record
@@ -311,6 +320,32 @@ public final class FSZipReader implements Runnable {
 		}
 	}
 
+	/**
+	 * Reads the given line of an ASCII file using the {@link AsciiRecordCodec}.
+	 * 
+	 * @param line
+	 *            The line to read.
+	 * 
+	 * @return The record or null if the line has to be read with the generic methods (e.g., legacy or unknown record types, or malformed lines).
+	 */
+	private final IMonitoringRecord readRecord(final String line) {
+		final int classId = AsciiRecordCodec.parseClassId(line);
+		if (classId < 0) {
+			return null;
+		}
+		final String classname = this.stringRegistry.get(classId);
+		if (classname == null) {
+			return null;
+		}
+		final Class<? extends IMonitoringRecord> clazz;
+		try {
+			clazz = AbstractMonitoringRecord.classForName(classname);
+		} catch (final MonitoringRecordException ex) { // NOPMD (the error is reported by the generic methods)
+			return null;
+		}
+		return this.asciiCodec.read(line, line.indexOf(';') + 1, clazz);
+	}
+
 	/**
 	 * Reads the mapping file located in the zip file.
 	 * 
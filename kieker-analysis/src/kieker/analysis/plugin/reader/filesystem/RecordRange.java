@@ -0,0 +1,103 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.plugin.reader.filesystem;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.filesystem.BlockIndex;
+
+/**
+ * The ranges of logging timestamps and trace ids selected by the {@link FSReader}. Records without a trace id only have to match the timestamp range. All
+ * bounds are inclusive.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+final class RecordRange {
+
+	private final long fromTimestamp;
+	private final long toTimestamp;
+	private final long fromTraceId;
+	private final long toTraceId;
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param fromTimestamp
+	 *            the lowest selected logging timestamp
+	 * @param toTimestamp
+	 *            the highest selected logging timestamp
+	 * @param fromTraceId
+	 *            the lowest selected trace id
+	 * @param toTraceId
+	 *            the highest selected trace id
+	 */
+	public RecordRange(final long fromTimestamp, final long toTimestamp, final long fromTraceId, final long toTraceId) {
+		this.fromTimestamp = fromTimestamp;
+		this.toTimestamp = toTimestamp;
+		this.fromTraceId = fromTraceId;
+		this.toTraceId = toTraceId;
+	}
+
+	/**
+	 * @return true if and only if every record is selected
+	 */
+	public boolean selectsAll() {
+		return (this.fromTimestamp == Long.MIN_VALUE) && (this.toTimestamp == Long.MAX_VALUE)
+				&& (this.fromTraceId == Long.MIN_VALUE) && (this.toTraceId == Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param record
+	 *            the record to check
+	 * 
+	 * @return true if and only if the record is selected
+	 */
+	public boolean selects(final IMonitoringRecord record) {
+		final long loggingTimestamp = record.getLoggingTimestamp();
+		if ((loggingTimestamp < this.fromTimestamp) || (loggingTimestamp > this.toTimestamp)) {
+			return false;
+		}
+		if (BlockIndex.hasTraceId(record)) {
+			final long traceId = BlockIndex.getTraceId(record);
+			return (traceId >= this.fromTraceId) && (traceId <= this.toTraceId);
+		}
+		return true;
+	}
+
+	/**
+	 * @param minTimestamp
+	 *            the lowest logging timestamp of a group of records
+	 * @param maxTimestamp
+	 *            the highest logging timestamp of a group of records
+	 * 
+	 * @return true if the group may contain a selected record; false if the group can be skipped
+	 */
+	public boolean selectsTimestamps(final long minTimestamp, final long maxTimestamp) {
+		return (maxTimestamp >= this.fromTimestamp) && (minTimestamp <= this.toTimestamp);
+	}
+
+	/**
+	 * @param block
+	 *            the block to check
+	 * 
+	 * @return true if the block may contain a selected record; false if the block can be skipped
+	 */
+	public boolean selects(final BlockIndex.Block block) {
+		return block.overlaps(this.fromTimestamp, this.toTimestamp, this.fromTraceId, this.toTraceId);
+	}
+}
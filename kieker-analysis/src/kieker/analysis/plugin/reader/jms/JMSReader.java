@@ -17,9 +17,11 @@
 package kieker.analysis.plugin.reader.jms;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Hashtable;
 import java.util.concurrent.CountDownLatch;
 
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
@@ -42,10 +44,11 @@ import kieker.analysis.plugin.reader.AbstractReaderPlugin;
 import kieker.common.configuration.Configuration;
 import kieker.common.logging.Log;
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.frame.RecordBatchDecoder;
 
 /**
- * Reads monitoring records from a (remote or local) JMS queue.
- * 
+ * Reads monitoring records from a (remote or local) JMS queue. Object messages contain single records, bytes messages contain batches of records encoded
+ * with a {@link kieker.common.util.frame.RecordBatchEncoder}.
  * 
  * @author Andre van Hoorn, Matthias Rohr
  * 
@@ -243,10 +246,31 @@ public final class JMSReader extends AbstractReaderPlugin {
 					} catch (final Exception ex) { // NOPMD NOCS (catch Exception)
 						JMSReader.this.getLog().error("Error delivering record", ex);
 					}
+				} else if (jmsMessage instanceof BytesMessage) {
+					try {
+						this.onRecordBatch((BytesMessage) jmsMessage);
+					} catch (final JMSException ex) {
+						JMSReader.this.getLog().error("Error delivering record batch", ex);
+					} catch (final Exception ex) { // NOPMD NOCS (catch Exception)
+						JMSReader.this.getLog().error("Error delivering record batch", ex);
+					}
 				} else {
 					JMSReader.this.getLog().warn("Received message of invalid type: " + jmsMessage.getClass().getName());
 				}
 			}
 		}
+
+		private void onRecordBatch(final BytesMessage bm) throws Exception { // NOPMD NOCS (decoding and delivery may throw anything)
+			final byte[] batch = new byte[(int) bm.getBodyLength()];
+			bm.readBytes(batch);
+			final RecordBatchDecoder decoder = new RecordBatchDecoder(ByteBuffer.wrap(batch));
+			IMonitoringRecord record = decoder.next();
+			while (record != null) {
+				if (!JMSReader.this.deliverIndirect(OUTPUT_PORT_NAME_RECORDS, record)) {
+					JMSReader.this.getLog().error("deliverRecord returned false");
+				}
+				record = decoder.next();
+			}
+		}
 	}
 }
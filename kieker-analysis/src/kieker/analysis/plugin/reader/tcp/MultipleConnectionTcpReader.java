@@ -0,0 +1,124 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.analysis.plugin.reader.tcp;
+
+import kieker.analysis.IProjectContext;
+import kieker.analysis.plugin.annotation.OutputPort;
+import kieker.analysis.plugin.annotation.Plugin;
+import kieker.analysis.plugin.annotation.Property;
+import kieker.analysis.plugin.reader.AbstractReaderPlugin;
+import kieker.analysis.plugin.reader.tcp.util.IRecordReceivedListener;
+import kieker.analysis.plugin.reader.tcp.util.MultipleConnectionRecordReader;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+
+/**
+ * This is a reader which reads the records from any number of concurrent TCP connections on a single port, e.g., from the {@code SingleSocketTcpWriter}s of
+ * many monitored applications. In contrast to the {@link SingleSocketTcpReader}, this reader does not terminate when a connection is closed, but runs until
+ * the analysis is terminated.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@Plugin(description = "A reader which reads records from multiple TCP connections", outputPorts = {
+	@OutputPort(name = MultipleConnectionTcpReader.OUTPUT_PORT_NAME_RECORDS, eventTypes = { IMonitoringRecord.class },
+			description = "Output Port of the MultipleConnectionTcpReader")
+}, configuration = {
+	@Property(name = MultipleConnectionTcpReader.CONFIG_PROPERTY_NAME_PORT, defaultValue = "10133",
+			description = "The port of the server used for the TCP connections."),
+	@Property(name = MultipleConnectionTcpReader.CONFIG_PROPERTY_NAME_BUFFERCAPACITY, defaultValue = "65535",
+			description = "The capacity of the read buffer of each connection in bytes."),
+	@Property(name = MultipleConnectionTcpReader.CONFIG_PROPERTY_NAME_WORKERS, defaultValue = "1",
+			description = "The number of threads reading and decoding the records of the connections."),
+	@Property(name = MultipleConnectionTcpReader.CONFIG_PROPERTY_NAME_FRAMED, defaultValue = "false",
+			description = "Whether the records are sent in frames. Frames larger than the buffer capacity are rejected.")
+})
+public final class MultipleConnectionTcpReader extends AbstractReaderPlugin implements IRecordReceivedListener {
+
+	/** The name of the output port delivering the received records. */
+	public static final String OUTPUT_PORT_NAME_RECORDS = "monitoringRecords";
+
+	/** The name of the configuration determining the TCP port. */
+	public static final String CONFIG_PROPERTY_NAME_PORT = "port";
+	/** The name of the configuration determining the capacity of the read buffer of each connection. */
+	public static final String CONFIG_PROPERTY_NAME_BUFFERCAPACITY = "bufferCapacity";
+	/** The name of the configuration determining the number of threads decoding the records. */
+	public static final String CONFIG_PROPERTY_NAME_WORKERS = "numberOfWorkers";
+	/** The name of the configuration determining whether the records are sent in frames. */
+	public static final String CONFIG_PROPERTY_NAME_FRAMED = "framed";
+
+	private final int port;
+	private final int bufferCapacity;
+	private final int numberOfWorkers;
+	private final boolean framed;
+
+	private final MultipleConnectionRecordReader recordReader;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param configuration
+	 *            The configuration for this component.
+	 * @param projectContext
+	 *            The project context for this component.
+	 */
+	public MultipleConnectionTcpReader(final Configuration configuration, final IProjectContext projectContext) {
+		super(configuration, projectContext);
+		this.port = this.configuration.getIntProperty(CONFIG_PROPERTY_NAME_PORT);
+		this.bufferCapacity = this.configuration.getIntProperty(CONFIG_PROPERTY_NAME_BUFFERCAPACITY);
+		this.numberOfWorkers = this.configuration.getIntProperty(CONFIG_PROPERTY_NAME_WORKERS);
+		this.framed = this.configuration.getBooleanProperty(CONFIG_PROPERTY_NAME_FRAMED);
+		this.recordReader = new MultipleConnectionRecordReader(this.port, this.bufferCapacity, this.numberOfWorkers, this.framed, this.log, this);
+	}
+
+	@Override
+	public Configuration getCurrentConfiguration() {
+		final Configuration configuration = new Configuration();
+		configuration.setProperty(CONFIG_PROPERTY_NAME_PORT, Integer.toString(this.port));
+		configuration.setProperty(CONFIG_PROPERTY_NAME_BUFFERCAPACITY, Integer.toString(this.bufferCapacity));
+		configuration.setProperty(CONFIG_PROPERTY_NAME_WORKERS, Integer.toString(this.numberOfWorkers));
+		configuration.setProperty(CONFIG_PROPERTY_NAME_FRAMED, Boolean.toString(this.framed));
+		return configuration;
+	}
+
+	@Override
+	public boolean read() {
+		this.recordReader.run();
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * The records of all connections are merged into the single output port. Since the workers decode in parallel, the delivery is synchronized.
+	 */
+	@Override
+	public void onRecordReceived(final IMonitoringRecord record) {
+		synchronized (this) {
+			super.deliver(OUTPUT_PORT_NAME_RECORDS, record);
+		}
+	}
+
+	@Override
+	public void terminate(final boolean error) {
+		this.log.info("Shutdown of MultipleConnectionTcpReader requested.");
+		this.recordReader.terminate();
+	}
+
+}
@@ -36,7 +36,9 @@ import kieker.common.record.IMonitoringRecord;
 @Plugin(description = "A reader which reads records from a TCP port", outputPorts = {
 	@OutputPort(name = SingleSocketTcpReader.OUTPUT_PORT_NAME_RECORDS, eventTypes = { IMonitoringRecord.class }, description = "Output Port of the TCPReader")
 }, configuration = {
-	@Property(name = SingleSocketTcpReader.CONFIG_PROPERTY_NAME_PORT, defaultValue = "10133", description = "The first port of the server used for the TCP connection.")
+	@Property(name = SingleSocketTcpReader.CONFIG_PROPERTY_NAME_PORT, defaultValue = "10133", description = "The first port of the server used for the TCP connection."),
+	@Property(name = SingleSocketTcpReader.CONFIG_PROPERTY_NAME_FRAMED, defaultValue = "false",
+			description = "Whether the records are sent in frames. Frames larger than 65535 bytes are rejected.")
 })
 public final class SingleSocketTcpReader extends AbstractReaderPlugin implements IRecordReceivedListener {
 
@@ -45,23 +47,28 @@ public final class SingleSocketTcpReader extends AbstractReaderPlugin implements
 
 	/** The name of the configuration determining the TCP port. */
 	public static final String CONFIG_PROPERTY_NAME_PORT = "port";
+	/** The name of the configuration determining whether the records are sent in frames. */
+	public static final String CONFIG_PROPERTY_NAME_FRAMED = "framed";
 
 	private static final int MESSAGE_BUFFER_SIZE = 65535;
 
 	private final int port;
+	private final boolean framed;
 
 	private final SingleSocketRecordReader recordReader;
 
 	public SingleSocketTcpReader(final Configuration configuration, final IProjectContext projectContext) {
 		super(configuration, projectContext);
 		this.port = this.configuration.getIntProperty(CONFIG_PROPERTY_NAME_PORT);
-		this.recordReader = new SingleSocketRecordReader(this.port, MESSAGE_BUFFER_SIZE, this.log, this);
+		this.framed = this.configuration.getBooleanProperty(CONFIG_PROPERTY_NAME_FRAMED);
+		this.recordReader = new SingleSocketRecordReader(this.port, MESSAGE_BUFFER_SIZE, this.log, this, this.framed);
 	}
 
 	@Override
 	public Configuration getCurrentConfiguration() {
 		final Configuration configuration = new Configuration();
 		configuration.setProperty(CONFIG_PROPERTY_NAME_PORT, Integer.toString(this.port));
+		configuration.setProperty(CONFIG_PROPERTY_NAME_FRAMED, Boolean.toString(this.framed));
 		return configuration;
 	}
 
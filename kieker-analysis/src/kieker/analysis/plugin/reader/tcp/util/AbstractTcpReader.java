@@ -73,6 +73,10 @@ public abstract class AbstractTcpReader implements Runnable {
 				final ByteBuffer buffer = ByteBuffer.allocateDirect(this.bufferCapacity);
 				while ((socketChannel.read(buffer) != -1) && !this.terminated) {
 					this.process(buffer);
+					if (this.isStreamCorrupt()) {
+						this.logger.error("Cannot read any further from " + socketChannel.socket().getRemoteSocketAddress() + ". Closing connection.");
+						break;
+					}
 				}
 			} finally {
 				socketChannel.close();
@@ -120,6 +124,15 @@ public abstract class AbstractTcpReader implements Runnable {
 	 */
 	protected abstract boolean onBufferReceived(final ByteBuffer buffer);
 
+	/**
+	 * @return true if and only if the stream cannot be read any further, e.g., because it is corrupt. In this case, the connection is closed.
+	 *
+	 * @since 1.13
+	 */
+	protected boolean isStreamCorrupt() {
+		return false;
+	}
+
 	/**
 	 * Gracefully terminates this TCP reader.
 	 */
@@ -0,0 +1,102 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.plugin.reader.tcp.util;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+
+import kieker.common.logging.Log;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.util.frame.FrameDecoder;
+
+/**
+ * Reconstructs Kieker records and string registry entries from the frames of a single TCP connection (see {@code FrameEncoder}). Each frame contains only
+ * complete records and string registry entries.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class FramedRecordDeserializer extends RecordDeserializer {
+
+	private final FrameDecoder frameDecoder;
+	private final Log logger;
+
+	/**
+	 * Creates a new deserializer with an empty string registry.
+	 *
+	 * @param listener
+	 *            which is informed about each reconstructed record
+	 * @param recordFactories
+	 *            the record factories used to reconstruct the records; can be shared between connections
+	 * @param maxFrameSize
+	 *            the maximal size of a frame including its header in bytes, i.e., at most the capacity of the read buffer
+	 * @param logger
+	 *            for notification to users and developers
+	 */
+	public FramedRecordDeserializer(final IRecordReceivedListener listener, final CachedRecordFactoryCatalog recordFactories, final int maxFrameSize,
+			final Log logger) {
+		super(listener, recordFactories, logger);
+		this.frameDecoder = new FrameDecoder(maxFrameSize);
+		this.logger = logger;
+	}
+
+	/**
+	 * Reads the next frame from the given buffer and reconstructs all contained records and string registry entries.
+	 *
+	 * @param buffer
+	 *            to be read from
+	 * @return
+	 *         <ul>
+	 *         <li><code>true</code> when the buffer contained a complete frame
+	 *         <li><code>false</code> otherwise. In this case, the buffer has to be reset, compacted, and filled with new content. If the stream is corrupt
+	 *         afterwards (see {@link #isCorrupt()}), the connection has to be closed instead.
+	 */
+	@Override
+	public boolean deserialize(final ByteBuffer buffer) {
+		final ByteBuffer payload;
+		try {
+			payload = this.frameDecoder.decode(buffer);
+		} catch (final DataFormatException ex) {
+			if (this.frameDecoder.isCorrupt()) {
+				this.logger.error("Invalid frame header. The stream is either corrupt or not framed.", ex);
+				return false;
+			}
+			this.logger.error("Skipping corrupt frame.", ex);
+			return true;
+		}
+		if (null == payload) {
+			return false;
+		}
+		while (payload.hasRemaining()) {
+			if (!super.deserialize(payload)) {
+				this.logger.error("Skipping incomplete record at the end of a frame.");
+				break;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isCorrupt() {
+		return this.frameDecoder.isCorrupt();
+	}
+
+	@Override
+	public void close() {
+		this.frameDecoder.close();
+	}
+}
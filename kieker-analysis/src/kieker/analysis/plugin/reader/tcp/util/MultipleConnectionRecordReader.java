@@ -0,0 +1,334 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.plugin.reader.tcp.util;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import kieker.common.logging.Log;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+
+/**
+ * Represents a TCP reader which reads and reconstructs Kieker records from any number of concurrent TCP connections, e.g., from many
+ * {@code SingleSocketTcpWriter}s. The connections are served by non-blocking selectors. Each connection has its own read buffer and its own string
+ * registry.
+ *
+ * <p>
+ * The connections are distributed among the given number of workers. The first worker runs on the thread calling {@link #run()} and additionally accepts the
+ * new connections, each further worker runs on its own thread. Hence, the listener is called concurrently if more than one worker is used.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class MultipleConnectionRecordReader implements Runnable {
+
+	private static final long SELECT_TIMEOUT = 1000; // ms
+
+	private final Log logger;
+	private final int port;
+	private final int bufferCapacity;
+	private final int numberOfWorkers;
+	private final boolean framed;
+	private final IRecordReceivedListener listener;
+	private final CachedRecordFactoryCatalog recordFactories = new CachedRecordFactoryCatalog();
+
+	private volatile boolean terminated;
+	private volatile Worker[] workers = new Worker[0]; // NOPMD (volatile array is only replaced, never modified)
+	/** The worker the next accepted connection is assigned to; only accessed by the first worker. */
+	private int nextWorker;
+
+	/**
+	 * Constructs a new TCP reader.
+	 *
+	 * @param port
+	 *            on which to listen for connections
+	 * @param bufferCapacity
+	 *            of the read buffer of each connection
+	 * @param numberOfWorkers
+	 *            the number of threads reading from and decoding the connections
+	 * @param framed
+	 *            whether the records are sent in frames
+	 * @param logger
+	 *            for notification to users and developers
+	 * @param listener
+	 *            which is informed about each reconstructed record
+	 */
+	public MultipleConnectionRecordReader(final int port, final int bufferCapacity, final int numberOfWorkers, final boolean framed, final Log logger,
+			final IRecordReceivedListener listener) {
+		this.port = port;
+		this.bufferCapacity = bufferCapacity;
+		this.numberOfWorkers = Math.max(1, numberOfWorkers);
+		this.framed = framed;
+		this.logger = logger;
+		this.listener = listener;
+	}
+
+	@Override
+	public final void run() {
+		ServerSocketChannel serversocket = null;
+		final Worker[] newWorkers = new Worker[this.numberOfWorkers];
+		final Thread[] threads = new Thread[this.numberOfWorkers];
+		try {
+			for (int i = 0; i < newWorkers.length; i++) {
+				newWorkers[i] = new Worker();
+			}
+			this.workers = newWorkers;
+
+			serversocket = ServerSocketChannel.open();
+			serversocket.configureBlocking(false);
+			serversocket.socket().bind(new InetSocketAddress(this.port));
+			serversocket.register(newWorkers[0].selector, SelectionKey.OP_ACCEPT);
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Listening on port " + this.port);
+			}
+
+			for (int i = 1; i < newWorkers.length; i++) {
+				threads[i] = new Thread(newWorkers[i], "MultipleConnectionRecordReader-" + this.port + "-" + i);
+				threads[i].setDaemon(true);
+				threads[i].start();
+			}
+			newWorkers[0].run();
+		} catch (final IOException ex) {
+			this.logger.error("Error while reading.", ex);
+		} finally {
+			this.terminate();
+			for (int i = 1; i < threads.length; i++) {
+				if (null != threads[i]) {
+					try {
+						threads[i].join();
+					} catch (final InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+			if (null != serversocket) {
+				try {
+					serversocket.close();
+				} catch (final IOException e) {
+					this.logger.debug("Failed to close TCP connection.", e);
+				}
+			}
+			for (final Worker worker : newWorkers) {
+				if (null != worker) {
+					worker.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gracefully terminates this TCP reader.
+	 */
+	public void terminate() {
+		this.terminated = true;
+		for (final Worker worker : this.workers) {
+			worker.selector.wakeup();
+		}
+	}
+
+	public int getPort() {
+		return this.port;
+	}
+
+	private void acceptConnections(final ServerSocketChannel serversocket) throws IOException {
+		SocketChannel socketChannel = serversocket.accept();
+		while (null != socketChannel) {
+			socketChannel.configureBlocking(false);
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Accepted connection from " + socketChannel.socket().getRemoteSocketAddress());
+			}
+			final Worker[] currentWorkers = this.workers;
+			currentWorkers[this.nextWorker].addConnection(socketChannel);
+			this.nextWorker = (this.nextWorker + 1) % currentWorkers.length;
+			socketChannel = serversocket.accept();
+		}
+	}
+
+	private RecordDeserializer createDeserializer() {
+		if (this.framed) {
+			return new FramedRecordDeserializer(this.listener, this.recordFactories, this.bufferCapacity, this.logger);
+		} else {
+			return new RecordDeserializer(this.listener, this.recordFactories, this.logger);
+		}
+	}
+
+	private void process(final ByteBuffer buffer, final RecordDeserializer deserializer) {
+		buffer.flip();
+		try {
+			while (buffer.hasRemaining()) {
+				buffer.mark();
+				final boolean success = deserializer.deserialize(buffer);
+				if (!success) {
+					buffer.reset();
+					buffer.compact();
+					return;
+				}
+			}
+			buffer.clear();
+		} catch (final BufferUnderflowException ex) {
+			this.logger.warn("Unexpected buffer underflow. Resetting and compacting buffer.", ex);
+			buffer.reset();
+			buffer.compact();
+		}
+	}
+
+	/**
+	 * The state of a single connection.
+	 */
+	private static final class Connection {
+		final ByteBuffer buffer; // NOPMD (package visibility for inner class)
+		final RecordDeserializer deserializer; // NOPMD (package visibility for inner class)
+
+		Connection(final ByteBuffer buffer, final RecordDeserializer deserializer) {
+			this.buffer = buffer;
+			this.deserializer = deserializer;
+		}
+
+		void close() {
+			this.deserializer.close();
+		}
+	}
+
+	/**
+	 * Serves a subset of the connections with its own selector.
+	 */
+	private final class Worker implements Runnable {
+		final Selector selector; // NOPMD (package visibility for inner class)
+		private final Queue<SocketChannel> newConnections = new ConcurrentLinkedQueue<SocketChannel>();
+
+		Worker() throws IOException {
+			this.selector = Selector.open();
+		}
+
+		/**
+		 * Hands a connection over to this worker. The channel is registered by the worker itself, since registering blocks while the selector is selecting.
+		 */
+		void addConnection(final SocketChannel socketChannel) {
+			this.newConnections.add(socketChannel);
+			this.selector.wakeup();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!MultipleConnectionRecordReader.this.terminated) {
+					this.selector.select(SELECT_TIMEOUT);
+					this.registerNewConnections();
+					final Iterator<SelectionKey> selectedKeys = this.selector.selectedKeys().iterator();
+					while (selectedKeys.hasNext()) {
+						final SelectionKey key = selectedKeys.next();
+						selectedKeys.remove();
+						if (!key.isValid()) {
+							continue;
+						}
+						if (key.isAcceptable()) {
+							MultipleConnectionRecordReader.this.acceptConnections((ServerSocketChannel) key.channel());
+						} else if (key.isReadable()) {
+							this.read(key);
+						}
+					}
+				}
+			} catch (final IOException ex) {
+				MultipleConnectionRecordReader.this.logger.error("Error while reading.", ex);
+				MultipleConnectionRecordReader.this.terminate();
+			}
+		}
+
+		private void registerNewConnections() throws IOException {
+			SocketChannel socketChannel = this.newConnections.poll();
+			while (null != socketChannel) {
+				final Connection connection = new Connection(ByteBuffer.allocateDirect(MultipleConnectionRecordReader.this.bufferCapacity),
+						MultipleConnectionRecordReader.this.createDeserializer());
+				socketChannel.register(this.selector, SelectionKey.OP_READ, connection);
+				socketChannel = this.newConnections.poll();
+			}
+		}
+
+		private void read(final SelectionKey key) {
+			final SocketChannel socketChannel = (SocketChannel) key.channel();
+			final Connection connection = (Connection) key.attachment();
+			final ByteBuffer buffer = connection.buffer;
+			try {
+				if (socketChannel.read(buffer) == -1) {
+					this.closeConnection(key);
+					return;
+				}
+			} catch (final IOException ex) {
+				MultipleConnectionRecordReader.this.logger.warn("Failed to read from " + socketChannel.socket().getRemoteSocketAddress(), ex);
+				this.closeConnection(key);
+				return;
+			}
+			MultipleConnectionRecordReader.this.process(buffer, connection.deserializer);
+			if (connection.deserializer.isCorrupt()) {
+				MultipleConnectionRecordReader.this.logger.error("Cannot read any further from " + socketChannel.socket().getRemoteSocketAddress()
+						+ ". Closing connection.");
+				this.closeConnection(key);
+			} else if (!buffer.hasRemaining()) { // the buffer is full and cannot hold the next record
+				MultipleConnectionRecordReader.this.logger.error("Record from " + socketChannel.socket().getRemoteSocketAddress()
+						+ " exceeds the buffer capacity of " + MultipleConnectionRecordReader.this.bufferCapacity + " bytes. Closing connection.");
+				this.closeConnection(key);
+			}
+		}
+
+		private void closeConnection(final SelectionKey key) {
+			key.cancel();
+			final Object connection = key.attachment();
+			if (connection instanceof Connection) {
+				((Connection) connection).close();
+			}
+			try {
+				key.channel().close();
+			} catch (final IOException e) {
+				MultipleConnectionRecordReader.this.logger.debug("Failed to close TCP connection.", e);
+			}
+		}
+
+		/**
+		 * Closes all connections served by this worker.
+		 */
+		void close() {
+			for (final SelectionKey key : this.selector.keys()) {
+				if (key.channel() instanceof SocketChannel) {
+					this.closeConnection(key);
+				}
+			}
+			SocketChannel socketChannel = this.newConnections.poll();
+			while (null != socketChannel) {
+				try {
+					socketChannel.close();
+				} catch (final IOException e) {
+					MultipleConnectionRecordReader.this.logger.debug("Failed to close TCP connection.", e);
+				}
+				socketChannel = this.newConnections.poll();
+			}
+			try {
+				this.selector.close();
+			} catch (final IOException e) {
+				MultipleConnectionRecordReader.this.logger.debug("Failed to close selector.", e);
+			}
+		}
+	}
+}
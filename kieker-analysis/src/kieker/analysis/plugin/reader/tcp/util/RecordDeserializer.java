@@ -0,0 +1,154 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+package kieker.analysis.plugin.reader.tcp.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import kieker.common.exception.RecordInstantiationException;
+import kieker.common.logging.Log;
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+import kieker.common.util.registry.IRegistry;
+import kieker.common.util.registry.reader.GetValueAdapter;
+import kieker.common.util.registry.reader.ReaderRegistry;
+
+/**
+ * Reconstructs Kieker records and string registry entries from the binary stream of a single TCP connection. Since each connection has its own string
+ * registry, an instance of this class must not be shared between connections.
+ *
+ * @author Christian Wulf (chw), Christian Stier
+ *
+ * @since 1.13
+ */
+public class RecordDeserializer {
+
+	private static final int INT_BYTES = AbstractMonitoringRecord.TYPE_SIZE_INT;
+	private static final int LONG_BYTES = AbstractMonitoringRecord.TYPE_SIZE_LONG;
+	private static final Charset ENCODING = Charset.forName("UTF-8");
+
+	private final ReaderRegistry<String> readerRegistry = new ReaderRegistry<String>();
+	private final IRegistry<String> stringRegistryWrapper;
+	private final IRecordReceivedListener listener;
+	private final CachedRecordFactoryCatalog recordFactories;
+	private final Log logger;
+
+	/**
+	 * Creates a new deserializer with an empty string registry.
+	 *
+	 * @param listener
+	 *            which is informed about each reconstructed record
+	 * @param recordFactories
+	 *            the record factories used to reconstruct the records; can be shared between connections
+	 * @param logger
+	 *            for notification to users and developers
+	 */
+	public RecordDeserializer(final IRecordReceivedListener listener, final CachedRecordFactoryCatalog recordFactories, final Log logger) {
+		this.listener = listener;
+		this.recordFactories = recordFactories;
+		this.logger = logger;
+		this.stringRegistryWrapper = new GetValueAdapter<String>(this.readerRegistry);
+	}
+
+	/**
+	 * Reads the next record or string registry entry from the given buffer.
+	 *
+	 * @param buffer
+	 *            to be read from
+	 * @return
+	 *         <ul>
+	 *         <li><code>true</code> when there were enough bytes to perform the read operation
+	 *         <li><code>false</code> otherwise. In this case, the buffer has to be reset, compacted, and filled with new content.
+	 */
+	public boolean deserialize(final ByteBuffer buffer) {
+		// identify record class
+		if (buffer.remaining() < INT_BYTES) {
+			return false;
+		}
+		final int clazzId = buffer.getInt();
+
+		if (clazzId == -1) {
+			return this.registerRegistryEntry(buffer);
+		} else {
+			return this.deserializeRecord(clazzId, buffer);
+		}
+	}
+
+	/**
+	 * @return true if and only if the stream cannot be deserialized any further, such that the connection has to be closed.
+	 *
+	 * @since 1.13
+	 */
+	public boolean isCorrupt() {
+		return false;
+	}
+
+	/**
+	 * Releases the resources of this deserializer. The deserializer must not be used afterwards.
+	 */
+	public void close() {
+		// nothing to release
+	}
+
+	private boolean registerRegistryEntry(final ByteBuffer buffer) {
+		// identify string identifier and string length
+		if (buffer.remaining() < (INT_BYTES + INT_BYTES)) {
+			return false;
+		}
+
+		final int id = buffer.getInt(); // NOPMD (id must be read before stringLength)
+		final int stringLength = buffer.getInt();
+
+		if (buffer.remaining() < stringLength) {
+			return false;
+		}
+
+		final byte[] strBytes = new byte[stringLength];
+		buffer.get(strBytes);
+		final String string = new String(strBytes, ENCODING);
+
+		this.readerRegistry.register(id, string);
+		return true;
+	}
+
+	private boolean deserializeRecord(final int clazzId, final ByteBuffer buffer) {
+		// identify logging timestamp
+		if (buffer.remaining() < LONG_BYTES) {
+			return false;
+		}
+		final long loggingTimestamp = buffer.getLong(); // NOPMD (timestamp must be read before checking the buffer for record size)
+
+		final String recordClassName = this.readerRegistry.get(clazzId);
+		// identify record data
+		final IRecordFactory<? extends IMonitoringRecord> recordFactory = this.recordFactories.get(recordClassName);
+		if (buffer.remaining() < recordFactory.getRecordSizeInBytes()) {
+			return false;
+		}
+
+		try {
+			final IMonitoringRecord record = recordFactory.create(buffer, this.stringRegistryWrapper);
+			record.setLoggingTimestamp(loggingTimestamp);
+
+			this.listener.onRecordReceived(record);
+		} catch (final RecordInstantiationException ex) {
+			this.logger.error("Failed to create: " + recordClassName, ex);
+		}
+
+		return true;
+	}
+}
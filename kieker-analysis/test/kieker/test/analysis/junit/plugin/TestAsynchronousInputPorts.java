@@ -0,0 +1,309 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.test.analysis.junit.plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.IAnalysisController;
+import kieker.analysis.IProjectContext;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.model.analysisMetaModel.MIFilter;
+import kieker.analysis.model.analysisMetaModel.MIInputPort;
+import kieker.analysis.model.analysisMetaModel.MIPlugin;
+import kieker.analysis.model.analysisMetaModel.MIProject;
+import kieker.analysis.plugin.annotation.InputPort;
+import kieker.analysis.plugin.annotation.OutputPort;
+import kieker.analysis.plugin.annotation.Plugin;
+import kieker.analysis.plugin.filter.AbstractFilterPlugin;
+import kieker.analysis.plugin.filter.forward.ListCollectionFilter;
+import kieker.analysis.plugin.reader.list.ListReader;
+import kieker.common.configuration.Configuration;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the asynchronous input ports of plugins.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestAsynchronousInputPorts extends AbstractKiekerTest {
+
+	private static final int NUMBER_OF_OBJECTS = 10000;
+	private static final int QUEUE_CAPACITY = 16;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestAsynchronousInputPorts() {
+		// empty default constructor
+	}
+
+	/**
+	 * This test makes sure that all objects pass a chain of asynchronous input ports in order and that an asynchronous input port is served by a single
+	 * dedicated thread.
+	 * 
+	 * @throws IllegalStateException
+	 *             If something went wrong during the test.
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testAsynchronousChain() throws IllegalStateException, AnalysisConfigurationException {
+		final IAnalysisController analysisController = new AnalysisController();
+
+		final ListReader<Object> reader = new ListReader<Object>(new Configuration(), analysisController);
+		final List<Object> objects = new ArrayList<Object>(NUMBER_OF_OBJECTS);
+		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+			objects.add(Integer.valueOf(i));
+		}
+		reader.addAllObjects(objects);
+		final ThreadRecordingFilter forwardFilter = new ThreadRecordingFilter(new Configuration(), analysisController);
+		final ListCollectionFilter<Object> sink = new ListCollectionFilter<Object>(new Configuration(), analysisController);
+
+		analysisController.connect(reader, ListReader.OUTPUT_PORT_NAME, forwardFilter, ThreadRecordingFilter.INPUT_PORT_NAME, QUEUE_CAPACITY);
+		analysisController.connect(forwardFilter, ThreadRecordingFilter.OUTPUT_PORT_NAME, sink, ListCollectionFilter.INPUT_PORT_NAME, QUEUE_CAPACITY);
+
+		analysisController.run();
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, analysisController.getState());
+
+		Assert.assertEquals(objects, sink.getList());
+		Assert.assertEquals(1, forwardFilter.getThreads().size());
+		Assert.assertFalse(forwardFilter.getThreads().contains(forwardFilter.getTerminatingThread()));
+	}
+
+	/**
+	 * This test makes sure that the queue capacity of an input port is stored in and restored from the meta model.
+	 * 
+	 * @throws IllegalStateException
+	 *             If something went wrong during the test.
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testMetaModelRoundTrip() throws IllegalStateException, AnalysisConfigurationException {
+		final IAnalysisController analysisController = new AnalysisController();
+
+		final ListReader<Object> reader = new ListReader<Object>(new Configuration(), analysisController);
+		final ListCollectionFilter<Object> asynchronousSink = new ListCollectionFilter<Object>(new Configuration(), analysisController);
+		final ListCollectionFilter<Object> synchronousSink = new ListCollectionFilter<Object>(new Configuration(), analysisController);
+
+		analysisController.connect(reader, ListReader.OUTPUT_PORT_NAME, asynchronousSink, ListCollectionFilter.INPUT_PORT_NAME, QUEUE_CAPACITY);
+		analysisController.connect(reader, ListReader.OUTPUT_PORT_NAME, synchronousSink, ListCollectionFilter.INPUT_PORT_NAME);
+
+		final MIProject project = analysisController.getCurrentConfiguration();
+		Assert.assertEquals(QUEUE_CAPACITY, TestAsynchronousInputPorts.findInputPort(project, asynchronousSink.getName()).getAsyncQueueCapacity());
+		Assert.assertEquals(0, TestAsynchronousInputPorts.findInputPort(project, synchronousSink.getName()).getAsyncQueueCapacity());
+
+		final AnalysisController loadedController = new AnalysisController(project);
+		for (final AbstractFilterPlugin filter : loadedController.getFilters()) {
+			if (filter.getName().equals(asynchronousSink.getName())) {
+				Assert.assertEquals(QUEUE_CAPACITY, filter.getAsyncQueueCapacity(ListCollectionFilter.INPUT_PORT_NAME));
+			} else {
+				Assert.assertEquals(0, filter.getAsyncQueueCapacity(ListCollectionFilter.INPUT_PORT_NAME));
+			}
+		}
+	}
+
+	/**
+	 * This test makes sure that an asynchronous input port cannot be redeclared with another capacity.
+	 * 
+	 * @throws IllegalStateException
+	 *             If something went wrong during the test.
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test(expected = AnalysisConfigurationException.class)
+	public void testConflictingQueueCapacities() throws IllegalStateException, AnalysisConfigurationException {
+		final IAnalysisController analysisController = new AnalysisController();
+
+		final ListReader<Object> reader1 = new ListReader<Object>(new Configuration(), analysisController);
+		final ListReader<Object> reader2 = new ListReader<Object>(new Configuration(), analysisController);
+		final ListCollectionFilter<Object> sink = new ListCollectionFilter<Object>(new Configuration(), analysisController);
+
+		analysisController.connect(reader1, ListReader.OUTPUT_PORT_NAME, sink, ListCollectionFilter.INPUT_PORT_NAME, QUEUE_CAPACITY);
+		analysisController.connect(reader2, ListReader.OUTPUT_PORT_NAME, sink, ListCollectionFilter.INPUT_PORT_NAME, QUEUE_CAPACITY * 2);
+	}
+
+	/**
+	 * This test makes sure that all asynchronous input ports of a plugin are served by the same thread.
+	 * 
+	 * @throws IllegalStateException
+	 *             If something went wrong during the test.
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testAsynchronousInputPortsShareThread() throws IllegalStateException, AnalysisConfigurationException {
+		final IAnalysisController analysisController = new AnalysisController();
+
+		final ListReader<Object> reader1 = new ListReader<Object>(new Configuration(), analysisController);
+		final ListReader<Object> reader2 = new ListReader<Object>(new Configuration(), analysisController);
+		final List<Object> objects = new ArrayList<Object>(NUMBER_OF_OBJECTS);
+		for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+			objects.add(Integer.valueOf(i));
+		}
+		reader1.addAllObjects(objects);
+		reader2.addAllObjects(objects);
+		final ThreadRecordingFilter filter = new ThreadRecordingFilter(new Configuration(), analysisController);
+		final ListCollectionFilter<Object> sink = new ListCollectionFilter<Object>(new Configuration(), analysisController);
+
+		analysisController.connect(reader1, ListReader.OUTPUT_PORT_NAME, filter, ThreadRecordingFilter.INPUT_PORT_NAME, QUEUE_CAPACITY);
+		analysisController.connect(reader2, ListReader.OUTPUT_PORT_NAME, filter, ThreadRecordingFilter.SECOND_INPUT_PORT_NAME, QUEUE_CAPACITY * 2);
+		analysisController.connect(filter, ThreadRecordingFilter.OUTPUT_PORT_NAME, sink, ListCollectionFilter.INPUT_PORT_NAME);
+
+		analysisController.run();
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, analysisController.getState());
+
+		Assert.assertEquals(2 * NUMBER_OF_OBJECTS, sink.getList().size());
+		Assert.assertEquals(1, filter.getThreads().size());
+	}
+
+	/**
+	 * This test makes sure that a synchronous input port cannot be connected to a plugin with asynchronous input ports.
+	 * 
+	 * @throws IllegalStateException
+	 *             If something went wrong during the test.
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test(expected = AnalysisConfigurationException.class)
+	public void testSynchronousAfterAsynchronousInputPort() throws IllegalStateException, AnalysisConfigurationException {
+		final IAnalysisController analysisController = new AnalysisController();
+
+		final ListReader<Object> reader1 = new ListReader<Object>(new Configuration(), analysisController);
+		final ListReader<Object> reader2 = new ListReader<Object>(new Configuration(), analysisController);
+		final ThreadRecordingFilter filter = new ThreadRecordingFilter(new Configuration(), analysisController);
+
+		analysisController.connect(reader1, ListReader.OUTPUT_PORT_NAME, filter, ThreadRecordingFilter.INPUT_PORT_NAME, QUEUE_CAPACITY);
+		analysisController.connect(reader2, ListReader.OUTPUT_PORT_NAME, filter, ThreadRecordingFilter.SECOND_INPUT_PORT_NAME);
+	}
+
+	/**
+	 * This test makes sure that an asynchronous input port cannot be connected to a plugin with synchronous input ports.
+	 * 
+	 * @throws IllegalStateException
+	 *             If something went wrong during the test.
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test(expected = AnalysisConfigurationException.class)
+	public void testAsynchronousAfterSynchronousInputPort() throws IllegalStateException, AnalysisConfigurationException {
+		final IAnalysisController analysisController = new AnalysisController();
+
+		final ListReader<Object> reader1 = new ListReader<Object>(new Configuration(), analysisController);
+		final ListReader<Object> reader2 = new ListReader<Object>(new Configuration(), analysisController);
+		final ThreadRecordingFilter filter = new ThreadRecordingFilter(new Configuration(), analysisController);
+
+		analysisController.connect(reader1, ListReader.OUTPUT_PORT_NAME, filter, ThreadRecordingFilter.INPUT_PORT_NAME);
+		analysisController.connect(reader2, ListReader.OUTPUT_PORT_NAME, filter, ThreadRecordingFilter.SECOND_INPUT_PORT_NAME, QUEUE_CAPACITY);
+	}
+
+	private static MIInputPort findInputPort(final MIProject project, final String pluginName) {
+		for (final MIPlugin mPlugin : project.getPlugins()) {
+			if (mPlugin.getName().equals(pluginName)) {
+				return ((MIFilter) mPlugin).getInputPorts().get(0);
+			}
+		}
+		Assert.fail("Plugin not found: " + pluginName);
+		return null;
+	}
+
+	/**
+	 * A filter forwarding all objects, which remembers the threads invoking its input port.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	@Plugin(programmaticOnly = true, outputPorts = @OutputPort(name = ThreadRecordingFilter.OUTPUT_PORT_NAME, eventTypes = { Object.class }))
+	public static final class ThreadRecordingFilter extends AbstractFilterPlugin {
+
+		/** The name of the filter's input port. */
+		public static final String INPUT_PORT_NAME = "input";
+		/** The name of the filter's second input port. */
+		public static final String SECOND_INPUT_PORT_NAME = "secondInput";
+		/** The name of the filter's output port. */
+		public static final String OUTPUT_PORT_NAME = "output";
+
+		private final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+		private volatile Thread terminatingThread;
+
+		/**
+		 * Creates a new instance of this class using the given parameters.
+		 * 
+		 * @param configuration
+		 *            The configuration for this component.
+		 * @param projectContext
+		 *            The project context for this component.
+		 */
+		public ThreadRecordingFilter(final Configuration configuration, final IProjectContext projectContext) {
+			super(configuration, projectContext);
+		}
+
+		/**
+		 * The input port of this filter.
+		 * 
+		 * @param object
+		 *            The object to be forwarded.
+		 */
+		@InputPort(name = INPUT_PORT_NAME, eventTypes = { Object.class })
+		public void input(final Object object) {
+			this.threads.add(Thread.currentThread());
+			super.deliver(OUTPUT_PORT_NAME, object);
+		}
+
+		/**
+		 * The second input port of this filter.
+		 * 
+		 * @param object
+		 *            The object to be forwarded.
+		 */
+		@InputPort(name = SECOND_INPUT_PORT_NAME, eventTypes = { Object.class })
+		public void secondInput(final Object object) {
+			this.input(object);
+		}
+
+		@Override
+		public void terminate(final boolean error) {
+			this.terminatingThread = Thread.currentThread();
+		}
+
+		@Override
+		public Configuration getCurrentConfiguration() {
+			return new Configuration();
+		}
+
+		public Set<Thread> getThreads() {
+			return this.threads;
+		}
+
+		public Thread getTerminatingThread() {
+			return this.terminatingThread;
+		}
+	}
+}
@@ -16,6 +16,7 @@
 
 package kieker.test.analysis.junit.plugin; // NOCS (outer types)
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Assert;
@@ -26,9 +27,11 @@ import kieker.analysis.IAnalysisController;
 import kieker.analysis.analysisComponent.AbstractAnalysisComponent;
 import kieker.analysis.exception.AnalysisConfigurationException;
 import kieker.analysis.plugin.filter.forward.ListCollectionFilter;
+import kieker.analysis.plugin.filter.select.TimestampFilter;
 import kieker.analysis.plugin.reader.filesystem.FSReader;
 import kieker.analysis.plugin.reader.list.ListReader;
 import kieker.common.configuration.Configuration;
+import kieker.common.record.misc.TimestampRecord;
 
 import kieker.test.analysis.util.plugin.filter.SimpleForwardFilterWithRepository;
 import kieker.test.analysis.util.repository.SimpleRepository;
@@ -125,6 +128,45 @@ public class TestPlugin extends AbstractKiekerTest {
 		Assert.assertEquals(testObject2, list.get(1));
 	}
 
+	/**
+	 * This method tests whether objects are only delivered to the input ports accepting their type, even if the same types are delivered repeatedly.
+	 * 
+	 * @throws IllegalStateException
+	 *             If something went wrong during the test.
+	 * @throws AnalysisConfigurationException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testTypedDelivery() throws IllegalStateException, AnalysisConfigurationException {
+		final TimestampRecord record1 = new TimestampRecord(1L);
+		record1.setLoggingTimestamp(1L);
+		final TimestampRecord record2 = new TimestampRecord(2L);
+		record2.setLoggingTimestamp(2L);
+		final Object[] objects = { "object-1", record1, Integer.valueOf(3), record2, "object-5" };
+
+		final IAnalysisController analysisController = new AnalysisController();
+
+		final ListReader<Object> simpleListReader = new ListReader<Object>(new Configuration(), analysisController);
+		for (final Object object : objects) {
+			simpleListReader.addObject(object);
+		}
+		final ListCollectionFilter<Object> allObjectsSink = new ListCollectionFilter<Object>(new Configuration(), analysisController);
+		final TimestampFilter recordFilter = new TimestampFilter(new Configuration(), analysisController);
+		final ListCollectionFilter<Object> recordSink = new ListCollectionFilter<Object>(new Configuration(), analysisController);
+
+		analysisController.connect(simpleListReader, ListReader.OUTPUT_PORT_NAME, allObjectsSink, ListCollectionFilter.INPUT_PORT_NAME);
+		analysisController.connect(simpleListReader, ListReader.OUTPUT_PORT_NAME, recordFilter, TimestampFilter.INPUT_PORT_NAME_ANY_RECORD);
+		analysisController.connect(recordFilter, TimestampFilter.OUTPUT_PORT_NAME_WITHIN_PERIOD, recordSink, ListCollectionFilter.INPUT_PORT_NAME);
+
+		Assert.assertEquals(2, simpleListReader.getConnectedPlugins(ListReader.OUTPUT_PORT_NAME).size());
+
+		analysisController.run();
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, analysisController.getState());
+
+		Assert.assertEquals(Arrays.asList(objects), allObjectsSink.getList());
+		Assert.assertEquals(Arrays.asList(record1, record2), recordSink.getList());
+	}
+
 	/**
 	 * This method tests that the analysis controller makes sure that component names are unique.
 	 */
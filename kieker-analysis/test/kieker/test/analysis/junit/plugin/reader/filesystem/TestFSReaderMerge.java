@@ -0,0 +1,108 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.analysis.junit.plugin.reader.filesystem;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.IAnalysisController;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.filter.forward.ListCollectionFilter;
+import kieker.analysis.plugin.reader.filesystem.FSReader;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.misc.TimestampRecord;
+import kieker.common.util.filesystem.FSUtil;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests that the {@link FSReader} merges the records of several directories by their logging timestamps.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestFSReaderMerge extends AbstractKiekerTest {
+
+	private static final int NUMBER_OF_DIRECTORIES = 3;
+	/** More records than fit into a single batch of the reader. */
+	private static final int RECORDS_PER_DIRECTORY = 2500;
+
+	/** A rule making sure that a temporary folder exists for every test method (which is removed after the test). */
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (@Rule must be public)
+
+	/**
+	 * Default constructor.
+	 */
+	public TestFSReaderMerge() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that the records of all directories are delivered ordered by their logging timestamps.
+	 * 
+	 * @throws IOException
+	 *             If the logs could not be written.
+	 * @throws AnalysisConfigurationException
+	 *             If the analysis could not be configured.
+	 */
+	@Test
+	public void testMergeByLoggingTimestamp() throws IOException, AnalysisConfigurationException {
+		final String[] inputDirs = new String[NUMBER_OF_DIRECTORIES];
+		for (int dir = 0; dir < NUMBER_OF_DIRECTORIES; dir++) {
+			final File inputDir = this.tmpFolder.newFolder("dir" + dir);
+			inputDirs[dir] = inputDir.getCanonicalPath();
+			final PrintStream mapStream = new PrintStream(new FileOutputStream(new File(inputDir, FSUtil.MAP_FILENAME)), false, FSUtil.ENCODING);
+			mapStream.println("$0=" + TimestampRecord.class.getName());
+			mapStream.close();
+			final PrintStream datStream = new PrintStream(new FileOutputStream(new File(inputDir, FSUtil.FILE_PREFIX + FSUtil.NORMAL_FILE_EXTENSION)), false,
+					FSUtil.ENCODING);
+			for (int i = 0; i < RECORDS_PER_DIRECTORY; i++) {
+				// interleaved timestamps; the first directory is twice as dense
+				final long loggingTimestamp = (dir == 0) ? (i * 2L) : ((i * 3L * NUMBER_OF_DIRECTORIES) + dir); // NOCS (InlineConditionalCheck)
+				datStream.println("$0;" + loggingTimestamp + ";" + i);
+			}
+			datStream.close();
+		}
+
+		final IAnalysisController analysisController = new AnalysisController();
+		final Configuration configurationFSReader = new Configuration();
+		configurationFSReader.setProperty(FSReader.CONFIG_PROPERTY_NAME_INPUTDIRS, Configuration.toProperty(inputDirs));
+		final FSReader reader = new FSReader(configurationFSReader, analysisController);
+		final ListCollectionFilter<IMonitoringRecord> sink = new ListCollectionFilter<IMonitoringRecord>(new Configuration(), analysisController);
+		analysisController.connect(reader, FSReader.OUTPUT_PORT_NAME_RECORDS, sink, ListCollectionFilter.INPUT_PORT_NAME);
+		analysisController.run();
+
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, analysisController.getState());
+		final List<IMonitoringRecord> records = sink.getList();
+		Assert.assertEquals(NUMBER_OF_DIRECTORIES * RECORDS_PER_DIRECTORY, records.size());
+		for (int i = 1; i < records.size(); i++) {
+			Assert.assertTrue("Records are not ordered at index " + i, records.get(i - 1).getLoggingTimestamp() <= records.get(i).getLoggingTimestamp());
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.benchmarks.analysis;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.IAnalysisController;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.AbstractPlugin;
+import kieker.analysis.plugin.IPlugin;
+import kieker.analysis.plugin.reader.list.ListReader;
+import kieker.common.configuration.Configuration;
+
+/**
+ * Runs an analysis in the background while a benchmark drives its filters directly. The analysis is kept running by a {@link ListReader} awaiting the
+ * termination of the analysis.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+final class BackgroundAnalysis {
+
+	private final IAnalysisController analysisController = new AnalysisController();
+	private Thread analysisThread;
+
+	/**
+	 * Creates a new background analysis.
+	 */
+	BackgroundAnalysis() {
+		final Configuration readerConfiguration = new Configuration();
+		readerConfiguration.setProperty(ListReader.CONFIG_PROPERTY_NAME_AWAIT_TERMINATION, Boolean.TRUE.toString());
+		new ListReader<Object>(readerConfiguration, this.analysisController);
+	}
+
+	/**
+	 * @return the analysis controller, used to create and connect the plugins before the analysis is started
+	 */
+	IAnalysisController getAnalysisController() {
+		return this.analysisController;
+	}
+
+	/**
+	 * Starts the analysis and waits until the given plugin is running.
+	 *
+	 * @param plugin
+	 *            The plugin driven by the benchmark.
+	 *
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the plugin.
+	 */
+	void start(final AbstractPlugin plugin) throws InterruptedException {
+		this.analysisThread = new Thread("benchmark-analysis") {
+			@Override
+			public void run() {
+				try {
+					BackgroundAnalysis.this.analysisController.run();
+				} catch (final AnalysisConfigurationException ex) {
+					throw new IllegalStateException("Failed to run the analysis", ex);
+				}
+			}
+		};
+		this.analysisThread.start();
+		while (plugin.getState() != IPlugin.STATE.RUNNING) {
+			if (!this.analysisThread.isAlive()) {
+				throw new IllegalStateException("The analysis terminated before " + plugin.getName() + " has been started");
+			}
+			Thread.sleep(1);
+		}
+	}
+
+	/**
+	 * Terminates the analysis and waits for its termination.
+	 *
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the termination.
+	 */
+	void terminate() throws InterruptedException {
+		this.analysisController.terminate();
+		this.analysisThread.join();
+	}
+}
@@ -0,0 +1,113 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.benchmarks.analysis;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.analysis.IAnalysisController;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.AbstractPlugin;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+
+/**
+ * Measures {@link AbstractPlugin#deliver(String, Object)}, i.e., the dispatch of an object from an output port to the connected input ports.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class PluginDeliveryBenchmark {
+
+	/** The number of input ports connected to the output port. */
+	@Param({ "1", "4" })
+	public int numberOfReceivers; // NOCS (JMH parameters have to be public)
+
+	private BackgroundAnalysis analysis;
+	private SourceFilter source;
+	private Object data;
+
+	/**
+	 * Default constructor.
+	 */
+	public PluginDeliveryBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Connects the source filter to the receivers and starts the analysis.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If the filters cannot be connected.
+	 * @throws InterruptedException
+	 *             If interrupted while starting the analysis.
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws AnalysisConfigurationException, InterruptedException {
+		this.analysis = new BackgroundAnalysis();
+		final IAnalysisController analysisController = this.analysis.getAnalysisController();
+		this.source = new SourceFilter(new Configuration(), analysisController);
+		for (int i = 0; i < this.numberOfReceivers; i++) {
+			final SinkFilter sink = new SinkFilter(new Configuration(), analysisController);
+			analysisController.connect(this.source, SourceFilter.OUTPUT_PORT_NAME, sink, SinkFilter.INPUT_PORT_NAME);
+		}
+		this.data = new BeforeOperationEvent(1L, 1L, 0, "public void kieker.benchmarks.MonitoredClass.monitoredMethod()", "kieker.benchmarks.MonitoredClass");
+		this.analysis.start(this.source);
+	}
+
+	/**
+	 * Terminates the analysis.
+	 *
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the termination.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		this.analysis.terminate();
+	}
+
+	/**
+	 * Delivers an object to all receivers.
+	 *
+	 * @return whether the object has been delivered
+	 */
+	@Benchmark
+	public boolean deliver() {
+		return this.source.send(this.data);
+	}
+}
@@ -0,0 +1,80 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.benchmarks.analysis;
+
+import kieker.analysis.IProjectContext;
+import kieker.analysis.plugin.annotation.InputPort;
+import kieker.analysis.plugin.annotation.Plugin;
+import kieker.analysis.plugin.filter.AbstractFilterPlugin;
+import kieker.common.configuration.Configuration;
+
+/**
+ * A filter which only counts the received objects, such that benchmarks measure the delivery rather than the processing.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@Plugin(
+		programmaticOnly = true,
+		description = "A filter counting the received objects (used in benchmarks)")
+public final class SinkFilter extends AbstractFilterPlugin {
+
+	/** The name of the input port receiving the objects. */
+	public static final String INPUT_PORT_NAME = "input";
+
+	private volatile long count;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param configuration
+	 *            The configuration for this component.
+	 * @param projectContext
+	 *            The project context for this component.
+	 */
+	public SinkFilter(final Configuration configuration, final IProjectContext projectContext) {
+		super(configuration, projectContext);
+	}
+
+	/**
+	 * Receives an object.
+	 *
+	 * @param object
+	 *            The received object.
+	 */
+	@InputPort(name = INPUT_PORT_NAME, eventTypes = { Object.class })
+	public void receive(final Object object) {
+		this.count++; // NOPMD NOSYNC (only written by the delivering thread)
+	}
+
+	/**
+	 * @return the number of received objects
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Configuration getCurrentConfiguration() {
+		return new Configuration();
+	}
+}
@@ -0,0 +1,73 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.benchmarks.analysis;
+
+import kieker.analysis.IProjectContext;
+import kieker.analysis.plugin.annotation.OutputPort;
+import kieker.analysis.plugin.annotation.Plugin;
+import kieker.analysis.plugin.filter.AbstractFilterPlugin;
+import kieker.common.configuration.Configuration;
+
+/**
+ * A filter which delivers the objects passed to {@link #send(Object)}, such that benchmarks can drive the delivery from their own thread.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@Plugin(
+		programmaticOnly = true,
+		description = "A filter delivering objects passed to it programmatically (used in benchmarks)",
+		outputPorts = @OutputPort(name = SourceFilter.OUTPUT_PORT_NAME, eventTypes = { Object.class }))
+public final class SourceFilter extends AbstractFilterPlugin {
+
+	/** The name of the output port delivering the objects. */
+	public static final String OUTPUT_PORT_NAME = "output";
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param configuration
+	 *            The configuration for this component.
+	 * @param projectContext
+	 *            The project context for this component.
+	 */
+	public SourceFilter(final Configuration configuration, final IProjectContext projectContext) {
+		super(configuration, projectContext);
+	}
+
+	/**
+	 * Delivers the given object via the output port.
+	 *
+	 * @param object
+	 *            The object to deliver.
+	 *
+	 * @return true if the object has been delivered
+	 */
+	public boolean send(final Object object) {
+		return super.deliver(OUTPUT_PORT_NAME, object);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Configuration getCurrentConfiguration() {
+		return new Configuration();
+	}
+}
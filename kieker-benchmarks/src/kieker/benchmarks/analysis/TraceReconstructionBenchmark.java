@@ -0,0 +1,141 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.benchmarks.analysis;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.analysis.IAnalysisController;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.filter.flow.EventRecordTraceReconstructionFilter;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.flow.trace.TraceMetadata;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+
+/**
+ * Measures the throughput of the {@link EventRecordTraceReconstructionFilter}. Each invocation reconstructs one complete trace consisting of the trace
+ * metadata and a sequence of nested operation events. The creation of the events is part of the measurement.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class TraceReconstructionBenchmark {
+
+	private static final String[] OPERATION_SIGNATURES = {
+		"public void kieker.benchmarks.MonitoredClass.monitoredMethod0()",
+		"public void kieker.benchmarks.MonitoredClass.monitoredMethod1()",
+		"public void kieker.benchmarks.MonitoredClass.monitoredMethod2()",
+		"public void kieker.benchmarks.MonitoredClass.monitoredMethod3()",
+	};
+	private static final String CLASS_SIGNATURE = "kieker.benchmarks.MonitoredClass";
+
+	/** The number of operations per trace. */
+	@Param({ "1", "10", "100" })
+	public int traceLength; // NOCS (JMH parameters have to be public)
+
+	private BackgroundAnalysis analysis;
+	private EventRecordTraceReconstructionFilter filter;
+	private SinkFilter sink;
+	private long nextTraceId;
+
+	/**
+	 * Default constructor.
+	 */
+	public TraceReconstructionBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Connects the reconstruction filter and starts the analysis.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If the filters cannot be connected.
+	 * @throws InterruptedException
+	 *             If interrupted while starting the analysis.
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws AnalysisConfigurationException, InterruptedException {
+		this.analysis = new BackgroundAnalysis();
+		final IAnalysisController analysisController = this.analysis.getAnalysisController();
+		this.filter = new EventRecordTraceReconstructionFilter(new Configuration(), analysisController);
+		this.sink = new SinkFilter(new Configuration(), analysisController);
+		analysisController.connect(this.filter, EventRecordTraceReconstructionFilter.OUTPUT_PORT_NAME_TRACE_VALID, this.sink, SinkFilter.INPUT_PORT_NAME);
+		this.analysis.start(this.filter);
+	}
+
+	/**
+	 * Terminates the analysis and makes sure that all traces have been reconstructed.
+	 *
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the termination.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		this.analysis.terminate();
+		if (this.sink.getCount() != this.nextTraceId) {
+			throw new IllegalStateException("Reconstructed " + this.sink.getCount() + " of " + this.nextTraceId + " traces");
+		}
+	}
+
+	/**
+	 * Passes a complete trace to the filter.
+	 *
+	 * @return the number of reconstructed traces
+	 */
+	@Benchmark
+	public long reconstructTrace() {
+		final long traceId = this.nextTraceId++;
+		final EventRecordTraceReconstructionFilter localFilter = this.filter;
+		localFilter.newEvent(new TraceMetadata(traceId, 1L, TraceMetadata.NO_SESSION_ID, TraceMetadata.NO_HOSTNAME,
+				TraceMetadata.NO_PARENT_TRACEID, TraceMetadata.NO_PARENT_ORDER_INDEX));
+		// a call tree descending into the operations one after another and returning afterwards
+		final int length = this.traceLength;
+		long timestamp = traceId;
+		int orderIndex = 0;
+		for (int i = 0; i < length; i++) {
+			localFilter.newEvent(new BeforeOperationEvent(timestamp++, traceId, orderIndex++, OPERATION_SIGNATURES[i % OPERATION_SIGNATURES.length],
+					CLASS_SIGNATURE));
+		}
+		for (int i = length - 1; i >= 0; i--) {
+			localFilter.newEvent(new AfterOperationEvent(timestamp++, traceId, orderIndex++, OPERATION_SIGNATURES[i % OPERATION_SIGNATURES.length],
+					CLASS_SIGNATURE));
+		}
+		return this.sink.getCount();
+	}
+}
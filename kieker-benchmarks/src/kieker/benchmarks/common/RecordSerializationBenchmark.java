@@ -0,0 +1,194 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.benchmarks.common;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+import kieker.common.util.registry.IRegistry;
+import kieker.common.util.registry.Registry;
+
+/**
+ * Measures the binary serialization ({@link IMonitoringRecord#writeBytes(ByteBuffer, IRegistry)}) and deserialization ({@link IRecordFactory#create(ByteBuffer,
+ * IRegistry)}) of the generated records. The records are filled with constant values of the respective field types.
+ *
+ * <p>
+ * The list of records has to be extended whenever a new record is generated, which is checked by a test.
+ * </p>
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RecordSerializationBenchmark {
+
+	/** The fully qualified name of the record class. */
+	@Param({
+		"kieker.common.record.controlflow.BranchingRecord",
+		"kieker.common.record.controlflow.OperationExecutionRecord",
+		"kieker.common.record.flow.trace.ConstructionEvent",
+		"kieker.common.record.flow.trace.concurrency.JoinEvent",
+		"kieker.common.record.flow.trace.concurrency.SplitEvent",
+		"kieker.common.record.flow.trace.concurrency.monitor.MonitorEntryEvent",
+		"kieker.common.record.flow.trace.concurrency.monitor.MonitorExitEvent",
+		"kieker.common.record.flow.trace.concurrency.monitor.MonitorNotifyAllEvent",
+		"kieker.common.record.flow.trace.concurrency.monitor.MonitorNotifyEvent",
+		"kieker.common.record.flow.trace.concurrency.monitor.MonitorRequestEvent",
+		"kieker.common.record.flow.trace.concurrency.monitor.MonitorWaitEvent",
+		"kieker.common.record.flow.trace.operation.AfterOperationEvent",
+		"kieker.common.record.flow.trace.operation.AfterOperationFailedEvent",
+		"kieker.common.record.flow.trace.operation.BeforeOperationEvent",
+		"kieker.common.record.flow.trace.operation.CallOperationEvent",
+		"kieker.common.record.flow.trace.operation.constructor.AfterConstructorEvent",
+		"kieker.common.record.flow.trace.operation.constructor.AfterConstructorFailedEvent",
+		"kieker.common.record.flow.trace.operation.constructor.BeforeConstructorEvent",
+		"kieker.common.record.flow.trace.operation.constructor.CallConstructorEvent",
+		"kieker.common.record.flow.trace.operation.constructor.object.AfterConstructorFailedObjectEvent",
+		"kieker.common.record.flow.trace.operation.constructor.object.AfterConstructorObjectEvent",
+		"kieker.common.record.flow.trace.operation.constructor.object.BeforeConstructorObjectEvent",
+		"kieker.common.record.flow.trace.operation.constructor.object.BeforeConstructorObjectInterfaceEvent",
+		"kieker.common.record.flow.trace.operation.constructor.object.CallConstructorObjectEvent",
+		"kieker.common.record.flow.trace.operation.object.AfterOperationFailedObjectEvent",
+		"kieker.common.record.flow.trace.operation.object.AfterOperationObjectEvent",
+		"kieker.common.record.flow.trace.operation.object.BeforeOperationObjectEvent",
+		"kieker.common.record.flow.trace.operation.object.BeforeOperationObjectInterfaceEvent",
+		"kieker.common.record.flow.trace.operation.object.CallOperationObjectEvent",
+		"kieker.common.record.jvm.ClassLoadingRecord",
+		"kieker.common.record.jvm.CompilationRecord",
+		"kieker.common.record.jvm.GCRecord",
+		"kieker.common.record.jvm.MemoryRecord",
+		"kieker.common.record.jvm.ThreadsStatusRecord",
+		"kieker.common.record.jvm.UptimeRecord",
+		"kieker.common.record.misc.EmptyRecord",
+		"kieker.common.record.misc.KiekerMetadataRecord",
+		"kieker.common.record.misc.TimestampRecord",
+		"kieker.common.record.misc.TraceSamplingRecord",
+		"kieker.common.record.system.CPUUtilizationRecord",
+		"kieker.common.record.system.DiskUsageRecord",
+		"kieker.common.record.system.LoadAverageRecord",
+		"kieker.common.record.system.MemSwapUsageRecord",
+		"kieker.common.record.system.NetworkUtilizationRecord",
+		"kieker.common.record.system.ResourceUtilizationRecord"
+	})
+	public String recordClassName; // NOCS (JMH parameters have to be public)
+
+	private IMonitoringRecord record;
+	private IRecordFactory<? extends IMonitoringRecord> recordFactory;
+	private IRegistry<String> stringRegistry;
+	private ByteBuffer buffer;
+
+	/**
+	 * Default constructor.
+	 */
+	public RecordSerializationBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Creates the record and registers its strings.
+	 *
+	 * @throws Exception
+	 *             If the record class cannot be accessed.
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws Exception { // NOPMD NOCS (JMH setup)
+		final Class<?>[] types = (Class<?>[]) Class.forName(this.recordClassName).getField("TYPES").get(null);
+		final Object[] values = new Object[types.length];
+		for (int i = 0; i < types.length; i++) {
+			values[i] = RecordSerializationBenchmark.createValue(types[i], i);
+		}
+		this.recordFactory = CachedRecordFactoryCatalog.getInstance().get(this.recordClassName);
+		this.record = this.recordFactory.create(values);
+		this.stringRegistry = new Registry<String>();
+		this.record.registerStrings(this.stringRegistry);
+		this.buffer = ByteBuffer.allocate(this.record.getSize());
+	}
+
+	private static Object createValue(final Class<?> type, final int index) {
+		if (type == String.class) {
+			return "value" + index;
+		} else if (type == long.class) {
+			return Long.valueOf(index);
+		} else if (type == int.class) {
+			return Integer.valueOf(index);
+		} else if (type == double.class) {
+			return Double.valueOf(index);
+		} else if (type == float.class) {
+			return Float.valueOf(index);
+		} else if (type == short.class) {
+			return Short.valueOf((short) index);
+		} else if (type == byte.class) {
+			return Byte.valueOf((byte) index);
+		} else if (type == char.class) {
+			return Character.valueOf((char) ('a' + index));
+		} else if (type == boolean.class) {
+			return Boolean.valueOf((index % 2) == 0);
+		} else {
+			throw new IllegalArgumentException("Unsupported field type " + type);
+		}
+	}
+
+	/**
+	 * Serializes the record.
+	 *
+	 * @return the buffer (to prevent dead code elimination)
+	 */
+	@Benchmark
+	public ByteBuffer writeBytes() {
+		final ByteBuffer localBuffer = this.buffer;
+		localBuffer.clear();
+		this.record.writeBytes(localBuffer, this.stringRegistry);
+		return localBuffer;
+	}
+
+	/**
+	 * Serializes the record and deserializes it again.
+	 *
+	 * @return the deserialized record
+	 */
+	@Benchmark
+	public IMonitoringRecord roundTrip() {
+		final ByteBuffer localBuffer = this.buffer;
+		localBuffer.clear();
+		this.record.writeBytes(localBuffer, this.stringRegistry);
+		localBuffer.flip();
+		return this.recordFactory.create(localBuffer, this.stringRegistry);
+	}
+}
@@ -0,0 +1,106 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.benchmarks.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.common.util.registry.Registry;
+
+/**
+ * Measures the lookups of the {@link Registry} for already registered strings, as performed for each string field of each serialized record.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RegistryBenchmark {
+
+	/** The number of strings in the registry. */
+	@Param({ "16", "1024", "65536" })
+	public int size; // NOCS (JMH parameters have to be public)
+
+	private Registry<String> registry;
+	private String[] values;
+	private int index;
+
+	/**
+	 * Default constructor.
+	 */
+	public RegistryBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Fills the registry.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		this.registry = new Registry<String>();
+		this.values = new String[this.size];
+		for (int i = 0; i < this.size; i++) {
+			// new string instances such that the hash codes have to be computed by the registry once
+			this.values[i] = new String("public void kieker.benchmarks.MonitoredClass.monitoredMethod" + i + "()"); // NOPMD (new String)
+			this.registry.get(this.values[i]);
+		}
+	}
+
+	private int nextIndex() {
+		final int i = this.index + 1;
+		this.index = (i == this.size) ? 0 : i; // NOCS (inline conditional)
+		return i - 1;
+	}
+
+	/**
+	 * Looks up the id of a registered string.
+	 *
+	 * @return the id
+	 */
+	@Benchmark
+	public int getId() {
+		return this.registry.get(this.values[this.nextIndex()]);
+	}
+
+	/**
+	 * Looks up the string of a registered id.
+	 *
+	 * @return the string
+	 */
+	@Benchmark
+	public String getValue() {
+		return this.registry.get(this.nextIndex());
+	}
+}
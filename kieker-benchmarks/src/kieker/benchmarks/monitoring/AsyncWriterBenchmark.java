@@ -0,0 +1,123 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.benchmarks.monitoring;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.writer.AbstractAsyncWriter;
+import kieker.monitoring.writer.AsyncDummyWriter;
+
+/**
+ * Measures the enqueue path of the {@link AbstractAsyncWriter} for the different queue implementations and queue full behaviors. The writer thread
+ * discards all records, hence the results show the cost of the hand-over between the monitored threads and the writer thread. Use the JMH option
+ * {@code -t} to measure contention between several monitored threads.
+ *
+ * <p>
+ * The queue full behavior 0 (fail on a full queue) is not measured, since monitoring is terminated as soon as the producers outpace the writer thread.
+ * </p>
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class AsyncWriterBenchmark {
+
+	private static final String WRITER = AsyncDummyWriter.class.getName();
+
+	/** The queue implementation of the writer. */
+	@Param({ AbstractAsyncWriter.QUEUETYPE_ARRAY_BLOCKING, AbstractAsyncWriter.QUEUETYPE_MPSC })
+	public String queueType; // NOCS (JMH parameters have to be public)
+
+	/** The behavior of the writer on a full queue (1: block, 2: drop). */
+	@Param({ "1", "2" })
+	public String queueFullBehavior; // NOCS (JMH parameters have to be public)
+
+	/** The maximal number of records the writer thread removes from the queue at once. */
+	@Param({ "1", "64" })
+	public String drainBatchSize; // NOCS (JMH parameters have to be public)
+
+	private IMonitoringController monitoringController;
+	private IMonitoringRecord record;
+
+	/**
+	 * Default constructor.
+	 */
+	public AsyncWriterBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Creates a monitoring controller using the benchmark parameters.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.AUTO_SET_LOGGINGTSTAMP, "false");
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, WRITER);
+		configuration.setProperty(WRITER + '.' + AbstractAsyncWriter.CONFIG_QUEUETYPE, this.queueType);
+		configuration.setProperty(WRITER + '.' + AbstractAsyncWriter.CONFIG_BEHAVIOR, this.queueFullBehavior);
+		configuration.setProperty(WRITER + '.' + AbstractAsyncWriter.CONFIG_DRAIN_BATCHSIZE, this.drainBatchSize);
+		this.monitoringController = MonitoringController.createInstance(configuration);
+		this.record = new BeforeOperationEvent(1L, 1L, 0, "public void kieker.benchmarks.MonitoredClass.monitoredMethod()", "kieker.benchmarks.MonitoredClass");
+	}
+
+	/**
+	 * Terminates the monitoring controller.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.monitoringController.terminateMonitoring();
+	}
+
+	/**
+	 * Passes a record to the writer.
+	 *
+	 * @return whether the record has been accepted
+	 */
+	@Benchmark
+	public boolean enqueue() {
+		return this.monitoringController.newMonitoringRecord(this.record);
+	}
+}
@@ -0,0 +1,160 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.benchmarks.monitoring;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.flow.trace.TraceMetadata;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.core.registry.TraceRegistry;
+import kieker.monitoring.timer.ITimeSource;
+import kieker.monitoring.writer.SerializedRecordBuffer;
+
+/**
+ * Measures the monitoring overhead of a single monitored operation, i.e., the work done by the flow probes on entry and exit of an operation: registering
+ * the trace, taking the timestamps, and passing the events to the monitoring controller.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class MonitoringControllerBenchmark {
+
+	private static final String OPERATION_SIGNATURE = "public void kieker.benchmarks.MonitoredClass.monitoredMethod()";
+	private static final String CLASS_SIGNATURE = "kieker.benchmarks.MonitoredClass";
+
+	/** The writer receiving the records. */
+	@Param({ "kieker.monitoring.writer.DummyWriter", "kieker.monitoring.writer.AsyncDummyWriter" })
+	public String writer; // NOCS (JMH parameters have to be public)
+
+	/** The size of the serialized record batches (0 to create a record object per event). */
+	@Param({ "0", "65536" })
+	public int recordBatchSize; // NOCS (JMH parameters have to be public)
+
+	private IMonitoringController monitoringController;
+	private ITimeSource timeSource;
+	private SerializedRecordBuffer buffer;
+
+	/**
+	 * Default constructor.
+	 */
+	public MonitoringControllerBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Creates a monitoring controller using the benchmark parameters.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, this.writer);
+		configuration.setProperty(this.writer + ".QueueFullBehavior", "1"); // block instead of failing on a full queue
+		configuration.setProperty(ConfigurationFactory.RECORD_BATCH_SIZE, String.valueOf(this.recordBatchSize));
+		this.monitoringController = MonitoringController.createInstance(configuration);
+		this.timeSource = this.monitoringController.getTimeSource();
+		this.buffer = this.monitoringController.getSerializedRecordBuffer();
+	}
+
+	/**
+	 * Terminates the monitoring controller.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.monitoringController.terminateMonitoring();
+	}
+
+	/**
+	 * Performs the same steps as the operation execution flow probe for a monitored operation that starts a new trace.
+	 *
+	 * @return the trace id (to prevent dead code elimination)
+	 */
+	@Benchmark
+	public long probeEntryExit() {
+		final TraceRegistry traceRegistry = TraceRegistry.INSTANCE;
+		final TraceMetadata trace = traceRegistry.registerTrace();
+		this.monitoringController.newMonitoringRecord(trace);
+		final long traceId = trace.getTraceId();
+		if (null == this.buffer) {
+			this.monitoringController.newMonitoringRecord(new BeforeOperationEvent(this.timeSource.getTime(), traceId, trace.getNextOrderId(),
+					OPERATION_SIGNATURE, CLASS_SIGNATURE));
+			traceRegistry.unregisterTrace();
+			this.monitoringController.newMonitoringRecord(new AfterOperationEvent(this.timeSource.getTime(), traceId, trace.getNextOrderId(),
+					OPERATION_SIGNATURE, CLASS_SIGNATURE));
+		} else {
+			this.buffer.newBeforeOperationEvent(this.timeSource.getTime(), traceId, trace.getNextOrderId(), OPERATION_SIGNATURE, CLASS_SIGNATURE);
+			traceRegistry.unregisterTrace();
+			this.buffer.newAfterOperationEvent(this.timeSource.getTime(), traceId, trace.getNextOrderId(), OPERATION_SIGNATURE, CLASS_SIGNATURE);
+			this.buffer.flush();
+		}
+		return traceId;
+	}
+
+	/**
+	 * Measures the probe entry and exit without starting a new trace, i.e., for operations called within an already monitored operation.
+	 *
+	 * @return the order index (to prevent dead code elimination)
+	 */
+	@Benchmark
+	public int probeEntryExitNested() {
+		final TraceRegistry traceRegistry = TraceRegistry.INSTANCE;
+		TraceMetadata trace = traceRegistry.getTrace();
+		if (null == trace) {
+			trace = traceRegistry.registerTrace();
+			this.monitoringController.newMonitoringRecord(trace);
+		}
+		final long traceId = trace.getTraceId();
+		final int orderIndex = trace.getNextOrderId();
+		if (null == this.buffer) {
+			this.monitoringController.newMonitoringRecord(new BeforeOperationEvent(this.timeSource.getTime(), traceId, orderIndex, OPERATION_SIGNATURE,
+					CLASS_SIGNATURE));
+			this.monitoringController.newMonitoringRecord(new AfterOperationEvent(this.timeSource.getTime(), traceId, trace.getNextOrderId(),
+					OPERATION_SIGNATURE, CLASS_SIGNATURE));
+		} else {
+			this.buffer.newBeforeOperationEvent(this.timeSource.getTime(), traceId, orderIndex, OPERATION_SIGNATURE, CLASS_SIGNATURE);
+			this.buffer.newAfterOperationEvent(this.timeSource.getTime(), traceId, trace.getNextOrderId(), OPERATION_SIGNATURE, CLASS_SIGNATURE);
+		}
+		return orderIndex;
+	}
+}
@@ -0,0 +1,101 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.benchmarks.monitoring;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.timer.ITimeSource;
+
+/**
+ * Measures a single {@link ITimeSource#getTime()} call of the available time sources, as performed twice by the flow probes for each monitored operation.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class TimeSourceBenchmark {
+
+	/** The time source to measure. */
+	@Param({ "kieker.monitoring.timer.SystemNanoTimer", "kieker.monitoring.timer.SystemMilliTimer", "kieker.monitoring.timer.SystemRawNanoTimer",
+		"kieker.monitoring.timer.CachedClockTimer" })
+	public String timer; // NOCS (JMH parameters have to be public)
+
+	private IMonitoringController monitoringController;
+	private ITimeSource timeSource;
+
+	/**
+	 * Default constructor.
+	 */
+	public TimeSourceBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Creates a monitoring controller using the time source to measure.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, "kieker.monitoring.writer.DummyWriter");
+		configuration.setProperty(ConfigurationFactory.TIMER_CLASSNAME, this.timer);
+		this.monitoringController = MonitoringController.createInstance(configuration);
+		this.timeSource = this.monitoringController.getTimeSource();
+	}
+
+	/**
+	 * Terminates the monitoring controller.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.monitoringController.terminateMonitoring();
+	}
+
+	/**
+	 * Reads the current time.
+	 *
+	 * @return the time (to prevent dead code elimination)
+	 */
+	@Benchmark
+	public long getTime() {
+		return this.timeSource.getTime();
+	}
+}
@@ -0,0 +1,106 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.benchmarks.junit.common;
+
+import java.io.File;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Param;
+
+import kieker.benchmarks.common.RecordSerializationBenchmark;
+import kieker.common.record.IMonitoringRecord;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests that the {@link RecordSerializationBenchmark} covers all generated records.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestRecordSerializationBenchmark extends AbstractKiekerTest {
+
+	private static final String GENERATED_SOURCES = "../kieker-common/src-gen";
+	private static final String JAVA_FILE_EXTENSION = ".java";
+
+	/**
+	 * Default constructor.
+	 */
+	public TestRecordSerializationBenchmark() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that the benchmark parameters contain exactly the concrete record classes generated in kieker-common.
+	 *
+	 * @throws Exception
+	 *             If the parameters or a generated class cannot be loaded.
+	 */
+	@Test
+	public void testAllGeneratedRecordsAreBenchmarked() throws Exception {
+		final Param param = RecordSerializationBenchmark.class.getField("recordClassName").getAnnotation(Param.class);
+		final Set<String> benchmarkedRecords = new TreeSet<String>(Arrays.asList(param.value()));
+
+		final Set<String> generatedRecords = new TreeSet<String>();
+		final File sourceDirectory = new File(this.modulePathToWorkingPath(GENERATED_SOURCES));
+		TestRecordSerializationBenchmark.collectRecords(sourceDirectory, "", generatedRecords);
+		Assert.assertFalse("No generated records found in " + sourceDirectory, generatedRecords.isEmpty());
+
+		Assert.assertEquals("The records of the benchmark do not match the generated records", generatedRecords, benchmarkedRecords);
+	}
+
+	/**
+	 * Tests that the benchmark can serialize and deserialize each of its records.
+	 *
+	 * @throws Exception
+	 *             If the benchmark could not be set up.
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		final Param param = RecordSerializationBenchmark.class.getField("recordClassName").getAnnotation(Param.class);
+		for (final String recordClassName : param.value()) {
+			final RecordSerializationBenchmark benchmark = new RecordSerializationBenchmark();
+			benchmark.recordClassName = recordClassName;
+			benchmark.setup();
+			Assert.assertEquals(recordClassName, benchmark.roundTrip().getClass().getName());
+		}
+	}
+
+	private static void collectRecords(final File directory, final String packagePrefix, final Set<String> records) throws ClassNotFoundException {
+		final File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (final File file : files) {
+			final String name = file.getName();
+			if (file.isDirectory()) {
+				TestRecordSerializationBenchmark.collectRecords(file, packagePrefix + name + ".", records);
+			} else if (name.endsWith(JAVA_FILE_EXTENSION)) {
+				final Class<?> clazz = Class.forName(packagePrefix + name.substring(0, name.length() - JAVA_FILE_EXTENSION.length()));
+				if (IMonitoringRecord.class.isAssignableFrom(clazz) && !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers())) {
+					records.add(clazz.getName());
+				}
+			}
+		}
+	}
+}
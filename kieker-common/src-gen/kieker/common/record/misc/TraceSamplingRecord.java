@@ -0,0 +1,213 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.record.misc;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.registry.IRegistry;
+import kieker.common.util.Version;
+
+
+/**
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TraceSamplingRecord extends AbstractMonitoringRecord implements IMonitoringRecord.Factory, IMonitoringRecord.BinaryFactory {
+	/** Descriptive definition of the serialization size of the record. */
+	public static final int SIZE = TYPE_SIZE_DOUBLE // TraceSamplingRecord.samplingRate
+			 + TYPE_SIZE_LONG // TraceSamplingRecord.sampledTraces
+			 + TYPE_SIZE_LONG // TraceSamplingRecord.droppedTraces
+	;
+	private static final long serialVersionUID = 4923618734511286047L;
+	
+	public static final Class<?>[] TYPES = {
+		double.class, // TraceSamplingRecord.samplingRate
+		long.class, // TraceSamplingRecord.sampledTraces
+		long.class, // TraceSamplingRecord.droppedTraces
+	};
+	
+	/* user-defined constants */
+	/* default constants */
+	public static final double SAMPLING_RATE = 1.0;
+	public static final long SAMPLED_TRACES = 0L;
+	public static final long DROPPED_TRACES = 0L;
+	/* property declarations */
+	private final double samplingRate;
+	private final long sampledTraces;
+	private final long droppedTraces;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 * 
+	 * @param samplingRate
+	 *            samplingRate
+	 * @param sampledTraces
+	 *            sampledTraces
+	 * @param droppedTraces
+	 *            droppedTraces
+	 */
+	public TraceSamplingRecord(final double samplingRate, final long sampledTraces, final long droppedTraces) {
+		this.samplingRate = samplingRate;
+		this.sampledTraces = sampledTraces;
+		this.droppedTraces = droppedTraces;
+	}
+
+	/**
+	 * This constructor converts the given array into a record.
+	 * It is recommended to use the array which is the result of a call to {@link #toArray()}.
+	 * 
+	 * @param values
+	 *            The values for the record.
+	 */
+	public TraceSamplingRecord(final Object[] values) { // NOPMD (direct store of values)
+		AbstractMonitoringRecord.checkArray(values, TYPES);
+		this.samplingRate = (Double) values[0];
+		this.sampledTraces = (Long) values[1];
+		this.droppedTraces = (Long) values[2];
+	}
+	
+	/**
+	 * This constructor uses the given array to initialize the fields of this record.
+	 * 
+	 * @param values
+	 *            The values for the record.
+	 * @param valueTypes
+	 *            The types of the elements in the first array.
+	 */
+	protected TraceSamplingRecord(final Object[] values, final Class<?>[] valueTypes) { // NOPMD (values stored directly)
+		AbstractMonitoringRecord.checkArray(values, valueTypes);
+		this.samplingRate = (Double) values[0];
+		this.sampledTraces = (Long) values[1];
+		this.droppedTraces = (Long) values[2];
+	}
+
+	/**
+	 * This constructor converts the given array into a record.
+	 * 
+	 * @param buffer
+	 *            The bytes for the record.
+	 * 
+	 * @throws BufferUnderflowException
+	 *             if buffer not sufficient
+	 */
+	public TraceSamplingRecord(final ByteBuffer buffer, final IRegistry<String> stringRegistry) throws BufferUnderflowException {
+		this.samplingRate = buffer.getDouble();
+		this.sampledTraces = buffer.getLong();
+		this.droppedTraces = buffer.getLong();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] toArray() {
+		return new Object[] {
+			this.getSamplingRate(),
+			this.getSampledTraces(),
+			this.getDroppedTraces()
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void registerStrings(final IRegistry<String> stringRegistry) {	// NOPMD (generated code)
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeBytes(final ByteBuffer buffer, final IRegistry<String> stringRegistry) throws BufferOverflowException {
+		buffer.putDouble(this.getSamplingRate());
+		buffer.putLong(this.getSampledTraces());
+		buffer.putLong(this.getDroppedTraces());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?>[] getValueTypes() {
+		return TYPES; // NOPMD
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSize() {
+		return SIZE;
+	}
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @deprecated This record uses the {@link kieker.common.record.IMonitoringRecord.Factory} mechanism. Hence, this method is not implemented.
+	 */
+	@Override
+	@Deprecated
+	public void initFromArray(final Object[] values) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @deprecated This record uses the {@link kieker.common.record.IMonitoringRecord.BinaryFactory} mechanism. Hence, this method is not implemented.
+	 */
+	@Override
+	@Deprecated
+	public void initFromBytes(final ByteBuffer buffer, final IRegistry<String> stringRegistry) throws BufferUnderflowException {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj == null) return false;
+		if (obj == this) return true;
+		if (obj.getClass() != this.getClass()) return false;
+		
+		final TraceSamplingRecord castedRecord = (TraceSamplingRecord) obj;
+		if (this.getLoggingTimestamp() != castedRecord.getLoggingTimestamp()) return false;
+		if (isNotEqual(this.getSamplingRate(), castedRecord.getSamplingRate())) return false;
+		if (this.getSampledTraces() != castedRecord.getSampledTraces()) return false;
+		if (this.getDroppedTraces() != castedRecord.getDroppedTraces()) return false;
+		return true;
+	}
+
+	public final double getSamplingRate() {
+		return this.samplingRate;
+	}
+	
+	public final long getSampledTraces() {
+		return this.sampledTraces;
+	}
+	
+	public final long getDroppedTraces() {
+		return this.droppedTraces;
+	}
+	
+}
@@ -0,0 +1,338 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.filesystem;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+import kieker.common.util.registry.StringDictionary;
+
+/**
+ * Writes and reads the lines of Kieker's ASCII record files ({@code $classId;loggingTimestamp;field;...}) without creating an intermediate {@code Object[]}
+ * or splitting the line with a regular expression. The fields are transferred via the binary representation of the records: when writing, the record is
+ * serialized into a buffer and the values are formatted from the buffer according to the types of the record; when reading, the parsed values are put into
+ * the buffer and the record is created by its binary factory.
+ *
+ * <p>
+ * Only record types whose fields are primitive values or strings and whose {@code SIZE} matches their {@code TYPES} are supported. For all other types (and
+ * malformed lines), the methods return false or null and the caller has to fall back to the generic methods of {@link AbstractMonitoringRecord}. The format
+ * is the same in both cases.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class AsciiRecordCodec {
+
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+	private static final int MAX_LONG_DIGITS = 20;
+	private static final String NULL = "null";
+
+	private final Map<Class<?>, byte[]> layouts = new HashMap<Class<?>, byte[]>(); // NOPMD (no concurrent access)
+	private final CachedRecordFactoryCatalog recordFactories = CachedRecordFactoryCatalog.getInstance();
+	private final StringDictionary stringRegistry = new StringDictionary();
+	private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+	private char[] chars = new char[INITIAL_BUFFER_SIZE];
+	private int length;
+
+	/**
+	 * Creates a new codec.
+	 */
+	public AsciiRecordCodec() {
+		// empty default constructor
+	}
+
+	/**
+	 * Writes the line for the given record (without a line separator).
+	 *
+	 * @param record
+	 *            The record to write.
+	 * @param classId
+	 *            The id of the class name of the record.
+	 * @param writer
+	 *            The writer to write the line to.
+	 *
+	 * @return true if the line has been written; false if the type of the record is not supported.
+	 *
+	 * @throws IOException
+	 *             If the writer failed.
+	 */
+	public boolean write(final IMonitoringRecord record, final int classId, final Writer writer) throws IOException {
+		final byte[] layout = this.getLayout(record.getClass());
+		if (layout == RecordLayout.UNSUPPORTED) { // NOPMD (CompareObjectsWithEquals)
+			return false;
+		}
+		final ByteBuffer localBuffer = this.prepareBuffer(record.getSize());
+		final StringDictionary strings = this.stringRegistry;
+		strings.clear();
+		record.writeBytes(localBuffer, strings);
+		localBuffer.flip();
+
+		this.length = 0;
+		this.appendChar('$');
+		this.appendLong(classId);
+		this.appendChar(';');
+		this.appendLong(record.getLoggingTimestamp());
+		for (final byte kind : layout) {
+			this.appendChar(';');
+			switch (kind) {
+			case RecordLayout.KIND_STRING:
+				this.appendString(strings.get(localBuffer.getInt()));
+				break;
+			case RecordLayout.KIND_INT:
+				this.appendLong(localBuffer.getInt());
+				break;
+			case RecordLayout.KIND_LONG:
+				this.appendLong(localBuffer.getLong());
+				break;
+			case RecordLayout.KIND_SHORT:
+				this.appendLong(localBuffer.getShort());
+				break;
+			case RecordLayout.KIND_BYTE:
+				this.appendLong(localBuffer.get());
+				break;
+			case RecordLayout.KIND_BOOLEAN:
+				this.appendString((localBuffer.get() == 1) ? "true" : "false"); // NOCS (InlineConditionalCheck)
+				break;
+			case RecordLayout.KIND_FLOAT:
+				this.appendString(Float.toString(localBuffer.getFloat()));
+				break;
+			case RecordLayout.KIND_DOUBLE:
+				this.appendString(Double.toString(localBuffer.getDouble()));
+				break;
+			default:
+				throw new IllegalStateException("Unknown field kind " + kind);
+			}
+		}
+		writer.write(this.chars, 0, this.length);
+		return true;
+	}
+
+	/**
+	 * Reads a record of the given type from the given line.
+	 *
+	 * @param line
+	 *            The line to read (without leading or trailing whitespace).
+	 * @param offset
+	 *            The position of the logging timestamp within the line, i.e., the position following the separator after the class id.
+	 * @param clazz
+	 *            The type of the record.
+	 *
+	 * @return The record or null if the type is not supported or the line does not contain a valid record of the given type.
+	 */
+	public IMonitoringRecord read(final String line, final int offset, final Class<? extends IMonitoringRecord> clazz) {
+		final byte[] layout = this.getLayout(clazz);
+		if (layout == RecordLayout.UNSUPPORTED) { // NOPMD (CompareObjectsWithEquals)
+			return null;
+		}
+		final int lineLength = line.length();
+		final ByteBuffer localBuffer = this.prepareBuffer(0);
+		final StringDictionary strings = this.stringRegistry;
+		strings.clear();
+		try {
+			int end = AsciiRecordCodec.nextSeparator(line, offset);
+			final long loggingTimestamp = AsciiRecordCodec.parseLong(line, offset, end, Long.MIN_VALUE, Long.MAX_VALUE);
+			for (final byte kind : layout) {
+				if (end >= lineLength) {
+					return null; // missing fields
+				}
+				final int start = end + 1;
+				end = AsciiRecordCodec.nextSeparator(line, start);
+				switch (kind) {
+				case RecordLayout.KIND_STRING:
+					localBuffer.putInt(strings.get(line.substring(start, end)));
+					break;
+				case RecordLayout.KIND_INT:
+					localBuffer.putInt((int) AsciiRecordCodec.parseLong(line, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE));
+					break;
+				case RecordLayout.KIND_LONG:
+					localBuffer.putLong(AsciiRecordCodec.parseLong(line, start, end, Long.MIN_VALUE, Long.MAX_VALUE));
+					break;
+				case RecordLayout.KIND_SHORT:
+					localBuffer.putShort((short) AsciiRecordCodec.parseLong(line, start, end, Short.MIN_VALUE, Short.MAX_VALUE)); // NOPMD (short)
+					break;
+				case RecordLayout.KIND_BYTE:
+					localBuffer.put((byte) AsciiRecordCodec.parseLong(line, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE));
+					break;
+				case RecordLayout.KIND_BOOLEAN:
+					localBuffer.put((byte) ((((end - start) == 4) && line.regionMatches(true, start, "true", 0, 4)) ? 1 : 0)); // NOCS (same as Boolean.valueOf)
+					break;
+				case RecordLayout.KIND_FLOAT:
+					localBuffer.putFloat(Float.parseFloat(line.substring(start, end)));
+					break;
+				case RecordLayout.KIND_DOUBLE:
+					localBuffer.putDouble(Double.parseDouble(line.substring(start, end)));
+					break;
+				default:
+					throw new IllegalStateException("Unknown field kind " + kind);
+				}
+			}
+			if (end != lineLength) {
+				return null; // additional fields
+			}
+			localBuffer.flip();
+			final IRecordFactory<? extends IMonitoringRecord> recordFactory = this.recordFactories.get(clazz.getName());
+			final IMonitoringRecord record = recordFactory.create(localBuffer, strings);
+			record.setLoggingTimestamp(loggingTimestamp);
+			return record;
+		} catch (final BufferOverflowException ex) {
+			this.buffer = ByteBuffer.allocate(this.buffer.capacity() * 2);
+			return this.read(line, offset, clazz);
+		} catch (final RuntimeException ex) { // NOPMD NOCS (e.g., NumberFormatException; the caller reports the error with the generic methods)
+			return null;
+		}
+	}
+
+	/**
+	 * Parses the id of the class name at the beginning of a line ({@code $classId;}).
+	 *
+	 * @param line
+	 *            The line to read.
+	 *
+	 * @return The id or -1 if the line does not start with a valid id.
+	 */
+	public static int parseClassId(final String line) {
+		final int end = line.indexOf(';');
+		if ((end < 2) || (line.charAt(0) != '$')) {
+			return -1;
+		}
+		try {
+			return (int) AsciiRecordCodec.parseLong(line, 1, end, 0, Integer.MAX_VALUE);
+		} catch (final NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	private static int nextSeparator(final String line, final int start) {
+		final int end = line.indexOf(';', start);
+		return (end < 0) ? line.length() : end; // NOCS (InlineConditionalCheck)
+	}
+
+	/**
+	 * Parses a decimal number like {@link Long#parseLong(String)} does, but without creating a substring.
+	 */
+	private static long parseLong(final String line, final int start, final int end, final long min, final long max) throws NumberFormatException {
+		if (start >= end) {
+			throw new NumberFormatException("Empty number");
+		}
+		int i = start;
+		boolean negative = false;
+		final char first = line.charAt(i);
+		if ((first == '-') || (first == '+')) {
+			negative = first == '-';
+			i++;
+			if (i == end) {
+				throw new NumberFormatException("Missing digits");
+			}
+		}
+		// accumulate negatively to cover Long.MIN_VALUE
+		final long limit = negative ? min : -max; // NOCS (InlineConditionalCheck)
+		final long multiplicationLimit = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			final int digit = line.charAt(i) - '0';
+			if ((digit < 0) || (digit > 9)) {
+				throw new NumberFormatException("Invalid digit");
+			}
+			if (result < multiplicationLimit) {
+				throw new NumberFormatException("Number out of range");
+			}
+			result *= 10;
+			if (result < (limit + digit)) {
+				throw new NumberFormatException("Number out of range");
+			}
+			result -= digit;
+		}
+		return negative ? result : -result; // NOCS (InlineConditionalCheck)
+	}
+
+	private ByteBuffer prepareBuffer(final int size) {
+		if (size > this.buffer.capacity()) {
+			this.buffer = ByteBuffer.allocate(Math.max(size, this.buffer.capacity() * 2));
+		}
+		this.buffer.clear();
+		return this.buffer;
+	}
+
+	private void ensureCapacity(final int additionalChars) {
+		final int required = this.length + additionalChars;
+		if (required > this.chars.length) {
+			final char[] newChars = new char[Math.max(required, this.chars.length * 2)];
+			System.arraycopy(this.chars, 0, newChars, 0, this.length);
+			this.chars = newChars;
+		}
+	}
+
+	private void appendChar(final char c) {
+		this.ensureCapacity(1);
+		this.chars[this.length++] = c;
+	}
+
+	private void appendString(final String value) {
+		final String str = (value == null) ? NULL : value; // NOCS (InlineConditionalCheck; same as String.valueOf)
+		final int strLength = str.length();
+		this.ensureCapacity(strLength);
+		str.getChars(0, strLength, this.chars, this.length);
+		this.length += strLength;
+	}
+
+	/**
+	 * Formats a decimal number like {@link Long#toString(long)} does, but directly into the character buffer.
+	 */
+	private void appendLong(final long value) {
+		if (value == Long.MIN_VALUE) { // cannot be negated
+			this.appendString(Long.toString(value));
+			return;
+		}
+		this.ensureCapacity(MAX_LONG_DIGITS);
+		long remaining = value;
+		if (remaining < 0) {
+			this.chars[this.length++] = '-';
+			remaining = -remaining;
+		}
+		int digits = 1;
+		for (long i = remaining / 10; i > 0; i /= 10) {
+			digits++;
+		}
+		int pos = this.length + digits;
+		this.length = pos;
+		do {
+			this.chars[--pos] = (char) ('0' + (remaining % 10));
+			remaining /= 10;
+		} while (remaining > 0);
+	}
+
+	private byte[] getLayout(final Class<?> clazz) {
+		byte[] layout = this.layouts.get(clazz);
+		if (layout == null) {
+			layout = RecordLayout.create(clazz);
+			this.layouts.put(clazz, layout);
+		}
+		return layout;
+	}
+}
@@ -0,0 +1,407 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.filesystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.flow.ITraceRecord;
+import kieker.common.record.flow.trace.TraceMetadata;
+
+/**
+ * The index of a binary record file which is stored in a sidecar file next to the record file. The record file is divided into blocks of consecutive
+ * records. For each block, the index contains its position within the uncompressed record stream, the range of logging timestamps and trace ids of its
+ * records and the number of records per record type. Readers use the index to skip blocks which contain no record of interest without decoding them.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public final class BlockIndex {
+
+	/** The version of the index format. */
+	public static final int VERSION = 1;
+
+	private final List<Block> blocks;
+
+	/**
+	 * Creates a new empty index.
+	 */
+	public BlockIndex() {
+		this.blocks = new ArrayList<Block>();
+	}
+
+	private BlockIndex(final List<Block> blocks) {
+		this.blocks = blocks;
+	}
+
+	/**
+	 * Delivers the index file belonging to the given record file.
+	 * 
+	 * @param recordFile
+	 *            the record file
+	 * 
+	 * @return the index file of the record file (which might not exist)
+	 */
+	public static File getIndexFile(final File recordFile) {
+		return new File(recordFile.getPath() + FSUtil.INDEX_FILE_EXTENSION);
+	}
+
+	/**
+	 * Reads the index stored in the given index file.
+	 * 
+	 * @param indexFile
+	 *            the index file
+	 * 
+	 * @return the index
+	 * 
+	 * @throws IOException
+	 *             if the file could not be read or is no valid index
+	 */
+	public static BlockIndex read(final File indexFile) throws IOException {
+		final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+		try {
+			final int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported index version " + version + " in " + indexFile);
+			}
+			final int numberOfBlocks = in.readInt();
+			final List<Block> blocks = new ArrayList<Block>(numberOfBlocks);
+			for (int i = 0; i < numberOfBlocks; i++) {
+				blocks.add(Block.read(in));
+			}
+			return new BlockIndex(blocks);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes this index into the given index file.
+	 * 
+	 * @param indexFile
+	 *            the index file
+	 * 
+	 * @throws IOException
+	 *             if the file could not be written
+	 */
+	public void write(final File indexFile) throws IOException {
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+		try {
+			out.writeInt(VERSION);
+			out.writeInt(this.blocks.size());
+			for (final Block block : this.blocks) {
+				block.write(out);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Appends the given block to this index.
+	 * 
+	 * @param block
+	 *            the block following the last block of this index
+	 */
+	public void add(final Block block) {
+		this.blocks.add(block);
+	}
+
+	/**
+	 * @return the blocks in the order of the record file
+	 */
+	public List<Block> getBlocks() {
+		return Collections.unmodifiableList(this.blocks);
+	}
+
+	/**
+	 * Checks whether the given record carries a trace id. These are all {@link ITraceRecord}s, {@link TraceMetadata} and {@link OperationExecutionRecord}s.
+	 * 
+	 * @param record
+	 *            the record to check
+	 * 
+	 * @return true if and only if {@link #getTraceId(IMonitoringRecord)} delivers the trace id of the record
+	 */
+	public static boolean hasTraceId(final IMonitoringRecord record) {
+		return (record instanceof ITraceRecord) || (record instanceof TraceMetadata) || (record instanceof OperationExecutionRecord);
+	}
+
+	/**
+	 * @param record
+	 *            a record carrying a trace id
+	 * 
+	 * @return the trace id of the record or 0 if the record carries no trace id
+	 */
+	public static long getTraceId(final IMonitoringRecord record) {
+		if (record instanceof ITraceRecord) {
+			return ((ITraceRecord) record).getTraceId();
+		} else if (record instanceof TraceMetadata) {
+			return ((TraceMetadata) record).getTraceId();
+		} else if (record instanceof OperationExecutionRecord) {
+			return ((OperationExecutionRecord) record).getTraceId();
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * A block of consecutive records. While a block is written, the records are added one after another.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	public static final class Block {
+		private long offset;
+		private int length;
+		private int numberOfRecords;
+		private int numberOfTraceRecords;
+		private long minTimestamp = Long.MAX_VALUE;
+		private long maxTimestamp = Long.MIN_VALUE;
+		private long minTraceId = Long.MAX_VALUE;
+		private long maxTraceId = Long.MIN_VALUE;
+		private int numberOfTypes;
+		private int[] typeIds = new int[4];
+		private int[] typeCounts = new int[4];
+
+		/**
+		 * Creates a new empty block.
+		 */
+		public Block() {
+			// empty default constructor
+		}
+
+		/**
+		 * Adds the given record to this block.
+		 * 
+		 * @param record
+		 *            the record
+		 * @param typeId
+		 *            the id of the record type (as written into the record file)
+		 */
+		public void add(final IMonitoringRecord record, final int typeId) {
+			if (hasTraceId(record)) {
+				this.add(typeId, record.getLoggingTimestamp(), true, getTraceId(record));
+			} else {
+				this.add(typeId, record.getLoggingTimestamp(), false, 0);
+			}
+		}
+
+		/**
+		 * Adds a record to this block.
+		 * 
+		 * @param typeId
+		 *            the id of the record type (as written into the record file)
+		 * @param loggingTimestamp
+		 *            the logging timestamp of the record
+		 * @param withTraceId
+		 *            whether the record carries a trace id
+		 * @param traceId
+		 *            the trace id of the record (ignored if the record carries no trace id)
+		 */
+		public void add(final int typeId, final long loggingTimestamp, final boolean withTraceId, final long traceId) {
+			this.numberOfRecords++;
+			if (loggingTimestamp < this.minTimestamp) {
+				this.minTimestamp = loggingTimestamp;
+			}
+			if (loggingTimestamp > this.maxTimestamp) {
+				this.maxTimestamp = loggingTimestamp;
+			}
+			if (withTraceId) {
+				this.numberOfTraceRecords++;
+				if (traceId < this.minTraceId) {
+					this.minTraceId = traceId;
+				}
+				if (traceId > this.maxTraceId) {
+					this.maxTraceId = traceId;
+				}
+			}
+			for (int i = 0; i < this.numberOfTypes; i++) {
+				if (this.typeIds[i] == typeId) {
+					this.typeCounts[i]++;
+					return;
+				}
+			}
+			if (this.numberOfTypes == this.typeIds.length) {
+				this.typeIds = Arrays.copyOf(this.typeIds, this.numberOfTypes * 2);
+				this.typeCounts = Arrays.copyOf(this.typeCounts, this.numberOfTypes * 2);
+			}
+			this.typeIds[this.numberOfTypes] = typeId;
+			this.typeCounts[this.numberOfTypes] = 1;
+			this.numberOfTypes++;
+		}
+
+		/**
+		 * Sets the position of this block within the uncompressed record stream of the file.
+		 * 
+		 * @param offset
+		 *            the offset of the first byte of the block
+		 * @param length
+		 *            the number of bytes of the block
+		 */
+		public void setPosition(final long offset, final int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * Checks whether this block may contain a record within the given ranges. Records without a trace id only have to match the timestamp range. All
+		 * bounds are inclusive.
+		 * 
+		 * @param fromTimestamp
+		 *            the lowest selected logging timestamp
+		 * @param toTimestamp
+		 *            the highest selected logging timestamp
+		 * @param fromTraceId
+		 *            the lowest selected trace id
+		 * @param toTraceId
+		 *            the highest selected trace id
+		 * 
+		 * @return false if and only if no record of this block is selected
+		 */
+		public boolean overlaps(final long fromTimestamp, final long toTimestamp, final long fromTraceId, final long toTraceId) {
+			if ((this.numberOfRecords == 0) || (this.maxTimestamp < fromTimestamp) || (this.minTimestamp > toTimestamp)) {
+				return false;
+			}
+			if (this.numberOfTraceRecords < this.numberOfRecords) {
+				return true;
+			}
+			return (this.maxTraceId >= fromTraceId) && (this.minTraceId <= toTraceId);
+		}
+
+		/**
+		 * @return the offset of this block within the uncompressed record stream
+		 */
+		public long getOffset() {
+			return this.offset;
+		}
+
+		/**
+		 * @return the number of bytes of this block
+		 */
+		public int getLength() {
+			return this.length;
+		}
+
+		/**
+		 * @return the number of records of this block
+		 */
+		public int getNumberOfRecords() {
+			return this.numberOfRecords;
+		}
+
+		/**
+		 * @return the number of records of this block carrying a trace id
+		 */
+		public int getNumberOfTraceRecords() {
+			return this.numberOfTraceRecords;
+		}
+
+		/**
+		 * @return the lowest logging timestamp within this block
+		 */
+		public long getMinTimestamp() {
+			return this.minTimestamp;
+		}
+
+		/**
+		 * @return the highest logging timestamp within this block
+		 */
+		public long getMaxTimestamp() {
+			return this.maxTimestamp;
+		}
+
+		/**
+		 * @return the lowest trace id within this block (only meaningful if the block contains records with trace ids)
+		 */
+		public long getMinTraceId() {
+			return this.minTraceId;
+		}
+
+		/**
+		 * @return the highest trace id within this block (only meaningful if the block contains records with trace ids)
+		 */
+		public long getMaxTraceId() {
+			return this.maxTraceId;
+		}
+
+		/**
+		 * @param typeId
+		 *            the id of a record type
+		 * 
+		 * @return the number of records of the given type within this block
+		 */
+		public int getNumberOfRecords(final int typeId) {
+			for (int i = 0; i < this.numberOfTypes; i++) {
+				if (this.typeIds[i] == typeId) {
+					return this.typeCounts[i];
+				}
+			}
+			return 0;
+		}
+
+		private void write(final DataOutputStream out) throws IOException {
+			out.writeLong(this.offset);
+			out.writeInt(this.length);
+			out.writeInt(this.numberOfRecords);
+			out.writeInt(this.numberOfTraceRecords);
+			out.writeLong(this.minTimestamp);
+			out.writeLong(this.maxTimestamp);
+			out.writeLong(this.minTraceId);
+			out.writeLong(this.maxTraceId);
+			out.writeInt(this.numberOfTypes);
+			for (int i = 0; i < this.numberOfTypes; i++) {
+				out.writeInt(this.typeIds[i]);
+				out.writeInt(this.typeCounts[i]);
+			}
+		}
+
+		private static Block read(final DataInputStream in) throws IOException {
+			final Block block = new Block();
+			block.offset = in.readLong();
+			block.length = in.readInt();
+			block.numberOfRecords = in.readInt();
+			block.numberOfTraceRecords = in.readInt();
+			block.minTimestamp = in.readLong();
+			block.maxTimestamp = in.readLong();
+			block.minTraceId = in.readLong();
+			block.maxTraceId = in.readLong();
+			final int numberOfTypes = in.readInt();
+			block.numberOfTypes = numberOfTypes;
+			block.typeIds = new int[Math.max(4, numberOfTypes)];
+			block.typeCounts = new int[Math.max(4, numberOfTypes)];
+			for (int i = 0; i < numberOfTypes; i++) {
+				block.typeIds[i] = in.readInt();
+				block.typeCounts[i] = in.readInt();
+			}
+			return block;
+		}
+	}
+}
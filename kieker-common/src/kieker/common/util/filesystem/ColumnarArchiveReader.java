@@ -0,0 +1,536 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.filesystem;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+import kieker.common.util.registry.IRegistry;
+import kieker.common.util.registry.StringDictionary;
+
+/**
+ * Reads columnar archive files written by the {@link ColumnarArchiveWriter}. Analyses can read single columns of single row groups without creating any
+ * records; only the bytes of the requested columns are read from the file. Alternatively, all records of a row group can be created. Archives which have not
+ * been closed (e.g., because the monitored JVM crashed) are read up to their last complete row group (see {@link #isComplete()}).
+ *
+ * <p>
+ * The columns of a record type are numbered starting with the {@link #LOGGING_TIMESTAMP_COLUMN}, followed by one column per value in the order of the value
+ * types of the record type. This class is not thread-safe.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class ColumnarArchiveReader {
+
+	/** The number of the column containing the logging timestamps. */
+	public static final int LOGGING_TIMESTAMP_COLUMN = 0;
+
+	private static final int FILE_HEADER_SIZE = 4 + 4;
+	private static final int ROW_GROUP_HEADER_SIZE = 4 + 4;
+
+	private final RandomAccessFile file;
+	private final String[] dictionary;
+	private final IRegistry<String> dictionaryRegistry;
+	private final List<String> typeNames;
+	private final byte[][] layouts;
+	private final ColumnarArchiveWriter.RowGroup[] rowGroups;
+	private final boolean complete;
+
+	private byte[] bytes = new byte[1024];
+
+	/**
+	 * Opens the given archive and reads the headers of its row groups.
+	 *
+	 * @param archiveFile
+	 *            the archive file
+	 *
+	 * @throws IOException
+	 *             if the file could not be read or is no valid archive
+	 */
+	public ColumnarArchiveReader(final File archiveFile) throws IOException {
+		this.file = new RandomAccessFile(archiveFile, "r");
+		try {
+			final long length = this.file.length();
+			if (length < FILE_HEADER_SIZE) {
+				throw new IOException("Incomplete columnar archive " + archiveFile);
+			}
+			if ((this.file.readInt() != ColumnarArchiveWriter.MAGIC) || (this.file.readInt() != ColumnarArchiveWriter.VERSION)) {
+				throw new IOException("Unsupported columnar archive " + archiveFile);
+			}
+			final List<String> strings = new ArrayList<String>();
+			final List<String> names = new ArrayList<String>();
+			final List<byte[]> typeLayouts = new ArrayList<byte[]>();
+			final List<ColumnarArchiveWriter.RowGroup> groups = new ArrayList<ColumnarArchiveWriter.RowGroup>();
+			boolean endMarkerFound = false;
+			long position = FILE_HEADER_SIZE;
+			while ((position + 4) <= length) {
+				this.file.seek(position);
+				final int marker = this.file.readInt();
+				if (marker == ColumnarArchiveWriter.END_MARKER) {
+					endMarkerFound = true;
+					break;
+				}
+				if ((marker != ColumnarArchiveWriter.ROW_GROUP_MARKER) || ((position + ROW_GROUP_HEADER_SIZE) > length)) {
+					break;
+				}
+				final int headerLength = this.file.readInt();
+				final long dataOffset = position + ROW_GROUP_HEADER_SIZE + headerLength;
+				if ((headerLength < 0) || (dataOffset > length)) {
+					break;
+				}
+				final byte[] headerBytes = new byte[headerLength];
+				this.file.readFully(headerBytes);
+				final long end = ColumnarArchiveReader.readRowGroupHeader(new DataInputStream(new ByteArrayInputStream(headerBytes)), dataOffset, length, strings,
+						names, typeLayouts, groups);
+				if (end > length) { // the columns of the last row group are incomplete
+					break;
+				}
+				position = end;
+			}
+			final int numberOfTypes = names.size();
+			this.dictionary = strings.toArray(new String[strings.size()]);
+			this.dictionaryRegistry = new StringDictionary(this.dictionary);
+			this.typeNames = Collections.unmodifiableList(names);
+			this.layouts = typeLayouts.toArray(new byte[numberOfTypes][]);
+			this.rowGroups = groups.toArray(new ColumnarArchiveWriter.RowGroup[groups.size()]);
+			this.complete = endMarkerFound;
+		} catch (final IOException ex) {
+			this.file.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Closes the archive.
+	 *
+	 * @throws IOException
+	 *             if the file could not be closed
+	 */
+	public void close() throws IOException {
+		this.file.close();
+	}
+
+	/**
+	 * @return true if the archive has been closed properly; false if it has been read up to its last complete row group only
+	 */
+	public boolean isComplete() {
+		return this.complete;
+	}
+
+	/**
+	 * @return the names of the record types contained in the archive
+	 */
+	public List<String> getRecordTypes() {
+		return this.typeNames;
+	}
+
+	/**
+	 * @param recordType
+	 *            the name of a record type of the archive
+	 *
+	 * @return the number of columns of the record type (including the logging timestamp)
+	 */
+	public int getNumberOfColumns(final String recordType) {
+		return this.layouts[this.getTypeIndex(recordType)].length + 1;
+	}
+
+	/**
+	 * @return the number of row groups of the archive
+	 */
+	public int getNumberOfRowGroups() {
+		return this.rowGroups.length;
+	}
+
+	/**
+	 * @param rowGroup
+	 *            the number of the row group
+	 *
+	 * @return the number of records of all types within the row group
+	 */
+	public int getNumberOfRecords(final int rowGroup) {
+		return this.rowGroups[rowGroup].numberOfRecords;
+	}
+
+	/**
+	 * @param rowGroup
+	 *            the number of the row group
+	 * @param recordType
+	 *            the name of a record type of the archive
+	 *
+	 * @return the number of records of the given type within the row group
+	 */
+	public int getNumberOfRecords(final int rowGroup, final String recordType) {
+		final ColumnarArchiveWriter.Chunk chunk = this.getChunk(rowGroup, this.getTypeIndex(recordType));
+		return (chunk == null) ? 0 : chunk.numberOfRecords; // NOCS (InlineConditionalCheck)
+	}
+
+	/**
+	 * @param rowGroup
+	 *            the number of the row group
+	 *
+	 * @return the lowest logging timestamp within the row group
+	 */
+	public long getMinTimestamp(final int rowGroup) {
+		return this.rowGroups[rowGroup].minTimestamp;
+	}
+
+	/**
+	 * @param rowGroup
+	 *            the number of the row group
+	 *
+	 * @return the highest logging timestamp within the row group
+	 */
+	public long getMaxTimestamp(final int rowGroup) {
+		return this.rowGroups[rowGroup].maxTimestamp;
+	}
+
+	/**
+	 * Reads a single column of the records of a type within a row group.
+	 *
+	 * @param rowGroup
+	 *            the number of the row group
+	 * @param recordType
+	 *            the name of a record type of the archive
+	 * @param column
+	 *            the number of the column
+	 *
+	 * @return the values of the column (empty if the row group contains no record of the type)
+	 *
+	 * @throws IOException
+	 *             if the column could not be read
+	 */
+	public Column readColumn(final int rowGroup, final String recordType, final int column) throws IOException {
+		final int typeIndex = this.getTypeIndex(recordType);
+		final byte[] layout = this.layouts[typeIndex];
+		if ((column < 0) || (column > layout.length)) {
+			throw new IllegalArgumentException("Record type " + recordType + " has no column " + column);
+		}
+		final byte kind = (column == LOGGING_TIMESTAMP_COLUMN) ? RecordLayout.KIND_LONG : layout[column - 1]; // NOCS (InlineConditionalCheck)
+		final ColumnarArchiveWriter.Chunk chunk = this.getChunk(rowGroup, typeIndex);
+		if (chunk == null) {
+			return new Column(kind, 0, this.dictionary);
+		}
+		final Column result = new Column(kind, chunk.numberOfRecords, this.dictionary);
+		result.decode(this.readBytes(chunk.offsets[column], chunk.lengths[column]));
+		return result;
+	}
+
+	/**
+	 * Creates the records of all types within a row group. The records are grouped by their type.
+	 *
+	 * @param rowGroup
+	 *            the number of the row group
+	 *
+	 * @return the records
+	 *
+	 * @throws IOException
+	 *             if the row group could not be read
+	 */
+	public List<IMonitoringRecord> readRecords(final int rowGroup) throws IOException {
+		final ColumnarArchiveWriter.RowGroup group = this.rowGroups[rowGroup];
+		final List<IMonitoringRecord> records = new ArrayList<IMonitoringRecord>(group.numberOfRecords);
+		final IRegistry<String> registry = this.dictionaryRegistry;
+		final CachedRecordFactoryCatalog catalog = CachedRecordFactoryCatalog.getInstance();
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		for (final ColumnarArchiveWriter.Chunk chunk : group.chunks) {
+			final String recordType = this.typeNames.get(chunk.typeIndex);
+			final byte[] layout = this.layouts[chunk.typeIndex];
+			final Column[] columns = new Column[layout.length + 1];
+			for (int c = 0; c < columns.length; c++) {
+				columns[c] = this.readColumn(rowGroup, recordType, c);
+			}
+			final IRecordFactory<? extends IMonitoringRecord> recordFactory = catalog.get(recordType);
+			final int size = recordFactory.getRecordSizeInBytes();
+			if (size > buffer.capacity()) {
+				buffer = ByteBuffer.allocate(size);
+			}
+			for (int r = 0; r < chunk.numberOfRecords; r++) {
+				buffer.clear();
+				for (int c = 0; c < layout.length; c++) {
+					final Column column = columns[c + 1];
+					switch (layout[c]) {
+					case RecordLayout.KIND_STRING:
+					case RecordLayout.KIND_INT:
+						buffer.putInt((int) column.longs[r]);
+						break;
+					case RecordLayout.KIND_LONG:
+						buffer.putLong(column.longs[r]);
+						break;
+					case RecordLayout.KIND_SHORT:
+						buffer.putShort((short) column.longs[r]); // NOPMD (short)
+						break;
+					case RecordLayout.KIND_BYTE:
+					case RecordLayout.KIND_BOOLEAN:
+						buffer.put((byte) column.longs[r]);
+						break;
+					case RecordLayout.KIND_FLOAT:
+						buffer.putFloat((float) column.doubles[r]);
+						break;
+					case RecordLayout.KIND_DOUBLE:
+						buffer.putDouble(column.doubles[r]);
+						break;
+					default:
+						throw new IllegalStateException("Unknown field kind " + layout[c]);
+					}
+				}
+				buffer.flip();
+				final IMonitoringRecord record = recordFactory.create(buffer, registry);
+				record.setLoggingTimestamp(columns[LOGGING_TIMESTAMP_COLUMN].longs[r]);
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	private int getTypeIndex(final String recordType) {
+		final int typeIndex = this.typeNames.indexOf(recordType);
+		if (typeIndex < 0) {
+			throw new IllegalArgumentException("The archive contains no records of type " + recordType);
+		}
+		return typeIndex;
+	}
+
+	private ColumnarArchiveWriter.Chunk getChunk(final int rowGroup, final int typeIndex) {
+		for (final ColumnarArchiveWriter.Chunk chunk : this.rowGroups[rowGroup].chunks) {
+			if (chunk.typeIndex == typeIndex) {
+				return chunk;
+			}
+		}
+		return null;
+	}
+
+	private byte[] readBytes(final long offset, final int length) throws IOException {
+		if (length > this.bytes.length) {
+			this.bytes = new byte[Math.max(length, this.bytes.length * 2)];
+		}
+		this.file.seek(offset);
+		this.file.readFully(this.bytes, 0, length);
+		return this.bytes;
+	}
+
+	/**
+	 * Reads the header of a row group. The strings, record types, and the row group are only added to the given lists if the header and the columns of the row
+	 * group are complete.
+	 *
+	 * @return the offset following the columns of the row group
+	 */
+	private static long readRowGroupHeader(final DataInputStream header, final long dataOffset, final long fileLength, final List<String> strings,
+			final List<String> names, final List<byte[]> typeLayouts, final List<ColumnarArchiveWriter.RowGroup> groups) throws IOException {
+		final String[] newStrings = new String[header.readInt()];
+		for (int i = 0; i < newStrings.length; i++) {
+			newStrings[i] = ColumnarArchiveReader.readString(header);
+		}
+		final int numberOfNewTypes = header.readInt();
+		final List<String> newNames = new ArrayList<String>(numberOfNewTypes);
+		final List<byte[]> newLayouts = new ArrayList<byte[]>(typeLayouts);
+		for (int i = 0; i < numberOfNewTypes; i++) {
+			newNames.add(ColumnarArchiveReader.readString(header));
+			final byte[] layout = new byte[header.readInt()];
+			header.readFully(layout);
+			newLayouts.add(layout);
+		}
+		final ColumnarArchiveWriter.RowGroup rowGroup = new ColumnarArchiveWriter.RowGroup(header.readInt(), header.readLong(), header.readLong());
+		final int numberOfChunks = header.readInt();
+		long offset = dataOffset;
+		for (int i = 0; i < numberOfChunks; i++) {
+			final int typeIndex = header.readInt();
+			if ((typeIndex < 0) || (typeIndex >= newLayouts.size())) {
+				throw new IOException("Invalid record type " + typeIndex + " in row group at " + dataOffset);
+			}
+			final int numberOfRecords = header.readInt();
+			final int numberOfColumns = newLayouts.get(typeIndex).length + 1;
+			final long[] offsets = new long[numberOfColumns];
+			final int[] lengths = new int[numberOfColumns];
+			for (int c = 0; c < numberOfColumns; c++) {
+				offsets[c] = offset;
+				lengths[c] = header.readInt();
+				offset += lengths[c];
+			}
+			rowGroup.chunks.add(new ColumnarArchiveWriter.Chunk(typeIndex, numberOfRecords, offsets, lengths));
+		}
+		if (offset <= fileLength) {
+			strings.addAll(Arrays.asList(newStrings));
+			names.addAll(newNames);
+			typeLayouts.addAll(newLayouts.subList(typeLayouts.size(), newLayouts.size()));
+			groups.add(rowGroup);
+		}
+		return offset;
+	}
+
+	private static String readString(final DataInputStream in) throws IOException {
+		final int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		final byte[] stringBytes = new byte[length];
+		in.readFully(stringBytes);
+		return new String(stringBytes, FSUtil.ENCODING);
+	}
+
+	/**
+	 * The decoded values of a column. Integral values (including booleans and the dictionary ids of strings) are stored as longs, floating point values as
+	 * doubles.
+	 *
+	 * @author Christian Stier
+	 *
+	 * @since 1.13
+	 */
+	public static final class Column {
+		final long[] longs; // NOCS NOPMD (package visible for outer class)
+		final double[] doubles; // NOCS NOPMD (package visible for outer class)
+		private final byte kind;
+		private final int size;
+		private final String[] dictionary;
+
+		Column(final byte kind, final int size, final String[] dictionary) {
+			this.kind = kind;
+			this.size = size;
+			this.dictionary = dictionary;
+			if ((kind == RecordLayout.KIND_FLOAT) || (kind == RecordLayout.KIND_DOUBLE)) {
+				this.longs = null; // NOPMD (null)
+				this.doubles = new double[size];
+			} else {
+				this.longs = new long[size];
+				this.doubles = null; // NOPMD (null)
+			}
+		}
+
+		/**
+		 * @return the number of values of this column
+		 */
+		public int size() {
+			return this.size;
+		}
+
+		/**
+		 * @param index
+		 *            the index of the record within the row group
+		 *
+		 * @return the integral value of the record
+		 */
+		public long getLong(final int index) {
+			return this.longs[index];
+		}
+
+		/**
+		 * @param index
+		 *            the index of the record within the row group
+		 *
+		 * @return the floating point value of the record
+		 */
+		public double getDouble(final int index) {
+			return this.doubles[index];
+		}
+
+		/**
+		 * @param index
+		 *            the index of the record within the row group
+		 *
+		 * @return the boolean value of the record
+		 */
+		public boolean getBoolean(final int index) {
+			return this.longs[index] != 0;
+		}
+
+		/**
+		 * @param index
+		 *            the index of the record within the row group
+		 *
+		 * @return the dictionary id of the string value of the record, which allows comparing strings without looking them up
+		 */
+		public int getStringId(final int index) {
+			return (int) this.longs[index];
+		}
+
+		/**
+		 * @param index
+		 *            the index of the record within the row group
+		 *
+		 * @return the string value of the record
+		 */
+		public String getString(final int index) {
+			if (this.kind != RecordLayout.KIND_STRING) {
+				throw new IllegalStateException("The column does not contain strings");
+			}
+			return this.dictionary[(int) this.longs[index]];
+		}
+
+		void decode(final byte[] bytes) {
+			int pos = 0;
+			long previous = 0;
+			for (int i = 0; i < this.size; i++) {
+				switch (this.kind) {
+				case RecordLayout.KIND_STRING:
+				case RecordLayout.KIND_INT:
+				case RecordLayout.KIND_SHORT:
+				case RecordLayout.KIND_LONG: {
+					long raw = 0;
+					int shift = 0;
+					byte b;
+					do {
+						b = bytes[pos++];
+						raw |= (long) (b & 0x7F) << shift;
+						shift += 7;
+					} while (b < 0);
+					final long value = (raw >>> 1) ^ -(raw & 1);
+					if (this.kind == RecordLayout.KIND_LONG) {
+						previous += value;
+						this.longs[i] = previous;
+					} else {
+						this.longs[i] = value;
+					}
+					break;
+				}
+				case RecordLayout.KIND_BYTE:
+				case RecordLayout.KIND_BOOLEAN:
+					this.longs[i] = bytes[pos++];
+					break;
+				case RecordLayout.KIND_FLOAT:
+					this.doubles[i] = Float.intBitsToFloat((int) ColumnarArchiveReader.getFixed(bytes, pos, 4));
+					pos += 4;
+					break;
+				case RecordLayout.KIND_DOUBLE:
+					this.doubles[i] = Double.longBitsToDouble(ColumnarArchiveReader.getFixed(bytes, pos, 8));
+					pos += 8;
+					break;
+				default:
+					throw new IllegalStateException("Unknown field kind " + this.kind);
+				}
+			}
+		}
+	}
+
+	static long getFixed(final byte[] bytes, final int pos, final int numberOfBytes) {
+		long value = 0;
+		for (int i = 0; i < numberOfBytes; i++) {
+			value = (value << 8) | (bytes[pos + i] & 0xFF);
+		}
+		return value;
+	}
+}
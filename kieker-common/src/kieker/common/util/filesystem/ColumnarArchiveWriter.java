@@ -0,0 +1,394 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.filesystem;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.registry.StringDictionary;
+
+/**
+ * Writes records into a columnar archive file. The records are collected in row groups of a configurable size. Within a row group, the records of each type
+ * are stored column by column: the first column contains the logging timestamps, the following columns contain the values in the order of the value types
+ * of the record type. Strings are replaced by ids of a dictionary common to the whole file, longs (including the logging timestamps) are stored as the
+ * difference to their predecessor, and all integral values are stored as variable-length numbers. The archive can be read by the
+ * {@link ColumnarArchiveReader}.
+ *
+ * <p>
+ * Each row group is self-describing: it starts with a header containing the dictionary entries and record types added since the previous row group as well
+ * as the lengths of its columns, followed by the columns. Every row group is flushed to the file once it is complete, and {@link #close()} appends an end
+ * marker. Hence, if the monitored JVM crashes or is killed, the archive can still be read up to its last complete row group.
+ *
+ * <p>
+ * Only record types whose fields are primitive values or strings are supported (see {@link AsciiRecordCodec}). This class is not thread-safe.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class ColumnarArchiveWriter {
+
+	/** The magic number at the beginning of the file. */
+	public static final int MAGIC = 0x4B434F4C; // "KCOL"
+	/** The version of the archive format. */
+	public static final int VERSION = 2;
+
+	/** The marker at the beginning of each row group. */
+	static final int ROW_GROUP_MARKER = 0x4B524752; // "KRGR"
+	/** The marker at the end of a closed archive. */
+	static final int END_MARKER = 0x4B454E44; // "KEND"
+
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+
+	private final DataOutputStream out;
+	private final int rowGroupSize;
+
+	private final Map<Class<?>, TypeColumns> typesByClass = new HashMap<Class<?>, TypeColumns>(); // NOPMD (no concurrent access)
+	private final List<TypeColumns> types = new ArrayList<TypeColumns>();
+	private final StringDictionary dictionary = new StringDictionary();
+	private final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+	private final DataOutputStream header = new DataOutputStream(this.headerBytes);
+
+	private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+	private int numberOfWrittenStrings;
+	private int numberOfWrittenTypes;
+	private int numberOfBufferedRecords;
+	private long minTimestamp = Long.MAX_VALUE;
+	private long maxTimestamp = Long.MIN_VALUE;
+
+	/**
+	 * Creates a new archive.
+	 *
+	 * @param file
+	 *            the archive file (an existing file is overwritten)
+	 * @param rowGroupSize
+	 *            the number of records collected before they are written as a row group
+	 *
+	 * @throws IOException
+	 *             if the file could not be created
+	 */
+	public ColumnarArchiveWriter(final File file, final int rowGroupSize) throws IOException {
+		if (rowGroupSize < 1) {
+			throw new IllegalArgumentException("The row group size must be greater than zero but is " + rowGroupSize);
+		}
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+		this.rowGroupSize = rowGroupSize;
+		try {
+			this.out.writeInt(MAGIC);
+			this.out.writeInt(VERSION);
+		} catch (final IOException ex) {
+			this.out.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Adds the given record to the archive.
+	 *
+	 * @param record
+	 *            the record
+	 *
+	 * @return true if the record has been added; false if the type of the record is not supported
+	 *
+	 * @throws IOException
+	 *             if a completed row group could not be written
+	 */
+	public boolean add(final IMonitoringRecord record) throws IOException {
+		final TypeColumns typeColumns = this.getTypeColumns(record.getClass());
+		if (typeColumns == null) {
+			return false;
+		}
+		final int size = record.getSize();
+		if (size > this.buffer.capacity()) {
+			this.buffer = ByteBuffer.allocate(Math.max(size, this.buffer.capacity() * 2));
+		}
+		final ByteBuffer localBuffer = this.buffer;
+		localBuffer.clear();
+		record.writeBytes(localBuffer, this.dictionary);
+		localBuffer.flip();
+		final long loggingTimestamp = record.getLoggingTimestamp();
+		typeColumns.add(loggingTimestamp, localBuffer);
+		if (loggingTimestamp < this.minTimestamp) {
+			this.minTimestamp = loggingTimestamp;
+		}
+		if (loggingTimestamp > this.maxTimestamp) {
+			this.maxTimestamp = loggingTimestamp;
+		}
+		if (++this.numberOfBufferedRecords >= this.rowGroupSize) {
+			this.writeRowGroup();
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the remaining records and the end marker and closes the file.
+	 *
+	 * @throws IOException
+	 *             if the file could not be written
+	 */
+	public void close() throws IOException {
+		try {
+			this.writeRowGroup();
+			this.out.writeInt(END_MARKER);
+		} finally {
+			this.out.close();
+		}
+	}
+
+	private TypeColumns getTypeColumns(final Class<?> clazz) {
+		TypeColumns typeColumns = this.typesByClass.get(clazz);
+		if (typeColumns == null) {
+			final byte[] layout = RecordLayout.create(clazz);
+			if (layout == RecordLayout.UNSUPPORTED) { // NOPMD (CompareObjectsWithEquals)
+				return null;
+			}
+			typeColumns = new TypeColumns(this.types.size(), clazz.getName(), layout);
+			this.typesByClass.put(clazz, typeColumns);
+			this.types.add(typeColumns);
+		}
+		return typeColumns;
+	}
+
+	private void writeRowGroup() throws IOException {
+		if (this.numberOfBufferedRecords == 0) {
+			return;
+		}
+		final DataOutputStream localHeader = this.header;
+		this.headerBytes.reset();
+		final int numberOfStrings = this.dictionary.getSize();
+		localHeader.writeInt(numberOfStrings - this.numberOfWrittenStrings);
+		for (int i = this.numberOfWrittenStrings; i < numberOfStrings; i++) {
+			ColumnarArchiveWriter.writeString(localHeader, this.dictionary.get(i));
+		}
+		final int numberOfTypes = this.types.size();
+		localHeader.writeInt(numberOfTypes - this.numberOfWrittenTypes);
+		for (int i = this.numberOfWrittenTypes; i < numberOfTypes; i++) {
+			final TypeColumns typeColumns = this.types.get(i);
+			ColumnarArchiveWriter.writeString(localHeader, typeColumns.classname);
+			localHeader.writeInt(typeColumns.layout.length);
+			localHeader.write(typeColumns.layout);
+		}
+		localHeader.writeInt(this.numberOfBufferedRecords);
+		localHeader.writeLong(this.minTimestamp);
+		localHeader.writeLong(this.maxTimestamp);
+		int numberOfChunks = 0;
+		for (final TypeColumns typeColumns : this.types) {
+			if (typeColumns.numberOfRecords > 0) {
+				numberOfChunks++;
+			}
+		}
+		localHeader.writeInt(numberOfChunks);
+		for (final TypeColumns typeColumns : this.types) {
+			if (typeColumns.numberOfRecords > 0) {
+				localHeader.writeInt(typeColumns.index);
+				localHeader.writeInt(typeColumns.numberOfRecords);
+				for (final ColumnBuffer column : typeColumns.columns) {
+					localHeader.writeInt(column.size);
+				}
+			}
+		}
+		localHeader.flush();
+
+		this.out.writeInt(ROW_GROUP_MARKER);
+		this.out.writeInt(this.headerBytes.size());
+		this.headerBytes.writeTo(this.out);
+		for (final TypeColumns typeColumns : this.types) {
+			if (typeColumns.numberOfRecords > 0) {
+				for (final ColumnBuffer column : typeColumns.columns) {
+					this.out.write(column.bytes, 0, column.size);
+					column.reset();
+				}
+				typeColumns.numberOfRecords = 0;
+			}
+		}
+		// the row group is complete on disk even if this archive is never closed
+		this.out.flush();
+
+		this.numberOfWrittenStrings = numberOfStrings;
+		this.numberOfWrittenTypes = numberOfTypes;
+		this.numberOfBufferedRecords = 0;
+		this.minTimestamp = Long.MAX_VALUE;
+		this.maxTimestamp = Long.MIN_VALUE;
+	}
+
+	/**
+	 * Writes the given string as its length in UTF-8 bytes followed by the bytes; null is written as length -1.
+	 */
+	static void writeString(final DataOutputStream out, final String string) throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+		} else {
+			final byte[] bytes = string.getBytes(FSUtil.ENCODING);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * The columns of a record type within the current row group.
+	 */
+	private static final class TypeColumns {
+		final int index; // NOCS NOPMD (package visible for outer class)
+		final String classname; // NOCS NOPMD (package visible for outer class)
+		final byte[] layout; // NOCS NOPMD (package visible for outer class)
+		final ColumnBuffer[] columns; // NOCS NOPMD (package visible for outer class)
+		int numberOfRecords; // NOCS NOPMD (package visible for outer class)
+
+		TypeColumns(final int index, final String classname, final byte[] layout) {
+			this.index = index;
+			this.classname = classname;
+			this.layout = layout;
+			this.columns = new ColumnBuffer[layout.length + 1];
+			for (int i = 0; i < this.columns.length; i++) {
+				this.columns[i] = new ColumnBuffer();
+			}
+		}
+
+		void add(final long loggingTimestamp, final ByteBuffer values) {
+			this.numberOfRecords++;
+			final ColumnBuffer[] localColumns = this.columns;
+			localColumns[0].putDelta(loggingTimestamp);
+			final byte[] localLayout = this.layout;
+			for (int i = 0; i < localLayout.length; i++) {
+				final ColumnBuffer column = localColumns[i + 1];
+				switch (localLayout[i]) {
+				case RecordLayout.KIND_STRING:
+				case RecordLayout.KIND_INT:
+					column.putVarLong(values.getInt());
+					break;
+				case RecordLayout.KIND_LONG:
+					column.putDelta(values.getLong());
+					break;
+				case RecordLayout.KIND_SHORT:
+					column.putVarLong(values.getShort());
+					break;
+				case RecordLayout.KIND_BYTE:
+				case RecordLayout.KIND_BOOLEAN:
+					column.putByte(values.get());
+					break;
+				case RecordLayout.KIND_FLOAT:
+					column.putFixed(Float.floatToRawIntBits(values.getFloat()), 4);
+					break;
+				case RecordLayout.KIND_DOUBLE:
+					column.putFixed(Double.doubleToRawLongBits(values.getDouble()), 8);
+					break;
+				default:
+					throw new IllegalStateException("Unknown field kind " + localLayout[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A growing buffer for the encoded values of a column.
+	 */
+	private static final class ColumnBuffer {
+		byte[] bytes = new byte[256]; // NOCS NOPMD (package visible for outer class)
+		int size; // NOCS NOPMD (package visible for outer class)
+		private long previous;
+
+		ColumnBuffer() {
+			// default constructor
+		}
+
+		void putDelta(final long value) {
+			this.putVarLong(value - this.previous);
+			this.previous = value;
+		}
+
+		/**
+		 * Writes the value zigzag-encoded with seven bits per byte, i.e., values close to zero need few bytes.
+		 */
+		void putVarLong(final long value) {
+			this.ensureCapacity(10);
+			long remaining = (value << 1) ^ (value >> 63);
+			while ((remaining & ~0x7FL) != 0) {
+				this.bytes[this.size++] = (byte) ((remaining & 0x7F) | 0x80);
+				remaining >>>= 7;
+			}
+			this.bytes[this.size++] = (byte) remaining;
+		}
+
+		void putByte(final byte value) {
+			this.ensureCapacity(1);
+			this.bytes[this.size++] = value;
+		}
+
+		void putFixed(final long value, final int numberOfBytes) {
+			this.ensureCapacity(numberOfBytes);
+			for (int shift = (numberOfBytes - 1) * 8; shift >= 0; shift -= 8) {
+				this.bytes[this.size++] = (byte) (value >>> shift);
+			}
+		}
+
+		void reset() {
+			this.size = 0;
+			this.previous = 0;
+		}
+
+		private void ensureCapacity(final int additionalBytes) {
+			if ((this.size + additionalBytes) > this.bytes.length) {
+				final byte[] newBytes = new byte[Math.max(this.size + additionalBytes, this.bytes.length * 2)];
+				System.arraycopy(this.bytes, 0, newBytes, 0, this.size);
+				this.bytes = newBytes;
+			}
+		}
+	}
+
+	/**
+	 * The position of the columns of a record type within a row group.
+	 */
+	static final class Chunk {
+		final int typeIndex; // NOCS NOPMD (package visible for outer class)
+		final int numberOfRecords; // NOCS NOPMD (package visible for outer class)
+		final long[] offsets; // NOCS NOPMD (package visible for outer class)
+		final int[] lengths; // NOCS NOPMD (package visible for outer class)
+
+		Chunk(final int typeIndex, final int numberOfRecords, final long[] offsets, final int[] lengths) {
+			this.typeIndex = typeIndex;
+			this.numberOfRecords = numberOfRecords;
+			this.offsets = offsets;
+			this.lengths = lengths;
+		}
+	}
+
+	/**
+	 * The description of a row group as read from its header.
+	 */
+	static final class RowGroup {
+		final int numberOfRecords; // NOCS NOPMD (package visible for outer class)
+		final long minTimestamp; // NOCS NOPMD (package visible for outer class)
+		final long maxTimestamp; // NOCS NOPMD (package visible for outer class)
+		final List<Chunk> chunks = new ArrayList<Chunk>(); // NOCS NOPMD (package visible for outer class)
+
+		RowGroup(final int numberOfRecords, final long minTimestamp, final long maxTimestamp) {
+			this.numberOfRecords = numberOfRecords;
+			this.minTimestamp = minTimestamp;
+			this.maxTimestamp = maxTimestamp;
+		}
+	}
+}
@@ -37,6 +37,14 @@ public final class FSUtil { // NOCS NOPMD (constants interface)
 	public static final String NORMAL_FILE_EXTENSION = ".dat";
 	/** The extension of Kieker's zipped record files. */
 	public static final String ZIP_FILE_EXTENSION = ".zip";
+	/** The extension of Kieker's memory-mapped binary record segments. */
+	public static final String MAPPED_BINARY_FILE_EXTENSION = ".mbin";
+	/** The size of the header of a memory-mapped binary record segment (the number of valid bytes following the header). */
+	public static final int MAPPED_BINARY_HEADER_SIZE = 8;
+	/** The extension of Kieker's columnar archives. */
+	public static final String COLUMNAR_FILE_EXTENSION = ".kcol";
+	/** The extension appended to the name of a binary record file to obtain the name of its block index. */
+	public static final String INDEX_FILE_EXTENSION = ".idx";
 
 	/** The encoding usually used within Kieker. */
 	public static final String ENCODING = "UTF-8";
@@ -0,0 +1,105 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.filesystem;
+
+import java.lang.reflect.Field;
+
+import kieker.common.record.AbstractMonitoringRecord;
+
+/**
+ * Determines the kinds of the fields of record types as they are serialized by their binary representation. Only record types whose fields are primitive
+ * values or strings and whose {@code SIZE} matches their {@code TYPES} are supported.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+final class RecordLayout {
+
+	static final byte KIND_STRING = 0;
+	static final byte KIND_INT = 1;
+	static final byte KIND_LONG = 2;
+	static final byte KIND_SHORT = 3;
+	static final byte KIND_BYTE = 4;
+	static final byte KIND_BOOLEAN = 5;
+	static final byte KIND_FLOAT = 6;
+	static final byte KIND_DOUBLE = 7;
+
+	/** Marks record types which are not supported (compared by identity). */
+	static final byte[] UNSUPPORTED = new byte[0];
+
+	private RecordLayout() {
+		// private default constructor
+	}
+
+	/**
+	 * Determines the kinds of the fields of the given record type. The type is only supported if its binary size matches its value types.
+	 */
+	static byte[] create(final Class<?> clazz) {
+		final Class<?>[] types;
+		final int size;
+		try {
+			types = (Class<?>[]) clazz.getField("TYPES").get(null);
+			final Field sizeField = clazz.getField("SIZE");
+			if (sizeField.getType() != int.class) {
+				return UNSUPPORTED;
+			}
+			size = sizeField.getInt(null);
+		} catch (final NoSuchFieldException ex) {
+			return UNSUPPORTED;
+		} catch (final IllegalAccessException ex) {
+			return UNSUPPORTED;
+		} catch (final ClassCastException ex) {
+			return UNSUPPORTED;
+		} catch (final NullPointerException ex) { // NOPMD (AvoidCatchingNPE; instance fields)
+			return UNSUPPORTED;
+		}
+		final byte[] layout = new byte[types.length];
+		int expectedSize = 0;
+		for (int i = 0; i < types.length; i++) {
+			final Class<?> type = types[i];
+			if (type == String.class) {
+				layout[i] = KIND_STRING;
+				expectedSize += AbstractMonitoringRecord.TYPE_SIZE_STRING;
+			} else if (type == int.class) {
+				layout[i] = KIND_INT;
+				expectedSize += AbstractMonitoringRecord.TYPE_SIZE_INT;
+			} else if (type == long.class) {
+				layout[i] = KIND_LONG;
+				expectedSize += AbstractMonitoringRecord.TYPE_SIZE_LONG;
+			} else if (type == short.class) { // NOPMD (short)
+				layout[i] = KIND_SHORT;
+				expectedSize += AbstractMonitoringRecord.TYPE_SIZE_SHORT;
+			} else if (type == byte.class) {
+				layout[i] = KIND_BYTE;
+				expectedSize += AbstractMonitoringRecord.TYPE_SIZE_BYTE;
+			} else if (type == boolean.class) {
+				layout[i] = KIND_BOOLEAN;
+				expectedSize += AbstractMonitoringRecord.TYPE_SIZE_BOOLEAN;
+			} else if (type == float.class) {
+				layout[i] = KIND_FLOAT;
+				expectedSize += AbstractMonitoringRecord.TYPE_SIZE_FLOAT;
+			} else if (type == double.class) {
+				layout[i] = KIND_DOUBLE;
+				expectedSize += AbstractMonitoringRecord.TYPE_SIZE_DOUBLE;
+			} else {
+				return UNSUPPORTED;
+			}
+		}
+		return (expectedSize == size) ? layout : UNSUPPORTED; // NOCS (InlineConditionalCheck)
+	}
+}
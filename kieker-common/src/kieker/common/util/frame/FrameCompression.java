@@ -0,0 +1,64 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.frame;
+
+/**
+ * This enum delivers the compression methods which can be used for the payload of a frame.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public enum FrameCompression {
+	/** The payload of the frame is not compressed. */
+	NONE((byte) 0),
+	/** The payload of the frame is compressed using the compression format "deflate". */
+	DEFLATE((byte) 1);
+
+	private final byte id;
+
+	private FrameCompression(final byte id) {
+		this.id = id;
+	}
+
+	/**
+	 * @return The identifier of the compression method within the frame header.
+	 */
+	public final byte getId() {
+		return this.id;
+	}
+
+	/**
+	 * This method searches for the compression method with the given identifier.
+	 *
+	 * @param id
+	 *            The identifier of the compression method within the frame header.
+	 *
+	 * @return The corresponding compression method.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If there is no compression method with the given identifier.
+	 */
+	public static final FrameCompression getById(final byte id) throws IllegalArgumentException {
+		for (final FrameCompression compression : FrameCompression.values()) {
+			if (compression.id == id) {
+				return compression;
+			}
+		}
+		throw new IllegalArgumentException("Unknown frame compression " + id);
+	}
+}
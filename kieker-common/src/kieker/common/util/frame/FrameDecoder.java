@@ -0,0 +1,144 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.frame;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes the frames created by the {@link FrameEncoder}.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class FrameDecoder {
+
+	private static final int PAYLOAD_LENGTH_OFFSET = 1;
+	private static final int FRAME_LENGTH_OFFSET = 1 + 4;
+
+	private final int maxLength;
+	private final Inflater inflater = new Inflater();
+	private byte[] input = new byte[0];
+	private ByteBuffer payload = ByteBuffer.allocate(0);
+	private boolean corrupt;
+
+	/**
+	 * Creates a new frame decoder.
+	 *
+	 * @param maxFrameSize
+	 *            The maximal size of a frame including its header in bytes. Frames announcing a larger payload are rejected as corrupt.
+	 */
+	public FrameDecoder(final int maxFrameSize) {
+		if (maxFrameSize <= FrameEncoder.HEADER_SIZE) {
+			throw new IllegalArgumentException("The frame size must be greater than " + FrameEncoder.HEADER_SIZE + ", but is " + maxFrameSize);
+		}
+		this.maxLength = maxFrameSize - FrameEncoder.HEADER_SIZE;
+	}
+
+	/**
+	 * Decodes the next frame from the given buffer.
+	 *
+	 * @param buffer
+	 *            The buffer to read the frame from.
+	 *
+	 * @return A buffer containing the uncompressed payload ready to be read or null if the given buffer does not contain a complete frame. In the latter case,
+	 *         the position of the given buffer remains unchanged. The returned buffer is only valid until the next call of this method.
+	 *
+	 * @throws DataFormatException
+	 *             If the frame is corrupt. The frame is skipped if its header is valid. Otherwise, the begin of the next frame is unknown and the stream is
+	 *             corrupt (see {@link #isCorrupt()}).
+	 */
+	public ByteBuffer decode(final ByteBuffer buffer) throws DataFormatException {
+		if (this.corrupt) {
+			throw new DataFormatException("The stream is corrupt");
+		}
+		if (buffer.remaining() < FrameEncoder.HEADER_SIZE) {
+			return null;
+		}
+		final int start = buffer.position();
+		final byte compressionId = buffer.get(start);
+		final int length = buffer.getInt(start + PAYLOAD_LENGTH_OFFSET);
+		final int frameLength = buffer.getInt(start + FRAME_LENGTH_OFFSET);
+		if ((length < 0) || (frameLength < 0) || (length > this.maxLength) || (frameLength > this.maxLength)) {
+			this.corrupt = true;
+			throw new DataFormatException("Invalid frame header (length " + length + ", frame length " + frameLength + ")");
+		}
+		if (buffer.remaining() < (FrameEncoder.HEADER_SIZE + frameLength)) {
+			return null;
+		}
+		buffer.position(start + FrameEncoder.HEADER_SIZE);
+
+		if (this.payload.capacity() < length) {
+			this.payload = ByteBuffer.allocate(length);
+		}
+		final ByteBuffer payloadBuffer = this.payload;
+		payloadBuffer.clear();
+		final FrameCompression compression;
+		try {
+			compression = FrameCompression.getById(compressionId);
+		} catch (final IllegalArgumentException ex) {
+			buffer.position(buffer.position() + frameLength);
+			throw new DataFormatException(ex.getMessage()); // NOPMD (the cause has no additional information)
+		}
+		switch (compression) {
+		case NONE:
+			if (frameLength != length) {
+				buffer.position(buffer.position() + frameLength);
+				throw new DataFormatException("Invalid length " + frameLength + " of uncompressed frame with payload length " + length);
+			}
+			buffer.get(payloadBuffer.array(), 0, length);
+			break;
+		case DEFLATE:
+			if (this.input.length < frameLength) {
+				this.input = new byte[frameLength];
+			}
+			buffer.get(this.input, 0, frameLength);
+			this.inflater.reset();
+			this.inflater.setInput(this.input, 0, frameLength);
+			final int inflated = this.inflater.inflate(payloadBuffer.array(), 0, length);
+			if ((inflated != length) || !this.inflater.finished()) {
+				throw new DataFormatException("Expected " + length + " bytes within the compressed frame, but found " + inflated);
+			}
+			break;
+		default:
+			buffer.position(buffer.position() + frameLength);
+			throw new DataFormatException("Unsupported frame compression " + compression);
+		}
+		payloadBuffer.limit(length);
+		return payloadBuffer;
+	}
+
+	/**
+	 * @return true if and only if a frame with an invalid header has been read, e.g., because the stream does not consist of frames. In this case, the begin of
+	 *         the next frame is unknown and no further frames can be decoded.
+	 */
+	public boolean isCorrupt() {
+		return this.corrupt;
+	}
+
+	/**
+	 * Releases the resources of the decompressor. The decoder must not be used afterwards.
+	 */
+	public void close() {
+		this.inflater.end();
+	}
+}
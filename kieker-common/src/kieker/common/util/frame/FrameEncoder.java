@@ -0,0 +1,129 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.frame;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes a sequence of serialized records into frames. Each frame consists of a header and a payload, which is optionally compressed:
+ *
+ * <ul>
+ * <li>the compression method of the payload ({@code byte}, see {@link FrameCompression#getId()}),
+ * <li>the length of the uncompressed payload ({@code int}),
+ * <li>the length of the payload within the frame ({@code int}),
+ * <li>the payload.
+ * </ul>
+ *
+ * Each frame is compressed independently of the other frames. Hence, the records and string registry entries must not be split between frames. If the
+ * compressed payload would not be smaller than the uncompressed one, the frame is sent uncompressed.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class FrameEncoder {
+
+	/** The size of the frame header in bytes. */
+	public static final int HEADER_SIZE = 1 + 4 + 4;
+
+	private final ByteBuffer payload;
+	private final ByteBuffer frame;
+	private final Deflater deflater;
+
+	/**
+	 * Creates a new frame encoder.
+	 *
+	 * @param frameSize
+	 *            The maximal size of a frame including its header in bytes.
+	 * @param compression
+	 *            The compression method used for the payload.
+	 */
+	public FrameEncoder(final int frameSize, final FrameCompression compression) {
+		if (frameSize <= HEADER_SIZE) {
+			throw new IllegalArgumentException("The frame size must be greater than " + HEADER_SIZE + ", but is " + frameSize);
+		}
+		this.payload = ByteBuffer.allocate(frameSize - HEADER_SIZE);
+		this.frame = ByteBuffer.allocate(frameSize);
+		this.deflater = (compression == FrameCompression.DEFLATE) ? new Deflater(Deflater.BEST_SPEED) : null; // NOCS (inline conditional)
+	}
+
+	/**
+	 * Delivers the buffer the records of the current frame are serialized into.
+	 *
+	 * @return The payload buffer of the current frame.
+	 */
+	public ByteBuffer getPayload() {
+		return this.payload;
+	}
+
+	/**
+	 * @return true if and only if the current frame does not contain any data.
+	 */
+	public boolean isEmpty() {
+		return this.payload.position() == 0;
+	}
+
+	/**
+	 * Completes the current frame and starts a new one.
+	 *
+	 * @return A buffer containing the complete frame ready to be read. The buffer is only valid until the next call of this method.
+	 */
+	public ByteBuffer encode() {
+		final int length = this.payload.position();
+		final byte[] frameBytes = this.frame.array();
+		int compressedLength = -1;
+		if (null != this.deflater) {
+			this.deflater.reset();
+			this.deflater.setInput(this.payload.array(), 0, length);
+			this.deflater.finish();
+			compressedLength = this.deflater.deflate(frameBytes, HEADER_SIZE, frameBytes.length - HEADER_SIZE);
+			if (!this.deflater.finished()) { // the compressed payload does not fit into the frame
+				compressedLength = -1;
+			}
+		}
+
+		final ByteBuffer frameBuffer = this.frame;
+		frameBuffer.clear();
+		if ((compressedLength >= 0) && (compressedLength < length)) {
+			frameBuffer.put(FrameCompression.DEFLATE.getId());
+			frameBuffer.putInt(length);
+			frameBuffer.putInt(compressedLength);
+			frameBuffer.position(HEADER_SIZE + compressedLength);
+		} else {
+			frameBuffer.put(FrameCompression.NONE.getId());
+			frameBuffer.putInt(length);
+			frameBuffer.putInt(length);
+			frameBuffer.put(this.payload.array(), 0, length);
+		}
+		frameBuffer.flip();
+		this.payload.clear();
+		return frameBuffer;
+	}
+
+	/**
+	 * Releases the resources of the compressor. The encoder must not be used afterwards.
+	 */
+	public void close() {
+		if (null != this.deflater) {
+			this.deflater.end();
+		}
+	}
+}
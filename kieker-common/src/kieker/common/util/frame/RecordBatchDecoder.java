@@ -0,0 +1,98 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.frame;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import kieker.common.exception.RecordInstantiationException;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+import kieker.common.util.registry.IRegistry;
+import kieker.common.util.registry.StringDictionary;
+
+/**
+ * Decodes the records of a batch created by the {@link RecordBatchEncoder}.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class RecordBatchDecoder {
+
+	private final ByteBuffer buffer;
+	private final IRegistry<String> stringRegistry;
+	private final int numberOfRecords;
+	private final CachedRecordFactoryCatalog recordFactories = CachedRecordFactoryCatalog.getInstance();
+	private int remainingRecords;
+
+	/**
+	 * Creates a new decoder for the given batch and reads the strings of the batch.
+	 *
+	 * @param buffer
+	 *            The buffer containing the batch.
+	 *
+	 * @throws BufferUnderflowException
+	 *             If the batch is incomplete.
+	 */
+	public RecordBatchDecoder(final ByteBuffer buffer) throws BufferUnderflowException {
+		this.buffer = buffer;
+		final String[] strings = new String[buffer.getInt()];
+		for (int i = 0; i < strings.length; i++) {
+			final byte[] bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			strings[i] = new String(bytes, RecordBatchEncoder.ENCODING);
+		}
+		this.stringRegistry = new StringDictionary(strings);
+		this.numberOfRecords = buffer.getInt();
+		this.remainingRecords = this.numberOfRecords;
+	}
+
+	/**
+	 * @return The number of records within the batch.
+	 */
+	public int getNumberOfRecords() {
+		return this.numberOfRecords;
+	}
+
+	/**
+	 * Decodes the next record of the batch.
+	 *
+	 * @return The next record or null if all records have been decoded.
+	 *
+	 * @throws RecordInstantiationException
+	 *             If the record cannot be created.
+	 * @throws BufferUnderflowException
+	 *             If the batch is incomplete.
+	 */
+	public IMonitoringRecord next() throws RecordInstantiationException, BufferUnderflowException {
+		if (this.remainingRecords == 0) {
+			return null;
+		}
+		this.remainingRecords--;
+		final String recordClassName = this.stringRegistry.get(this.buffer.getInt());
+		final long loggingTimestamp = this.buffer.getLong();
+		final IRecordFactory<? extends IMonitoringRecord> recordFactory = this.recordFactories.get(recordClassName);
+		final IMonitoringRecord record = recordFactory.create(this.buffer, this.stringRegistry);
+		record.setLoggingTimestamp(loggingTimestamp);
+		return record;
+	}
+}
@@ -0,0 +1,135 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.frame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.registry.StringDictionary;
+
+/**
+ * Encodes many records into a single self-contained batch, e.g., to send them as one message. In contrast to the usual binary format, each batch contains the
+ * strings used by its records. Hence, the batches can be decoded independently of each other (see {@link RecordBatchDecoder}). A batch consists of:
+ *
+ * <ul>
+ * <li>the number of strings ({@code int}) followed by the length ({@code int}) and the UTF-8 bytes of each string,
+ * <li>the number of records ({@code int}) followed by the class name id ({@code int}), the logging timestamp ({@code long}), and the binary representation
+ * of each record.
+ * </ul>
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class RecordBatchEncoder {
+
+	/** The encoding of the strings within a batch. */
+	public static final Charset ENCODING = Charset.forName("UTF-8");
+
+	private static final int RECORD_HEADER_SIZE = AbstractMonitoringRecord.TYPE_SIZE_INT + AbstractMonitoringRecord.TYPE_SIZE_LONG;
+
+	private final ByteBuffer records;
+	private final StringDictionary stringRegistry = new StringDictionary();
+	private int numberOfRecords;
+
+	/**
+	 * Creates a new batch encoder.
+	 *
+	 * @param capacity
+	 *            The maximal size of the records of a batch in bytes (without the strings).
+	 */
+	public RecordBatchEncoder(final int capacity) {
+		this.records = ByteBuffer.allocate(capacity);
+	}
+
+	/**
+	 * Adds the given record to the current batch.
+	 *
+	 * @param record
+	 *            The record to add.
+	 *
+	 * @return true if the record has been added; false if the batch is full and has to be completed first.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If the record does not even fit into an empty batch.
+	 */
+	public boolean add(final IMonitoringRecord record) {
+		final ByteBuffer buffer = this.records;
+		if ((RECORD_HEADER_SIZE + record.getSize()) > buffer.remaining()) {
+			if (this.numberOfRecords == 0) {
+				throw new IllegalArgumentException("The record " + record.getClass().getName() + " exceeds the batch capacity of " + buffer.capacity() + " bytes");
+			}
+			return false;
+		}
+		buffer.putInt(this.stringRegistry.get(record.getClass().getName()));
+		buffer.putLong(record.getLoggingTimestamp());
+		record.writeBytes(buffer, this.stringRegistry);
+		this.numberOfRecords++;
+		return true;
+	}
+
+	/**
+	 * @return true if and only if the current batch does not contain any records.
+	 */
+	public boolean isEmpty() {
+		return this.numberOfRecords == 0;
+	}
+
+	/**
+	 * @return The number of records within the current batch.
+	 */
+	public int getNumberOfRecords() {
+		return this.numberOfRecords;
+	}
+
+	/**
+	 * Completes the current batch and starts a new one.
+	 *
+	 * @return The encoded batch.
+	 */
+	public byte[] encode() {
+		final List<byte[]> strings = new ArrayList<byte[]>(this.stringRegistry.getSize());
+		for (final String string : this.stringRegistry.getAll()) {
+			strings.add(string.getBytes(ENCODING));
+		}
+		int size = AbstractMonitoringRecord.TYPE_SIZE_INT + AbstractMonitoringRecord.TYPE_SIZE_INT + this.records.position();
+		for (final byte[] string : strings) {
+			size += AbstractMonitoringRecord.TYPE_SIZE_INT + string.length;
+		}
+
+		final ByteBuffer batch = ByteBuffer.allocate(size);
+		batch.putInt(strings.size());
+		for (final byte[] string : strings) {
+			batch.putInt(string.length);
+			batch.put(string);
+		}
+		batch.putInt(this.numberOfRecords);
+		batch.put(this.records.array(), 0, this.records.position());
+
+		this.records.clear();
+		this.stringRegistry.clear();
+		this.numberOfRecords = 0;
+		return batch.array();
+	}
+}
@@ -0,0 +1,145 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.common.util.registry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import kieker.common.record.misc.RegistryRecord;
+
+/**
+ * A simple, not thread-safe registry assigning consecutive ids to strings, e.g., for the strings of a single batch, line, or file. In contrast to the
+ * {@link Registry}, the dictionary can be cleared and filled with the strings read from a serialized dictionary.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class StringDictionary implements IRegistry<String> {
+
+	private final long id;
+	private final List<String> strings = new ArrayList<String>();
+	private final Map<String, Integer> ids = new HashMap<String, Integer>(); // NOPMD (no concurrent access)
+
+	private IRegistryRecordReceiver recordReceiver;
+
+	/**
+	 * Creates a new, empty dictionary.
+	 */
+	public StringDictionary() {
+		this.id = RegistryUtil.generateId();
+	}
+
+	/**
+	 * Creates a new dictionary containing the given strings, i.e., the id of each string is its index in the array.
+	 *
+	 * @param strings
+	 *            The strings of the dictionary.
+	 */
+	public StringDictionary(final String[] strings) {
+		this();
+		for (int i = 0; i < strings.length; i++) {
+			this.put(i, strings[i]);
+		}
+	}
+
+	@Override
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Unknown strings are added to the dictionary and passed to the record receiver, if any.
+	 */
+	@Override
+	public int get(final String value) {
+		final Integer existingId = this.ids.get(value);
+		if (existingId != null) {
+			return existingId;
+		}
+		final int newId = this.strings.size();
+		this.strings.add(value);
+		this.ids.put(value, newId);
+		if (this.recordReceiver != null) {
+			this.recordReceiver.newRegistryRecord(new RegistryRecord(newId, value));
+		}
+		return newId;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return the string or null if the id is unknown
+	 */
+	@Override
+	public String get(final int i) {
+		if ((i < 0) || (i >= this.strings.size())) {
+			return null;
+		}
+		return this.strings.get(i);
+	}
+
+	/**
+	 * Assigns the given id to the given string, e.g., when reading a serialized dictionary. Unassigned ids below the given id are unknown afterwards.
+	 *
+	 * @param i
+	 *            The id of the string.
+	 * @param value
+	 *            The string.
+	 *
+	 * @return the string previously assigned to the id or null if there was none
+	 */
+	public String put(final int i, final String value) {
+		while (this.strings.size() <= i) {
+			this.strings.add(null);
+		}
+		final String previousValue = this.strings.set(i, value);
+		if ((previousValue != null) && Integer.valueOf(i).equals(this.ids.get(previousValue))) {
+			this.ids.remove(previousValue);
+		}
+		this.ids.put(value, i);
+		return previousValue;
+	}
+
+	@Override
+	public String[] getAll() {
+		return this.strings.toArray(new String[this.strings.size()]);
+	}
+
+	@Override
+	public int getSize() {
+		return this.strings.size();
+	}
+
+	@Override
+	public void setRecordReceiver(final IRegistryRecordReceiver registryRecordReceiver) {
+		this.recordReceiver = registryRecordReceiver;
+	}
+
+	/**
+	 * Removes all strings from the dictionary, i.e., the ids are assigned from zero again.
+	 */
+	public void clear() {
+		this.strings.clear();
+		this.ids.clear();
+	}
+}
@@ -0,0 +1,125 @@
+/***************************************************************************
+ * Copyright 2014 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.api.misc;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.misc.TraceSamplingRecord;
+import kieker.common.util.registry.IRegistry;
+import kieker.common.util.registry.Registry;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+import kieker.test.common.junit.util.APIEvaluationFunctions;
+			
+/**
+ * Test API of {@link kieker.common.record.misc.TraceSamplingRecord}.
+ * 
+ * @author API Checker
+ * 
+ * @since 1.13
+ */
+public class TestTraceSamplingRecordPropertyOrder extends AbstractKiekerTest {
+
+	/**
+	 * All numbers and values must be pairwise unequal. As the string registry also uses integers,
+	 * we must guarantee this criteria by starting with 1000 instead of 0.
+	 */
+	/** Constant value parameter for samplingRate. */
+	private static final double PROPERTY_SAMPLING_RATE = 2.0;
+	/** Constant value parameter for sampledTraces. */
+	private static final long PROPERTY_SAMPLED_TRACES = 3L;
+	/** Constant value parameter for droppedTraces. */
+	private static final long PROPERTY_DROPPED_TRACES = 4L;
+							
+	/**
+	 * Empty constructor.
+	 */
+	public TestTraceSamplingRecordPropertyOrder() {
+		// Empty constructor for test class.
+	}
+
+	/**
+	 * Test property order processing of {@link kieker.common.record.misc.TraceSamplingRecord} constructors and
+	 * different serialization routines.
+	 */
+	@Test
+	public void testTraceSamplingRecordPropertyOrder() { // NOPMD
+		final IRegistry<String> stringRegistry = this.makeStringRegistry();
+		final Object[] values = {
+			PROPERTY_SAMPLING_RATE,
+			PROPERTY_SAMPLED_TRACES,
+			PROPERTY_DROPPED_TRACES,
+		};
+		final ByteBuffer inputBuffer = APIEvaluationFunctions.createByteBuffer(TraceSamplingRecord.SIZE, 
+			this.makeStringRegistry(), values);
+					
+		final TraceSamplingRecord recordInitParameter = new TraceSamplingRecord(
+			PROPERTY_SAMPLING_RATE,
+			PROPERTY_SAMPLED_TRACES,
+			PROPERTY_DROPPED_TRACES
+		);
+		final TraceSamplingRecord recordInitBuffer = new TraceSamplingRecord(inputBuffer, this.makeStringRegistry());
+		final TraceSamplingRecord recordInitArray = new TraceSamplingRecord(values);
+		
+		this.assertTraceSamplingRecord(recordInitParameter);
+		this.assertTraceSamplingRecord(recordInitBuffer);
+		this.assertTraceSamplingRecord(recordInitArray);
+
+		// test to array
+		final Object[] valuesParameter = recordInitParameter.toArray();
+		Assert.assertArrayEquals("Result array of record initialized by parameter constructor differs from predefined array.", values, valuesParameter);
+		final Object[] valuesBuffer = recordInitBuffer.toArray();
+		Assert.assertArrayEquals("Result array of record initialized by buffer constructor differs from predefined array.", values, valuesBuffer);
+		final Object[] valuesArray = recordInitArray.toArray();
+		Assert.assertArrayEquals("Result array of record initialized by parameter constructor differs from predefined array.", values, valuesArray);
+
+		// test write to buffer
+		final ByteBuffer outputBufferParameter = ByteBuffer.allocate(TraceSamplingRecord.SIZE);
+		recordInitParameter.writeBytes(outputBufferParameter, stringRegistry);
+		Assert.assertArrayEquals("Byte buffer do not match (parameter).", inputBuffer.array(), outputBufferParameter.array());
+
+		final ByteBuffer outputBufferBuffer = ByteBuffer.allocate(TraceSamplingRecord.SIZE);
+		recordInitParameter.writeBytes(outputBufferBuffer, stringRegistry);
+		Assert.assertArrayEquals("Byte buffer do not match (buffer).", inputBuffer.array(), outputBufferBuffer.array());
+
+		final ByteBuffer outputBufferArray = ByteBuffer.allocate(TraceSamplingRecord.SIZE);
+		recordInitParameter.writeBytes(outputBufferArray, stringRegistry);
+		Assert.assertArrayEquals("Byte buffer do not match (array).", inputBuffer.array(), outputBufferArray.array());
+	}
+
+	/**
+	 * Assertions for TraceSamplingRecord.
+	 */
+	private void assertTraceSamplingRecord(final TraceSamplingRecord record) {
+		Assert.assertEquals("'samplingRate' value assertion failed.", record.getSamplingRate(), PROPERTY_SAMPLING_RATE, 0.1);
+		Assert.assertEquals("'sampledTraces' value assertion failed.", record.getSampledTraces(), PROPERTY_SAMPLED_TRACES);
+		Assert.assertEquals("'droppedTraces' value assertion failed.", record.getDroppedTraces(), PROPERTY_DROPPED_TRACES);
+	}
+			
+	/**
+	 * Build a populated string registry for all tests.
+	 */
+	private IRegistry<String> makeStringRegistry() {
+		final IRegistry<String> stringRegistry = new Registry<String>();
+		// get registers string and returns their ID
+
+		return stringRegistry;
+	}
+}
@@ -93,7 +93,7 @@ public abstract class AbstractKiekerTest { // NOPMD (no abstract methods)
 		this.workingDirectoryIsModuleDirectory = new File(currentDir + "/src").isDirectory();
 		if (this.workingDirectoryIsModuleDirectory) { // in this case, we are fine and can use the paths right away
 			this.testModulePrefix = "./";
-		} else { // we need to find out whether in kieker-common, kieker-monitoring, kieker-tools, or kieker-analysis
+		} else { // we need to find out whether in kieker-common, kieker-monitoring, kieker-tools, kieker-analysis, or kieker-benchmarks
 			final String testClassName = this.getClass().getName();
 			if (testClassName.startsWith("kieker.test.common")) {
 				this.testModulePrefix = "kieker-common/";
@@ -103,6 +103,8 @@ public abstract class AbstractKiekerTest { // NOPMD (no abstract methods)
 				this.testModulePrefix = "kieker-monitoring/";
 			} else if (testClassName.startsWith("kieker.test.tools")) {
 				this.testModulePrefix = "kieker-tools/";
+			} else if (testClassName.startsWith("kieker.test.benchmarks")) {
+				this.testModulePrefix = "kieker-benchmarks/";
 			} else {
 				LOG.error("Failed to detect test module for test: " + testClassName);
 			}
@@ -0,0 +1,110 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.util.filesystem;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.misc.KiekerMetadataRecord;
+import kieker.common.record.system.LoadAverageRecord;
+import kieker.common.util.filesystem.AsciiRecordCodec;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link AsciiRecordCodec}.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestAsciiRecordCodec extends AbstractKiekerTest {
+
+	private static final int CLASS_ID = 17;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestAsciiRecordCodec() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that the codec writes the same lines as the generic format and reads them back.
+	 *
+	 * @throws IOException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testRoundTripMatchesGenericFormat() throws IOException {
+		final IMonitoringRecord[] records = {
+			new OperationExecutionRecord("public void a.b.C.op()", "session", Long.MIN_VALUE, -1L, Long.MAX_VALUE, "host", Integer.MIN_VALUE, 0),
+			new BeforeOperationEvent(123456789L, 42L, 7, "op", ""),
+			new KiekerMetadataRecord("1.13", "KIEKER", "host", 1, true, 0L, "NANOSECONDS", 5L),
+			new LoadAverageRecord(1L, "host", 0.5, -1.25E-10, Double.NaN),
+		};
+		final AsciiRecordCodec codec = new AsciiRecordCodec();
+		for (final IMonitoringRecord record : records) {
+			record.setLoggingTimestamp(987654321L);
+			final StringWriter writer = new StringWriter();
+			Assert.assertTrue(codec.write(record, CLASS_ID, writer));
+			final String line = writer.toString();
+			Assert.assertEquals(TestAsciiRecordCodec.genericLine(record), line);
+
+			Assert.assertEquals(CLASS_ID, AsciiRecordCodec.parseClassId(line));
+			final IMonitoringRecord readRecord = codec.read(line, line.indexOf(';') + 1, record.getClass());
+			Assert.assertEquals(record, readRecord);
+			Assert.assertEquals(record.getLoggingTimestamp(), readRecord.getLoggingTimestamp());
+		}
+	}
+
+	/**
+	 * Tests that malformed lines are left to the generic methods.
+	 */
+	@Test
+	public void testMalformedLines() {
+		final AsciiRecordCodec codec = new AsciiRecordCodec();
+		final String valid = "$3;10;1;host;0.5;0.25;0.125";
+		Assert.assertNotNull(codec.read(valid, 3, LoadAverageRecord.class));
+		// missing field, additional field, invalid number, number out of range
+		Assert.assertNull(codec.read("$3;10;1;host;0.5;0.25", 3, LoadAverageRecord.class));
+		Assert.assertNull(codec.read(valid + ";1", 3, LoadAverageRecord.class));
+		Assert.assertNull(codec.read("$3;10;x;host;0.5;0.25;0.125", 3, LoadAverageRecord.class));
+		Assert.assertNull(codec.read("$3;10;9223372036854775808;host;0.5;0.25;0.125", 3, LoadAverageRecord.class));
+		Assert.assertEquals(-1, AsciiRecordCodec.parseClassId("3;10"));
+		Assert.assertEquals(-1, AsciiRecordCodec.parseClassId("$;10"));
+	}
+
+	private static String genericLine(final IMonitoringRecord record) {
+		final StringBuilder sb = new StringBuilder(256);
+		sb.append('$');
+		sb.append(CLASS_ID);
+		sb.append(';');
+		sb.append(record.getLoggingTimestamp());
+		for (final Object recordField : record.toArray()) {
+			sb.append(';');
+			sb.append(String.valueOf(recordField));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,141 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.util.filesystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.system.LoadAverageRecord;
+import kieker.common.util.filesystem.BlockIndex;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link BlockIndex}.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestBlockIndex extends AbstractKiekerTest {
+
+	private static final int EVENT_TYPE = 3;
+	private static final int LOAD_TYPE = 5;
+
+	/**
+	 * A rule making sure that a temporary folder exists for every test method (which is removed after the test).
+	 */
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (@Rule must be public)
+
+	/**
+	 * Default constructor.
+	 */
+	public TestBlockIndex() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that an index is read back as written.
+	 *
+	 * @throws IOException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testWriteRead() throws IOException {
+		final BlockIndex index = new BlockIndex();
+		final BlockIndex.Block traceBlock = new BlockIndex.Block();
+		for (int i = 0; i < 10; i++) {
+			traceBlock.add(TestBlockIndex.createEvent(100 + i, 7 + (i % 2)), EVENT_TYPE);
+		}
+		traceBlock.setPosition(0, 400);
+		index.add(traceBlock);
+		final BlockIndex.Block mixedBlock = new BlockIndex.Block();
+		mixedBlock.add(TestBlockIndex.createEvent(200, 9), EVENT_TYPE);
+		mixedBlock.add(TestBlockIndex.createLoad(210), LOAD_TYPE);
+		mixedBlock.setPosition(400, 100);
+		index.add(mixedBlock);
+
+		final File indexFile = BlockIndex.getIndexFile(new File(this.tmpFolder.getRoot(), "kieker.bin"));
+		Assert.assertEquals("kieker.bin.idx", indexFile.getName());
+		index.write(indexFile);
+		final List<BlockIndex.Block> blocks = BlockIndex.read(indexFile).getBlocks();
+
+		Assert.assertEquals(2, blocks.size());
+		final BlockIndex.Block first = blocks.get(0);
+		Assert.assertEquals(0, first.getOffset());
+		Assert.assertEquals(400, first.getLength());
+		Assert.assertEquals(10, first.getNumberOfRecords());
+		Assert.assertEquals(10, first.getNumberOfTraceRecords());
+		Assert.assertEquals(100, first.getMinTimestamp());
+		Assert.assertEquals(109, first.getMaxTimestamp());
+		Assert.assertEquals(7, first.getMinTraceId());
+		Assert.assertEquals(8, first.getMaxTraceId());
+		Assert.assertEquals(10, first.getNumberOfRecords(EVENT_TYPE));
+		Assert.assertEquals(0, first.getNumberOfRecords(LOAD_TYPE));
+		final BlockIndex.Block second = blocks.get(1);
+		Assert.assertEquals(400, second.getOffset());
+		Assert.assertEquals(2, second.getNumberOfRecords());
+		Assert.assertEquals(1, second.getNumberOfTraceRecords());
+		Assert.assertEquals(1, second.getNumberOfRecords(LOAD_TYPE));
+	}
+
+	/**
+	 * Tests which blocks are selected by timestamp and trace id ranges.
+	 */
+	@Test
+	public void testOverlaps() {
+		final BlockIndex.Block traceBlock = new BlockIndex.Block();
+		traceBlock.add(TestBlockIndex.createEvent(100, 7), EVENT_TYPE);
+		traceBlock.add(TestBlockIndex.createEvent(110, 8), EVENT_TYPE);
+		Assert.assertTrue(traceBlock.overlaps(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE));
+		Assert.assertTrue(traceBlock.overlaps(110, 200, Long.MIN_VALUE, Long.MAX_VALUE));
+		Assert.assertFalse(traceBlock.overlaps(111, 200, Long.MIN_VALUE, Long.MAX_VALUE));
+		Assert.assertFalse(traceBlock.overlaps(0, 99, Long.MIN_VALUE, Long.MAX_VALUE));
+		Assert.assertTrue(traceBlock.overlaps(Long.MIN_VALUE, Long.MAX_VALUE, 8, 8));
+		Assert.assertFalse(traceBlock.overlaps(Long.MIN_VALUE, Long.MAX_VALUE, 9, 20));
+
+		// records without trace ids are only selected by their timestamp
+		final BlockIndex.Block mixedBlock = new BlockIndex.Block();
+		mixedBlock.add(TestBlockIndex.createEvent(100, 7), EVENT_TYPE);
+		mixedBlock.add(TestBlockIndex.createLoad(110), LOAD_TYPE);
+		Assert.assertTrue(mixedBlock.overlaps(Long.MIN_VALUE, Long.MAX_VALUE, 9, 20));
+		Assert.assertFalse(mixedBlock.overlaps(111, 200, 9, 20));
+
+		Assert.assertFalse(new BlockIndex.Block().overlaps(Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE));
+	}
+
+	private static IMonitoringRecord createEvent(final long loggingTimestamp, final long traceId) {
+		final IMonitoringRecord record = new BeforeOperationEvent(loggingTimestamp, traceId, 0, "op", "clazz");
+		record.setLoggingTimestamp(loggingTimestamp);
+		return record;
+	}
+
+	private static IMonitoringRecord createLoad(final long loggingTimestamp) {
+		final IMonitoringRecord record = new LoadAverageRecord(loggingTimestamp, "host", 1.0, 1.0, 1.0);
+		record.setLoggingTimestamp(loggingTimestamp);
+		return record;
+	}
+}
@@ -0,0 +1,239 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.util.filesystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.system.LoadAverageRecord;
+import kieker.common.util.filesystem.ColumnarArchiveReader;
+import kieker.common.util.filesystem.ColumnarArchiveWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link ColumnarArchiveWriter} and the {@link ColumnarArchiveReader}.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestColumnarArchive extends AbstractKiekerTest {
+
+	private static final int NUMBER_OF_EXECUTIONS = 1000;
+	private static final int ROW_GROUP_SIZE = 300;
+	private static final String EXECUTION_TYPE = OperationExecutionRecord.class.getName();
+	private static final int OPERATION_COLUMN = 1;
+	private static final int TIN_COLUMN = 4;
+	private static final int TOUT_COLUMN = 5;
+
+	/**
+	 * A rule making sure that a temporary folder exists for every test method (which is removed after the test).
+	 */
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (@Rule must be public)
+
+	/**
+	 * Default constructor.
+	 */
+	public TestColumnarArchive() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that the records are read back as written.
+	 *
+	 * @throws IOException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		final File file = this.tmpFolder.newFile("kieker.kcol");
+		final List<IMonitoringRecord> writtenRecords = this.writeArchive(file);
+
+		final ColumnarArchiveReader reader = new ColumnarArchiveReader(file);
+		try {
+			Assert.assertTrue(reader.isComplete());
+			Assert.assertEquals(Arrays.asList(EXECUTION_TYPE, LoadAverageRecord.class.getName()), reader.getRecordTypes());
+			Assert.assertEquals(9, reader.getNumberOfColumns(EXECUTION_TYPE));
+			final int numberOfRowGroups = reader.getNumberOfRowGroups();
+			Assert.assertEquals((writtenRecords.size() + ROW_GROUP_SIZE - 1) / ROW_GROUP_SIZE, numberOfRowGroups);
+			final List<IMonitoringRecord> executions = new ArrayList<IMonitoringRecord>();
+			final List<IMonitoringRecord> loads = new ArrayList<IMonitoringRecord>();
+			for (int rowGroup = 0; rowGroup < numberOfRowGroups; rowGroup++) {
+				for (final IMonitoringRecord record : reader.readRecords(rowGroup)) {
+					if (record instanceof OperationExecutionRecord) {
+						executions.add(record);
+					} else {
+						loads.add(record);
+					}
+				}
+			}
+			final List<IMonitoringRecord> expectedExecutions = new ArrayList<IMonitoringRecord>();
+			final List<IMonitoringRecord> expectedLoads = new ArrayList<IMonitoringRecord>();
+			for (final IMonitoringRecord record : writtenRecords) {
+				if (record instanceof OperationExecutionRecord) {
+					expectedExecutions.add(record);
+				} else {
+					expectedLoads.add(record);
+				}
+			}
+			Assert.assertEquals(expectedExecutions, executions);
+			Assert.assertEquals(expectedLoads, loads);
+			for (int i = 0; i < loads.size(); i++) {
+				Assert.assertEquals(expectedLoads.get(i).getLoggingTimestamp(), loads.get(i).getLoggingTimestamp());
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Tests aggregating the response times per operation by reading only the required columns.
+	 *
+	 * @throws IOException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testProjectedColumns() throws IOException {
+		final File file = this.tmpFolder.newFile("kieker.kcol");
+		final List<IMonitoringRecord> writtenRecords = this.writeArchive(file);
+		final Map<String, Long> expectedResponseTimes = new HashMap<String, Long>();
+		for (final IMonitoringRecord record : writtenRecords) {
+			if (record instanceof OperationExecutionRecord) {
+				final OperationExecutionRecord execution = (OperationExecutionRecord) record;
+				TestColumnarArchive.addResponseTime(expectedResponseTimes, execution.getOperationSignature(), execution.getTout() - execution.getTin());
+			}
+		}
+
+		final Map<String, Long> responseTimes = new HashMap<String, Long>();
+		final ColumnarArchiveReader reader = new ColumnarArchiveReader(file);
+		try {
+			for (int rowGroup = 0; rowGroup < reader.getNumberOfRowGroups(); rowGroup++) {
+				final ColumnarArchiveReader.Column operations = reader.readColumn(rowGroup, EXECUTION_TYPE, OPERATION_COLUMN);
+				final ColumnarArchiveReader.Column tins = reader.readColumn(rowGroup, EXECUTION_TYPE, TIN_COLUMN);
+				final ColumnarArchiveReader.Column touts = reader.readColumn(rowGroup, EXECUTION_TYPE, TOUT_COLUMN);
+				Assert.assertEquals(reader.getNumberOfRecords(rowGroup, EXECUTION_TYPE), operations.size());
+				for (int i = 0; i < operations.size(); i++) {
+					TestColumnarArchive.addResponseTime(responseTimes, operations.getString(i), touts.getLong(i) - tins.getLong(i));
+				}
+			}
+			final ColumnarArchiveReader.Column timestamps = reader.readColumn(0, EXECUTION_TYPE, ColumnarArchiveReader.LOGGING_TIMESTAMP_COLUMN);
+			Assert.assertEquals(writtenRecords.get(0).getLoggingTimestamp(), timestamps.getLong(0));
+			Assert.assertEquals(writtenRecords.get(1).getLoggingTimestamp(), reader.getMinTimestamp(0)); // the first load record
+		} finally {
+			reader.close();
+		}
+		Assert.assertEquals(expectedResponseTimes, responseTimes);
+	}
+
+	/**
+	 * Tests that an archive which has not been closed, e.g., since the monitored JVM crashed, is readable up to its last complete row group.
+	 *
+	 * @throws IOException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testUnclosedArchive() throws IOException {
+		final File file = this.tmpFolder.newFile("kieker.kcol");
+		final List<IMonitoringRecord> writtenRecords = this.writeArchive(file, false);
+		final int numberOfCompleteRowGroups = writtenRecords.size() / ROW_GROUP_SIZE;
+
+		final ColumnarArchiveReader reader = new ColumnarArchiveReader(file);
+		try {
+			Assert.assertFalse(reader.isComplete());
+			Assert.assertEquals(numberOfCompleteRowGroups, reader.getNumberOfRowGroups());
+			for (int rowGroup = 0; rowGroup < numberOfCompleteRowGroups; rowGroup++) {
+				Assert.assertEquals(ROW_GROUP_SIZE, reader.readRecords(rowGroup).size());
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Tests that an archive truncated within its last row group is readable up to the preceding row group.
+	 *
+	 * @throws IOException
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testTruncatedArchive() throws IOException {
+		final File file = this.tmpFolder.newFile("kieker.kcol");
+		final List<IMonitoringRecord> writtenRecords = this.writeArchive(file);
+		final RandomAccessFile truncatedFile = new RandomAccessFile(file, "rw");
+		try {
+			truncatedFile.setLength(truncatedFile.length() - 10); // the end marker and a part of the last column
+		} finally {
+			truncatedFile.close();
+		}
+
+		final ColumnarArchiveReader reader = new ColumnarArchiveReader(file);
+		try {
+			Assert.assertFalse(reader.isComplete());
+			Assert.assertEquals(writtenRecords.size() / ROW_GROUP_SIZE, reader.getNumberOfRowGroups());
+			Assert.assertEquals(writtenRecords.get(0), reader.readRecords(0).get(0));
+		} finally {
+			reader.close();
+		}
+	}
+
+	private List<IMonitoringRecord> writeArchive(final File file) throws IOException {
+		return this.writeArchive(file, true);
+	}
+
+	private List<IMonitoringRecord> writeArchive(final File file, final boolean close) throws IOException {
+		final List<IMonitoringRecord> writtenRecords = new ArrayList<IMonitoringRecord>();
+		final ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file, ROW_GROUP_SIZE);
+		for (int i = 0; i < NUMBER_OF_EXECUTIONS; i++) {
+			final long tin = 1000000L + (i * 1000L);
+			final IMonitoringRecord execution = new OperationExecutionRecord("public void op" + (i % 7) + "()", (i % 3) == 0 ? null : "session",
+					i / 10, tin, tin + (i % 13) + 1, "host" + (i % 2), i % 10, i % 4);
+			execution.setLoggingTimestamp(tin);
+			writtenRecords.add(execution);
+			Assert.assertTrue(writer.add(execution));
+			if ((i % 10) == 0) {
+				final IMonitoringRecord load = new LoadAverageRecord(tin, "host", i / 100.0, -0.5, Double.NaN);
+				load.setLoggingTimestamp(tin - 1);
+				writtenRecords.add(load);
+				Assert.assertTrue(writer.add(load));
+			}
+		}
+		if (close) {
+			writer.close();
+		}
+		return writtenRecords;
+	}
+
+	private static void addResponseTime(final Map<String, Long> responseTimes, final String operation, final long responseTime) {
+		final Long sum = responseTimes.get(operation);
+		responseTimes.put(operation, (sum == null) ? responseTime : sum + responseTime); // NOCS (InlineConditionalCheck)
+	}
+}
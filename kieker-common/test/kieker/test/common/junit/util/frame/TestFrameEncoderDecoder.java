@@ -0,0 +1,188 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.util.frame;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.util.frame.FrameCompression;
+import kieker.common.util.frame.FrameDecoder;
+import kieker.common.util.frame.FrameEncoder;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link FrameEncoder} and the {@link FrameDecoder}.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestFrameEncoderDecoder extends AbstractKiekerTest {
+
+	private static final int FRAME_SIZE = 1024;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestFrameEncoderDecoder() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests whether compressible data is compressed and decoded correctly.
+	 *
+	 * @throws DataFormatException
+	 *             If the frame cannot be decoded.
+	 */
+	@Test
+	public void testCompressedFrame() throws DataFormatException {
+		final FrameEncoder encoder = new FrameEncoder(FRAME_SIZE, FrameCompression.DEFLATE);
+		final ByteBuffer payload = encoder.getPayload();
+		while (payload.remaining() >= 8) {
+			payload.putLong(42L);
+		}
+		final byte[] expected = TestFrameEncoderDecoder.getContent(payload);
+
+		final ByteBuffer frame = encoder.encode();
+		Assert.assertTrue("Frame not compressed", frame.remaining() < (expected.length / 2));
+		Assert.assertEquals(FrameCompression.DEFLATE.getId(), frame.get(0));
+		Assert.assertTrue(encoder.isEmpty());
+
+		this.assertDecodedFrame(expected, frame);
+		encoder.close();
+	}
+
+	/**
+	 * Tests whether incompressible data is sent uncompressed although the compression is enabled.
+	 *
+	 * @throws DataFormatException
+	 *             If the frame cannot be decoded.
+	 */
+	@Test
+	public void testIncompressibleFrame() throws DataFormatException {
+		final FrameEncoder encoder = new FrameEncoder(FRAME_SIZE, FrameCompression.DEFLATE);
+		final ByteBuffer payload = encoder.getPayload();
+		final byte[] randomBytes = new byte[payload.remaining()];
+		new Random(0).nextBytes(randomBytes);
+		payload.put(randomBytes);
+
+		final ByteBuffer frame = encoder.encode();
+		Assert.assertEquals(FRAME_SIZE, frame.remaining());
+		Assert.assertEquals(FrameCompression.NONE.getId(), frame.get(0));
+
+		this.assertDecodedFrame(randomBytes, frame);
+		encoder.close();
+	}
+
+	/**
+	 * Tests whether incomplete frames are detected and several frames can be decoded from a single buffer.
+	 *
+	 * @throws DataFormatException
+	 *             If a frame cannot be decoded.
+	 */
+	@Test
+	public void testPartialAndMultipleFrames() throws DataFormatException {
+		final FrameEncoder encoder = new FrameEncoder(FRAME_SIZE, FrameCompression.NONE);
+		final ByteBuffer stream = ByteBuffer.allocate(4 * FRAME_SIZE);
+		for (int i = 0; i < 3; i++) {
+			encoder.getPayload().putInt(i);
+			stream.put(encoder.encode());
+		}
+		stream.flip();
+
+		final FrameDecoder decoder = new FrameDecoder(FRAME_SIZE);
+		final ByteBuffer partial = stream.duplicate();
+		partial.limit(FrameEncoder.HEADER_SIZE + 2);
+		Assert.assertNull(decoder.decode(partial));
+		Assert.assertEquals(0, partial.position());
+
+		for (int i = 0; i < 3; i++) {
+			final ByteBuffer payload = decoder.decode(stream);
+			Assert.assertNotNull(payload);
+			Assert.assertEquals(4, payload.remaining());
+			Assert.assertEquals(i, payload.getInt());
+		}
+		Assert.assertFalse(stream.hasRemaining());
+		Assert.assertNull(decoder.decode(stream));
+		decoder.close();
+		encoder.close();
+	}
+
+	/**
+	 * Tests whether a stream which does not consist of frames is rejected without reading it, e.g., if the writer does not send frames. A string registry
+	 * entry starts with -1, which is decoded as negative payload length.
+	 */
+	@Test
+	public void testUnframedStream() {
+		final ByteBuffer stream = ByteBuffer.allocate(FRAME_SIZE);
+		stream.putInt(-1).putInt(0).putInt(4).putInt(42);
+		stream.flip();
+
+		final FrameDecoder decoder = new FrameDecoder(FRAME_SIZE);
+		this.assertCorruptStream(decoder, stream);
+		Assert.assertEquals("The corrupt stream must not be skipped", 0, stream.position());
+		this.assertCorruptStream(decoder, stream);
+		decoder.close();
+	}
+
+	/**
+	 * Tests whether a frame larger than the maximal frame size is rejected before allocating its payload.
+	 */
+	@Test
+	public void testOversizedFrame() {
+		final ByteBuffer stream = ByteBuffer.allocate(FRAME_SIZE);
+		stream.put(FrameCompression.NONE.getId()).putInt(Integer.MAX_VALUE).putInt(Integer.MAX_VALUE);
+		stream.flip();
+
+		final FrameDecoder decoder = new FrameDecoder(FRAME_SIZE);
+		this.assertCorruptStream(decoder, stream);
+		decoder.close();
+	}
+
+	private void assertCorruptStream(final FrameDecoder decoder, final ByteBuffer stream) {
+		try {
+			decoder.decode(stream);
+			Assert.fail("Corrupt stream not detected");
+		} catch (final DataFormatException ex) {
+			Assert.assertTrue(decoder.isCorrupt());
+		}
+	}
+
+	private void assertDecodedFrame(final byte[] expected, final ByteBuffer frame) throws DataFormatException {
+		final FrameDecoder decoder = new FrameDecoder(FRAME_SIZE);
+		final ByteBuffer decoded = decoder.decode(frame);
+		Assert.assertNotNull(decoded);
+		Assert.assertFalse(frame.hasRemaining());
+		Assert.assertArrayEquals(expected, TestFrameEncoderDecoder.getContent(decoded));
+		decoder.close();
+	}
+
+	private static byte[] getContent(final ByteBuffer buffer) {
+		final ByteBuffer content = buffer.duplicate();
+		if (content.position() > 0) { // still in write mode
+			content.flip();
+		}
+		final byte[] bytes = new byte[content.remaining()];
+		content.get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,105 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.util.frame;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.misc.TimestampRecord;
+import kieker.common.util.frame.RecordBatchDecoder;
+import kieker.common.util.frame.RecordBatchEncoder;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link RecordBatchEncoder} and the {@link RecordBatchDecoder}.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestRecordBatchEncoderDecoder extends AbstractKiekerTest {
+
+	/**
+	 * Default constructor.
+	 */
+	public TestRecordBatchEncoderDecoder() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that consecutive batches can be decoded independently of each other.
+	 *
+	 * @throws Exception
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testBatchesAreSelfContained() throws Exception {
+		final RecordBatchEncoder encoder = new RecordBatchEncoder(1024);
+		final List<IMonitoringRecord> records = new ArrayList<IMonitoringRecord>();
+		for (int i = 0; i < 100; i++) {
+			final IMonitoringRecord record = new OperationExecutionRecord("op" + (i % 7), "session", i, i, i + 1, "host", i, i);
+			record.setLoggingTimestamp(1000L + i);
+			records.add(record);
+		}
+		final TimestampRecord timestampRecord = new TimestampRecord(42L);
+		records.add(timestampRecord);
+
+		final List<byte[]> batches = new ArrayList<byte[]>();
+		for (final IMonitoringRecord record : records) {
+			if (!encoder.add(record)) {
+				batches.add(encoder.encode());
+				Assert.assertTrue(encoder.isEmpty());
+				Assert.assertTrue(encoder.add(record));
+			}
+		}
+		batches.add(encoder.encode());
+		Assert.assertTrue("Expected several batches", batches.size() > 1);
+
+		final List<IMonitoringRecord> decodedRecords = new ArrayList<IMonitoringRecord>();
+		for (int i = batches.size() - 1; i >= 0; i--) { // decode in reverse order
+			final List<IMonitoringRecord> batchRecords = new ArrayList<IMonitoringRecord>();
+			final RecordBatchDecoder decoder = new RecordBatchDecoder(ByteBuffer.wrap(batches.get(i)));
+			IMonitoringRecord record = decoder.next();
+			while (record != null) {
+				batchRecords.add(record);
+				record = decoder.next();
+			}
+			Assert.assertEquals(decoder.getNumberOfRecords(), batchRecords.size());
+			decodedRecords.addAll(0, batchRecords);
+		}
+		Assert.assertEquals(records, decodedRecords);
+		for (int i = 0; i < records.size(); i++) {
+			Assert.assertEquals(records.get(i).getLoggingTimestamp(), decodedRecords.get(i).getLoggingTimestamp());
+		}
+	}
+
+	/**
+	 * Tests that a record exceeding the capacity of an empty batch is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testRecordExceedingCapacity() {
+		final RecordBatchEncoder encoder = new RecordBatchEncoder(8);
+		encoder.add(new TimestampRecord(42L));
+	}
+}
@@ -0,0 +1,104 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.common.junit.util.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.misc.RegistryRecord;
+import kieker.common.util.registry.IRegistryRecordReceiver;
+import kieker.common.util.registry.StringDictionary;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link StringDictionary}.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestStringDictionary extends AbstractKiekerTest {
+
+	/**
+	 * Default constructor.
+	 */
+	public TestStringDictionary() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that consecutive ids are assigned to new strings and that known strings keep their ids.
+	 */
+	@Test
+	public void testGet() {
+		final StringDictionary dictionary = new StringDictionary();
+		Assert.assertEquals(0, dictionary.get("a"));
+		Assert.assertEquals(1, dictionary.get("b"));
+		Assert.assertEquals(0, dictionary.get("a"));
+		Assert.assertEquals(2, dictionary.getSize());
+		Assert.assertEquals("b", dictionary.get(1));
+		Assert.assertNull("Unknown ids must be resolved to null", dictionary.get(2));
+		Assert.assertArrayEquals(new String[] { "a", "b" }, dictionary.getAll());
+
+		dictionary.clear();
+		Assert.assertEquals(0, dictionary.getSize());
+		Assert.assertEquals(0, dictionary.get("b"));
+	}
+
+	/**
+	 * Tests that the strings of a serialized dictionary are resolved and reused.
+	 */
+	@Test
+	public void testPut() {
+		final StringDictionary dictionary = new StringDictionary(new String[] { "a", "b" });
+		Assert.assertEquals("a", dictionary.get(0));
+		Assert.assertEquals(1, dictionary.get("b"));
+
+		Assert.assertNull(dictionary.put(3, "d"));
+		Assert.assertNull("Unassigned ids must be unknown", dictionary.get(2));
+		Assert.assertEquals(3, dictionary.get("d"));
+		Assert.assertEquals("a", dictionary.put(0, "c"));
+		Assert.assertEquals("c", dictionary.get(0));
+		Assert.assertEquals("The replaced string must be registered again", 4, dictionary.get("a"));
+	}
+
+	/**
+	 * Tests that only newly registered strings are passed to the record receiver.
+	 */
+	@Test
+	public void testRecordReceiver() {
+		final List<RegistryRecord> registryRecords = new ArrayList<RegistryRecord>();
+		final StringDictionary dictionary = new StringDictionary();
+		dictionary.setRecordReceiver(new IRegistryRecordReceiver() {
+
+			@Override
+			public boolean newRegistryRecord(final RegistryRecord registryRecord) {
+				return registryRecords.add(registryRecord);
+			}
+		});
+		dictionary.get("a");
+		dictionary.get("b");
+		dictionary.get("a");
+		Assert.assertEquals(2, registryRecords.size());
+		Assert.assertEquals(1, registryRecords.get(1).getId());
+		Assert.assertEquals("b", registryRecords.get(1).getString());
+	}
+}
@@ -60,12 +60,21 @@ interface Keys { // NOPMD NOCS (static list)
 	// Writer Controller
 	public static final String AUTO_SET_LOGGINGTSTAMP = PREFIX + "setLoggingTimestamp";
 	public static final String WRITER_CLASSNAME = PREFIX + "writer";
+	public static final String RECORD_BATCH_SIZE = PREFIX + "recordBatchSize";
+	public static final String RECORD_BATCH_POOL_SIZE = PREFIX + "recordBatchPoolSize";
+	public static final String RECORD_BATCH_FLUSH_INTERVAL = PREFIX + "recordBatchFlushInterval";
+	public static final String TRACE_SAMPLING = PREFIX + "adaptiveTraceSampling";
+	public static final String TRACE_SAMPLING_LOW_WATERMARK = PREFIX + "adaptiveTraceSampling.lowWatermark";
+	public static final String TRACE_SAMPLING_HIGH_WATERMARK = PREFIX + "adaptiveTraceSampling.highWatermark";
+	public static final String TRACE_SAMPLING_MIN_RATE = PREFIX + "adaptiveTraceSampling.minSamplingRate";
+	public static final String TRACE_SAMPLING_UPDATE_INTERVAL = PREFIX + "adaptiveTraceSampling.updateInterval";
 
 	// TimeSource Controller
 	public static final String TIMER_CLASSNAME = PREFIX + "timer";
 
 	// Sampling Controller
 	public static final String PERIODIC_SENSORS_EXECUTOR_POOL_SIZE = PREFIX + "periodicSensorsExecutorPoolSize";
+	public static final String PERIODIC_SENSORS_CONSOLIDATED = PREFIX + "periodicSensorsConsolidated";
 
 	// Probe Controller
 	public static final String ADAPTIVE_MONITORING_ENABLED = PREFIX + "adaptiveMonitoring.enabled";
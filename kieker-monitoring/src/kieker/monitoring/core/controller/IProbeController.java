@@ -63,6 +63,18 @@ public interface IProbeController {
 	 */
 	public boolean isProbeActivated(final String signature);
 
+	/**
+	 * Returns a version number of the probe patterns which changes whenever the patterns change.
+	 * 
+	 * Probes caching the results of {@link #isProbeActivated(String)} can use this number to detect outdated entries.
+	 * 
+	 * @return
+	 *         the current version of the probe patterns
+	 * 
+	 * @since 1.13
+	 */
+	public int getProbePatternVersion();
+
 	/**
 	 * Overwrites the current list of patterns with a new pattern list.
 	 * 
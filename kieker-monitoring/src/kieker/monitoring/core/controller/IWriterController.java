@@ -18,6 +18,8 @@ package kieker.monitoring.core.controller;
 
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.util.registry.IMonitoringRecordReceiver;
+import kieker.monitoring.writer.SerializedRecordBatch;
+import kieker.monitoring.writer.SerializedRecordBuffer;
 
 /**
  * The methods must not throw any exceptions but indicate problems via its
@@ -55,4 +57,36 @@ public interface IWriterController extends IMonitoringRecordReceiver {
 	 * @since 1.3
 	 */
 	public abstract long getNumberOfInserts();
+
+	/**
+	 * Passes a batch of serialized records to the writer. The batch is released by the writer once it has been written (or by this method in case of an
+	 * error).
+	 *
+	 * @param batch
+	 *            the batch
+	 * @return true on success; false in case of an error.
+	 *
+	 * @since 1.13
+	 */
+	public abstract boolean newSerializedRecordBatch(SerializedRecordBatch batch);
+
+	/**
+	 * Delivers the buffer probes can serialize their events into instead of creating a record for each event. The buffer is only available if
+	 * {@code kieker.monitoring.recordBatchSize} is configured and the writer supports batches of serialized records.
+	 *
+	 * @return the buffer for serialized records or null if serialized record batches are disabled
+	 *
+	 * @since 1.13
+	 */
+	public abstract SerializedRecordBuffer getSerializedRecordBuffer();
+
+	/**
+	 * Decides whether a new (top-level) trace is monitored. Unless {@code kieker.monitoring.adaptiveTraceSampling} is enabled, all traces are monitored. The
+	 * records of traces which are not monitored are dropped as a whole (see {@link kieker.monitoring.core.registry.TraceRegistry#UNSAMPLED_TRACE_ID}).
+	 *
+	 * @return true iff the new trace is monitored
+	 *
+	 * @since 1.13
+	 */
+	public abstract boolean isNewTraceSampled();
 }
@@ -31,6 +31,8 @@ import kieker.monitoring.core.configuration.ConfigurationFactory;
 import kieker.monitoring.core.sampler.ISampler;
 import kieker.monitoring.core.sampler.ScheduledSamplerJob;
 import kieker.monitoring.timer.ITimeSource;
+import kieker.monitoring.writer.SerializedRecordBatch;
+import kieker.monitoring.writer.SerializedRecordBuffer;
 
 /**
  * @author Jan Waller
@@ -284,6 +286,21 @@ public final class MonitoringController extends AbstractController implements IM
 		return this.writerController.getNumberOfInserts();
 	}
 
+	@Override
+	public final boolean newSerializedRecordBatch(final SerializedRecordBatch batch) {
+		return this.writerController.newSerializedRecordBatch(batch);
+	}
+
+	@Override
+	public final SerializedRecordBuffer getSerializedRecordBuffer() {
+		return this.writerController.getSerializedRecordBuffer();
+	}
+
+	@Override
+	public final boolean isNewTraceSampled() {
+		return this.writerController.isNewTraceSampled();
+	}
+
 	@Override
 	public final ScheduledSamplerJob schedulePeriodicSampler(final ISampler sampler, final long initialDelay, final long period, final TimeUnit timeUnit) {
 		return this.samplingController.schedulePeriodicSampler(sampler, initialDelay, period, timeUnit);
@@ -334,6 +351,11 @@ public final class MonitoringController extends AbstractController implements IM
 		return this.probeController.isProbeActivated(signature);
 	}
 
+	@Override
+	public int getProbePatternVersion() {
+		return this.probeController.getProbePatternVersion();
+	}
+
 	@Override
 	public void setProbePatternList(final List<String> patternList) {
 		this.probeController.setProbePatternList(patternList);
@@ -31,13 +31,13 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Locale;
 import java.util.TimeZone;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import kieker.common.configuration.Configuration;
@@ -46,6 +46,7 @@ import kieker.common.logging.LogFactory;
 import kieker.common.util.map.BoundedConcurrentHashMap;
 import kieker.common.util.map.BoundedConcurrentHashMap.BoundedCacheBehaviour;
 import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.signaturePattern.CompiledPatternList;
 import kieker.monitoring.core.signaturePattern.InvalidPatternException;
 import kieker.monitoring.core.signaturePattern.PatternEntry;
 import kieker.monitoring.core.signaturePattern.PatternParser;
@@ -69,6 +70,10 @@ public class ProbeController extends AbstractController implements IProbeControl
 
 	private final ConcurrentMap<String, Boolean> signatureCache;
 	private final List<PatternEntry> patternList = new ArrayList<PatternEntry>(); // only accessed synchronized
+	/** the compiled form of the pattern list; replaced (synchronized) as a whole whenever the patterns change. */
+	private volatile CompiledPatternList compiledPatternList = CompiledPatternList.EMPTY;
+	/** incremented whenever the patterns change; only modified synchronized. */
+	private volatile int patternVersion;
 
 	/**
 	 * Creates a new instance of this class using the given configuration to initialize the class.
@@ -213,6 +218,14 @@ public class ProbeController extends AbstractController implements IProbeControl
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getProbePatternVersion() {
+		return this.patternVersion;
+	}
+
 	/**
 	 * Sets the list of probe patterns.
 	 * 
@@ -230,7 +243,6 @@ public class ProbeController extends AbstractController implements IProbeControl
 
 		synchronized (this) {
 			this.patternList.clear();
-			this.signatureCache.clear();
 			for (final String string : strPatternList) {
 				if (string.length() > 0) { // ignore empty lines
 					try {
@@ -253,6 +265,14 @@ public class ProbeController extends AbstractController implements IProbeControl
 					}
 				}
 			}
+			final CompiledPatternList newCompiledPatternList = new CompiledPatternList(this.patternList);
+			this.compiledPatternList = newCompiledPatternList;
+			// only the cached decisions changed by the new patterns are updated
+			for (final String signature : this.signatureCache.keySet()) {
+				this.signatureCache.replace(signature, newCompiledPatternList.isActivated(signature));
+			}
+			// the version changes after the patterns in order to invalidate decisions based on the old patterns
+			this.patternVersion++; // NOPMD (only modified synchronized)
 			if (updateConfig && this.configFileUpdate) {
 				this.updatePatternFile();
 			}
@@ -295,25 +315,20 @@ public class ProbeController extends AbstractController implements IProbeControl
 	/**
 	 * This method tests if the given signature matches a pattern and completes accordingly the signatureCache map.
 	 * 
+	 * The compiled patterns are used without locking. If they have been replaced concurrently, the cached decision
+	 * might be based on the old patterns and is removed again.
+	 * 
 	 * @param signature
 	 *            The signature to match.
 	 */
 	private boolean matchesPattern(final String signature) {
-		synchronized (this) {
-			final ListIterator<PatternEntry> patternListIterator = this.patternList.listIterator(this.patternList.size());
-			while (patternListIterator.hasPrevious()) {
-				final PatternEntry patternEntry = patternListIterator.previous();
-				if (patternEntry.getPattern().matcher(signature).matches()) {
-					final boolean value = patternEntry.isActivated();
-					this.signatureCache.put(signature, value);
-					return value;
-				}
-			}
+		final CompiledPatternList patterns = this.compiledPatternList;
+		final boolean value = patterns.isActivated(signature);
+		this.signatureCache.put(signature, value);
+		if (patterns != this.compiledPatternList) { // NOPMD (CompareObjectsWithEquals)
+			this.signatureCache.remove(signature);
 		}
-		// Do not forget to remember this default value
-		this.signatureCache.put(signature, true);
-
-		return true; // if nothing matches, the default is true!
+		return value;
 	}
 
 	private boolean addPattern(final String strPattern, final boolean activated) {
@@ -322,8 +337,6 @@ public class ProbeController extends AbstractController implements IProbeControl
 			return false;
 		}
 		synchronized (this) {
-			// we must always clear the cache!
-			this.signatureCache.clear();
 			final Pattern pattern;
 			try {
 				pattern = PatternParser.parseToPattern(strPattern);
@@ -332,6 +345,15 @@ public class ProbeController extends AbstractController implements IProbeControl
 				return false;
 			}
 			this.patternList.add(new PatternEntry(strPattern, pattern, activated));
+			this.compiledPatternList = new CompiledPatternList(this.patternList);
+			// the new pattern takes precedence, so only the cached decisions of matching signatures change
+			final Matcher matcher = pattern.matcher("");
+			for (final String signature : this.signatureCache.keySet()) {
+				if (matcher.reset(signature).matches()) {
+					this.signatureCache.replace(signature, activated);
+				}
+			}
+			this.patternVersion++; // NOPMD (only modified synchronized)
 			if (this.configFileUpdate) {
 				this.updatePatternFile();
 			}
@@ -0,0 +1,285 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.controller;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.core.sampler.IRecordSampler;
+import kieker.monitoring.core.sampler.ISampler;
+import kieker.monitoring.core.sampler.ScheduledSamplerJob;
+import kieker.monitoring.writer.SerializedRecordBuffer;
+
+/**
+ * A single periodic tick shared by all samplers whose period is a multiple of the period of the tick. The tick is aligned
+ * to multiples of its period since 1970-1-1 (wall clock), e.g., every full 10 seconds, such that the samples of different
+ * JVMs line up. Each execution reschedules the next one, so the alignment is kept even if the system clock is adjusted.
+ * A sampler with a longer period is only triggered on the ticks which are aligned to its own period.
+ * 
+ * All samplers triggered by a tick share the same timestamp. The records of {@link IRecordSampler}s are written as a single
+ * batch if a {@link SerializedRecordBuffer} is available. A sampler throwing an exception is removed, just like a failing
+ * {@link ScheduledSamplerJob} is not executed again by the executor. The {@link SamplingController} is notified once the
+ * last sampler of a tick has been removed this way.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+final class SamplerTick implements Runnable {
+	private static final Log LOG = LogFactory.getLog(SamplerTick.class);
+
+	private final SamplingController samplingController;
+	private final IMonitoringController monitoringController;
+	private final long periodInNs;
+	private final CopyOnWriteArrayList<Member> members = new CopyOnWriteArrayList<Member>();
+
+	/** the wall clock time (in nanoseconds) of the last scheduled execution; only accessed synchronized. */
+	private long lastTick;
+	private volatile ScheduledFuture<?> future;
+	private volatile boolean cancelled;
+
+	/**
+	 * Creates a new tick. It has to be started with {@link #start()} after adding the first sampler job.
+	 * 
+	 * @param samplingController
+	 *            the controller owning the tick, its executor runs the tick
+	 * @param monitoringController
+	 *            the controller passed to the samplers
+	 * @param periodInNs
+	 *            the period of the tick in nanoseconds
+	 */
+	public SamplerTick(final SamplingController samplingController, final IMonitoringController monitoringController, final long periodInNs) {
+		this.samplingController = samplingController;
+		this.monitoringController = monitoringController;
+		this.periodInNs = periodInNs;
+	}
+
+	/**
+	 * Schedules the first execution at the first point in time at which one of the sampler jobs of this tick is due.
+	 */
+	public synchronized void start() {
+		long firstTick = SamplerTick.alignUp(SamplerTick.currentTimeNanos(), this.periodInNs);
+		if (!this.members.isEmpty()) {
+			long earliestSample = Long.MAX_VALUE;
+			for (final Member member : this.members) {
+				earliestSample = Math.min(earliestSample, member.nextSample.get());
+			}
+			firstTick = Math.max(firstTick, earliestSample); // already aligned, as the member periods are multiples of ours
+		}
+		this.scheduleAt(firstTick);
+	}
+
+	/**
+	 * @return the period of this tick in nanoseconds
+	 */
+	public long getPeriod() {
+		return this.periodInNs;
+	}
+
+	/**
+	 * Adds a sampler job to this tick. The sampler is first triggered at the first multiple of its period after the given
+	 * delay has passed.
+	 * 
+	 * @param job
+	 *            the job to add
+	 * @param initialDelayInNs
+	 *            the minimal delay in nanoseconds before the first measurement
+	 * @param jobPeriodInNs
+	 *            the period of the job in nanoseconds, a multiple of the period of this tick
+	 */
+	public void add(final ScheduledSamplerJob job, final long initialDelayInNs, final long jobPeriodInNs) {
+		final long firstSample = SamplerTick.alignUp(SamplerTick.currentTimeNanos() + initialDelayInNs, jobPeriodInNs);
+		this.members.add(new Member(job, jobPeriodInNs, firstSample));
+	}
+
+	/**
+	 * Moves all sampler jobs of this tick to the given tick and cancels this tick. The jobs keep their schedule, so the
+	 * period of the given tick has to divide the period of this tick.
+	 * 
+	 * @param tick
+	 *            the tick taking over the sampler jobs
+	 */
+	public void moveTo(final SamplerTick tick) {
+		this.cancel();
+		tick.members.addAll(this.members);
+		this.members.clear();
+	}
+
+	/**
+	 * Removes a sampler job from this tick.
+	 * 
+	 * @param job
+	 *            the job to remove
+	 * 
+	 * @return true if the job was part of this tick
+	 */
+	public boolean remove(final ScheduledSamplerJob job) {
+		for (final Member member : this.members) {
+			if (member.job == job) { // NOPMD (CompareObjectsWithEquals)
+				return this.members.remove(member);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if no sampler jobs are part of this tick
+	 */
+	public boolean isEmpty() {
+		return this.members.isEmpty();
+	}
+
+	/**
+	 * @return the number of sampler jobs sharing this tick
+	 */
+	public int size() {
+		return this.members.size();
+	}
+
+	/**
+	 * Stops future executions of this tick.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+		final ScheduledFuture<?> currentFuture = this.future;
+		if (currentFuture != null) {
+			currentFuture.cancel(false); // do not interrupt when running
+		}
+	}
+
+	@Override
+	public void run() {
+		if (this.cancelled) {
+			return;
+		}
+		final long tick;
+		synchronized (this) {
+			tick = this.lastTick;
+		}
+		try {
+			if (this.sample(tick) && this.members.isEmpty()) {
+				this.samplingController.removeEmptyTick(this); // cancels this tick
+			}
+		} finally {
+			synchronized (this) {
+				final long nextTick = Math.max((SamplerTick.currentTimeNanos() / this.periodInNs) + 1, (this.lastTick / this.periodInNs) + 1)
+						* this.periodInNs;
+				this.scheduleAt(nextTick);
+			}
+		}
+	}
+
+	/**
+	 * @return true if a failing sampler has been removed
+	 */
+	private boolean sample(final long tick) {
+		final IMonitoringController ctrl = this.monitoringController;
+		if (!ctrl.isMonitoringEnabled()) {
+			return false;
+		}
+		final SerializedRecordBuffer buffer = ctrl.getSerializedRecordBuffer();
+		final long timestamp = ctrl.getTimeSource().getTime();
+		boolean removedSampler = false;
+		try {
+			for (final Member member : this.members) {
+				final long dueSample = member.nextSample.get();
+				if (dueSample > tick) {
+					continue;
+				}
+				// the previous tick of a tick which has been merged into this one might still be running
+				if (!member.nextSample.compareAndSet(dueSample, SamplerTick.alignUp(tick + 1, member.periodInNs))) {
+					continue;
+				}
+				final ISampler sampler = member.job.getSampler();
+				try {
+					if (sampler instanceof IRecordSampler) {
+						final IMonitoringRecord[] records = ((IRecordSampler) sampler).sampleRecords(ctrl, timestamp);
+						for (final IMonitoringRecord record : records) {
+							if (null != buffer) {
+								buffer.newRecord(record);
+							} else {
+								ctrl.newMonitoringRecord(record);
+							}
+						}
+					} else {
+						sampler.sample(ctrl);
+					}
+				} catch (final Exception ex) { // NOPMD NOCS (IllegalCatchCheck)
+					LOG.error("Removing sampler " + sampler + " after an error", ex);
+					removedSampler |= this.members.remove(member);
+				}
+			}
+		} finally {
+			if (null != buffer) {
+				buffer.flush();
+			}
+		}
+		return removedSampler;
+	}
+
+	private void scheduleAt(final long tick) { // only called synchronized
+		if (this.cancelled || this.samplingController.periodicSensorsPoolExecutor.isShutdown()) {
+			return;
+		}
+		this.lastTick = tick;
+		this.future = this.samplingController.periodicSensorsPoolExecutor.schedule(this, tick - SamplerTick.currentTimeNanos(), TimeUnit.NANOSECONDS);
+		if (this.cancelled) { // cancelled concurrently
+			this.future.cancel(false);
+		}
+	}
+
+	private static long currentTimeNanos() {
+		return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+	}
+
+	/**
+	 * @return the first multiple of the period which is not before the given time
+	 */
+	private static long alignUp(final long timeInNs, final long periodInNs) {
+		return ((timeInNs + periodInNs) - 1) / periodInNs * periodInNs;
+	}
+
+	@Override
+	public String toString() {
+		return "SamplerTick [period=" + this.periodInNs + " ns, samplers=" + this.members.size() + "]";
+	}
+
+	/**
+	 * A sampler job of the tick.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	private static final class Member {
+		final ScheduledSamplerJob job; // NOCS NOPMD (package visible for outer class)
+		final long periodInNs; // NOCS NOPMD (package visible for outer class)
+		/** the wall clock time (in nanoseconds) of the next sample, a multiple of the period. */
+		final AtomicLong nextSample; // NOCS NOPMD (package visible for outer class)
+
+		public Member(final ScheduledSamplerJob job, final long periodInNs, final long firstSample) {
+			this.job = job;
+			this.periodInNs = periodInNs;
+			this.nextSample = new AtomicLong(firstSample);
+		}
+	}
+}
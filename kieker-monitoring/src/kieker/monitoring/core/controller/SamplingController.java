@@ -16,6 +16,9 @@
 
 package kieker.monitoring.core.controller;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -41,6 +44,13 @@ public final class SamplingController extends AbstractController implements ISam
 	/** Executes the {@link kieker.monitoring.sampler.sigar.samplers.AbstractSigarSampler}s. */
 	final ScheduledThreadPoolExecutor periodicSensorsPoolExecutor; // NOPMD NOCS (package visible)
 
+	private final boolean consolidated;
+	/**
+	 * the shared ticks of consolidated samplers by their period in nanoseconds; only accessed synchronized. No period of a
+	 * tick is a multiple of the period of another tick.
+	 */
+	private final Map<Long, SamplerTick> samplerTicks = new HashMap<Long, SamplerTick>();
+
 	/**
 	 * Creates a new instance of this class using the given configuration to initialize the class.
 	 * 
@@ -49,6 +59,7 @@ public final class SamplingController extends AbstractController implements ISam
 	 */
 	protected SamplingController(final Configuration configuration) {
 		super(configuration);
+		this.consolidated = configuration.getBooleanProperty(ConfigurationFactory.PERIODIC_SENSORS_CONSOLIDATED);
 		final int threadPoolSize = configuration.getIntProperty(ConfigurationFactory.PERIODIC_SENSORS_EXECUTOR_POOL_SIZE);
 		if (threadPoolSize > 0) {
 			this.periodicSensorsPoolExecutor = new ScheduledThreadPoolExecutor(threadPoolSize, new DaemonThreadFactory(), new RejectedExecutionHandler());
@@ -84,7 +95,15 @@ public final class SamplingController extends AbstractController implements ISam
 			sb.append(this.periodicSensorsPoolExecutor.getPoolSize());
 			sb.append("'; Scheduled Tasks: '");
 			sb.append(this.periodicSensorsPoolExecutor.getTaskCount());
-			sb.append('\''); // no \n in last controller
+			sb.append('\'');
+			if (this.consolidated) {
+				sb.append("; Consolidated ticks: '");
+				synchronized (this.samplerTicks) {
+					sb.append(this.samplerTicks.size());
+				}
+				sb.append('\'');
+			}
+			// no \n in last controller
 		} else {
 			sb.append("No periodic Sensor available"); // no \n in last controller
 		}
@@ -101,6 +120,9 @@ public final class SamplingController extends AbstractController implements ISam
 			return null;
 		}
 		final ScheduledSamplerJob job = new ScheduledSamplerJob(super.monitoringController, sensor);
+		if (this.consolidated) {
+			return this.scheduleConsolidatedSampler(job, timeUnit.toNanos(initialDelay), timeUnit.toNanos(period));
+		}
 		// we need to keep the future for later cancellation/removal
 		final ScheduledFuture<?> future = this.periodicSensorsPoolExecutor.scheduleAtFixedRate(job, initialDelay, period, timeUnit);
 		job.setFuture(future);
@@ -116,6 +138,9 @@ public final class SamplingController extends AbstractController implements ISam
 			LOG.warn("Won't schedule periodic sensor since Periodic Sampling is deactivated.");
 			return false;
 		}
+		if (this.consolidated) {
+			return this.removeConsolidatedSampler(sensorJob);
+		}
 		final ScheduledFuture<?> future = sensorJob.getFuture();
 		if (future != null) {
 			future.cancel(false); // do not interrupt when running
@@ -127,6 +152,81 @@ public final class SamplingController extends AbstractController implements ISam
 		return success;
 	}
 
+	private ScheduledSamplerJob scheduleConsolidatedSampler(final ScheduledSamplerJob job, final long initialDelayInNs, final long periodInNs) {
+		if (periodInNs <= 0) {
+			LOG.warn("Won't schedule periodic sensor with a period of " + periodInNs + " ns.");
+			return null;
+		}
+		synchronized (this.samplerTicks) {
+			// join the shortest tick with a compatible period
+			SamplerTick compatibleTick = null;
+			for (final SamplerTick tick : this.samplerTicks.values()) {
+				if (((periodInNs % tick.getPeriod()) == 0) && ((null == compatibleTick) || (tick.getPeriod() < compatibleTick.getPeriod()))) {
+					compatibleTick = tick;
+				}
+			}
+			if (null != compatibleTick) {
+				compatibleTick.add(job, initialDelayInNs, periodInNs);
+				return job;
+			}
+			// otherwise start a new tick taking over all ticks with a multiple of its period
+			final SamplerTick newTick = new SamplerTick(this, super.monitoringController, periodInNs);
+			newTick.add(job, initialDelayInNs, periodInNs);
+			boolean merged = false;
+			final Iterator<SamplerTick> iterator = this.samplerTicks.values().iterator();
+			while (iterator.hasNext()) {
+				final SamplerTick tick = iterator.next();
+				if ((tick.getPeriod() % periodInNs) == 0) {
+					tick.moveTo(newTick);
+					iterator.remove();
+					merged = true;
+				}
+			}
+			this.samplerTicks.put(periodInNs, newTick);
+			newTick.start();
+			if (merged) {
+				this.periodicSensorsPoolExecutor.purge();
+			}
+		}
+		return job;
+	}
+
+	/**
+	 * Cancels and removes the given tick if all of its samplers have been removed after failing.
+	 * 
+	 * @param tick
+	 *            the tick to remove
+	 */
+	void removeEmptyTick(final SamplerTick tick) {
+		synchronized (this.samplerTicks) {
+			if (tick.isEmpty()) { // a sampler might have been added concurrently
+				tick.cancel();
+				if (this.samplerTicks.get(tick.getPeriod()) == tick) { // NOPMD (CompareObjectsWithEquals)
+					this.samplerTicks.remove(tick.getPeriod());
+				}
+				this.periodicSensorsPoolExecutor.purge();
+			}
+		}
+	}
+
+	private boolean removeConsolidatedSampler(final ScheduledSamplerJob sensorJob) {
+		synchronized (this.samplerTicks) {
+			final Iterator<SamplerTick> iterator = this.samplerTicks.values().iterator();
+			while (iterator.hasNext()) {
+				final SamplerTick tick = iterator.next();
+				if (tick.remove(sensorJob)) {
+					if (tick.isEmpty()) {
+						tick.cancel();
+						iterator.remove();
+						this.periodicSensorsPoolExecutor.purge();
+					}
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * @author Jan Waller
 	 */
@@ -20,6 +20,7 @@ import kieker.common.configuration.Configuration;
 import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
 import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.timer.AbstractTimeSource;
 import kieker.monitoring.timer.ITimeSource;
 
 /**
@@ -58,6 +59,9 @@ public final class TimeSourceController extends AbstractController implements IT
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("Shutting down TimeSource Controller");
 		}
+		if (this.timeSource instanceof AbstractTimeSource) {
+			((AbstractTimeSource) this.timeSource).terminate();
+		}
 	}
 
 	@Override
@@ -0,0 +1,181 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+import kieker.common.record.misc.TraceSamplingRecord;
+import kieker.monitoring.writer.AbstractAsyncWriter;
+
+/**
+ * Decides whether new traces are monitored depending on the fill level of the queue of an asynchronous writer. Below the low watermark, all traces are
+ * sampled. Between the low and the high watermark, the sampling rate decreases linearly down to the minimal sampling rate, which is used above the high
+ * watermark. Whenever the sampling rate changes, a {@link TraceSamplingRecord} is written such that the analysis can extrapolate.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+final class TraceSampler {
+	private static final Log LOG = LogFactory.getLog(TraceSampler.class);
+
+	/** Changes of the sampling rate below this value are ignored. */
+	private static final double MIN_RATE_CHANGE = 0.01;
+
+	private final AbstractAsyncWriter writer;
+	private final double lowWatermark;
+	private final double highWatermark;
+	private final double minSamplingRate;
+	private final long updateInterval; // in nanoseconds
+
+	private final AtomicLong nextUpdate;
+	private final AtomicLong numberOfTraces = new AtomicLong();
+	private final AtomicLong sampledTraces = new AtomicLong();
+	private final AtomicLong droppedTraces = new AtomicLong();
+	private volatile double samplingRate = 1.0;
+	private volatile IMonitoringController monitoringController;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 * 
+	 * @param writer
+	 *            The writer whose queue is watched.
+	 * @param lowWatermark
+	 *            The fill level of the queue (between 0 and 1) up to which all traces are sampled.
+	 * @param highWatermark
+	 *            The fill level of the queue (between 0 and 1) from which on the minimal sampling rate is used.
+	 * @param minSamplingRate
+	 *            The minimal sampling rate (between 0 and 1).
+	 * @param updateInterval
+	 *            The minimal time between two updates of the sampling rate in milliseconds.
+	 */
+	public TraceSampler(final AbstractAsyncWriter writer, final double lowWatermark,
+			final double highWatermark, final double minSamplingRate, final long updateInterval) {
+		if ((lowWatermark < 0) || (highWatermark > 1) || (lowWatermark >= highWatermark)) {
+			throw new IllegalArgumentException("The watermarks must satisfy 0 <= low < high <= 1, but are " + lowWatermark + " and " + highWatermark);
+		}
+		if ((minSamplingRate < 0) || (minSamplingRate > 1)) {
+			throw new IllegalArgumentException("The minimal sampling rate must be between 0 and 1, but is " + minSamplingRate);
+		}
+		this.writer = writer;
+		this.lowWatermark = lowWatermark;
+		this.highWatermark = highWatermark;
+		this.minSamplingRate = minSamplingRate;
+		this.updateInterval = TimeUnit.MILLISECONDS.toNanos(Math.max(0, updateInterval));
+		this.nextUpdate = new AtomicLong(System.nanoTime());
+	}
+
+	/**
+	 * Sets the monitoring controller whose time source is used for the sampling records. This method must be called before the first trace is sampled.
+	 * 
+	 * @param monitoringController
+	 *            The monitoring controller.
+	 */
+	public void setMonitoringController(final IMonitoringController monitoringController) {
+		this.monitoringController = monitoringController;
+	}
+
+	/**
+	 * Decides whether a new trace is sampled. The decisions are spread evenly, i.e., with a sampling rate r, exactly every (1/r)-th trace is sampled.
+	 * 
+	 * @return true iff the new trace is sampled.
+	 */
+	public boolean isNewTraceSampled() {
+		final long now = System.nanoTime();
+		final long next = this.nextUpdate.get();
+		if (((now - next) >= 0) && this.nextUpdate.compareAndSet(next, now + this.updateInterval)) {
+			this.updateSamplingRate();
+		}
+		final double rate = this.samplingRate;
+		final boolean sampled;
+		if (rate >= 1.0) {
+			sampled = true;
+		} else {
+			final long n = this.numberOfTraces.getAndIncrement();
+			sampled = (long) ((n + 1) * rate) > (long) (n * rate);
+		}
+		if (sampled) {
+			this.sampledTraces.incrementAndGet();
+		} else {
+			this.droppedTraces.incrementAndGet();
+		}
+		return sampled;
+	}
+
+	private void updateSamplingRate() {
+		final double depth = this.writer.getQueueDepth();
+		final double capacity = depth + this.writer.getQueueRemainingCapacity();
+		final double fillLevel = (capacity > 0) ? depth / capacity : 0.0; // NOCS (inline conditional)
+		final double newRate;
+		if (fillLevel <= this.lowWatermark) {
+			newRate = 1.0;
+		} else if (fillLevel >= this.highWatermark) {
+			newRate = this.minSamplingRate;
+		} else {
+			final double load = (fillLevel - this.lowWatermark) / (this.highWatermark - this.lowWatermark);
+			newRate = 1.0 - (load * (1.0 - this.minSamplingRate));
+		}
+		final double oldRate = this.samplingRate;
+		if ((Math.abs(newRate - oldRate) >= MIN_RATE_CHANGE) || ((newRate == 1.0) && (oldRate != 1.0))) { // NOPMD (float equality intended)
+			this.samplingRate = newRate;
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Queue fill level " + fillLevel + ": changed trace sampling rate from " + oldRate + " to " + newRate);
+			}
+			final TraceSamplingRecord record = new TraceSamplingRecord(newRate, this.sampledTraces.get(), this.droppedTraces.get());
+			record.setLoggingTimestamp(this.monitoringController.getTimeSource().getTime());
+			// the queue might be full, so use the prioritized queue
+			this.writer.newMonitoringRecordNonBlocking(record);
+		}
+	}
+
+	/**
+	 * @return the current sampling rate
+	 */
+	public double getSamplingRate() {
+		return this.samplingRate;
+	}
+
+	/**
+	 * @return the number of sampled traces so far
+	 */
+	public long getSampledTraces() {
+		return this.sampledTraces.get();
+	}
+
+	/**
+	 * @return the number of dropped traces so far
+	 */
+	public long getDroppedTraces() {
+		return this.droppedTraces.get();
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder(128);
+		sb.append("Adaptive trace sampling: rate '");
+		sb.append(this.samplingRate);
+		sb.append("'; sampled traces: '");
+		sb.append(this.sampledTraces.get());
+		sb.append("'; dropped traces: '");
+		sb.append(this.droppedTraces.get());
+		sb.append('\'');
+		return sb.toString();
+	}
+}
@@ -16,15 +16,23 @@
 
 package kieker.monitoring.core.controller;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import kieker.common.configuration.Configuration;
 import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.ITraceRecord;
+import kieker.common.record.flow.trace.TraceMetadata;
 import kieker.common.record.misc.RegistryRecord;
 import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.registry.TraceRegistry;
+import kieker.monitoring.core.sampler.ISampler;
+import kieker.monitoring.writer.AbstractAsyncWriter;
 import kieker.monitoring.writer.IMonitoringWriter;
+import kieker.monitoring.writer.SerializedRecordBatch;
+import kieker.monitoring.writer.SerializedRecordBuffer;
 
 /**
  * @author Andre van Hoorn, Matthias Rohr, Jan Waller, Robert von Massow
@@ -42,6 +50,16 @@ public final class WriterController extends AbstractController implements IWrite
 	private final boolean autoSetLoggingTimestamp;
 	/** Whether or not to automatically log the metadata record. */
 	private final boolean logMetadataRecord;
+	/** The size of the batches of serialized records (0 if disabled). */
+	private final int recordBatchSize;
+	/** The number of batches of serialized records kept for reuse. */
+	private final int recordBatchPoolSize;
+	/** The interval in milliseconds in which the batches of all threads are flushed (0 if disabled). */
+	private final long recordBatchFlushInterval;
+	/** The buffer for serialized records (null if disabled). */
+	private SerializedRecordBuffer serializedRecordBuffer;
+	/** The adaptive sampling of traces (null if disabled). */
+	private final TraceSampler traceSampler;
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -53,17 +71,53 @@ public final class WriterController extends AbstractController implements IWrite
 		super(configuration);
 		this.logMetadataRecord = configuration.getBooleanProperty(ConfigurationFactory.METADATA);
 		this.autoSetLoggingTimestamp = configuration.getBooleanProperty(ConfigurationFactory.AUTO_SET_LOGGINGTSTAMP);
+		this.recordBatchSize = configuration.getIntProperty(ConfigurationFactory.RECORD_BATCH_SIZE);
+		this.recordBatchPoolSize = configuration.getIntProperty(ConfigurationFactory.RECORD_BATCH_POOL_SIZE);
+		this.recordBatchFlushInterval = configuration.getLongProperty(ConfigurationFactory.RECORD_BATCH_FLUSH_INTERVAL);
 		this.monitoringWriter = AbstractController.createAndInitialize(IMonitoringWriter.class,
 				configuration.getStringProperty(ConfigurationFactory.WRITER_CLASSNAME),
 				configuration);
 		if (this.monitoringWriter == null) {
+			this.traceSampler = null;
 			this.terminate();
 			return;
 		}
+		this.traceSampler = this.createTraceSampler(configuration);
+	}
+
+	private TraceSampler createTraceSampler(final Configuration configuration) {
+		if (!configuration.getBooleanProperty(ConfigurationFactory.TRACE_SAMPLING)) {
+			return null;
+		}
+		if (!(this.monitoringWriter instanceof AbstractAsyncWriter)) {
+			LOG.warn("Adaptive trace sampling requires an asynchronous writer; all traces will be monitored");
+			return null;
+		}
+		try {
+			return new TraceSampler((AbstractAsyncWriter) this.monitoringWriter,
+					configuration.getDoubleProperty(ConfigurationFactory.TRACE_SAMPLING_LOW_WATERMARK),
+					configuration.getDoubleProperty(ConfigurationFactory.TRACE_SAMPLING_HIGH_WATERMARK),
+					configuration.getDoubleProperty(ConfigurationFactory.TRACE_SAMPLING_MIN_RATE),
+					configuration.getLongProperty(ConfigurationFactory.TRACE_SAMPLING_UPDATE_INTERVAL));
+		} catch (final IllegalArgumentException ex) {
+			LOG.error("Invalid configuration of the adaptive trace sampling; all traces will be monitored", ex);
+			return null;
+		}
 	}
 
 	@Override
 	protected final void init() {
+		if ((this.recordBatchSize > 0) && (this.monitoringWriter != null)) {
+			if ((this.monitoringWriter instanceof AbstractAsyncWriter) && ((AbstractAsyncWriter) this.monitoringWriter).supportsSerializedRecordBatches()) {
+				this.initSerializedRecordBuffer();
+			} else {
+				LOG.warn("The writer " + this.monitoringWriter.getClass().getName() + " does not support batches of serialized records; ignoring "
+						+ ConfigurationFactory.RECORD_BATCH_SIZE);
+			}
+		}
+		if (this.traceSampler != null) {
+			this.traceSampler.setMonitoringController(super.monitoringController);
+		}
 		if (this.monitoringWriter != null) {
 			try {
 				this.monitoringWriter.setController(super.monitoringController);
@@ -74,12 +128,30 @@ public final class WriterController extends AbstractController implements IWrite
 		}
 	}
 
+	private void initSerializedRecordBuffer() {
+		final int batchSize = Math.max(this.recordBatchSize, SerializedRecordBuffer.MIN_BATCH_SIZE);
+		if (batchSize != this.recordBatchSize) {
+			LOG.warn("Record batch size " + this.recordBatchSize + " is too small; using " + batchSize + " bytes instead");
+		}
+		this.serializedRecordBuffer = new SerializedRecordBuffer(super.monitoringController, batchSize, this.recordBatchPoolSize,
+				this.autoSetLoggingTimestamp);
+		if ((this.recordBatchFlushInterval > 0) && (null == super.monitoringController.schedulePeriodicSampler(
+				new BatchFlushSampler(this.serializedRecordBuffer), this.recordBatchFlushInterval, this.recordBatchFlushInterval, TimeUnit.MILLISECONDS))) {
+			LOG.warn("Incomplete record batches of idle threads are only written on termination");
+		}
+	}
+
 	@Override
 	protected final void cleanup() {
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("Shutting down Writer Controller");
 		}
 		if (this.monitoringWriter != null) {
+			if (this.serializedRecordBuffer != null) {
+				for (final SerializedRecordBatch batch : this.serializedRecordBuffer.removeAllBatches()) {
+					this.writeSerializedRecordBatch(batch);
+				}
+			}
 			this.monitoringWriter.terminate();
 		}
 	}
@@ -92,6 +164,11 @@ public final class WriterController extends AbstractController implements IWrite
 		sb.append("'\n\tAutomatic assignment of logging timestamps: '");
 		sb.append(this.autoSetLoggingTimestamp);
 		sb.append("'\n");
+		if (this.traceSampler != null) {
+			sb.append('\t');
+			sb.append(this.traceSampler.toString());
+			sb.append('\n');
+		}
 		if (this.monitoringWriter != null) {
 			sb.append(this.monitoringWriter.toString());
 		} else {
@@ -113,6 +190,9 @@ public final class WriterController extends AbstractController implements IWrite
 				if (!monitoringController.isMonitoringEnabled()) { // enabled and not terminated
 					return false;
 				}
+				if ((this.traceSampler != null) && WriterController.isOfUnsampledTrace(record)) {
+					return true; // dropped on purpose
+				}
 				if (this.autoSetLoggingTimestamp) {
 					record.setLoggingTimestamp(monitoringController.getTimeSource().getTime());
 				}
@@ -139,6 +219,64 @@ public final class WriterController extends AbstractController implements IWrite
 		}
 	}
 
+	private static boolean isOfUnsampledTrace(final IMonitoringRecord record) {
+		if (record instanceof ITraceRecord) {
+			return ((ITraceRecord) record).getTraceId() == TraceRegistry.UNSAMPLED_TRACE_ID;
+		} else if (record instanceof TraceMetadata) {
+			return ((TraceMetadata) record).getTraceId() == TraceRegistry.UNSAMPLED_TRACE_ID;
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final boolean newSerializedRecordBatch(final SerializedRecordBatch batch) {
+		if (!super.monitoringController.isMonitoringEnabled()) { // enabled and not terminated
+			batch.release();
+			return false;
+		}
+		return this.writeSerializedRecordBatch(batch);
+	}
+
+	/**
+	 * The buffer is only created for asynchronous writers supporting batches, hence the batch is passed as a whole.
+	 */
+	private boolean writeSerializedRecordBatch(final SerializedRecordBatch batch) {
+		try {
+			if ((0L == this.numberOfInserts.getAndAdd(batch.getNumberOfRecords())) && this.logMetadataRecord) {
+				this.monitoringController.sendMetadataAsRecord();
+			}
+			if (!((AbstractAsyncWriter) this.monitoringWriter).newSerializedRecordBatch(batch)) {
+				LOG.error("Error writing the monitoring data. Will terminate monitoring!");
+				this.terminate();
+				return false;
+			}
+			return true;
+		} catch (final Exception ex) { // NOPMD NOCS (IllegalCatchCheck)
+			LOG.error("Exception detected. Will terminate monitoring", ex);
+			this.terminate();
+			return false;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final SerializedRecordBuffer getSerializedRecordBuffer() {
+		return this.serializedRecordBuffer;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final boolean isNewTraceSampled() {
+		return (this.traceSampler == null) || this.traceSampler.isNewTraceSampled();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -146,4 +284,22 @@ public final class WriterController extends AbstractController implements IWrite
 	public final long getNumberOfInserts() {
 		return this.numberOfInserts.longValue();
 	}
+
+	/**
+	 * Periodically passes the incomplete batches of all threads to the writer.
+	 *
+	 * @author Christian Stier
+	 */
+	private static final class BatchFlushSampler implements ISampler {
+		private final SerializedRecordBuffer buffer;
+
+		public BatchFlushSampler(final SerializedRecordBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void sample(final IMonitoringController monitoringController) {
+			this.buffer.flushAll();
+		}
+	}
 }
@@ -40,9 +40,12 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	// far. Of course, negative values may occur (as a result of an overflow) -- this does not hurt!
 	private final AtomicLong lastThreadId = new AtomicLong(MonitoringController.getInstance().isDebug() ? 0 // NOCS
 			: (long) new Random().nextInt(65536) << (Long.SIZE - 16 - 1));
-	private final transient ThreadLocal<Long> threadLocalTraceId = new ThreadLocal<Long>();
-	private final transient ThreadLocal<Integer> threadLocalEoi = new ThreadLocal<Integer>();
-	private final transient ThreadLocal<Integer> threadLocalEss = new ThreadLocal<Integer>();
+	/**
+	 * all thread-local control flow information is kept in one mutable object per thread to avoid multiple lookups and boxing. The object is created on the first
+	 * store and removed as soon as trace id, eoi, and ess are all unset, i.e., when the outermost execution of a trace ends. Hence, pooled threads do not keep
+	 * instances of Kieker classes (and thus their class loader) alive between traces.
+	 */
+	private final transient ThreadLocal<ControlFlowContext> threadLocalContext = new ThreadLocal<ControlFlowContext>();
 
 	static {
 		LOG.info("First threadId will be " + INSTANCE.lastThreadId.get());
@@ -80,7 +83,7 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 */
 	public final long getAndStoreUniqueThreadLocalTraceId() {
 		final long id = this.getUniqueTraceId();
-		this.threadLocalTraceId.set(id);
+		this.storeThreadLocalTraceId(id);
 		return id;
 	}
 
@@ -91,7 +94,9 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 *            The trace ID to store in a thread-local way.
 	 */
 	public final void storeThreadLocalTraceId(final long traceId) {
-		this.threadLocalTraceId.set(traceId);
+		final ControlFlowContext context = this.getOrCreateContext();
+		context.traceId = traceId;
+		context.traceIdSet = true;
 	}
 
 	/**
@@ -100,18 +105,22 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return the traceid. -1 if no curTraceId has been registered for this thread.
 	 */
 	public final long recallThreadLocalTraceId() {
-		final Long traceIdObj = this.threadLocalTraceId.get();
-		if (traceIdObj == null) {
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if ((context == null) || !context.traceIdSet) {
 			return -1;
 		}
-		return traceIdObj;
+		return context.traceId;
 	}
 
 	/**
 	 * This method unsets a previously registered traceid.
 	 */
 	public final void unsetThreadLocalTraceId() {
-		this.threadLocalTraceId.remove();
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if (context != null) {
+			context.traceIdSet = false;
+			this.removeContextIfUnused(context);
+		}
 	}
 
 	/**
@@ -121,7 +130,9 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 *            The execution order index to register.
 	 */
 	public final void storeThreadLocalEOI(final int eoi) {
-		this.threadLocalEoi.set(eoi);
+		final ControlFlowContext context = this.getOrCreateContext();
+		context.eoi = eoi;
+		context.eoiSet = true;
 	}
 
 	/**
@@ -130,14 +141,12 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return Increments the thread local execution order index and returns it.
 	 */
 	public final int incrementAndRecallThreadLocalEOI() {
-		final Integer curEoi = this.threadLocalEoi.get();
-		if (curEoi == null) {
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if ((context == null) || !context.eoiSet) {
 			LOG.error("eoi has not been registered before");
 			return -1;
 		}
-		final int newEoi = curEoi + 1;
-		this.threadLocalEoi.set(newEoi);
-		return newEoi;
+		return ++context.eoi;
 	}
 
 	/**
@@ -146,19 +155,23 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return the sessionid. -1 if no curEoi registered.
 	 */
 	public final int recallThreadLocalEOI() {
-		final Integer curEoi = this.threadLocalEoi.get();
-		if (curEoi == null) {
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if ((context == null) || !context.eoiSet) {
 			LOG.error("eoi has not been registered before");
 			return -1;
 		}
-		return curEoi;
+		return context.eoi;
 	}
 
 	/**
 	 * This method unsets a previously registered traceid.
 	 */
 	public final void unsetThreadLocalEOI() {
-		this.threadLocalEoi.remove();
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if (context != null) {
+			context.eoiSet = false;
+			this.removeContextIfUnused(context);
+		}
 	}
 
 	/**
@@ -169,7 +182,9 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 *            The execution stack size to store.
 	 */
 	public final void storeThreadLocalESS(final int ess) {
-		this.threadLocalEss.set(ess);
+		final ControlFlowContext context = this.getOrCreateContext();
+		context.ess = ess;
+		context.essSet = true;
 	}
 
 	/**
@@ -178,13 +193,12 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return The current execution stack size, before the incrementation.
 	 */
 	public final int recallAndIncrementThreadLocalESS() {
-		final Integer curEss = this.threadLocalEss.get();
-		if (curEss == null) {
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if ((context == null) || !context.essSet) {
 			LOG.error("ess has not been registered before");
 			return -1;
 		}
-		this.threadLocalEss.set(curEss + 1);
-		return curEss;
+		return context.ess++;
 	}
 
 	/**
@@ -193,18 +207,58 @@ public enum ControlFlowRegistry { // Singleton (Effective Java #3)
 	 * @return the sessionid. -1 if no curEss registered.
 	 */
 	public final int recallThreadLocalESS() {
-		final Integer ess = this.threadLocalEss.get();
-		if (ess == null) {
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if ((context == null) || !context.essSet) {
 			LOG.error("ess has not been registered before");
 			return -1;
 		}
-		return ess;
+		return context.ess;
 	}
 
 	/**
 	 * This method unsets a previously registered curEss.
 	 */
 	public final void unsetThreadLocalESS() {
-		this.threadLocalEss.remove();
+		final ControlFlowContext context = this.threadLocalContext.get();
+		if (context != null) {
+			context.essSet = false;
+			this.removeContextIfUnused(context);
+		}
+	}
+
+	private ControlFlowContext getOrCreateContext() {
+		ControlFlowContext context = this.threadLocalContext.get();
+		if (context == null) {
+			context = new ControlFlowContext();
+			this.threadLocalContext.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * Removes the context once the outermost execution of the trace has ended. During a trace, the context is only reset in place.
+	 */
+	private void removeContextIfUnused(final ControlFlowContext context) {
+		if (!context.traceIdSet && !context.eoiSet && !context.essSet) {
+			this.threadLocalContext.remove();
+		}
+	}
+
+	/**
+	 * The mutable control flow information of a single thread.
+	 * 
+	 * @author Christian Stier
+	 */
+	private static final class ControlFlowContext {
+		long traceId; // NOPMD NOCS (package visible for direct access)
+		int eoi; // NOPMD NOCS (package visible for direct access)
+		int ess; // NOPMD NOCS (package visible for direct access)
+		boolean traceIdSet; // NOPMD NOCS (package visible for direct access)
+		boolean eoiSet; // NOPMD NOCS (package visible for direct access)
+		boolean essSet; // NOPMD NOCS (package visible for direct access)
+
+		public ControlFlowContext() {
+			// nothing is registered initially
+		}
 	}
 }
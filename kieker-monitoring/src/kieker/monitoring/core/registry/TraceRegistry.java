@@ -16,14 +16,18 @@
 
 package kieker.monitoring.core.registry;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.security.SecureRandom;
 import java.util.Stack;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
 import kieker.common.record.flow.trace.TraceMetadata;
+import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.core.controller.MonitoringController;
 
 /**
@@ -35,12 +39,21 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 	/** The singleton instance. */
 	INSTANCE;
 
+	/**
+	 * The id of all traces which are not sampled (see {@link IMonitoringController#isNewTraceSampled()}). The records of these traces are dropped by the writer
+	 * controller, hence traces are either monitored or dropped as a whole.
+	 * 
+	 * @since 1.13
+	 */
+	public static final long UNSAMPLED_TRACE_ID = -1L;
+
 	private static final Log LOG = LogFactory.getLog(TraceRegistry.class); // NOPMD (enum logger)
 
 	private final AtomicInteger nextTraceId = new AtomicInteger(0);
-	private final long unique = MonitoringController.getInstance().isDebug() ? 0 : ((long) new SecureRandom().nextInt()) << 32; // NOCS
+	private final IMonitoringController controller = MonitoringController.getInstance();
+	private final long unique = this.controller.isDebug() ? 0 : ((long) new SecureRandom().nextInt()) << 32; // NOCS
 	/** the hostname is final after the instantiation of the monitoring controller. */
-	private final String hostname = MonitoringController.getInstance().getHostname();
+	private final String hostname = this.controller.getHostname();
 
 	/** the current trace; null if new trace. */
 	private final ThreadLocal<TraceMetadata> traceStorage = new ThreadLocal<TraceMetadata>();
@@ -48,11 +61,17 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 	/** used to store the stack of enclosing traces; null if no sub trace created yet. */
 	private final ThreadLocal<Stack<TraceMetadata>> enclosingTraceStack = new ThreadLocal<Stack<TraceMetadata>>();
 
-	/** store the parent Trace. */
-	private final WeakHashMap<Thread, TracePoint> parentTrace = new WeakHashMap<Thread, TracePoint>();
+	/** store the parent Trace; the threads are only weakly referenced. */
+	private final ConcurrentHashMap<ThreadKey, TracePoint> parentTrace = new ConcurrentHashMap<ThreadKey, TracePoint>();
+	/** collects the keys of terminated threads. */
+	private final ReferenceQueue<Thread> terminatedThreads = new ReferenceQueue<Thread>();
 
 	private final long getId() {
-		return this.unique | this.nextTraceId.getAndIncrement();
+		final long id = this.unique | this.nextTraceId.getAndIncrement();
+		if (id == UNSAMPLED_TRACE_ID) { // reserved
+			return this.getId();
+		}
+		return id;
 	}
 
 	/**
@@ -66,7 +85,8 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 	}
 
 	/**
-	 * This creates a new unique Trace object and registers it.
+	 * This creates a new unique Trace object and registers it. If the trace is not sampled, the trace id is {@link #UNSAMPLED_TRACE_ID}. Sub traces of
+	 * sampled traces are always sampled and sub traces of unsampled traces are never sampled.
 	 * 
 	 * @return
 	 *         Trace object
@@ -83,7 +103,15 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 		}
 		final Thread thread = Thread.currentThread();
 		final TracePoint tp = this.getAndRemoveParentTraceId(thread);
-		final long traceId = this.getId();
+		final boolean sampled;
+		if (tp != null) {
+			sampled = tp.traceId != UNSAMPLED_TRACE_ID;
+		} else if (enclosingTrace != null) {
+			sampled = enclosingTrace.getTraceId() != UNSAMPLED_TRACE_ID;
+		} else {
+			sampled = this.controller.isNewTraceSampled();
+		}
+		final long traceId = sampled ? this.getId() : UNSAMPLED_TRACE_ID; // NOCS (inline conditional)
 		final long parentTraceId;
 		final int parentOrderId;
 		if (tp != null) { // we have a known split point
@@ -125,8 +153,18 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 	}
 
 	private final TracePoint getAndRemoveParentTraceId(final Thread t) {
-		synchronized (this) {
-			return this.parentTrace.remove(t);
+		if (this.parentTrace.isEmpty()) { // usually, no split point exists at all
+			return null;
+		}
+		this.expungeTerminatedThreads();
+		return this.parentTrace.remove(new ThreadKey(t, null));
+	}
+
+	private final void expungeTerminatedThreads() {
+		Reference<? extends Thread> key = this.terminatedThreads.poll();
+		while (key != null) {
+			this.parentTrace.remove(key);
+			key = this.terminatedThreads.poll();
 		}
 	}
 
@@ -142,8 +180,38 @@ public enum TraceRegistry { // Singleton (Effective Java #3)
 	 *            the parent order id
 	 */
 	public final void setParentTraceId(final Thread t, final long traceId, final int orderId) {
-		synchronized (this) {
-			this.parentTrace.put(t, new TracePoint(traceId, orderId));
+		this.expungeTerminatedThreads();
+		this.parentTrace.put(new ThreadKey(t, this.terminatedThreads), new TracePoint(traceId, orderId));
+	}
+
+	/**
+	 * A weak reference to a thread which can be used as key in hash maps. Two keys are equal if they refer to the same thread.
+	 * 
+	 * @author Christian Stier
+	 */
+	private static final class ThreadKey extends WeakReference<Thread> {
+		private final int hash;
+
+		public ThreadKey(final Thread thread, final ReferenceQueue<Thread> queue) {
+			super(thread, queue);
+			this.hash = System.identityHashCode(thread);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ThreadKey)) {
+				return false;
+			}
+			final Thread thread = this.get();
+			return (thread != null) && (thread == ((ThreadKey) obj).get()); // NOPMD (CompareObjectsWithEquals)
 		}
 	}
 
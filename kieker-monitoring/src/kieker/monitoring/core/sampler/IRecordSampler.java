@@ -0,0 +1,49 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.sampler;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.core.controller.IMonitoringController;
+
+/**
+ * A sampler which is able to return the records of a measurement instead of passing them to the monitoring controller itself.
+ * Thus, the records of all samplers sharing a tick of a consolidated {@link kieker.monitoring.core.controller.ISamplingController} can
+ * be written as a single batch.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public interface IRecordSampler extends ISampler {
+
+	/**
+	 * Performs a measurement and returns the resulting records.
+	 * 
+	 * @param monitoringController
+	 *            The controller the records will be passed to.
+	 * @param timestamp
+	 *            The timestamp of the measurement.
+	 * 
+	 * @return the records of the measurement (possibly empty)
+	 * 
+	 * @throws Exception
+	 *             thrown to indicate an error.
+	 * 
+	 * @since 1.13
+	 */
+	public IMonitoringRecord[] sampleRecords(final IMonitoringController monitoringController, final long timestamp) throws Exception;
+}
@@ -59,6 +59,15 @@ public class ScheduledSamplerJob implements Runnable {
 		}
 	}
 
+	/**
+	 * @return the sampler triggered by this job
+	 * 
+	 * @since 1.13
+	 */
+	public ISampler getSampler() {
+		return this.sampler;
+	}
+
 	/**
 	 * 
 	 * @param future
@@ -0,0 +1,175 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.core.signaturePattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable, compiled form of an ordered list of {@link PatternEntry}s.
+ * 
+ * Consecutive entries created by the {@link PatternParser} from the signature syntax are merged into a single alternation
+ * (in reverse order, so the first matching alternative corresponds to the last matching entry). Each run of entries with the same
+ * activated state is wrapped into one capturing group, which tells the state of the match. Plain regular expressions
+ * (starting with {@link SignatureFactory#PATTERN_PREFIX}) may use back references or inline flags and are therefore kept separate.
+ * 
+ * Thus, a signature is usually checked by a single match operation instead of one per entry, while the last matching entry still
+ * decides whether the signature is activated.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public final class CompiledPatternList {
+
+	/** An empty pattern list, activating every signature. */
+	public static final CompiledPatternList EMPTY = new CompiledPatternList(new ArrayList<PatternEntry>(0));
+
+	/** the segments in reverse order of the entries. */
+	private final Segment[] segments;
+	private final int numberOfEntries;
+
+	/**
+	 * Creates a new compiled pattern list.
+	 * 
+	 * @param patternEntries
+	 *            The ordered pattern entries, later entries take precedence over earlier ones.
+	 */
+	public CompiledPatternList(final List<PatternEntry> patternEntries) {
+		final List<Segment> segmentList = new ArrayList<Segment>();
+		final List<PatternEntry> mergeableEntries = new ArrayList<PatternEntry>();
+		for (int i = patternEntries.size() - 1; i >= 0; i--) {
+			final PatternEntry entry = patternEntries.get(i);
+			if (CompiledPatternList.isMergeable(entry)) {
+				mergeableEntries.add(entry);
+			} else {
+				if (!mergeableEntries.isEmpty()) {
+					segmentList.add(Segment.merge(mergeableEntries));
+					mergeableEntries.clear();
+				}
+				segmentList.add(new Segment(entry.getPattern(), new int[] { 0 }, new boolean[] { entry.isActivated() }));
+			}
+		}
+		if (!mergeableEntries.isEmpty()) {
+			segmentList.add(Segment.merge(mergeableEntries));
+		}
+		this.segments = segmentList.toArray(new Segment[segmentList.size()]);
+		this.numberOfEntries = patternEntries.size();
+	}
+
+	private static boolean isMergeable(final PatternEntry entry) {
+		final String strPattern = entry.getStrPattern().trim();
+		return (strPattern.length() > 0) && (strPattern.charAt(0) != SignatureFactory.PATTERN_PREFIX);
+	}
+
+	/**
+	 * Checks whether the given signature is activated, i.e., whether the last matching entry is activating the signature.
+	 * 
+	 * @param signature
+	 *            The signature to check.
+	 * 
+	 * @return the activated state of the last matching entry or true if no entry matches
+	 */
+	public boolean isActivated(final String signature) {
+		for (final Segment segment : this.segments) {
+			final Matcher matcher = segment.pattern.matcher(signature);
+			if (matcher.matches()) {
+				final int[] groups = segment.groups;
+				for (int i = 0; i < groups.length; i++) {
+					if (matcher.start(groups[i]) != -1) {
+						return segment.activated[i];
+					}
+				}
+			}
+		}
+		return true; // if nothing matches, the default is true!
+	}
+
+	/**
+	 * @return the number of pattern entries
+	 */
+	public int getNumberOfEntries() {
+		return this.numberOfEntries;
+	}
+
+	/**
+	 * @return the number of match operations required in the worst case to check a signature
+	 */
+	public int getNumberOfSegments() {
+		return this.segments.length;
+	}
+
+	/**
+	 * A single compiled pattern together with the capturing groups of its alternatives.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	private static final class Segment {
+		final Pattern pattern; // NOCS NOPMD (package visible for outer class)
+		final int[] groups; // NOCS NOPMD (package visible for outer class)
+		final boolean[] activated; // NOCS NOPMD (package visible for outer class)
+
+		public Segment(final Pattern pattern, final int[] groups, final boolean[] activated) {
+			this.pattern = pattern;
+			this.groups = groups;
+			this.activated = activated;
+		}
+
+		/**
+		 * Merges the given entries (already in reverse order) into one alternation.
+		 */
+		public static Segment merge(final List<PatternEntry> entries) {
+			if (entries.size() == 1) {
+				final PatternEntry entry = entries.get(0);
+				return new Segment(entry.getPattern(), new int[] { 0 }, new boolean[] { entry.isActivated() });
+			}
+			final StringBuilder sb = new StringBuilder(entries.size() * 64);
+			final List<Integer> groupList = new ArrayList<Integer>();
+			final List<Boolean> activatedList = new ArrayList<Boolean>();
+			int nextGroup = 1;
+			Boolean currentActivated = null; // NOPMD (null marks the start)
+			for (final PatternEntry entry : entries) {
+				final boolean entryActivated = entry.isActivated();
+				if ((currentActivated == null) || (currentActivated.booleanValue() != entryActivated)) {
+					if (currentActivated != null) {
+						sb.append(")|");
+					}
+					sb.append('(');
+					groupList.add(nextGroup++);
+					activatedList.add(entryActivated);
+					currentActivated = entryActivated;
+				} else {
+					sb.append('|');
+				}
+				sb.append("(?:").append(entry.getPattern().pattern()).append(')');
+				nextGroup += entry.getPattern().matcher("").groupCount();
+			}
+			sb.append(')');
+			final int[] groups = new int[groupList.size()];
+			final boolean[] activated = new boolean[activatedList.size()];
+			for (int i = 0; i < groups.length; i++) {
+				groups[i] = groupList.get(i);
+				activated[i] = activatedList.get(i);
+			}
+			return new Segment(Pattern.compile(sb.toString()), groups, activated);
+		}
+	}
+}
@@ -20,12 +20,14 @@ import java.lang.reflect.Modifier;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.ConstructorSignature;
 import org.aspectj.lang.reflect.MethodSignature;
 
+import kieker.monitoring.core.controller.IProbeController;
 import kieker.monitoring.probe.IMonitoringProbe;
 
 /**
@@ -37,6 +39,7 @@ import kieker.monitoring.probe.IMonitoringProbe;
 public abstract class AbstractAspectJProbe implements IMonitoringProbe {
 
 	private final ConcurrentMap<Signature, String> signatureCache = new ConcurrentHashMap<Signature, String>();
+	private final ConcurrentMap<JoinPoint.StaticPart, ProbedOperation> operationCache = new ConcurrentHashMap<JoinPoint.StaticPart, ProbedOperation>();
 
 	// Pointcuts should not be final!
 
@@ -130,6 +133,30 @@ public abstract class AbstractAspectJProbe implements IMonitoringProbe {
 		return signatureString;
 	}
 
+	/**
+	 * Delivers the signature of the given join point together with the activation state of its probe. Both are cached per static join point, such that
+	 * repeated calls neither build the signature string nor look it up in the probe controller. The cached activation state is refreshed whenever the probe
+	 * patterns change.
+	 * 
+	 * @param staticPart
+	 *            the static part of an AspectJ join point
+	 * @param probeController
+	 *            the probe controller deciding about the activation of the probe
+	 * @return the signature and activation state of the join point
+	 */
+	protected ProbedOperation getProbedOperation(final JoinPoint.StaticPart staticPart, final IProbeController probeController) {
+		// read the version first: a concurrent pattern change results in a recomputation on the next call
+		final int patternVersion = probeController.getProbePatternVersion();
+		final ProbedOperation cachedOperation = this.operationCache.get(staticPart);
+		if ((null != cachedOperation) && (cachedOperation.patternVersion == patternVersion)) {
+			return cachedOperation;
+		}
+		final String signature = (null != cachedOperation) ? cachedOperation.signature : this.signatureToLongString(staticPart.getSignature()); // NOCS
+		final ProbedOperation operation = new ProbedOperation(signature, probeController.isProbeActivated(signature), patternVersion);
+		this.operationCache.put(staticPart, operation);
+		return operation;
+	}
+
 	private final StringBuilder addTypeList(final StringBuilder sb, final Class<?>[] clazzes) {
 		if (null != clazzes) {
 			boolean first = true;
@@ -157,4 +184,37 @@ public abstract class AbstractAspectJProbe implements IMonitoringProbe {
 		}
 		return sb;
 	}
+
+	/**
+	 * The signature of a join point together with the activation state of its probe.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	protected static final class ProbedOperation {
+		private final String signature;
+		private final boolean activated;
+		private final int patternVersion;
+
+		ProbedOperation(final String signature, final boolean activated, final int patternVersion) {
+			this.signature = signature;
+			this.activated = activated;
+			this.patternVersion = patternVersion;
+		}
+
+		/**
+		 * @return the long signature of the operation
+		 */
+		public String getSignature() {
+			return this.signature;
+		}
+
+		/**
+		 * @return whether the probe of the operation is activated
+		 */
+		public boolean isActivated() {
+			return this.activated;
+		}
+	}
 }
@@ -61,10 +61,10 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return;
 		}
-		final Signature signature = jp.getSignature();
-		if (!CTRLINST.isProbeActivated(this.signatureToLongString(signature))) {
+		if (!this.getProbedOperation(jp, CTRLINST).isActivated()) {
 			return;
 		}
+		final Signature signature = jp.getSignature();
 		// common fields
 		TraceMetadata trace = TRACEREGISTRY.getTrace();
 		final boolean newTrace = trace == null;
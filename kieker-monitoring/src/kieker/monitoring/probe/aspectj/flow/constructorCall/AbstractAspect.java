@@ -70,8 +70,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -121,8 +122,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -64,8 +64,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String operationSignature = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String operationSignature = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
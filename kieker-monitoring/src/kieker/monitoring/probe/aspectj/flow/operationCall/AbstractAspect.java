@@ -55,8 +55,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String callee = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -92,8 +93,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String callee = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -132,8 +134,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -170,8 +173,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
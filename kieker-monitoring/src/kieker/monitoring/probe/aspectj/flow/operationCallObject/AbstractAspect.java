@@ -54,8 +54,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String callee = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -94,8 +95,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String callee = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -135,8 +137,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -175,8 +178,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 			return thisJoinPoint.proceed();
 		}
 		final Signature calleeSig = thisJoinPoint.getSignature();
-		final String callee = this.signatureToLongString(calleeSig);
-		if (!CTRLINST.isProbeActivated(callee)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String callee = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -31,6 +31,7 @@ import kieker.monitoring.core.controller.MonitoringController;
 import kieker.monitoring.core.registry.TraceRegistry;
 import kieker.monitoring.probe.aspectj.AbstractAspectJProbe;
 import kieker.monitoring.timer.ITimeSource;
+import kieker.monitoring.writer.SerializedRecordBuffer;
 
 /**
  * @author Jan Waller
@@ -42,6 +43,8 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 	private static final IMonitoringController CTRLINST = MonitoringController.getInstance();
 	private static final ITimeSource TIME = CTRLINST.getTimeSource();
 	private static final TraceRegistry TRACEREGISTRY = TraceRegistry.INSTANCE;
+	/** The buffer events are serialized into, or null if a record is created for each event. */
+	private static final SerializedRecordBuffer BUFFER = CTRLINST.getSerializedRecordBuffer();
 
 	/**
 	 * The pointcut for the monitored operations. Inheriting classes should extend the pointcut in order to find the correct executions of the methods (e.g. all
@@ -55,8 +58,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		final String operationSignature = this.signatureToLongString(thisJoinPoint.getSignature());
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String operationSignature = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -69,14 +73,17 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 		final long traceId = trace.getTraceId();
 		final String clazz = thisObject.getClass().getName();
 		// measure before execution
-		CTRLINST.newMonitoringRecord(new BeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		AbstractAspect.newBeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz);
 		// execution of the called method
 		final Object retval;
 		try {
 			retval = thisJoinPoint.proceed();
 		} catch (final Throwable th) { // NOPMD NOCS (catch throw might ok here)
 			// measure after failed execution
-			CTRLINST.newMonitoringRecord(new AfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
+			AbstractAspect.newAfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString());
+			if (newTrace) {
+				AbstractAspect.flush();
+			}
 			throw th;
 		} finally {
 			if (newTrace) { // close the trace
@@ -84,7 +91,10 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 			}
 		}
 		// measure after successful execution
-		CTRLINST.newMonitoringRecord(new AfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		AbstractAspect.newAfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz);
+		if (newTrace) {
+			AbstractAspect.flush();
+		}
 		return retval;
 	}
 
@@ -94,8 +104,9 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 			return thisJoinPoint.proceed();
 		}
 		final Signature sig = thisJoinPoint.getSignature();
-		final String operationSignature = this.signatureToLongString(sig);
-		if (!CTRLINST.isProbeActivated(operationSignature)) {
+		final ProbedOperation probedOperation = this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST);
+		final String operationSignature = probedOperation.getSignature();
+		if (!probedOperation.isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		// common fields
@@ -108,14 +119,17 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 		final long traceId = trace.getTraceId();
 		final String clazz = sig.getDeclaringTypeName();
 		// measure before execution
-		CTRLINST.newMonitoringRecord(new BeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		AbstractAspect.newBeforeOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz);
 		// execution of the called method
 		final Object retval;
 		try {
 			retval = thisJoinPoint.proceed();
 		} catch (final Throwable th) { // NOPMD NOCS (catch throw might ok here)
 			// measure after failed execution
-			CTRLINST.newMonitoringRecord(new AfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString()));
+			AbstractAspect.newAfterOperationFailedEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz, th.toString());
+			if (newTrace) {
+				AbstractAspect.flush();
+			}
 			throw th;
 		} finally {
 			if (newTrace) { // close the trace
@@ -123,7 +137,46 @@ public abstract class AbstractAspect extends AbstractAspectJProbe {
 			}
 		}
 		// measure after successful execution
-		CTRLINST.newMonitoringRecord(new AfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz));
+		AbstractAspect.newAfterOperationEvent(TIME.getTime(), traceId, trace.getNextOrderId(), operationSignature, clazz);
+		if (newTrace) {
+			AbstractAspect.flush();
+		}
 		return retval;
 	}
+
+	private static void newBeforeOperationEvent(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String clazz) {
+		if (null == BUFFER) {
+			CTRLINST.newMonitoringRecord(new BeforeOperationEvent(timestamp, traceId, orderIndex, operationSignature, clazz));
+		} else {
+			BUFFER.newBeforeOperationEvent(timestamp, traceId, orderIndex, operationSignature, clazz);
+		}
+	}
+
+	private static void newAfterOperationEvent(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String clazz) {
+		if (null == BUFFER) {
+			CTRLINST.newMonitoringRecord(new AfterOperationEvent(timestamp, traceId, orderIndex, operationSignature, clazz));
+		} else {
+			BUFFER.newAfterOperationEvent(timestamp, traceId, orderIndex, operationSignature, clazz);
+		}
+	}
+
+	private static void newAfterOperationFailedEvent(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String clazz, final String cause) {
+		if (null == BUFFER) {
+			CTRLINST.newMonitoringRecord(new AfterOperationFailedEvent(timestamp, traceId, orderIndex, operationSignature, clazz, cause));
+		} else {
+			BUFFER.newAfterOperationFailedEvent(timestamp, traceId, orderIndex, operationSignature, clazz, cause);
+		}
+	}
+
+	/**
+	 * Passes the serialized events of a finished trace to the writer.
+	 */
+	private static void flush() {
+		if (null != BUFFER) {
+			BUFFER.flush();
+		}
+	}
 }
@@ -47,7 +47,7 @@ public abstract class AbstractOperationExecutionAspectServlet extends AbstractOp
 		if (!CTRLINST.isMonitoringEnabled()) {
 			return thisJoinPoint.proceed();
 		}
-		if (!CTRLINST.isProbeActivated(this.signatureToLongString(thisJoinPoint.getSignature()))) {
+		if (!this.getProbedOperation(thisJoinPoint.getStaticPart(), CTRLINST).isActivated()) {
 			return thisJoinPoint.proceed();
 		}
 		final HttpServletRequest req = (HttpServletRequest) thisJoinPoint.getArgs()[0];
@@ -0,0 +1,329 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.queue;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jctools.queues.MessagePassingQueue;
+import org.jctools.queues.MpscArrayQueue;
+import org.jctools.util.UnsafeRefArrayAccess;
+
+/**
+ * A bounded {@link BlockingQueue} backed by the lock-free multi-producer/single-consumer ring buffer of JCTools. Producers never acquire a lock; a blocked
+ * {@link #put(Object)} spins for a short time and then parks the calling thread for short intervals until the operation succeeds. A blocked {@link #take()}
+ * spins for a short time and then parks the consumer until a producer inserts the next element, so an idle consumer does not wake up periodically.
+ * Consequently, at most one thread must remove elements from this queue at a time. The {@link #iterator() iterator} is weakly consistent and does not support
+ * the removal of elements.
+ *
+ * The capacity given to the constructor is honored exactly, although the underlying ring buffer is rounded up to the next power of two.
+ *
+ * @param <E>
+ *            The type of the elements.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class MpscArrayBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+	private static final int SPIN_TRIES = 100;
+	private static final int YIELD_TRIES = 10;
+	private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final IterableMpscArrayQueue<E> queue;
+	private final int capacity;
+	/** The consumer parked in {@link #take()} or {@link #poll(long, TimeUnit)}, if any. */
+	private volatile Thread waitingConsumer;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param capacity
+	 *            The maximal number of elements in this queue.
+	 */
+	public MpscArrayBlockingQueue(final int capacity) {
+		super();
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be greater than zero, but is " + capacity);
+		}
+		this.capacity = capacity;
+		this.queue = new IterableMpscArrayQueue<E>(capacity);
+	}
+
+	@Override
+	public boolean offer(final E e) {
+		if (this.queue.offerIfBelowThreshold(e, this.capacity)) {
+			final Thread consumer = this.waitingConsumer;
+			if (consumer != null) {
+				LockSupport.unpark(consumer);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void put(final E e) throws InterruptedException {
+		int idleCounter = 0;
+		while (!this.offer(e)) {
+			idleCounter = MpscArrayBlockingQueue.idle(idleCounter);
+		}
+	}
+
+	@Override
+	public boolean offer(final E e, final long timeout, final TimeUnit unit) throws InterruptedException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int idleCounter = 0;
+		while (!this.offer(e)) {
+			if ((deadline - System.nanoTime()) <= 0) {
+				return false;
+			}
+			idleCounter = MpscArrayBlockingQueue.idle(idleCounter);
+		}
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		return this.queue.poll();
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		return this.awaitElement(false, 0L);
+	}
+
+	@Override
+	public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+		return this.awaitElement(true, unit.toNanos(timeout));
+	}
+
+	/**
+	 * Removes the next element, waiting if necessary. After spinning for a short time, the consumer announces itself in {@link #waitingConsumer} and parks until a
+	 * producer unparks it. As the producers claim their slots with a CAS and read {@link #waitingConsumer} afterwards, while the consumer writes
+	 * {@link #waitingConsumer} before it polls again, either the consumer sees the new element or the producer sees the consumer.
+	 */
+	private E awaitElement(final boolean timed, final long timeoutNanos) throws InterruptedException {
+		final long deadline = System.nanoTime() + timeoutNanos;
+		int idleCounter = 0;
+		E e = this.queue.poll();
+		while ((null == e) && (idleCounter < (SPIN_TRIES + YIELD_TRIES))) {
+			if (timed && ((deadline - System.nanoTime()) <= 0)) {
+				return null;
+			}
+			idleCounter = MpscArrayBlockingQueue.idle(idleCounter);
+			e = this.queue.poll();
+		}
+		if (null != e) {
+			return e;
+		}
+		this.waitingConsumer = Thread.currentThread();
+		try {
+			e = this.queue.poll();
+			while (null == e) {
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				if (timed) {
+					final long remainingNanos = deadline - System.nanoTime();
+					if (remainingNanos <= 0) {
+						return null;
+					}
+					LockSupport.parkNanos(this, remainingNanos);
+				} else {
+					LockSupport.park(this);
+				}
+				e = this.queue.poll();
+			}
+			return e;
+		} finally {
+			this.waitingConsumer = null;
+		}
+	}
+
+	@Override
+	public E peek() {
+		return this.queue.peek();
+	}
+
+	@Override
+	public int size() {
+		return this.queue.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.queue.isEmpty();
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return Math.max(0, this.capacity - this.queue.size());
+	}
+
+	/**
+	 * @return The maximal number of elements in this queue.
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public int drainTo(final Collection<? super E> c) {
+		return this.drainTo(c, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(final Collection<? super E> c, final int maxElements) {
+		if (c == this) { // NOPMD (CompareObjectsWithEquals)
+			throw new IllegalArgumentException("Cannot drain a queue into itself");
+		}
+		if (maxElements <= 0) {
+			return 0;
+		}
+		return this.queue.drain(new MessagePassingQueue.Consumer<E>() {
+
+			@Override
+			public void accept(final E e) {
+				c.add(e);
+			}
+		}, maxElements);
+	}
+
+	@Override
+	public void clear() {
+		this.queue.clear();
+	}
+
+	/**
+	 * Returns a weakly consistent iterator over the elements of this queue, i.e., it never throws a {@link java.util.ConcurrentModificationException} and
+	 * traverses the elements in the queue at the time of its creation at most once. Elements removed by the consumer meanwhile are skipped; elements inserted
+	 * meanwhile may or may not be returned. The iterator does not support {@link Iterator#remove()}.
+	 *
+	 * @return An iterator over the elements of this queue, from head to tail.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new WeaklyConsistentIterator();
+	}
+
+	@Override
+	public String toString() {
+		return this.getClass().getSimpleName() + " (size: " + this.size() + ", capacity: " + this.capacity + ")";
+	}
+
+	/**
+	 * Waits a little while before the next attempt of a blocking operation. The waiting time increases with the number of failed attempts from busy spinning via
+	 * yielding to parking.
+	 *
+	 * @param idleCounter
+	 *            The number of failed attempts so far.
+	 *
+	 * @return The new number of failed attempts.
+	 *
+	 * @throws InterruptedException
+	 *             If the current thread has been interrupted.
+	 */
+	private static int idle(final int idleCounter) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		if (idleCounter < SPIN_TRIES) {
+			return idleCounter + 1;
+		} else if (idleCounter < (SPIN_TRIES + YIELD_TRIES)) {
+			Thread.yield();
+			return idleCounter + 1;
+		} else {
+			LockSupport.parkNanos(PARK_NANOS);
+			return idleCounter;
+		}
+	}
+
+	/**
+	 * Traverses the slots between the consumer index and the producer index at the time of its creation.
+	 */
+	private final class WeaklyConsistentIterator implements Iterator<E> {
+		private final long endIndex;
+		private long index;
+		private E nextElement;
+
+		public WeaklyConsistentIterator() {
+			this.endIndex = MpscArrayBlockingQueue.this.queue.currentProducerIndex();
+			this.index = MpscArrayBlockingQueue.this.queue.currentConsumerIndex();
+			this.nextElement = this.findNextElement();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.nextElement != null;
+		}
+
+		@Override
+		public E next() {
+			final E e = this.nextElement;
+			if (null == e) {
+				throw new NoSuchElementException();
+			}
+			this.nextElement = this.findNextElement();
+			return e;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private E findNextElement() {
+			final IterableMpscArrayQueue<E> localQueue = MpscArrayBlockingQueue.this.queue;
+			while (this.index < this.endIndex) {
+				final long currentIndex = this.index++;
+				final E e = localQueue.lvElementAt(currentIndex);
+				// the slot is only valid if it has been published and not yet consumed (and hence not reused by a producer)
+				if ((null != e) && (currentIndex >= localQueue.currentConsumerIndex())) {
+					return e;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Provides read access to the slots of the ring buffer for the iterator.
+	 *
+	 * @param <E>
+	 *            The type of the elements.
+	 */
+	private static final class IterableMpscArrayQueue<E> extends MpscArrayQueue<E> {
+
+		public IterableMpscArrayQueue(final int capacity) {
+			super(capacity);
+		}
+
+		/**
+		 * @return The element in the slot of the given index (with volatile semantics) or null if the slot is empty.
+		 */
+		E lvElementAt(final long index) {
+			return UnsafeRefArrayAccess.lvElement(this.buffer, this.calcElementOffset(index));
+		}
+	}
+}
@@ -20,7 +20,7 @@ import java.lang.management.ManagementFactory;
 
 import kieker.common.record.IMonitoringRecord;
 import kieker.monitoring.core.controller.IMonitoringController;
-import kieker.monitoring.core.sampler.ISampler;
+import kieker.monitoring.core.sampler.IRecordSampler;
 
 /**
  * This is an abstract base for all sampler using the MXBean interface to access information from the JVM.
@@ -29,7 +29,7 @@ import kieker.monitoring.core.sampler.ISampler;
  *
  * @since 1.10
  */
-public abstract class AbstractMXBeanSampler implements ISampler {
+public abstract class AbstractMXBeanSampler implements IRecordSampler {
 
 	private static final String VM_NAME = ManagementFactory.getRuntimeMXBean().getName();
 
@@ -57,15 +57,24 @@ public abstract class AbstractMXBeanSampler implements ISampler {
 		}
 
 		final long timestamp = monitoringController.getTimeSource().getTime();
-		final String hostname = monitoringController.getHostname();
-
-		final IMonitoringRecord[] records = this.createNewMonitoringRecords(timestamp, hostname, VM_NAME, monitoringController);
+		final IMonitoringRecord[] records = this.sampleRecords(monitoringController, timestamp);
 
 		for (final IMonitoringRecord record : records) {
 			monitoringController.newMonitoringRecord(record);
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final IMonitoringRecord[] sampleRecords(final IMonitoringController monitoringController, final long timestamp) {
+		if (!monitoringController.isMonitoringEnabled()) {
+			return new IMonitoringRecord[] {};
+		}
+		return this.createNewMonitoringRecords(timestamp, monitoringController.getHostname(), VM_NAME, monitoringController);
+	}
+
 	/**
 	 * Abstract method used as interface to realize concrete samplers.
 	 *
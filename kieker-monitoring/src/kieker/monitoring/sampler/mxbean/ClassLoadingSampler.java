@@ -33,6 +33,8 @@ import kieker.monitoring.core.signaturePattern.SignatureFactory;
  */
 public class ClassLoadingSampler extends AbstractMXBeanSampler {
 
+	private final ClassLoadingMXBean classLoadingBean = ManagementFactory.getClassLoadingMXBean();
+
 	/**
 	 * Create a new ClassLoadingSampler.
 	 */
@@ -48,9 +50,8 @@ public class ClassLoadingSampler extends AbstractMXBeanSampler {
 			return new IMonitoringRecord[] {};
 		}
 
-		final ClassLoadingMXBean classLoadingBean = ManagementFactory.getClassLoadingMXBean();
-		return new IMonitoringRecord[] { new ClassLoadingRecord(timestamp, hostname, vmName, classLoadingBean.getTotalLoadedClassCount(),
-				classLoadingBean.getLoadedClassCount(), classLoadingBean.getUnloadedClassCount()), };
+		return new IMonitoringRecord[] { new ClassLoadingRecord(timestamp, hostname, vmName, this.classLoadingBean.getTotalLoadedClassCount(),
+				this.classLoadingBean.getLoadedClassCount(), this.classLoadingBean.getUnloadedClassCount()), };
 	}
 
 }
@@ -33,6 +33,8 @@ import kieker.monitoring.core.signaturePattern.SignatureFactory;
  */
 public class CompilationSampler extends AbstractMXBeanSampler {
 
+	private final CompilationMXBean compilationBean = ManagementFactory.getCompilationMXBean();
+
 	/**
 	 * Create a new CompilationSampler.
 	 */
@@ -48,8 +50,6 @@ public class CompilationSampler extends AbstractMXBeanSampler {
 			return new IMonitoringRecord[] {};
 		}
 
-		final CompilationMXBean compilationBean = ManagementFactory.getCompilationMXBean();
-
-		return new IMonitoringRecord[] { new CompilationRecord(timestamp, hostname, vmName, compilationBean.getName(), compilationBean.getTotalCompilationTime()), };
+		return new IMonitoringRecord[] { new CompilationRecord(timestamp, hostname, vmName, this.compilationBean.getName(), this.compilationBean.getTotalCompilationTime()), };
 	}
 }
@@ -34,6 +34,8 @@ import kieker.monitoring.core.signaturePattern.SignatureFactory;
  */
 public class GCSampler extends AbstractMXBeanSampler {
 
+	private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
 	/**
 	 * Create new GCSampler.
 	 */
@@ -49,7 +51,7 @@ public class GCSampler extends AbstractMXBeanSampler {
 			return new IMonitoringRecord[] {};
 		}
 
-		final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+		final List<GarbageCollectorMXBean> gcBeans = this.gcBeans;
 		final int numberOfGCs = gcBeans.size();
 		final IMonitoringRecord[] records = new IMonitoringRecord[numberOfGCs];
 
@@ -34,6 +34,8 @@ import kieker.monitoring.core.signaturePattern.SignatureFactory;
  */
 public class MemorySampler extends AbstractMXBeanSampler {
 
+	private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
 	/**
 	 * Create new GCSampler.
 	 */
@@ -49,12 +51,11 @@ public class MemorySampler extends AbstractMXBeanSampler {
 			return new IMonitoringRecord[] {};
 		}
 
-		final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
-		final MemoryUsage heapMemoryUsage = memoryBean.getHeapMemoryUsage();
-		final MemoryUsage nonHeapMemoryUsage = memoryBean.getNonHeapMemoryUsage();
+		final MemoryUsage heapMemoryUsage = this.memoryBean.getHeapMemoryUsage();
+		final MemoryUsage nonHeapMemoryUsage = this.memoryBean.getNonHeapMemoryUsage();
 
 		return new IMonitoringRecord[] { new MemoryRecord(timestamp, hostname, vmName, heapMemoryUsage.getMax(), heapMemoryUsage.getUsed(),
 				heapMemoryUsage.getCommitted(), heapMemoryUsage.getInit(), nonHeapMemoryUsage.getMax(), nonHeapMemoryUsage.getUsed(),
-				nonHeapMemoryUsage.getCommitted(), nonHeapMemoryUsage.getInit(), memoryBean.getObjectPendingFinalizationCount()), };
+				nonHeapMemoryUsage.getCommitted(), nonHeapMemoryUsage.getInit(), this.memoryBean.getObjectPendingFinalizationCount()), };
 	}
 }
@@ -33,6 +33,8 @@ import kieker.monitoring.core.signaturePattern.SignatureFactory;
  */
 public class ThreadsStatusSampler extends AbstractMXBeanSampler {
 
+	private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
 	/**
 	 * Create new ThreadsStatusSampler.
 	 */
@@ -48,10 +50,8 @@ public class ThreadsStatusSampler extends AbstractMXBeanSampler {
 			return new IMonitoringRecord[] {};
 		}
 
-		final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
-
-		return new IMonitoringRecord[] { new ThreadsStatusRecord(timestamp, hostname, vmName, threadBean.getThreadCount(), threadBean.getDaemonThreadCount(),
-				threadBean.getPeakThreadCount(), threadBean.getTotalStartedThreadCount()), };
+		return new IMonitoringRecord[] { new ThreadsStatusRecord(timestamp, hostname, vmName, this.threadBean.getThreadCount(), this.threadBean.getDaemonThreadCount(),
+				this.threadBean.getPeakThreadCount(), this.threadBean.getTotalStartedThreadCount()), };
 	}
 
 }
@@ -33,6 +33,8 @@ import kieker.monitoring.core.signaturePattern.SignatureFactory;
  */
 public class UptimeSampler extends AbstractMXBeanSampler {
 
+	private final RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
+
 	/**
 	 * Create new UptimeSampler.
 	 */
@@ -48,8 +50,6 @@ public class UptimeSampler extends AbstractMXBeanSampler {
 			return new IMonitoringRecord[] {};
 		}
 
-		final RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
-
-		return new IMonitoringRecord[] { new UptimeRecord(timestamp, hostname, vmName, runtimeBean.getUptime()), };
+		return new IMonitoringRecord[] { new UptimeRecord(timestamp, hostname, vmName, this.runtimeBean.getUptime()), };
 	}
 }
@@ -49,6 +49,16 @@ public abstract class AbstractTimeSource implements ITimeSource {
 		return null;
 	}
 
+	/**
+	 * This method is called by the monitoring controller when monitoring is terminated. Time sources using resources such as background threads should release
+	 * them here. By default, this method does nothing.
+	 * 
+	 * @since 1.13
+	 */
+	public void terminate() { // NOPMD (default implementation)
+		// nothing to release by default
+	}
+
 	@Override
 	public abstract String toString(); // findbugs: This has to be declared here to make this method abstract!
 }
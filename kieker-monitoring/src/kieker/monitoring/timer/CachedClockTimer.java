@@ -0,0 +1,189 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.timer;
+
+import java.lang.ref.WeakReference;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+
+/**
+ * A coarse timer implementation, counting in the configured time unit since a specified offset.
+ * 
+ * The time is read from {@link System#nanoTime()} and converted by a background ticker thread in regular intervals
+ * (the resolution). Each call of {@link #getTime()} is just a read of the cached value. Thus, this timer is suitable for
+ * probes which are called very often and can tolerate a lower resolution. The ticker thread is a daemon thread which is stopped by
+ * {@link #terminate()} when the monitoring controller terminates; afterwards, the last cached time is returned.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public final class CachedClockTimer extends AbstractTimeSource {
+	/** This is the name of the configuration determining the used offset (in nanoseconds). */
+	public static final String CONFIG_OFFSET = CachedClockTimer.class.getName() + ".offset";
+	/** This is the name of the configuration determining the used time unit (0 = nanoseconds, 1 = microseconds, 2 = milliseconds, 3 = seconds). */
+	public static final String CONFIG_UNIT = CachedClockTimer.class.getName() + ".unit";
+	/** This is the name of the configuration determining the interval between updates of the cached time (in microseconds). */
+	public static final String CONFIG_RESOLUTION = CachedClockTimer.class.getName() + ".resolution";
+
+	private static final Log LOG = LogFactory.getLog(CachedClockTimer.class);
+
+	private final long offset;
+	private final long clockdifference;
+	private final TimeUnit timeunit;
+	private final long resolutionInNs;
+	private final Thread ticker;
+
+	private volatile long time;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 * 
+	 * @param configuration
+	 *            The configuration for this timer.
+	 */
+	public CachedClockTimer(final Configuration configuration) {
+		super(configuration);
+		this.clockdifference = System.nanoTime() - (TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+		if (configuration.getStringProperty(CONFIG_OFFSET).length() == 0) {
+			this.offset = System.nanoTime();
+		} else {
+			this.offset = this.clockdifference + configuration.getLongProperty(CONFIG_OFFSET);
+		}
+		final int timeunitval = configuration.getIntProperty(CONFIG_UNIT);
+		switch (timeunitval) {
+		case 0:
+			this.timeunit = TimeUnit.NANOSECONDS;
+			break;
+		case 1:
+			this.timeunit = TimeUnit.MICROSECONDS;
+			break;
+		case 2:
+			this.timeunit = TimeUnit.MILLISECONDS;
+			break;
+		case 3:
+			this.timeunit = TimeUnit.SECONDS;
+			break;
+		default:
+			LOG.warn("Failed to determine value of " + CONFIG_UNIT + " (0, 1, 2, or 3 expected). Setting to 0=nanoseconds");
+			this.timeunit = TimeUnit.NANOSECONDS;
+			break;
+		}
+		final long resolution = configuration.getLongProperty(CONFIG_RESOLUTION);
+		if (resolution > 0) {
+			this.resolutionInNs = TimeUnit.MICROSECONDS.toNanos(resolution);
+		} else {
+			LOG.warn("Invalid value for " + CONFIG_RESOLUTION + " (> 0 expected). Setting to 1000 microseconds");
+			this.resolutionInNs = TimeUnit.MILLISECONDS.toNanos(1);
+		}
+		this.tick();
+		this.ticker = new Thread(new Ticker(this), "Kieker-CachedClockTimer");
+		this.ticker.setDaemon(true);
+		this.ticker.setContextClassLoader(null); // do not keep the class loader of the creating thread (e.g., of a web application) alive
+		this.ticker.start();
+	}
+
+	/**
+	 * Updates the cached time. Only called by the constructor and the ticker thread.
+	 */
+	void tick() {
+		this.time = this.timeunit.convert(System.nanoTime() - this.offset, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public final long getTime() {
+		return this.time;
+	}
+
+	@Override
+	public long getOffset() {
+		return this.timeunit.convert(this.offset - this.clockdifference, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public final TimeUnit getTimeUnit() {
+		return this.timeunit;
+	}
+
+	/**
+	 * Stops the ticker thread and waits for it to end. The cached time is not updated anymore.
+	 */
+	@Override
+	public void terminate() {
+		this.ticker.interrupt();
+		try {
+			this.ticker.join(TimeUnit.NANOSECONDS.toMillis(this.resolutionInNs) + 1000);
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return the interval between updates of the cached time (in nanoseconds)
+	 */
+	public long getResolution() {
+		return this.resolutionInNs;
+	}
+
+	@Override
+	public final String toString() {
+		final StringBuilder sb = new StringBuilder(64);
+		sb.append("Time in " + this.timeunit.toString().toLowerCase(Locale.ENGLISH) + " (with a resolution of ");
+		sb.append(TimeUnit.NANOSECONDS.toMicros(this.resolutionInNs));
+		sb.append(" microseconds) since ");
+		sb.append(new Date(TimeUnit.NANOSECONDS.toMillis(this.offset - this.clockdifference)));
+		return sb.toString();
+	}
+
+	/**
+	 * Periodically updates the cached time of the timer until the thread is interrupted or the timer is no longer referenced.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	private static final class Ticker implements Runnable {
+		private final WeakReference<CachedClockTimer> timerReference;
+		private final long resolutionInNs;
+
+		public Ticker(final CachedClockTimer timer) {
+			this.timerReference = new WeakReference<CachedClockTimer>(timer);
+			this.resolutionInNs = timer.resolutionInNs;
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				LockSupport.parkNanos(this.resolutionInNs);
+				if (Thread.interrupted()) {
+					return; // the timer has been terminated
+				}
+				final CachedClockTimer timer = this.timerReference.get();
+				if (null == timer) {
+					return; // the timer is no longer in use
+				}
+				timer.tick();
+			}
+		}
+	}
+}
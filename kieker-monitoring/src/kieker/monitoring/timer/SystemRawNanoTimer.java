@@ -0,0 +1,80 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.timer;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import kieker.common.configuration.Configuration;
+
+/**
+ * A timer implementation, counting in nanoseconds since a specified offset.
+ * 
+ * In contrast to the {@link SystemNanoTimer}, the time unit is fixed to nanoseconds. Thus, each call of {@link #getTime()} is a
+ * single read of {@link System#nanoTime()} minus the offset without any conversion. The time unit and offset are reported
+ * in the {@link kieker.common.record.misc.KiekerMetadataRecord}, so any conversion is left to the analysis.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public final class SystemRawNanoTimer extends AbstractTimeSource {
+	/** This is the name of the configuration determining the used offset (in nanoseconds). */
+	public static final String CONFIG_OFFSET = SystemRawNanoTimer.class.getName() + ".offset";
+
+	private final long offset;
+	private final long clockdifference;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 * 
+	 * @param configuration
+	 *            The configuration for this timer.
+	 */
+	public SystemRawNanoTimer(final Configuration configuration) {
+		super(configuration);
+		this.clockdifference = System.nanoTime() - (TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+		if (configuration.getStringProperty(CONFIG_OFFSET).length() == 0) {
+			this.offset = System.nanoTime();
+		} else {
+			this.offset = this.clockdifference + configuration.getLongProperty(CONFIG_OFFSET);
+		}
+	}
+
+	@Override
+	public final long getTime() {
+		return System.nanoTime() - this.offset;
+	}
+
+	@Override
+	public long getOffset() {
+		return this.offset - this.clockdifference;
+	}
+
+	@Override
+	public final TimeUnit getTimeUnit() {
+		return TimeUnit.NANOSECONDS;
+	}
+
+	@Override
+	public final String toString() {
+		final StringBuilder sb = new StringBuilder(64);
+		sb.append("Time in nanoseconds (with nanoseconds precision, unconverted) since ");
+		sb.append(new Date(TimeUnit.NANOSECONDS.toMillis(this.offset - this.clockdifference)));
+		return sb.toString();
+	}
+}
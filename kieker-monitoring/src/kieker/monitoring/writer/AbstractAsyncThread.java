@@ -16,8 +16,12 @@
 
 package kieker.monitoring.writer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
@@ -36,6 +40,9 @@ public abstract class AbstractAsyncThread extends Thread {
 	/** The monitoring controller for the current monitoring session. */
 	protected final IMonitoringController monitoringController;
 	private final BlockingQueue<IMonitoringRecord> writeQueue;
+	private volatile int drainBatchSize = 1;
+	private volatile AtomicInteger additionalBatchedRecords;
+	private volatile long maxFlushDelay; // in nanoseconds, 0 if disabled
 	private boolean finished; // only accessed in synchronized blocks
 	private CountDownLatch shutdownLatch; // only accessed in synchronized blocks
 
@@ -73,6 +80,55 @@ public abstract class AbstractAsyncThread extends Thread {
 		}
 	}
 
+	/**
+	 * Sets the maximal number of records this thread removes from its queue at once. This method must be called before the thread is started.
+	 * 
+	 * @param drainBatchSize
+	 *            The maximal number of records per batch (must be greater than zero).
+	 * 
+	 * @since 1.13
+	 */
+	public final void setDrainBatchSize(final int drainBatchSize) {
+		if (drainBatchSize < 1) {
+			throw new IllegalArgumentException("The drain batch size must be greater than zero, but is " + drainBatchSize);
+		}
+		this.drainBatchSize = drainBatchSize;
+	}
+
+	/**
+	 * Sets the counter of the records in the queued batches exceeding one record per queue entry, which is counted down once a batch has been removed from the
+	 * queue.
+	 * 
+	 * @param additionalBatchedRecords
+	 *            The counter shared with the writer.
+	 */
+	final void setAdditionalBatchedRecords(final AtomicInteger additionalBatchedRecords) {
+		this.additionalBatchedRecords = additionalBatchedRecords;
+	}
+
+	/**
+	 * Sets the maximal time between two invocations of {@link #flush()}, i.e., the maximal time buffered records are delayed by this thread. This method must be
+	 * called before the thread is started.
+	 * 
+	 * @param maxFlushDelay
+	 *            The maximal delay in milliseconds (0 disables the periodic flush).
+	 * 
+	 * @since 1.13
+	 */
+	public final void setMaxFlushDelay(final long maxFlushDelay) {
+		if (maxFlushDelay < 0) {
+			throw new IllegalArgumentException("The maximal flush delay must not be negative, but is " + maxFlushDelay);
+		}
+		this.maxFlushDelay = TimeUnit.MILLISECONDS.toNanos(maxFlushDelay);
+	}
+
+	/**
+	 * @return The queue this thread removes its records from.
+	 */
+	final BlockingQueue<IMonitoringRecord> getWriteQueue() {
+		return this.writeQueue;
+	}
+
 	/**
 	 * Can be used to determine whether the thread is in the finished state or not.
 	 * 
@@ -92,17 +148,50 @@ public abstract class AbstractAsyncThread extends Thread {
 		try {
 			// making it a local variable for faster access
 			final BlockingQueue<IMonitoringRecord> writeQueueLocal = this.writeQueue;
+			final int maxBatchSize = this.drainBatchSize;
+			final List<IMonitoringRecord> batch = new ArrayList<IMonitoringRecord>(maxBatchSize);
+			final long maxFlushDelayLocal = this.maxFlushDelay;
+			long nextFlush = System.nanoTime() + maxFlushDelayLocal;
 			while (true) {
 				try {
-					IMonitoringRecord monitoringRecord = writeQueueLocal.take();
-					if (monitoringRecord == END_OF_MONITORING_MARKER) { // NOPMD (CompareObjectsWithEquals
+					batch.clear();
+					// block until at least one record is available and then remove as many as possible at once
+					if (maxFlushDelayLocal > 0) {
+						final IMonitoringRecord monitoringRecord = writeQueueLocal.poll(nextFlush - System.nanoTime(), TimeUnit.NANOSECONDS);
+						if (monitoringRecord == null) { // no record within the maximal delay
+							this.flush();
+							nextFlush = System.nanoTime() + maxFlushDelayLocal;
+							continue; // while
+						}
+						batch.add(monitoringRecord);
+					} else {
+						batch.add(writeQueueLocal.take());
+					}
+					if (maxBatchSize > 1) {
+						writeQueueLocal.drainTo(batch, maxBatchSize - 1);
+					}
+					boolean endOfMonitoring = false;
+					final int batchSize = batch.size();
+					for (int i = 0; i < batchSize; i++) {
+						final IMonitoringRecord monitoringRecord = batch.get(i);
+						if (monitoringRecord == END_OF_MONITORING_MARKER) { // NOPMD (CompareObjectsWithEquals
+							endOfMonitoring = true;
+						} else {
+							this.dispatch(monitoringRecord);
+						}
+					}
+					if ((maxFlushDelayLocal > 0) && ((System.nanoTime() - nextFlush) >= 0)) {
+						this.flush();
+						nextFlush = System.nanoTime() + maxFlushDelayLocal;
+					}
+					if (endOfMonitoring) {
 						if (LOG.isDebugEnabled()) {
 							LOG.debug("Terminating writer thread, " + writeQueueLocal.size() + " entries remaining");
 						}
-						monitoringRecord = writeQueueLocal.poll();
+						IMonitoringRecord monitoringRecord = writeQueueLocal.poll();
 						while (monitoringRecord != null) {
 							if (monitoringRecord != END_OF_MONITORING_MARKER) { // NOPMD (CompareObjectsWithEquals
-								this.consume(monitoringRecord);
+								this.dispatch(monitoringRecord);
 							}
 							monitoringRecord = writeQueueLocal.poll();
 						}
@@ -115,8 +204,6 @@ public abstract class AbstractAsyncThread extends Thread {
 							this.finished = true;
 						}
 						break; // while
-					} else {
-						this.consume(monitoringRecord);
 					}
 				} catch (final InterruptedException ex) {
 					continue; // while
@@ -141,6 +228,23 @@ public abstract class AbstractAsyncThread extends Thread {
 		}
 	}
 
+	private void dispatch(final IMonitoringRecord monitoringRecord) throws Exception {
+		if (monitoringRecord instanceof SerializedRecordBatchEntry) {
+			final SerializedRecordBatch batch = ((SerializedRecordBatchEntry) monitoringRecord).getBatch();
+			final AtomicInteger additionalBatchedRecordsLocal = this.additionalBatchedRecords;
+			if (additionalBatchedRecordsLocal != null) {
+				additionalBatchedRecordsLocal.addAndGet(1 - batch.getNumberOfRecords());
+			}
+			try {
+				this.consumeBatch(batch);
+			} finally {
+				batch.release();
+			}
+		} else {
+			this.consume(monitoringRecord);
+		}
+	}
+
 	/**
 	 * Returns a human-readable information string about the writer's configuration and state.
 	 * 
@@ -170,4 +274,38 @@ public abstract class AbstractAsyncThread extends Thread {
 	 * Inheriting classes should implement this method to do some cleanup work like, for example, closing open connections.
 	 */
 	protected abstract void cleanup();
+
+	/**
+	 * Inheriting classes buffering records should override this method to pass the buffered records on. It is called at least every
+	 * {@link #setMaxFlushDelay(long) maximal flush delay} while this thread is running. By default, this method does nothing.
+	 * 
+	 * @throws Exception
+	 *             Indicates that something went wrong during the flush.
+	 * 
+	 * @since 1.13
+	 */
+	protected void flush() throws Exception { // NOPMD (empty by default)
+		// nothing to flush by default
+	}
+
+	/**
+	 * Consumes a batch of serialized records. Batches are only passed to threads of writers {@link AbstractAsyncWriter#supportsSerializedRecordBatches()
+	 * supporting them}; such threads override this method in order to copy the serialized records directly. By default, the contained records are deserialized
+	 * and passed to {@link #consume(IMonitoringRecord)} one after another. The batch is released after this method returns.
+	 * 
+	 * @param batch
+	 *            The batch to consume.
+	 * 
+	 * @throws Exception
+	 *             Indicates that something went wrong during the consumption.
+	 * 
+	 * @since 1.13
+	 */
+	protected void consumeBatch(final SerializedRecordBatch batch) throws Exception {
+		IMonitoringRecord monitoringRecord = batch.nextRecord();
+		while (monitoringRecord != null) {
+			this.consume(monitoringRecord);
+			monitoringRecord = batch.nextRecord();
+		}
+	}
 }
@@ -22,12 +22,14 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import kieker.common.configuration.Configuration;
 import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
 import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.queue.MpscArrayBlockingQueue;
 
 /**
  * @author Jan Waller
@@ -44,6 +46,15 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 	public static final String CONFIG_BEHAVIOR = "QueueFullBehavior";
 	/** The name of the configuration determining the maximal shutdown delay of this writer (in milliseconds). */
 	public static final String CONFIG_SHUTDOWNDELAY = "MaxShutdownDelay";
+	/** The name of the configuration determining the implementation of the queues of this writer. */
+	public static final String CONFIG_QUEUETYPE = "QueueType";
+	/** The name of the configuration determining the maximal number of records a worker removes from its queue at once. */
+	public static final String CONFIG_DRAIN_BATCHSIZE = "QueueDrainBatchSize";
+
+	/** The queue type for a lock-based {@link ArrayBlockingQueue} (default). */
+	public static final String QUEUETYPE_ARRAY_BLOCKING = "ArrayBlockingQueue";
+	/** The queue type for a lock-free multi-producer/single-consumer ring buffer ({@link MpscArrayBlockingQueue}). */
+	public static final String QUEUETYPE_MPSC = "MpscArrayQueue";
 
 	private static final Log LOG = LogFactory.getLog(AbstractAsyncWriter.class);
 
@@ -55,7 +66,10 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 	private final List<AbstractAsyncThread> workers = new CopyOnWriteArrayList<AbstractAsyncThread>();
 	private final int queueFullBehavior;
 	private final int maxShutdownDelay;
+	private final int drainBatchSize;
 	private final AtomicLong missedRecords;
+	/** The number of records in the queued batches exceeding one record per queue entry. */
+	private final AtomicInteger additionalBatchedRecords = new AtomicInteger();
 
 	/**
 	 * This constructor initializes the writer based on the given configuration.
@@ -64,6 +78,21 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 	 *            The configuration for this writer.
 	 */
 	protected AbstractAsyncWriter(final Configuration configuration) {
+		this(configuration, 1);
+	}
+
+	/**
+	 * This constructor initializes the writer based on the given configuration. Writers starting several workers per queue must use this constructor, since
+	 * the queue type {@value #QUEUETYPE_MPSC} requires a single worker per queue.
+	 *
+	 * @param configuration
+	 *            The configuration for this writer.
+	 * @param workersPerQueue
+	 *            The number of workers this writer starts for each of its queues.
+	 *
+	 * @since 1.13
+	 */
+	protected AbstractAsyncWriter(final Configuration configuration, final int workersPerQueue) {
 		super(configuration);
 		final String prefix = this.getClass().getName() + ".";
 
@@ -75,9 +104,34 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 			this.queueFullBehavior = queueFullBehaviorTmp;
 		}
 		this.missedRecords = new AtomicLong(0);
-		this.blockingQueue = new ArrayBlockingQueue<IMonitoringRecord>(configuration.getIntProperty(prefix + CONFIG_QUEUESIZE));
-		this.prioritizedBlockingQueue = new ArrayBlockingQueue<IMonitoringRecord>(configuration.getIntProperty(prefix + CONFIG_PRIORITIZED_QUEUESIZE));
+		String queueType = configuration.getStringProperty(prefix + CONFIG_QUEUETYPE);
+		if (!QUEUETYPE_ARRAY_BLOCKING.equals(queueType) && !QUEUETYPE_MPSC.equals(queueType)) {
+			LOG.warn("Unknown value '" + queueType + "' for " + prefix + CONFIG_QUEUETYPE + "; using default value " + QUEUETYPE_ARRAY_BLOCKING);
+			queueType = QUEUETYPE_ARRAY_BLOCKING;
+		}
+		if (QUEUETYPE_MPSC.equals(queueType) && (workersPerQueue > 1)) {
+			LOG.warn("The value " + QUEUETYPE_MPSC + " for " + prefix + CONFIG_QUEUETYPE + " requires a single writer thread per queue; using "
+					+ QUEUETYPE_ARRAY_BLOCKING + " instead");
+			queueType = QUEUETYPE_ARRAY_BLOCKING;
+		}
+		this.blockingQueue = AbstractAsyncWriter.createQueue(queueType, configuration.getIntProperty(prefix + CONFIG_QUEUESIZE));
+		this.prioritizedBlockingQueue = AbstractAsyncWriter.createQueue(queueType, configuration.getIntProperty(prefix + CONFIG_PRIORITIZED_QUEUESIZE));
 		this.maxShutdownDelay = configuration.getIntProperty(prefix + CONFIG_SHUTDOWNDELAY);
+		final int drainBatchSizeTmp = configuration.getIntProperty(prefix + CONFIG_DRAIN_BATCHSIZE);
+		if (drainBatchSizeTmp < 1) {
+			LOG.warn("Invalid value '" + drainBatchSizeTmp + "' for " + prefix + CONFIG_DRAIN_BATCHSIZE + "; using default value 1");
+			this.drainBatchSize = 1;
+		} else {
+			this.drainBatchSize = drainBatchSizeTmp;
+		}
+	}
+
+	private static BlockingQueue<IMonitoringRecord> createQueue(final String queueType, final int capacity) {
+		if (QUEUETYPE_MPSC.equals(queueType)) {
+			return new MpscArrayBlockingQueue<IMonitoringRecord>(capacity);
+		} else {
+			return new ArrayBlockingQueue<IMonitoringRecord>(capacity);
+		}
 	}
 
 	/**
@@ -91,6 +145,8 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 		configuration.setProperty(prefix + CONFIG_PRIORITIZED_QUEUESIZE, "100");
 		configuration.setProperty(prefix + CONFIG_BEHAVIOR, "0");
 		configuration.setProperty(prefix + CONFIG_SHUTDOWNDELAY, "-1");
+		configuration.setProperty(prefix + CONFIG_QUEUETYPE, QUEUETYPE_ARRAY_BLOCKING);
+		configuration.setProperty(prefix + CONFIG_DRAIN_BATCHSIZE, "64");
 		return configuration;
 	}
 
@@ -101,7 +157,16 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 	 *            The new worker.
 	 */
 	protected final void addWorker(final AbstractAsyncThread worker) {
+		if (worker.getWriteQueue() instanceof MpscArrayBlockingQueue) {
+			for (final AbstractAsyncThread otherWorker : this.workers) {
+				if (otherWorker.getWriteQueue() == worker.getWriteQueue()) { // NOPMD (CompareObjectsWithEquals)
+					throw new IllegalStateException("A queue of type " + QUEUETYPE_MPSC + " must not be consumed by more than one worker");
+				}
+			}
+		}
 		this.workers.add(worker);
+		worker.setDrainBatchSize(this.drainBatchSize);
+		worker.setAdditionalBatchedRecords(this.additionalBatchedRecords);
 		worker.setDaemon(true); // might lead to inconsistent data due to harsh shutdown
 		worker.start();
 	}
@@ -133,6 +198,58 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 		} else {
 			LOG.info("Writer shutdown incomplete, " + cdl.getCount() + " worker(s) halted.");
 		}
+		final long tmpMissedRecords = this.missedRecords.get();
+		if (tmpMissedRecords > 0) {
+			LOG.warn("Dropped " + tmpMissedRecords + " record(s) due to a full queue.");
+		}
+	}
+
+	/**
+	 * Delivers the number of records which have been dropped so far, because the queue was full (only with {@code QueueFullBehavior} 2).
+	 *
+	 * @return The number of dropped records.
+	 *
+	 * @since 1.13
+	 */
+	public final long getMissedRecords() {
+		return this.missedRecords.get();
+	}
+
+	/**
+	 * Delivers the number of records currently waiting in the (non-prioritized) queue of this writer. The records of queued batches of serialized records are
+	 * counted individually.
+	 *
+	 * @return The current queue depth.
+	 *
+	 * @since 1.13
+	 */
+	public final int getQueueDepth() {
+		return this.blockingQueue.size() + this.additionalBatchedRecords.get();
+	}
+
+	/**
+	 * Delivers the number of entries the (non-prioritized) queue of this writer can additionally accept without blocking. Each entry takes either a single
+	 * record or a batch of serialized records, i.e., the queue accepts at least this number of further records.
+	 *
+	 * @return The remaining capacity of the queue.
+	 *
+	 * @since 1.13
+	 */
+	public final int getQueueRemainingCapacity() {
+		return this.blockingQueue.remainingCapacity();
+	}
+
+	/**
+	 * Determines whether the workers of this writer are able to write {@link SerializedRecordBatch batches of serialized records} without deserializing the
+	 * contained records, i.e., whether their {@link AbstractAsyncThread#consumeBatch(SerializedRecordBatch)} copies the serialized records. The monitoring
+	 * controller only buffers serialized records for writers returning true.
+	 *
+	 * @return false by default
+	 *
+	 * @since 1.13
+	 */
+	public boolean supportsSerializedRecordBatches() {
+		return false;
 	}
 
 	/**
@@ -140,12 +257,33 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 	 */
 	@Override
 	public final boolean newMonitoringRecord(final IMonitoringRecord monitoringRecord) {
+		return this.enqueue(monitoringRecord, 1);
+	}
+
+	/**
+	 * Adds the given batch of serialized records as a single entry to the queue of this writer. The batch is released by the worker once it has been written or
+	 * immediately if it cannot be queued.
+	 *
+	 * @param batch
+	 *            The batch to write.
+	 *
+	 * @return true if and only if the batch has been queued or dropped due to the configured {@code QueueFullBehavior}
+	 *
+	 * @since 1.13
+	 */
+	public final boolean newSerializedRecordBatch(final SerializedRecordBatch batch) {
+		// counted before queueing, since the worker may remove the batch from the queue before this method returns
+		this.additionalBatchedRecords.addAndGet(batch.getNumberOfRecords() - 1);
+		return this.enqueue(batch.getQueueEntry(), batch.getNumberOfRecords());
+	}
+
+	private boolean enqueue(final IMonitoringRecord entry, final int numberOfRecords) {
 		try {
 			switch (this.queueFullBehavior) {
 			case 1: // blocks when queue full
 				for (int i = 0; i < 10; i++) { // drop out if more than 10 times interrupted
 					try {
-						this.blockingQueue.put(monitoringRecord);
+						this.blockingQueue.put(entry);
 						return true;
 					} catch (final InterruptedException ignore) {
 						// The interrupt status has been reset by the put method when throwing the exception.
@@ -154,11 +292,14 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 					}
 				}
 				LOG.error("Failed to add new monitoring record to queue (maximum number of attempts reached).");
+				this.discard(entry);
 				return false;
 			case 2: // does nothing if queue is full
-				if (!this.blockingQueue.offer(monitoringRecord)) {
-					final long tmpMissedRecords = this.missedRecords.incrementAndGet();
-					if (LOG.isWarnEnabled() && ((tmpMissedRecords % 1024) == 1)) {
+				if (!this.blockingQueue.offer(entry)) {
+					this.discard(entry);
+					final long tmpMissedRecords = this.missedRecords.addAndGet(numberOfRecords);
+					final long previouslyMissedRecords = tmpMissedRecords - numberOfRecords;
+					if (LOG.isWarnEnabled() && ((previouslyMissedRecords == 0) || ((previouslyMissedRecords / 1024) != (tmpMissedRecords / 1024)))) {
 						// warn upon the first failed element and upon all 1024th one
 						LOG.warn("Queue is full, dropping record. Current number of dropped records: " + tmpMissedRecords);
 					}
@@ -166,20 +307,30 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 				return true;
 			default: // tries to add immediately (error if full)
 				try {
-					this.blockingQueue.add(monitoringRecord);
+					this.blockingQueue.add(entry);
 				} catch (final IllegalStateException ex) {
 					LOG.error(
 							"Failed to add new monitoring record to queue. Queue is full. Either increase 'QueueSize' or change 'QueueFullBehavior' for the configured writer."); // NOCS
+					this.discard(entry);
 					return false;
 				}
 				return true;
 			}
 		} catch (final Exception ex) { // NOPMD NOCS (IllegalCatchCheck)
 			LOG.error("Failed to add new monitoring record to queue.", ex);
+			this.discard(entry);
 			return false;
 		}
 	}
 
+	private void discard(final IMonitoringRecord entry) {
+		if (entry instanceof SerializedRecordBatchEntry) {
+			final SerializedRecordBatch batch = ((SerializedRecordBatchEntry) entry).getBatch();
+			this.additionalBatchedRecords.addAndGet(1 - batch.getNumberOfRecords());
+			batch.release();
+		}
+	}
+
 	@Override
 	public boolean newMonitoringRecordNonBlocking(final IMonitoringRecord monitoringRecord) {
 		try {
@@ -207,6 +358,10 @@ public abstract class AbstractAsyncWriter extends AbstractMonitoringWriter {
 	public String toString() {
 		final StringBuilder sb = new StringBuilder(64);
 		sb.append(super.toString());
+		sb.append("\n\tQueue: ");
+		sb.append(this.blockingQueue.getClass().getSimpleName());
+		sb.append("\n\tRecords in queue: ");
+		sb.append(this.getQueueDepth());
 		sb.append("\n\tRecords lost: ");
 		sb.append(this.missedRecords.get());
 		sb.append("\n\tWriter Threads (");
@@ -40,6 +40,16 @@ public class AsyncDummyWriter extends AbstractAsyncWriter {
 		this.addWorker(new AsyncDummyWriterThread(this.monitoringController, this.blockingQueue));
 		this.addWorker(new AsyncDummyWriterThread(this.monitoringController, this.prioritizedBlockingQueue));
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @since 1.13
+	 */
+	@Override
+	public boolean supportsSerializedRecordBatches() {
+		return true;
+	}
 }
 
 /**
@@ -61,6 +71,16 @@ class AsyncDummyWriterThread extends AbstractAsyncThread {
 		// nothing to do here
 	}
 
+	/**
+	 * {@inheritDoc} The batch is dropped without deserializing the contained records.
+	 * 
+	 * @since 1.13
+	 */
+	@Override
+	protected void consumeBatch(final SerializedRecordBatch batch) {
+		// nothing to do here
+	}
+
 	@Override
 	protected void cleanup() {
 		// nothing to clean up
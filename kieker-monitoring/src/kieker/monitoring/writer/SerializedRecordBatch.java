@@ -0,0 +1,175 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.monitoring.writer;
+
+import java.nio.ByteBuffer;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.factory.IRecordFactory;
+import kieker.common.util.registry.IRegistry;
+
+/**
+ * A batch of records which have already been serialized by a {@link SerializedRecordBuffer} in the binary format of Kieker, i.e., each record is stored as
+ * its class id, its logging timestamp, and its fields. A batch is not a monitoring record: it is passed to the writers supporting batches (see
+ * {@link AbstractAsyncWriter#supportsSerializedRecordBatches()}) as a single entry of their record queues, wrapped in an internal queue entry, and these
+ * writers copy its content directly.
+ * Afterwards, the batch must be handed back via {@link #release()} such that its buffer can be reused.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class SerializedRecordBatch {
+	private static final int HEADER_SIZE = AbstractMonitoringRecord.TYPE_SIZE_INT + AbstractMonitoringRecord.TYPE_SIZE_LONG;
+
+	private final SerializedRecordBuffer owner;
+	private final IRegistry<String> stringRegistry;
+	private final ByteBuffer buffer;
+	private final SerializedRecordBatchEntry queueEntry = new SerializedRecordBatchEntry(this);
+	private int numberOfRecords;
+
+	/**
+	 * Creates a new empty batch.
+	 *
+	 * @param owner
+	 *            the buffer this batch is returned to on {@link #release()}
+	 * @param stringRegistry
+	 *            the string registry used to serialize the records
+	 * @param capacity
+	 *            the size of the batch in bytes
+	 */
+	SerializedRecordBatch(final SerializedRecordBuffer owner, final IRegistry<String> stringRegistry, final int capacity) {
+		this.owner = owner;
+		this.stringRegistry = stringRegistry;
+		this.buffer = ByteBuffer.allocate(capacity);
+	}
+
+	/**
+	 * Delivers the buffer containing the serialized records. Between the position and the limit of the buffer, the records are stored one after another
+	 * in the same format as written by the binary writers.
+	 *
+	 * @return the buffer of this batch
+	 */
+	public ByteBuffer getBuffer() {
+		return this.buffer;
+	}
+
+	/**
+	 * @return the number of records in this batch
+	 */
+	public int getNumberOfRecords() {
+		return this.numberOfRecords;
+	}
+
+	/**
+	 * Copies as many complete records as fit into the given buffer, starting with the record at the current position of this batch. Records are never split,
+	 * such that the target buffer can be sent, e.g., as a frame on its own.
+	 *
+	 * @param target
+	 *            the buffer to copy the records into
+	 * @return true if all remaining records have been copied, false if the next record does not fit into the target buffer
+	 */
+	public boolean transferTo(final ByteBuffer target) {
+		final ByteBuffer localBuffer = this.buffer;
+		if (localBuffer.remaining() <= target.remaining()) {
+			target.put(localBuffer);
+			return true;
+		}
+		final int limit = localBuffer.limit();
+		int end = localBuffer.position();
+		while (end < limit) {
+			final int recordSize = HEADER_SIZE + this.getRecordFactory(localBuffer.getInt(end)).getRecordSizeInBytes();
+			if (((end + recordSize) - localBuffer.position()) > target.remaining()) {
+				break;
+			}
+			end += recordSize;
+		}
+		localBuffer.limit(end);
+		target.put(localBuffer);
+		localBuffer.limit(limit);
+		return !localBuffer.hasRemaining();
+	}
+
+	/**
+	 * Deserializes the record at the current position of the buffer and advances the position to the next record. This creates a record object for each
+	 * event and is therefore only intended for writers which cannot copy the serialized records.
+	 *
+	 * @return the next record of this batch or null if all records have been read
+	 */
+	public IMonitoringRecord nextRecord() {
+		final ByteBuffer localBuffer = this.buffer;
+		if (!localBuffer.hasRemaining()) {
+			return null;
+		}
+		final IRecordFactory<? extends IMonitoringRecord> recordFactory = this.getRecordFactory(localBuffer.getInt());
+		final long loggingTimestamp = localBuffer.getLong();
+		final IMonitoringRecord record = recordFactory.create(localBuffer, this.stringRegistry);
+		record.setLoggingTimestamp(loggingTimestamp);
+		return record;
+	}
+
+	/**
+	 * Hands this batch back for reuse. The batch must not be accessed afterwards.
+	 */
+	public void release() {
+		this.owner.recycle(this);
+	}
+
+	/**
+	 * @return the entry carrying this batch through the record queues of the writer
+	 */
+	SerializedRecordBatchEntry getQueueEntry() {
+		return this.queueEntry;
+	}
+
+	/**
+	 * Prepares the buffer for appending a record of the given size.
+	 *
+	 * @param size
+	 *            the size of the record in bytes (including class id and logging timestamp)
+	 * @return the buffer or null if the record does not fit into this batch
+	 */
+	ByteBuffer reserve(final int size) {
+		if (size > this.buffer.remaining()) {
+			return null;
+		}
+		this.numberOfRecords++;
+		return this.buffer;
+	}
+
+	/**
+	 * Prepares this batch for being read by the writer.
+	 */
+	void seal() {
+		this.buffer.flip();
+	}
+
+	/**
+	 * Empties this batch such that it can be filled again.
+	 */
+	void reset() {
+		this.buffer.clear();
+		this.numberOfRecords = 0;
+	}
+
+	private IRecordFactory<? extends IMonitoringRecord> getRecordFactory(final int recordClassId) {
+		return CachedRecordFactoryCatalog.getInstance().get(this.stringRegistry.get(recordClassId));
+	}
+}
@@ -0,0 +1,131 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.util.registry.IRegistry;
+
+/**
+ * The queue entry carrying a {@link SerializedRecordBatch} through the record queues of an {@link AbstractAsyncWriter}. Each batch owns exactly one entry,
+ * which is reused together with the batch. Entries never leave this package: the {@link AbstractAsyncThread} unwraps them before the batch is passed to
+ * {@link AbstractAsyncThread#consumeBatch(SerializedRecordBatch)}, i.e., they are never passed to {@link AbstractAsyncThread#consume(kieker.common.record.IMonitoringRecord)}.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+final class SerializedRecordBatchEntry extends AbstractMonitoringRecord {
+	private static final long serialVersionUID = 1L;
+	private static final Class<?>[] TYPES = {};
+	private static final Object[] VALUES = {};
+
+	private final transient SerializedRecordBatch batch;
+
+	/**
+	 * Creates the entry of the given batch.
+	 *
+	 * @param batch
+	 *            the batch carried by this entry
+	 */
+	SerializedRecordBatchEntry(final SerializedRecordBatch batch) {
+		this.batch = batch;
+	}
+
+	/**
+	 * @return the batch carried by this entry
+	 */
+	SerializedRecordBatch getBatch() {
+		return this.batch;
+	}
+
+	/**
+	 * {@inheritDoc} An entry has no fields of its own.
+	 */
+	@Override
+	public Object[] toArray() {
+		return VALUES; // NOPMD
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void registerStrings(final IRegistry<String> registry) {
+		// all strings have already been registered while serializing the records of the batch
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @deprecated An entry is never serialized itself.
+	 */
+	@Override
+	@Deprecated
+	public void writeBytes(final ByteBuffer buffer, final IRegistry<String> stringRegistry) throws BufferOverflowException {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @deprecated An entry is never deserialized.
+	 */
+	@Override
+	@Deprecated
+	public void initFromBytes(final ByteBuffer buffer, final IRegistry<String> stringRegistry) throws BufferUnderflowException {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @deprecated An entry is never deserialized.
+	 */
+	@Override
+	@Deprecated
+	public void initFromArray(final Object[] values) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<?>[] getValueTypes() {
+		return TYPES; // NOPMD
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSize() {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc} Entries are only equal to themselves.
+	 */
+	@Override
+	public boolean equals(final Object obj) { // NOPMD NOCS (hashCode is final in the super class)
+		return this == obj;
+	}
+}
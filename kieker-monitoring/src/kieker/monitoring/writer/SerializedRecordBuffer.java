@@ -0,0 +1,370 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.monitoring.writer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import kieker.common.record.AbstractMonitoringRecord;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.AfterOperationFailedEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.util.registry.IRegistry;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.registry.TraceRegistry;
+
+/**
+ * Serializes flow events directly into a per-thread {@link SerializedRecordBatch} instead of creating a record object for each event. Full batches (and
+ * batches explicitly flushed, e.g., at the end of a trace) are passed to the writer as a single entry and are reused once the writer has released them.
+ * Hence, no record objects have to survive until the writer gets to them. Other records (e.g., of periodic samplers) can be appended to the batch of the
+ * current thread, too. The buffer is only available for writers copying the serialized records (see
+ * {@link AbstractAsyncWriter#supportsSerializedRecordBatches()}) and is currently used by the operation execution probes
+ * ({@link kieker.monitoring.probe.aspectj.flow.operationExecution.AbstractAspect}) and the consolidated periodic samplers.
+ *
+ * <p>
+ * Events remaining in the batch of a thread are written once the batch is full, {@link #flush()} is called by that thread, or {@link #flushAll()} is called
+ * (periodically and on termination) by any thread. Events of traces which are not sampled ({@link TraceRegistry#UNSAMPLED_TRACE_ID}) are dropped.
+ * </p>
+ *
+ * <p>
+ * Strings are registered by the serializing thread before the event is written into its batch, such that the resulting registry records are passed to the
+ * writer before the batch.
+ * </p>
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class SerializedRecordBuffer {
+	/** The smallest allowed size of a batch in bytes (large enough for every supported event). */
+	public static final int MIN_BATCH_SIZE = 1024;
+
+	/** The size of the class id and the logging timestamp preceding each record. */
+	private static final int HEADER_SIZE = AbstractMonitoringRecord.TYPE_SIZE_INT + AbstractMonitoringRecord.TYPE_SIZE_LONG;
+
+	private final IMonitoringController monitoringController;
+	private final IRegistry<String> stringRegistry;
+	private final int batchSize;
+	private final boolean autoSetLoggingTimestamp;
+	private final BlockingQueue<SerializedRecordBatch> freeBatches;
+	private final ThreadLocal<BatchHolder> currentHolder = new ThreadLocal<BatchHolder>();
+	/** the holders of all threads which have serialized records, such that their batches can be flushed by other threads. */
+	private final Set<BatchHolder> holders = Collections.newSetFromMap(new ConcurrentHashMap<BatchHolder, Boolean>());
+
+	/**
+	 * Creates a new buffer.
+	 *
+	 * @param monitoringController
+	 *            the monitoring controller receiving the batches
+	 * @param batchSize
+	 *            the size of each batch in bytes (at least {@link #MIN_BATCH_SIZE})
+	 * @param poolSize
+	 *            the maximal number of released batches kept for reuse
+	 * @param autoSetLoggingTimestamp
+	 *            whether the logging timestamp of each event is set (to the timestamp of the event)
+	 */
+	public SerializedRecordBuffer(final IMonitoringController monitoringController, final int batchSize, final int poolSize,
+			final boolean autoSetLoggingTimestamp) {
+		if (batchSize < MIN_BATCH_SIZE) {
+			throw new IllegalArgumentException("The batch size must be at least " + MIN_BATCH_SIZE + " bytes, but is " + batchSize);
+		}
+		this.monitoringController = monitoringController;
+		this.stringRegistry = monitoringController.getStringRegistry();
+		this.batchSize = batchSize;
+		this.autoSetLoggingTimestamp = autoSetLoggingTimestamp;
+		this.freeBatches = new ArrayBlockingQueue<SerializedRecordBatch>(Math.max(1, poolSize));
+	}
+
+	/**
+	 * Serializes a {@link BeforeOperationEvent}.
+	 *
+	 * @param timestamp
+	 *            the timestamp of the event
+	 * @param traceId
+	 *            the trace id
+	 * @param orderIndex
+	 *            the order index within the trace
+	 * @param operationSignature
+	 *            the signature of the operation
+	 * @param classSignature
+	 *            the signature of the class
+	 */
+	public void newBeforeOperationEvent(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String classSignature) {
+		if (traceId == TraceRegistry.UNSAMPLED_TRACE_ID) {
+			return; // dropped with the whole trace
+		}
+		final int recordClassId = this.stringRegistry.get(BeforeOperationEvent.class.getName());
+		final int operationSignatureId = this.stringRegistry.get(operationSignature);
+		final int classSignatureId = this.stringRegistry.get(classSignature);
+		final BatchHolder holder = this.getHolder();
+		synchronized (holder) {
+			final ByteBuffer buffer = this.reserve(holder, recordClassId, BeforeOperationEvent.SIZE, this.getLoggingTimestamp(timestamp));
+			buffer.putLong(timestamp);
+			buffer.putLong(traceId);
+			buffer.putInt(orderIndex);
+			buffer.putInt(operationSignatureId);
+			buffer.putInt(classSignatureId);
+		}
+	}
+
+	/**
+	 * Serializes an {@link AfterOperationEvent}.
+	 *
+	 * @param timestamp
+	 *            the timestamp of the event
+	 * @param traceId
+	 *            the trace id
+	 * @param orderIndex
+	 *            the order index within the trace
+	 * @param operationSignature
+	 *            the signature of the operation
+	 * @param classSignature
+	 *            the signature of the class
+	 */
+	public void newAfterOperationEvent(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String classSignature) {
+		if (traceId == TraceRegistry.UNSAMPLED_TRACE_ID) {
+			return; // dropped with the whole trace
+		}
+		final int recordClassId = this.stringRegistry.get(AfterOperationEvent.class.getName());
+		final int operationSignatureId = this.stringRegistry.get(operationSignature);
+		final int classSignatureId = this.stringRegistry.get(classSignature);
+		final BatchHolder holder = this.getHolder();
+		synchronized (holder) {
+			final ByteBuffer buffer = this.reserve(holder, recordClassId, AfterOperationEvent.SIZE, this.getLoggingTimestamp(timestamp));
+			buffer.putLong(timestamp);
+			buffer.putLong(traceId);
+			buffer.putInt(orderIndex);
+			buffer.putInt(operationSignatureId);
+			buffer.putInt(classSignatureId);
+		}
+	}
+
+	/**
+	 * Serializes an {@link AfterOperationFailedEvent}.
+	 *
+	 * @param timestamp
+	 *            the timestamp of the event
+	 * @param traceId
+	 *            the trace id
+	 * @param orderIndex
+	 *            the order index within the trace
+	 * @param operationSignature
+	 *            the signature of the operation
+	 * @param classSignature
+	 *            the signature of the class
+	 * @param cause
+	 *            the cause of the failure
+	 */
+	public void newAfterOperationFailedEvent(final long timestamp, final long traceId, final int orderIndex, final String operationSignature,
+			final String classSignature, final String cause) {
+		if (traceId == TraceRegistry.UNSAMPLED_TRACE_ID) {
+			return; // dropped with the whole trace
+		}
+		final int recordClassId = this.stringRegistry.get(AfterOperationFailedEvent.class.getName());
+		final int operationSignatureId = this.stringRegistry.get(operationSignature);
+		final int classSignatureId = this.stringRegistry.get(classSignature);
+		final int causeId = this.stringRegistry.get(cause);
+		final BatchHolder holder = this.getHolder();
+		synchronized (holder) {
+			final ByteBuffer buffer = this.reserve(holder, recordClassId, AfterOperationFailedEvent.SIZE, this.getLoggingTimestamp(timestamp));
+			buffer.putLong(timestamp);
+			buffer.putLong(traceId);
+			buffer.putInt(orderIndex);
+			buffer.putInt(operationSignatureId);
+			buffer.putInt(classSignatureId);
+			buffer.putInt(causeId);
+		}
+	}
+
+	/**
+	 * Serializes an arbitrary record, e.g., the result of a sampler. The logging timestamp is set according to the time source of the monitoring
+	 * controller. A record larger than a batch is passed to the monitoring controller on its own (after the batch of the current thread).
+	 *
+	 * @param record
+	 *            the record
+	 */
+	public void newRecord(final IMonitoringRecord record) {
+		final int recordSize = record.getSize();
+		if ((HEADER_SIZE + recordSize) > this.batchSize) {
+			this.flush(); // keeps the order of the records of this thread
+			this.monitoringController.newMonitoringRecord(record);
+			return;
+		}
+		final int recordClassId = this.stringRegistry.get(record.getClass().getName());
+		record.registerStrings(this.stringRegistry);
+		final BatchHolder holder = this.getHolder();
+		synchronized (holder) {
+			final ByteBuffer buffer = this.reserve(holder, recordClassId, recordSize, this.monitoringController.getTimeSource().getTime());
+			record.writeBytes(buffer, this.stringRegistry);
+		}
+	}
+
+	/**
+	 * Passes the events serialized by the current thread to the writer.
+	 */
+	public void flush() {
+		final BatchHolder holder = this.currentHolder.get();
+		if (null != holder) {
+			synchronized (holder) {
+				this.submit(holder.removeBatch());
+			}
+		}
+	}
+
+	/**
+	 * Passes the events serialized by all threads to the writer, e.g., such that the events of idle threads are not delayed indefinitely.
+	 */
+	public void flushAll() {
+		this.removeBatches(true);
+	}
+
+	/**
+	 * Removes the batches of all threads containing at least one event. The batches are sealed, i.e., the caller is responsible for writing and releasing
+	 * them. This method is used on termination, when the monitoring controller does not accept records anymore.
+	 *
+	 * @return the sealed batches
+	 */
+	public List<SerializedRecordBatch> removeAllBatches() {
+		return this.removeBatches(false);
+	}
+
+	private List<SerializedRecordBatch> removeBatches(final boolean submit) {
+		final List<SerializedRecordBatch> batches = new ArrayList<SerializedRecordBatch>();
+		final Iterator<BatchHolder> iterator = this.holders.iterator();
+		while (iterator.hasNext()) {
+			final BatchHolder holder = iterator.next();
+			synchronized (holder) { // submitting while holding the lock keeps the order of the batches of each thread
+				final SerializedRecordBatch batch = holder.removeBatch();
+				if (submit) {
+					this.submit(batch);
+				} else if (null != batch) {
+					batch.seal();
+					batches.add(batch);
+				}
+			}
+			if (!holder.owner.isAlive()) {
+				iterator.remove();
+			}
+		}
+		return batches;
+	}
+
+	/**
+	 * Hands a batch back for reuse after the writer has processed it.
+	 *
+	 * @param batch
+	 *            the released batch
+	 */
+	void recycle(final SerializedRecordBatch batch) {
+		batch.reset();
+		this.freeBatches.offer(batch); // the batch is left to the garbage collector if the pool is full
+	}
+
+	private BatchHolder getHolder() {
+		BatchHolder holder = this.currentHolder.get();
+		if (null == holder) {
+			holder = new BatchHolder(Thread.currentThread());
+			this.currentHolder.set(holder);
+			this.holders.add(holder);
+		}
+		return holder;
+	}
+
+	private long getLoggingTimestamp(final long timestamp) {
+		if (this.autoSetLoggingTimestamp) {
+			return timestamp;
+		}
+		return -1L;
+	}
+
+	/**
+	 * Must be called while holding the lock of the holder.
+	 */
+	private ByteBuffer reserve(final BatchHolder holder, final int recordClassId, final int recordSize, final long loggingTimestamp) {
+		final int size = HEADER_SIZE + recordSize;
+		SerializedRecordBatch batch = holder.batch;
+		if (null == batch) {
+			batch = this.obtainBatch();
+			holder.batch = batch;
+		}
+		ByteBuffer buffer = batch.reserve(size);
+		if (null == buffer) {
+			this.submit(batch);
+			batch = this.obtainBatch();
+			holder.batch = batch;
+			buffer = batch.reserve(size);
+		}
+		buffer.putInt(recordClassId);
+		buffer.putLong(loggingTimestamp);
+		return buffer;
+	}
+
+	private void submit(final SerializedRecordBatch batch) {
+		if (null == batch) {
+			return;
+		}
+		batch.seal();
+		if (!this.monitoringController.newSerializedRecordBatch(batch)) {
+			batch.release();
+		}
+	}
+
+	private SerializedRecordBatch obtainBatch() {
+		final SerializedRecordBatch batch = this.freeBatches.poll();
+		if (null != batch) {
+			return batch;
+		}
+		return new SerializedRecordBatch(this, this.stringRegistry, this.batchSize);
+	}
+
+	/**
+	 * The current batch of a single thread. The batch is only accessed while holding the lock of the holder, as it can be removed by other threads.
+	 *
+	 * @author Christian Stier
+	 */
+	private static final class BatchHolder {
+		final Thread owner; // NOPMD NOCS (package visible for outer class)
+		SerializedRecordBatch batch; // NOPMD NOCS (package visible for outer class)
+
+		BatchHolder(final Thread owner) {
+			this.owner = owner;
+		}
+
+		/**
+		 * @return the current batch or null if it is empty
+		 */
+		SerializedRecordBatch removeBatch() {
+			final SerializedRecordBatch currentBatch = this.batch;
+			if ((null == currentBatch) || (currentBatch.getNumberOfRecords() == 0)) {
+				return null;
+			}
+			this.batch = null;
+			return currentBatch;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.amqp;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.misc.RegistryRecord;
+import kieker.common.util.registry.IRegistry;
+
+/**
+ * Encodes the messages published by the {@link AMQPWriter}. Each message starts with an envelope consisting of the type of the message and the id of the
+ * string registry, followed by a registry record, a regular record, or a batch of regular records. The records of a batch share the envelope, i.e., they
+ * follow each other until the end of the message.
+ *
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class AMQPMessageEncoder {
+
+	private static final int DEFAULT_BUFFER_SIZE = 16384;
+
+	/** Size of the "envelope" data which is prepended before the actual record. */
+	private static final int SIZE_OF_ENVELOPE = 1 + 8;
+
+	private final IRegistry<String> stringRegistry;
+	/** The size of the record batches in bytes (0 if records are not batched). */
+	private final int batchSize;
+	private final ByteBuffer buffer;
+
+	/**
+	 * Creates a new encoder.
+	 *
+	 * @param stringRegistry
+	 *            The string registry of the monitoring controller.
+	 * @param batchSize
+	 *            The size of the record batches in bytes (0 if records are not batched).
+	 */
+	public AMQPMessageEncoder(final IRegistry<String> stringRegistry, final int batchSize) {
+		this.stringRegistry = stringRegistry;
+		this.batchSize = batchSize;
+		// a batch is completed as soon as it reaches the batch size, hence the last record requires additional space
+		this.buffer = ByteBuffer.allocate(batchSize + DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Encodes the given registry record as a single message.
+	 *
+	 * @param registryRecord
+	 *            The registry record.
+	 *
+	 * @return The message.
+	 */
+	public byte[] encodeRegistryRecord(final RegistryRecord registryRecord) {
+		final ByteBuffer localBuffer = ByteBuffer.allocate(registryRecord.getSize() + SIZE_OF_ENVELOPE);
+
+		// Prepend envelope data.
+		localBuffer.put(AMQPWriter.REGISTRY_RECORD_ID);
+		localBuffer.putLong(this.stringRegistry.getId());
+
+		registryRecord.writeBytes(localBuffer, this.stringRegistry);
+		return localBuffer.array();
+	}
+
+	/**
+	 * Encodes the given regular record as a single message.
+	 *
+	 * @param monitoringRecord
+	 *            The record.
+	 *
+	 * @return The message.
+	 */
+	public byte[] encodeRecord(final IMonitoringRecord monitoringRecord) {
+		final ByteBuffer localBuffer = this.buffer;
+		localBuffer.clear();
+
+		// Prepend envelope data
+		localBuffer.put(AMQPWriter.REGULAR_RECORD_ID);
+		localBuffer.putLong(this.stringRegistry.getId());
+
+		this.putRecord(monitoringRecord);
+
+		final byte[] data = Arrays.copyOf(localBuffer.array(), localBuffer.position());
+		localBuffer.clear();
+		return data;
+	}
+
+	/**
+	 * Adds the given regular record to the current batch.
+	 *
+	 * @param monitoringRecord
+	 *            The record.
+	 *
+	 * @return true if the batch has reached the batch size and should be completed
+	 */
+	public boolean addToBatch(final IMonitoringRecord monitoringRecord) {
+		final ByteBuffer localBuffer = this.buffer;
+		if (localBuffer.position() == 0) { // new batch
+			localBuffer.put(AMQPWriter.BATCH_RECORD_ID);
+			localBuffer.putLong(this.stringRegistry.getId());
+		}
+		this.putRecord(monitoringRecord);
+		return localBuffer.position() >= this.batchSize;
+	}
+
+	/**
+	 * Completes the current batch and starts a new one.
+	 *
+	 * @return The message containing the batch or null if the batch does not contain any records.
+	 */
+	public byte[] completeBatch() {
+		final ByteBuffer localBuffer = this.buffer;
+		if (localBuffer.position() == 0) {
+			return null;
+		}
+		final byte[] data = Arrays.copyOf(localBuffer.array(), localBuffer.position());
+		localBuffer.clear();
+		return data;
+	}
+
+	private void putRecord(final IMonitoringRecord monitoringRecord) {
+		final ByteBuffer localBuffer = this.buffer;
+		localBuffer.putInt(this.stringRegistry.get(monitoringRecord.getClass().getName()));
+		localBuffer.putLong(monitoringRecord.getLoggingTimestamp());
+		monitoringRecord.writeBytes(localBuffer, this.stringRegistry);
+	}
+}
@@ -18,7 +18,6 @@ package kieker.monitoring.writer.amqp;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
-import java.nio.ByteBuffer;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.concurrent.BlockingQueue;
@@ -34,13 +33,13 @@ import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.misc.RegistryRecord;
-import kieker.common.util.registry.IRegistry;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.writer.AbstractAsyncThread;
 import kieker.monitoring.writer.AbstractAsyncWriter;
 
 /**
- * Monitoring record writer which sends records using the AMQP protocol to a message queue.
+ * Monitoring record writer which sends records using the AMQP protocol to a message queue. If a batch size is configured, many records are packed into a
+ * single message which is published as soon as it reaches the batch size or the maximal flush delay has elapsed.
  *
  * @author Holger Knoche
  *
@@ -54,6 +53,9 @@ public final class AMQPWriter extends AbstractAsyncWriter {
 	/** ID for regular records. */
 	public static final byte REGULAR_RECORD_ID = (byte) 0x01;
 
+	/** ID for batches of regular records sharing the same envelope. */
+	public static final byte BATCH_RECORD_ID = (byte) 0x02;
+
 	private static final String PREFIX = AMQPWriter.class.getName() + ".";
 
 	/** The name of the configuration property for the server URI. */
@@ -64,6 +66,10 @@ public final class AMQPWriter extends AbstractAsyncWriter {
 	public static final String CONFIG_QUEUENAME = PREFIX + "queuename"; // NOCS (afterPREFIX)
 	/** The name of the configuration property for the heartbeat timeout. */
 	public static final String CONFIG_HEARTBEAT = PREFIX + "heartbeat"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the size of record batches in bytes (0 sends each record in its own message). */
+	public static final String CONFIG_BATCHSIZE = PREFIX + "batchsize"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the maximal time (in milliseconds) a record is delayed in an incomplete batch. */
+	public static final String CONFIG_MAXFLUSHDELAY = PREFIX + "maxflushdelay"; // NOCS (afterPREFIX)
 
 	/**
 	 * Default heartbeat timeout interval in seconds.
@@ -74,6 +80,8 @@ public final class AMQPWriter extends AbstractAsyncWriter {
 	private final String exchangeName;
 	private final String queueName;
 	private final int heartbeat;
+	private final int batchSize;
+	private final long maxFlushDelay;
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -95,12 +103,21 @@ public final class AMQPWriter extends AbstractAsyncWriter {
 		} else {
 			this.heartbeat = configuredHeartbeat;
 		}
+		this.batchSize = configuration.getIntProperty(CONFIG_BATCHSIZE);
+		this.maxFlushDelay = configuration.getLongProperty(CONFIG_MAXFLUSHDELAY);
 	}
 
 	@Override
 	protected void init() throws Exception {
-		this.addWorker(new AMQPWriterThread(this.monitoringController, this.blockingQueue, this.uri, this.heartbeat, this.exchangeName, this.queueName));
-		this.addWorker(new AMQPWriterThread(this.monitoringController, this.prioritizedBlockingQueue, this.uri, this.heartbeat, this.exchangeName, this.queueName));
+		final AMQPWriterThread recordWorker = new AMQPWriterThread(this.monitoringController, this.blockingQueue, this.uri, this.heartbeat, this.exchangeName,
+				this.queueName, this.batchSize);
+		if (this.batchSize > 0) {
+			recordWorker.setMaxFlushDelay(this.maxFlushDelay);
+		}
+		this.addWorker(recordWorker);
+		// registry records are never batched
+		this.addWorker(new AMQPWriterThread(this.monitoringController, this.prioritizedBlockingQueue, this.uri, this.heartbeat, this.exchangeName, this.queueName,
+				0));
 	}
 
 }
@@ -116,24 +133,20 @@ final class AMQPWriterThread extends AbstractAsyncThread {
 
 	private static final Log LOG = LogFactory.getLog(AMQPWriterThread.class);
 
-	private static final int DEFAULT_BUFFER_SIZE = 16384;
-
-	/** Size of the "envelope" data which is prepended before the actual record. */
-	private static final int SIZE_OF_ENVELOPE = 1 + 8;
-
 	private final String uri;
 	private final int heartbeat;
 	private final String exchangeName;
 	private final String queueName;
+	/** The size of the record batches in bytes (0 if records are not batched). */
+	private final int batchSize;
 
 	private final Connection connection;
 	private final Channel channel;
 
-	private final ByteBuffer buffer;
-	private final IRegistry<String> stringRegistry;
+	private final AMQPMessageEncoder encoder;
 
 	public AMQPWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
-			final String uri, final int heartbeat, final String exchangeName, final String queueName)
+			final String uri, final int heartbeat, final String exchangeName, final String queueName, final int batchSize)
 			throws TimeoutException, IOException, KeyManagementException, NoSuchAlgorithmException, URISyntaxException {
 		super(monitoringController, writeQueue);
 
@@ -141,13 +154,12 @@ final class AMQPWriterThread extends AbstractAsyncThread {
 		this.heartbeat = heartbeat;
 		this.exchangeName = exchangeName;
 		this.queueName = queueName;
+		this.batchSize = batchSize;
 
 		this.connection = this.createConnection();
 		this.channel = this.connection.createChannel();
 
-		this.buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
-
-		this.stringRegistry = this.monitoringController.getStringRegistry();
+		this.encoder = new AMQPMessageEncoder(this.monitoringController.getStringRegistry(), batchSize);
 	}
 
 	private Connection createConnection() throws TimeoutException, KeyManagementException, NoSuchAlgorithmException, IOException, URISyntaxException {
@@ -165,45 +177,34 @@ final class AMQPWriterThread extends AbstractAsyncThread {
 
 	@Override
 	protected void consume(final IMonitoringRecord monitoringRecord) throws Exception {
-		final IRegistry<String> localStringRegistry = this.stringRegistry;
-		final long registryId = localStringRegistry.getId();
-
 		if (monitoringRecord instanceof RegistryRecord) {
-			final ByteBuffer localBuffer = ByteBuffer.allocate(monitoringRecord.getSize() + SIZE_OF_ENVELOPE);
-
-			// Prepend envelope data.
-			localBuffer.put(AMQPWriter.REGISTRY_RECORD_ID);
-			localBuffer.putLong(registryId);
-
-			monitoringRecord.writeBytes(localBuffer, localStringRegistry);
-			localBuffer.flip();
-
-			final byte[] data = localBuffer.array();
-			this.channel.basicPublish(this.exchangeName, this.queueName, null, data);
+			this.channel.basicPublish(this.exchangeName, this.queueName, null, this.encoder.encodeRegistryRecord((RegistryRecord) monitoringRecord));
+		} else if (this.batchSize > 0) {
+			if (this.encoder.addToBatch(monitoringRecord)) {
+				this.flush();
+			}
 		} else {
-			final ByteBuffer localBuffer = this.buffer;
-			localBuffer.clear();
-
-			// Prepend envelope data
-			localBuffer.put(AMQPWriter.REGULAR_RECORD_ID);
-			localBuffer.putLong(registryId);
-
-			localBuffer.putInt(this.monitoringController.getUniqueIdForString(monitoringRecord.getClass().getName()));
-			localBuffer.putLong(monitoringRecord.getLoggingTimestamp());
-			monitoringRecord.writeBytes(localBuffer, localStringRegistry);
-
-			localBuffer.flip();
-			final int dataSize = localBuffer.limit();
-			final byte[] data = new byte[dataSize];
-			System.arraycopy(localBuffer.array(), localBuffer.arrayOffset(), data, 0, dataSize);
+			this.channel.basicPublish(this.exchangeName, this.queueName, null, this.encoder.encodeRecord(monitoringRecord));
+		}
+	}
 
-			this.channel.basicPublish(this.exchangeName, this.queueName, null, data);
+	/**
+	 * Publishes the current batch of records (if any).
+	 */
+	@Override
+	protected void flush() throws IOException {
+		if (this.batchSize > 0) {
+			final byte[] data = this.encoder.completeBatch();
+			if (data != null) {
+				this.channel.basicPublish(this.exchangeName, this.queueName, null, data);
+			}
 		}
 	}
 
 	@Override
 	protected void cleanup() {
 		try {
+			this.flush();
 			this.connection.close();
 		} catch (final IOException e) {
 			LOG.error("Error closing connection", e);
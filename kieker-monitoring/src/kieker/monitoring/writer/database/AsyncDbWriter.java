@@ -52,11 +52,23 @@ public final class AsyncDbWriter extends AbstractAsyncWriter {
 	public static final String CONFIG_TABLEPREFIX = PREFIX + "TablePrefix"; // NOCS (AfterPREFIX)
 	public static final String CONFIG_NRCONN = PREFIX + "numberOfConnections"; // NOCS (AfterPREFIX)
 	public static final String CONFIG_OVERWRITE = PREFIX + "DropTables"; // NOCS (AfterPREFIX)
+	/** The name of the configuration property for the number of records per table inserted with a single JDBC batch (0 inserts each record at once). */
+	public static final String CONFIG_BATCHSIZE = PREFIX + "BatchSize"; // NOCS (AfterPREFIX)
+	/** The name of the configuration property for the maximal time (in milliseconds) a record is delayed in an incomplete batch. */
+	public static final String CONFIG_MAXFLUSHDELAY = PREFIX + "MaxFlushDelay"; // NOCS (AfterPREFIX)
+	/**
+	 * The name of the configuration property for the number of batches (or single records if batching is disabled) committed in a single transaction (0 commits
+	 * each statement automatically).
+	 */
+	public static final String CONFIG_BATCHESPERTRANSACTION = PREFIX + "BatchesPerTransaction"; // NOCS (AfterPREFIX)
 
 	private final String connectionString;
 	private final String tablePrefix;
 	private final boolean overwrite;
 	private final int connections;
+	private final int batchSize;
+	private final long maxFlushDelay;
+	private final int batchesPerTransaction;
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -68,7 +80,8 @@ public final class AsyncDbWriter extends AbstractAsyncWriter {
 	 *             If something went wrong during the initialization of the writer.
 	 */
 	public AsyncDbWriter(final Configuration configuration) throws Exception {
-		super(configuration);
+		// each connection has its own writer threads removing records from the shared queues
+		super(configuration, configuration.getIntProperty(CONFIG_NRCONN));
 		try {
 			Class.forName(configuration.getStringProperty(CONFIG_DRIVERCLASSNAME)).newInstance();
 		} catch (final Exception ex) { // NOPMD NOCS (IllegalCatchCheck)
@@ -78,6 +91,9 @@ public final class AsyncDbWriter extends AbstractAsyncWriter {
 		this.tablePrefix = configuration.getStringProperty(CONFIG_TABLEPREFIX);
 		this.overwrite = configuration.getBooleanProperty(CONFIG_OVERWRITE);
 		this.connections = configuration.getIntProperty(CONFIG_NRCONN);
+		this.batchSize = configuration.getIntProperty(CONFIG_BATCHSIZE);
+		this.maxFlushDelay = configuration.getLongProperty(CONFIG_MAXFLUSHDELAY);
+		this.batchesPerTransaction = configuration.getIntProperty(CONFIG_BATCHESPERTRANSACTION);
 	}
 
 	@Override
@@ -97,18 +113,29 @@ public final class AsyncDbWriter extends AbstractAsyncWriter {
 		final AtomicLong recordId = new AtomicLong();
 		try {
 			for (int i = 0; i < this.connections; i++) {
-				this.addWorker(new DbWriterThread(super.monitoringController, super.blockingQueue, this.connectionString, this.tablePrefix, tableCounter, recordId,
-						this.overwrite));
-				this.addWorker(new DbWriterThread(super.monitoringController, super.prioritizedBlockingQueue, this.connectionString, this.tablePrefix, tableCounter,
-						recordId, this.overwrite));
+				this.addWorker(this.createWorker(super.blockingQueue, tableCounter, recordId));
+				this.addWorker(this.createWorker(super.prioritizedBlockingQueue, tableCounter, recordId));
 			}
 		} catch (final SQLException ex) {
 			throw new Exception("SQLException with SQLState: '" + ex.getSQLState() + "' and VendorError: '" + ex.getErrorCode() + "'", ex);
 		}
 	}
+
+	private DbWriterThread createWorker(final BlockingQueue<IMonitoringRecord> queue, final AtomicInteger tableCounter, final AtomicLong recordId)
+			throws SQLException {
+		final DbWriterThread worker = new DbWriterThread(super.monitoringController, queue, this.connectionString, this.tablePrefix, tableCounter, recordId,
+				this.overwrite, this.batchSize, this.batchesPerTransaction);
+		if ((this.batchSize > 1) || (this.batchesPerTransaction > 1)) {
+			worker.setMaxFlushDelay(this.maxFlushDelay);
+		}
+		return worker;
+	}
 }
 
 /**
+ * Inserts the records into the database. If a batch size greater than one is configured, the records of each table are collected and inserted with a single
+ * JDBC batch. If a number of batches per transaction is configured, the automatic commit is disabled and several batches are committed at once.
+ * 
  * @author Jan Waller
  * 
  * @since < 0.9
@@ -119,9 +146,12 @@ final class DbWriterThread extends AbstractAsyncThread {
 	private final Connection connection;
 	private final DBWriterHelper helper;
 
-	private final ConcurrentMap<Class<? extends IMonitoringRecord>, PreparedStatement> recordTypeInformation =
-			new ConcurrentHashMap<Class<? extends IMonitoringRecord>, PreparedStatement>();
+	private final ConcurrentMap<Class<? extends IMonitoringRecord>, TableInserter> recordTypeInformation =
+			new ConcurrentHashMap<Class<? extends IMonitoringRecord>, TableInserter>();
 	private final AtomicLong recordId;
+	private final int batchSize;
+	private final int batchesPerTransaction;
+	private int uncommittedBatches; // only accessed by this thread
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -140,16 +170,26 @@ final class DbWriterThread extends AbstractAsyncThread {
 	 *            The ID to be used for records.
 	 * @param overwrite
 	 *            Determines whether existing tables will be overwritten.
+	 * @param batchSize
+	 *            The number of records per table inserted with a single batch (0 or 1 inserts each record at once).
+	 * @param batchesPerTransaction
+	 *            The number of batches committed in a single transaction (0 commits each statement automatically).
 	 * 
 	 * @throws SQLException
 	 *             If something went wrong during the establishing of the connection.
 	 */
 	public DbWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> blockingQueue, final String connectionString,
-			final String tablePrefix, final AtomicInteger tableCounter, final AtomicLong recordId, final boolean overwrite) throws SQLException {
+			final String tablePrefix, final AtomicInteger tableCounter, final AtomicLong recordId, final boolean overwrite, final int batchSize,
+			final int batchesPerTransaction) throws SQLException {
 		super(monitoringController, blockingQueue);
 		this.recordId = recordId;
+		this.batchSize = batchSize;
+		this.batchesPerTransaction = batchesPerTransaction;
 		this.connection = DriverManager.getConnection(connectionString);
 		this.helper = new DBWriterHelper(this.connection, tablePrefix, tableCounter, overwrite);
+		if (batchesPerTransaction > 0) {
+			this.connection.setAutoCommit(false);
+		}
 	}
 
 	@Override
@@ -171,7 +211,10 @@ final class DbWriterThread extends AbstractAsyncThread {
 					sb.append(",?");
 				}
 				final PreparedStatement preparedStatement = this.connection.prepareStatement("INSERT INTO " + tableName + " VALUES (" + sb.toString() + ")");
-				this.recordTypeInformation.put(recordClass, preparedStatement);
+				this.recordTypeInformation.put(recordClass, new TableInserter(preparedStatement));
+				if (this.batchesPerTransaction > 0) { // the new table has to be visible for the readers
+					this.connection.commit();
+				}
 			} catch (final SQLException ex) {
 				if (null == ex.getSQLState()) { // probably an exception by Kieker
 					LOG.error("Unable to log records of type " + recordClass.getName() + ": " + ex.getMessage());
@@ -184,7 +227,8 @@ final class DbWriterThread extends AbstractAsyncThread {
 		try {
 			final long id = this.recordId.getAndIncrement();
 			// send to actual table
-			final PreparedStatement preparedStatement = this.recordTypeInformation.get(recordClass);
+			final TableInserter inserter = this.recordTypeInformation.get(recordClass);
+			final PreparedStatement preparedStatement = inserter.preparedStatement;
 			preparedStatement.setLong(1, id);
 			preparedStatement.setLong(2, record.getLoggingTimestamp());
 			final Object[] recordFields = record.toArray();
@@ -193,20 +237,59 @@ final class DbWriterThread extends AbstractAsyncThread {
 					throw new Exception("Failed to add record to database.");
 				}
 			}
-			preparedStatement.executeUpdate();
+			if (this.batchSize > 1) {
+				preparedStatement.addBatch();
+				if (++inserter.numberOfBatchedRecords >= this.batchSize) { // NOPMD (assignment in operand)
+					this.executeBatch(inserter);
+				}
+			} else {
+				preparedStatement.executeUpdate();
+				this.batchExecuted();
+			}
 		} catch (final SQLException ex) {
 			throw new Exception("SQLException with SQLState: '" + ex.getSQLState() + "' and VendorError: '" + ex.getErrorCode() + "'", ex);
 		}
 	}
 
+	private void executeBatch(final TableInserter inserter) throws SQLException {
+		inserter.preparedStatement.executeBatch();
+		inserter.numberOfBatchedRecords = 0;
+		this.batchExecuted();
+	}
+
+	private void batchExecuted() throws SQLException {
+		if ((this.batchesPerTransaction > 0) && (++this.uncommittedBatches >= this.batchesPerTransaction)) { // NOPMD (assignment in operand)
+			this.connection.commit();
+			this.uncommittedBatches = 0;
+		}
+	}
+
+	@Override
+	protected void flush() throws SQLException {
+		for (final TableInserter inserter : this.recordTypeInformation.values()) {
+			if (inserter.numberOfBatchedRecords > 0) {
+				this.executeBatch(inserter);
+			}
+		}
+		if (this.uncommittedBatches > 0) {
+			this.connection.commit();
+			this.uncommittedBatches = 0;
+		}
+	}
+
 	@Override
 	protected void cleanup() {
+		try {
+			this.flush();
+		} catch (final SQLException ex) {
+			DbWriterThread.LOG.error("SQLException with SQLState: '" + ex.getSQLState() + "' and VendorError: '" + ex.getErrorCode() + "'", ex);
+		}
 		try {
 			// close all prepared statements
 			for (final Class<? extends IMonitoringRecord> recordType : this.recordTypeInformation.keySet()) {
-				final PreparedStatement preparedStatement = this.recordTypeInformation.remove(recordType);
-				if (preparedStatement != null) {
-					preparedStatement.close();
+				final TableInserter inserter = this.recordTypeInformation.remove(recordType);
+				if (inserter != null) {
+					inserter.preparedStatement.close();
 				}
 			}
 			if (this.connection != null) {
@@ -227,4 +310,16 @@ final class DbWriterThread extends AbstractAsyncThread {
 		sb.append(this.helper.toString());
 		return sb.toString();
 	}
+
+	/**
+	 * The insert statement of a table and the number of records added to its current batch.
+	 */
+	private static final class TableInserter {
+		final PreparedStatement preparedStatement; // NOCS NOPMD (package visible for outer class)
+		int numberOfBatchedRecords; // NOCS NOPMD (package visible for outer class)
+
+		public TableInserter(final PreparedStatement preparedStatement) {
+			this.preparedStatement = preparedStatement;
+		}
+	}
 }
@@ -38,11 +38,13 @@ public final class AsyncBinaryFsWriter extends AbstractAsyncFSWriter {
 	private static final String PREFIX = AsyncBinaryFsWriter.class.getName() + ".";
 	public static final String CONFIG_BUFFER = PREFIX + "bufferSize"; // NOCS (afterPREFIX)
 	public static final String CONFIG_COMPRESS = PREFIX + "compress"; // NOCS (afterPREFIX)
+	public static final String CONFIG_INDEX = PREFIX + "index"; // NOCS (afterPREFIX)
 
 	private static final Log LOG = LogFactory.getLog(AsyncBinaryFsWriter.class);
 
 	private final int buffersize;
 	private final BinaryCompressionMethod method;
+	private final boolean index;
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -67,6 +69,7 @@ public final class AsyncBinaryFsWriter extends AbstractAsyncFSWriter {
 			tmpBuffersize = 8192;
 		}
 		this.buffersize = tmpBuffersize;
+		this.index = configuration.getBooleanProperty(CONFIG_INDEX);
 	}
 
 	/**
@@ -77,13 +80,24 @@ public final class AsyncBinaryFsWriter extends AbstractAsyncFSWriter {
 		final Configuration configuration = new Configuration(super.getDefaultConfiguration());
 		configuration.setProperty(CONFIG_BUFFER, "8192");
 		configuration.setProperty(CONFIG_COMPRESS, "NONE");
+		configuration.setProperty(CONFIG_INDEX, "false");
 		return configuration;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @since 1.13
+	 */
+	@Override
+	public boolean supportsSerializedRecordBatches() {
+		return true;
+	}
+
 	@Override
 	protected final AbstractFsWriterThread initWorker(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
 			final MappingFileWriter mappingFileWriter, final String path, final int maxEntiresInFile, final int maxlogSize, final int maxLogFiles) {
 		return new BinaryFsWriterThread(monitoringController, writeQueue, mappingFileWriter, path, maxEntiresInFile, maxlogSize, maxLogFiles,
-				this.buffersize, this.method);
+				this.buffersize, this.method, this.index);
 	}
 }
@@ -0,0 +1,82 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.filesystem;
+
+import java.util.concurrent.BlockingQueue;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.writer.filesystem.async.AbstractFsWriterThread;
+import kieker.monitoring.writer.filesystem.async.BinaryMappedFsWriterThread;
+import kieker.monitoring.writer.filesystem.map.MappingFileWriter;
+
+/**
+ * A binary file system writer which serializes the records directly into memory-mapped segment files (with the extension
+ * {@value kieker.common.util.filesystem.FSUtil#MAPPED_BINARY_FILE_EXTENSION}) instead of going through output streams.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class AsyncBinaryMappedFsWriter extends AbstractAsyncFSWriter {
+
+	private static final String PREFIX = AsyncBinaryMappedFsWriter.class.getName() + ".";
+	public static final String CONFIG_SEGMENT_SIZE = PREFIX + "segmentSize"; // NOCS (afterPREFIX)
+
+	private static final Log LOG = LogFactory.getLog(AsyncBinaryMappedFsWriter.class);
+
+	private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private final int segmentSize;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param configuration
+	 *            The configuration for this writer.
+	 */
+	public AsyncBinaryMappedFsWriter(final Configuration configuration) {
+		super(configuration);
+		int tmpSegmentSize = configuration.getIntProperty(CONFIG_SEGMENT_SIZE);
+		if (tmpSegmentSize <= FSUtil.MAPPED_BINARY_HEADER_SIZE) {
+			LOG.warn("Segment size has to be greater than " + FSUtil.MAPPED_BINARY_HEADER_SIZE + ". Using " + DEFAULT_SEGMENT_SIZE + " instead.");
+			tmpSegmentSize = DEFAULT_SEGMENT_SIZE;
+		}
+		this.segmentSize = tmpSegmentSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Configuration getDefaultConfiguration() {
+		final Configuration configuration = new Configuration(super.getDefaultConfiguration());
+		configuration.setProperty(CONFIG_SEGMENT_SIZE, Integer.toString(DEFAULT_SEGMENT_SIZE));
+		return configuration;
+	}
+
+	@Override
+	protected final AbstractFsWriterThread initWorker(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
+			final MappingFileWriter mappingFileWriter, final String path, final int maxEntiresInFile, final int maxlogSize, final int maxLogFiles) {
+		return new BinaryMappedFsWriterThread(monitoringController, writeQueue, mappingFileWriter, path, maxEntiresInFile, maxlogSize, maxLogFiles,
+				this.segmentSize);
+	}
+}
@@ -70,6 +70,16 @@ public final class AsyncBinaryNFsWriter extends AbstractAsyncFSWriter {
 		return configuration;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @since 1.13
+	 */
+	@Override
+	public boolean supportsSerializedRecordBatches() {
+		return true;
+	}
+
 	@Override
 	protected final AbstractFsWriterThread initWorker(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
 			final MappingFileWriter mappingFileWriter, final String path, final int maxEntiresInFile, final int maxlogSize, final int maxLogFiles) {
@@ -0,0 +1,78 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.filesystem;
+
+import java.util.concurrent.BlockingQueue;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.writer.filesystem.async.AbstractFsWriterThread;
+import kieker.monitoring.writer.filesystem.async.ColumnarFsWriterThread;
+import kieker.monitoring.writer.filesystem.map.MappingFileWriter;
+
+/**
+ * Writes the records into columnar archives for offline analyses (see {@link kieker.common.util.filesystem.ColumnarArchiveWriter}).
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public final class AsyncColumnarFsWriter extends AbstractAsyncFSWriter {
+
+	private static final String PREFIX = AsyncColumnarFsWriter.class.getName() + ".";
+	public static final String CONFIG_ROWGROUPSIZE = PREFIX + "rowGroupSize"; // NOCS (afterPREFIX)
+
+	private static final Log LOG = LogFactory.getLog(AsyncColumnarFsWriter.class);
+
+	private final int rowGroupSize;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param configuration
+	 *            The configuration for this writer.
+	 */
+	public AsyncColumnarFsWriter(final Configuration configuration) {
+		super(configuration);
+		int tmpRowGroupSize = configuration.getIntProperty(CONFIG_ROWGROUPSIZE);
+		if (tmpRowGroupSize <= 0) {
+			LOG.warn("Row group size has to be greater than zero. Using 65536 instead.");
+			tmpRowGroupSize = 65536;
+		}
+		this.rowGroupSize = tmpRowGroupSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Configuration getDefaultConfiguration() {
+		final Configuration configuration = new Configuration(super.getDefaultConfiguration());
+		configuration.setProperty(CONFIG_ROWGROUPSIZE, "65536");
+		return configuration;
+	}
+
+	@Override
+	protected final AbstractFsWriterThread initWorker(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
+			final MappingFileWriter mappingFileWriter, final String path, final int maxEntiresInFile, final int maxlogSize, final int maxLogFiles) {
+		return new ColumnarFsWriterThread(monitoringController, writeQueue, mappingFileWriter, path, maxEntiresInFile, maxlogSize, maxLogFiles,
+				this.rowGroupSize);
+	}
+}
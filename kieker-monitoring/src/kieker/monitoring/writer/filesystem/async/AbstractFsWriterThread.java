@@ -27,6 +27,7 @@ import java.util.concurrent.BlockingQueue;
 
 import kieker.common.record.IMonitoringRecord;
 import kieker.common.record.misc.RegistryRecord;
+import kieker.common.util.filesystem.BlockIndex;
 import kieker.common.util.filesystem.FSUtil;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.writer.AbstractAsyncThread;
@@ -127,37 +128,74 @@ public abstract class AbstractFsWriterThread extends AbstractAsyncThread {
 		if (monitoringRecord instanceof RegistryRecord) {
 			this.mappingFileWriter.write((RegistryRecord) monitoringRecord);
 		} else {
-			if (++this.entriesInCurrentFileCounter > this.maxEntriesInFile) { // NOPMD
+			if ((++this.entriesInCurrentFileCounter > this.maxEntriesInFile) || !this.fitsIntoCurrentFile(monitoringRecord)) { // NOPMD
 				this.entriesInCurrentFileCounter = 1;
-				final String filename = this.getFilename();
-				this.prepareFile(filename);
-				if (this.listOfLogFiles != null) {
-					if (!this.listOfLogFiles.isEmpty()) {
-						final FileNameSize fns = this.listOfLogFiles.getLast();
-						final long filesize = new File(fns.name).length();
-						fns.size = filesize;
-						this.totalLogSize += filesize;
-					}
-					this.listOfLogFiles.add(new FileNameSize(filename));
-					if ((this.maxLogFiles > 0) && (this.listOfLogFiles.size() > this.maxLogFiles)) { // too many files (at most one!)
-						final FileNameSize removeFile = this.listOfLogFiles.removeFirst();
-						if (!new File(removeFile.name).delete()) { // NOCS (nested if)
-							throw new IOException("Failed to delete file " + removeFile.name);
-						}
-						this.totalLogSize -= removeFile.size;
-					}
-					if (this.maxLogSize > 0) {
-						while ((this.listOfLogFiles.size() > 1) && (this.totalLogSize > this.maxLogSize)) {
-							final FileNameSize removeFile = this.listOfLogFiles.removeFirst();
-							if (!new File(removeFile.name).delete()) { // NOCS (nested if)
-								throw new IOException("Failed to delete file " + removeFile.name);
-							}
-							this.totalLogSize -= removeFile.size;
-						}
+				this.startNewFile();
+			}
+			this.write(monitoringRecord);
+		}
+	}
+
+	/**
+	 * Reserves the given number of entries in the current file. If they would exceed the maximal number of entries per file, a new file is started
+	 * beforehand. A new file receives all reserved entries even if they exceed the maximal number of entries.
+	 * 
+	 * @param numberOfEntries
+	 *            the number of records about to be written at once
+	 * 
+	 * @throws IOException
+	 *             if the new file could not be prepared
+	 * 
+	 * @since 1.13
+	 */
+	protected final void reserveEntries(final int numberOfEntries) throws IOException {
+		if ((this.entriesInCurrentFileCounter + numberOfEntries) > this.maxEntriesInFile) {
+			this.entriesInCurrentFileCounter = numberOfEntries;
+			this.startNewFile();
+		} else {
+			this.entriesInCurrentFileCounter += numberOfEntries;
+		}
+	}
+
+	private void startNewFile() throws IOException {
+		final String filename = this.getFilename();
+		this.prepareFile(filename);
+		if (this.listOfLogFiles != null) {
+			if (!this.listOfLogFiles.isEmpty()) {
+				final FileNameSize fns = this.listOfLogFiles.getLast();
+				final long filesize = new File(fns.name).length();
+				fns.size = filesize;
+				this.totalLogSize += filesize;
+			}
+			this.listOfLogFiles.add(new FileNameSize(filename));
+			if ((this.maxLogFiles > 0) && (this.listOfLogFiles.size() > this.maxLogFiles)) { // too many files (at most one!)
+				final FileNameSize removeFile = this.listOfLogFiles.removeFirst();
+				if (!new File(removeFile.name).delete()) { // NOCS (nested if)
+					throw new IOException("Failed to delete file " + removeFile.name);
+				}
+				AbstractFsWriterThread.deleteIndexFile(removeFile.name);
+				this.totalLogSize -= removeFile.size;
+			}
+			if (this.maxLogSize > 0) {
+				while ((this.listOfLogFiles.size() > 1) && (this.totalLogSize > this.maxLogSize)) {
+					final FileNameSize removeFile = this.listOfLogFiles.removeFirst();
+					if (!new File(removeFile.name).delete()) { // NOCS (nested if)
+						throw new IOException("Failed to delete file " + removeFile.name);
 					}
+					AbstractFsWriterThread.deleteIndexFile(removeFile.name);
+					this.totalLogSize -= removeFile.size;
 				}
 			}
-			this.write(monitoringRecord);
+		}
+	}
+
+	/**
+	 * Deletes the block index belonging to a deleted log file (if any).
+	 */
+	private static void deleteIndexFile(final String filename) throws IOException {
+		final File indexFile = BlockIndex.getIndexFile(new File(filename));
+		if (indexFile.exists() && !indexFile.delete()) {
+			throw new IOException("Failed to delete file " + indexFile);
 		}
 	}
 
@@ -172,6 +210,21 @@ public abstract class AbstractFsWriterThread extends AbstractAsyncThread {
 	 */
 	protected abstract void write(IMonitoringRecord monitoringRecord) throws IOException;
 
+	/**
+	 * Inheriting classes can override this method to start a new file before the given record is written, for example, if the current file has a fixed size.
+	 * The method is only called while a file is open.
+	 * 
+	 * @param monitoringRecord
+	 *            The record to be written next.
+	 * 
+	 * @return true if and only if the record can be written into the current file. The default implementation always returns true.
+	 * 
+	 * @since 1.13
+	 */
+	protected boolean fitsIntoCurrentFile(final IMonitoringRecord monitoringRecord) {
+		return true;
+	}
+
 	/**
 	 * Inheriting classes should implement this method to prepare a new file if needed.
 	 * 
@@ -23,6 +23,7 @@ import java.io.PrintWriter;
 import java.util.concurrent.BlockingQueue;
 
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.filesystem.AsciiRecordCodec;
 import kieker.common.util.filesystem.FSUtil;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.writer.filesystem.map.StringMappingFileWriter;
@@ -35,6 +36,7 @@ import kieker.monitoring.writer.filesystem.map.StringMappingFileWriter;
 public class AsciiZipWriterThread extends AbstractZipWriterThread {
 
 	private final PrintWriter out;
+	private final AsciiRecordCodec asciiCodec = new AsciiRecordCodec();
 
 	/**
 	 * Create a new AsciiZipWriterThread.
@@ -66,17 +68,22 @@ public class AsciiZipWriterThread extends AbstractZipWriterThread {
 
 	@Override
 	protected void write(final IMonitoringRecord monitoringRecord) throws IOException {
-		final Object[] recordFields = monitoringRecord.toArray();
-		final StringBuilder sb = new StringBuilder(256);
-		sb.append('$');
-		sb.append(this.monitoringController.getUniqueIdForString(monitoringRecord.getClass().getName()));
-		sb.append(';');
-		sb.append(monitoringRecord.getLoggingTimestamp());
-		for (final Object recordField : recordFields) {
+		final int classId = this.monitoringController.getUniqueIdForString(monitoringRecord.getClass().getName());
+		// the codec avoids formatting the fields via Object[] and String for all common record types
+		if (!this.asciiCodec.write(monitoringRecord, classId, this.out)) {
+			final Object[] recordFields = monitoringRecord.toArray();
+			final StringBuilder sb = new StringBuilder(256);
+			sb.append('$');
+			sb.append(classId);
 			sb.append(';');
-			sb.append(String.valueOf(recordField));
+			sb.append(monitoringRecord.getLoggingTimestamp());
+			for (final Object recordField : recordFields) {
+				sb.append(';');
+				sb.append(String.valueOf(recordField));
+			}
+			this.out.print(sb.toString());
 		}
-		this.out.println(sb.toString());
+		this.out.println();
 	}
 
 	@Override
@@ -16,21 +16,38 @@
 
 package kieker.monitoring.writer.filesystem.async;
 
-import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 
 import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
+import kieker.common.exception.MonitoringRecordException;
+import kieker.common.record.AbstractMonitoringRecord;
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.flow.trace.AbstractTraceEvent;
 import kieker.common.util.filesystem.BinaryCompressionMethod;
+import kieker.common.util.filesystem.BlockIndex;
 import kieker.common.util.registry.IRegistry;
 import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.writer.SerializedRecordBatch;
 import kieker.monitoring.writer.filesystem.map.MappingFileWriter;
 
 /**
+ * Serializes all records into a single buffer which is reused for the whole lifetime of this thread. Uncompressed files are written from a direct buffer through
+ * a {@link FileChannel}; compressed files are written from a heap buffer into the compressing stream. In both cases there are no allocations or copies per
+ * record.
+ *
+ * <p>
+ * Optionally, a {@link BlockIndex} is written next to each file when the file is closed. Each flush of the buffer forms one block of the index.
+ *
  * @author Jan Waller
  *
  * @since 1.5
@@ -38,12 +55,30 @@ import kieker.monitoring.writer.filesystem.map.MappingFileWriter;
 public class BinaryFsWriterThread extends AbstractFsWriterThread {
 	private static final Log LOG = LogFactory.getLog(BinaryFsWriterThread.class);
 
-	private DataOutputStream out;
+	/** Used for uncompressed files. */
+	private FileOutputStream fileOutputStream;
+	/** Used for uncompressed files. */
+	private FileChannel channel;
+	/** Used for compressed files. */
+	private OutputStream compressedOutputStream;
+
+	private ByteBuffer buffer;
 
 	private final int bufferSize;
 	private final BinaryCompressionMethod compressionMethod;
 	private final IRegistry<String> stringRegistry;
 
+	private final boolean writeIndex;
+	/** The index of the current file (null if no index is written). */
+	private BlockIndex index;
+	/** The block of the index receiving the records of the buffer (null if no index is written). */
+	private BlockIndex.Block block;
+	/** The number of uncompressed bytes written into the current file. */
+	private long fileOffset;
+	private String currentFilename;
+	/** The layouts of the record types contained in batches, used to index the records of a batch without deserializing them. */
+	private final Map<Integer, BatchRecordLayout> batchRecordLayouts = new HashMap<Integer, BatchRecordLayout>(); // NOPMD (no synchronization needed)
+
 	/**
 	 * Create a new BinaryFsWriterThread.
 	 *
@@ -69,46 +104,227 @@ public class BinaryFsWriterThread extends AbstractFsWriterThread {
 	public BinaryFsWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
 			final MappingFileWriter mappingFileWriter, final String path, final int maxEntriesInFile, final int maxLogSize, final int maxLogFiles,
 			final int bufferSize, final BinaryCompressionMethod compressionMethod) {
+		this(monitoringController, writeQueue, mappingFileWriter, path, maxEntriesInFile, maxLogSize, maxLogFiles, bufferSize, compressionMethod, false);
+	}
+
+	/**
+	 * Create a new BinaryFsWriterThread.
+	 *
+	 * @param monitoringController
+	 *            the monitoring controller accessed by this thread
+	 * @param writeQueue
+	 *            the queue where the writer fetches its records from
+	 * @param mappingFileWriter
+	 *            writer for the mapping file (the file where class names are mapped to record ids)
+	 * @param path
+	 *            location where to files should go to (the path must point to a directory)
+	 * @param maxEntriesInFile
+	 *            limit for the number of records per log file
+	 * @param maxLogSize
+	 *            limit of the log file size
+	 * @param maxLogFiles
+	 *            limit of the number of log files
+	 * @param bufferSize
+	 *            size of the output buffer
+	 * @param compressionMethod
+	 *            compressionMethod to be used for output
+	 * @param writeIndex
+	 *            whether a block index is written next to each file
+	 *
+	 * @since 1.13
+	 */
+	public BinaryFsWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
+			final MappingFileWriter mappingFileWriter, final String path, final int maxEntriesInFile, final int maxLogSize, final int maxLogFiles,
+			final int bufferSize, final BinaryCompressionMethod compressionMethod, final boolean writeIndex) {
 		super(monitoringController, writeQueue, mappingFileWriter, path, maxEntriesInFile, maxLogSize, maxLogFiles);
 		this.compressionMethod = compressionMethod;
 		this.fileExtension = compressionMethod.getFileExtension();
 		this.bufferSize = bufferSize;
+		this.buffer = this.allocateBuffer(bufferSize);
 		this.stringRegistry = monitoringController.getStringRegistry();
+		this.writeIndex = writeIndex;
 	}
 
 	@Override
 	protected void write(final IMonitoringRecord monitoringRecord) throws IOException {
 		final int size = monitoringRecord.getSize() + 4 + 8;
 
-		// FIXME performance issue due to too many object instantiations: ByteBuffer
-		final ByteBuffer buffer = ByteBuffer.allocateDirect(size);
-		buffer.putInt(this.monitoringController.getUniqueIdForString(monitoringRecord.getClass().getName()));
-		buffer.putLong(monitoringRecord.getLoggingTimestamp());
-		monitoringRecord.writeBytes(buffer, this.stringRegistry);
-
-		// FIXME performance issue due to too many object instantiations: byte[]
-		final byte[] bytes = new byte[size];
-		buffer.flip();
-		buffer.get(bytes, 0, size);
-		this.out.write(bytes);
+		ByteBuffer localBuffer = this.buffer;
+		if (size > localBuffer.remaining()) {
+			this.flushBuffer();
+			if (size > localBuffer.capacity()) {
+				// only happens for records exceeding the configured buffer size (and only once per size)
+				LOG.warn("Record of size " + size + " exceeds the buffer size. Increasing buffer size to " + size + " bytes.");
+				localBuffer = this.allocateBuffer(size);
+				this.buffer = localBuffer;
+			}
+		}
+		final int typeId = this.monitoringController.getUniqueIdForString(monitoringRecord.getClass().getName());
+		localBuffer.putInt(typeId);
+		localBuffer.putLong(monitoringRecord.getLoggingTimestamp());
+		monitoringRecord.writeBytes(localBuffer, this.stringRegistry);
+		if (this.block != null) {
+			this.block.add(monitoringRecord, typeId);
+		}
+	}
+
+	/**
+	 * {@inheritDoc} The batch already contains the records in the binary format, hence its content is copied as a whole.
+	 */
+	@Override
+	protected void consumeBatch(final SerializedRecordBatch batch) throws IOException {
+		this.reserveEntries(batch.getNumberOfRecords());
+		final ByteBuffer content = batch.getBuffer();
+		final int size = content.remaining();
+
+		ByteBuffer localBuffer = this.buffer;
+		if (size > localBuffer.remaining()) {
+			this.flushBuffer();
+			if (size > localBuffer.capacity()) {
+				LOG.warn("Record batch of size " + size + " exceeds the buffer size. Increasing buffer size to " + size + " bytes.");
+				localBuffer = this.allocateBuffer(size);
+				this.buffer = localBuffer;
+			}
+		}
+		if (this.block != null) {
+			this.indexBatch(content);
+		}
+		localBuffer.put(content);
+	}
+
+	/**
+	 * Adds the records of the given batch content to the current block. Only the headers and trace ids are read from the content; its position is left
+	 * unchanged.
+	 */
+	private void indexBatch(final ByteBuffer content) {
+		final ByteBuffer records = content.duplicate();
+		final BlockIndex.Block localBlock = this.block;
+		while (records.hasRemaining()) {
+			final int typeId = records.getInt();
+			final long loggingTimestamp = records.getLong();
+			final BatchRecordLayout layout = this.getBatchRecordLayout(typeId);
+			if (layout == null) {
+				// we cannot determine the remaining records, hence the block must never be skipped
+				localBlock.add(typeId, Long.MIN_VALUE, false, 0);
+				localBlock.add(typeId, Long.MAX_VALUE, false, 0);
+				return;
+			}
+			if (layout.traceIdOffset >= 0) {
+				localBlock.add(typeId, loggingTimestamp, true, records.getLong(records.position() + layout.traceIdOffset));
+			} else {
+				localBlock.add(typeId, loggingTimestamp, false, 0);
+			}
+			records.position(records.position() + layout.size);
+		}
+	}
+
+	private BatchRecordLayout getBatchRecordLayout(final int typeId) {
+		BatchRecordLayout layout = this.batchRecordLayouts.get(typeId);
+		if (layout == null) {
+			final String classname = this.stringRegistry.get(typeId);
+			try {
+				final Class<? extends IMonitoringRecord> clazz = AbstractMonitoringRecord.classForName(classname);
+				final int size = CachedRecordFactoryCatalog.getInstance().get(classname).getRecordSizeInBytes();
+				// trace events are serialized starting with the timestamp followed by the trace id
+				final int traceIdOffset = AbstractTraceEvent.class.isAssignableFrom(clazz) ? 8 : -1; // NOCS (inline conditional)
+				layout = new BatchRecordLayout(size, traceIdOffset);
+				this.batchRecordLayouts.put(typeId, layout);
+			} catch (final MonitoringRecordException ex) {
+				LOG.warn("Failed to index records of type " + classname, ex);
+			}
+		}
+		return layout;
 	}
 
 	@Override
 	protected void prepareFile(final String filename) throws IOException {
-		if (null != this.out) {
-			this.out.close();
+		this.closeFile();
+		this.fileOffset = 0;
+		if (this.writeIndex) {
+			this.currentFilename = filename;
+			this.index = new BlockIndex();
+			this.block = new BlockIndex.Block();
+		}
+		if (this.compressionMethod == BinaryCompressionMethod.NONE) {
+			this.fileOutputStream = new FileOutputStream(filename);
+			this.channel = this.fileOutputStream.getChannel();
+		} else {
+			this.compressedOutputStream = this.compressionMethod.getDataOutputStream(new File(filename), this.bufferSize);
 		}
-		this.out = this.compressionMethod.getDataOutputStream(new File(filename), this.bufferSize);
 	}
 
 	@Override
 	protected void cleanup() {
-		if (this.out != null) {
-			try {
-				this.out.close();
-			} catch (final IOException ex) {
-				LOG.error("Failed to close channel.", ex);
+		try {
+			this.closeFile();
+		} catch (final IOException ex) {
+			LOG.error("Failed to close channel.", ex);
+		}
+	}
+
+	private ByteBuffer allocateBuffer(final int capacity) {
+		if (this.compressionMethod == BinaryCompressionMethod.NONE) {
+			return ByteBuffer.allocateDirect(capacity);
+		} else {
+			return ByteBuffer.allocate(capacity);
+		}
+	}
+
+	/**
+	 * Writes the content of the buffer to the current file and clears the buffer afterwards.
+	 */
+	private void flushBuffer() throws IOException {
+		final ByteBuffer localBuffer = this.buffer;
+		final int length = localBuffer.position();
+		localBuffer.flip();
+		if (this.channel != null) {
+			while (localBuffer.hasRemaining()) {
+				this.channel.write(localBuffer);
 			}
+		} else if (this.compressedOutputStream != null) {
+			this.compressedOutputStream.write(localBuffer.array(), localBuffer.arrayOffset(), localBuffer.limit());
+		}
+		localBuffer.clear();
+		if ((this.block != null) && (this.block.getNumberOfRecords() > 0)) {
+			this.block.setPosition(this.fileOffset, length);
+			this.index.add(this.block);
+			this.block = new BlockIndex.Block();
+		}
+		this.fileOffset += length;
+	}
+
+	/**
+	 * Flushes the buffer and closes the current file (if any).
+	 */
+	private void closeFile() throws IOException {
+		if (this.channel != null) {
+			this.flushBuffer();
+			this.channel.force(false);
+			this.fileOutputStream.close();
+			this.channel = null; // NOPMD (null)
+			this.fileOutputStream = null; // NOPMD (null)
+		} else if (this.compressedOutputStream != null) {
+			this.flushBuffer();
+			this.compressedOutputStream.close();
+			this.compressedOutputStream = null; // NOPMD (null)
+		}
+		if (this.index != null) {
+			this.index.write(BlockIndex.getIndexFile(new File(this.currentFilename)));
+			this.index = null; // NOPMD (null)
+			this.block = null; // NOPMD (null)
+		}
+	}
+
+	/**
+	 * The size and the position of the trace id of the serialized records of a type.
+	 */
+	private static final class BatchRecordLayout {
+		final int size; // NOCS NOPMD (package visible for outer class)
+		final int traceIdOffset; // NOCS NOPMD (package visible for outer class)
+
+		BatchRecordLayout(final int size, final int traceIdOffset) {
+			this.size = size;
+			this.traceIdOffset = traceIdOffset;
 		}
 	}
 }
@@ -0,0 +1,184 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.filesystem.async;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.BlockingQueue;
+
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.common.util.registry.IRegistry;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.writer.filesystem.map.MappingFileWriter;
+
+/**
+ * Writes the records directly into memory-mapped segment files of a fixed size. Each segment starts with a header containing the number of valid bytes in
+ * the segment, followed by the records in the usual binary format (record type id, logging timestamp, and the serialized record). The header is updated after
+ * each record, so that a segment remains readable even if the JVM terminates without closing it. When a segment is closed, it is unmapped and truncated to
+ * its actual size. If the JVM does not allow to unmap the segment explicitly, the segment keeps its full size, since a mapped file must not be truncated.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class BinaryMappedFsWriterThread extends AbstractFsWriterThread {
+	private static final Log LOG = LogFactory.getLog(BinaryMappedFsWriterThread.class);
+
+	private RandomAccessFile file;
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+
+	private final int segmentSize;
+	private final IRegistry<String> stringRegistry;
+
+	/**
+	 * Create a new BinaryMappedFsWriterThread.
+	 *
+	 * @param monitoringController
+	 *            the monitoring controller accessed by this thread
+	 * @param writeQueue
+	 *            the queue where the writer fetches its records from
+	 * @param mappingFileWriter
+	 *            writer for the mapping file (the file where class names are mapped to record ids)
+	 * @param path
+	 *            location where to files should go to (the path must point to a directory)
+	 * @param maxEntriesInFile
+	 *            limit for the number of records per log file
+	 * @param maxLogSize
+	 *            limit of the log file size
+	 * @param maxLogFiles
+	 *            limit of the number of log files
+	 * @param segmentSize
+	 *            size of each memory-mapped segment file in bytes
+	 */
+	public BinaryMappedFsWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
+			final MappingFileWriter mappingFileWriter, final String path, final int maxEntriesInFile, final int maxLogSize, final int maxLogFiles,
+			final int segmentSize) {
+		super(monitoringController, writeQueue, mappingFileWriter, path, maxEntriesInFile, maxLogSize, maxLogFiles);
+		this.segmentSize = segmentSize;
+		this.stringRegistry = monitoringController.getStringRegistry();
+		this.fileExtension = FSUtil.MAPPED_BINARY_FILE_EXTENSION;
+	}
+
+	@Override
+	protected boolean fitsIntoCurrentFile(final IMonitoringRecord monitoringRecord) {
+		// an empty segment accepts every record (the segment is enlarged if necessary)
+		return ((monitoringRecord.getSize() + 4 + 8) <= this.buffer.remaining()) || (this.buffer.position() == FSUtil.MAPPED_BINARY_HEADER_SIZE);
+	}
+
+	@Override
+	protected void write(final IMonitoringRecord monitoringRecord) throws IOException {
+		final int size = monitoringRecord.getSize() + 4 + 8;
+
+		MappedByteBuffer localBuffer = this.buffer;
+		if (size > localBuffer.remaining()) {
+			// only happens for records exceeding the segment size
+			final int position = localBuffer.position();
+			final MappedByteBuffer oldBuffer = localBuffer;
+			localBuffer = this.channel.map(MapMode.READ_WRITE, 0, position + size);
+			localBuffer.position(position);
+			this.buffer = localBuffer;
+			BinaryMappedFsWriterThread.unmap(oldBuffer);
+		}
+		localBuffer.putInt(this.monitoringController.getUniqueIdForString(monitoringRecord.getClass().getName()));
+		localBuffer.putLong(monitoringRecord.getLoggingTimestamp());
+		monitoringRecord.writeBytes(localBuffer, this.stringRegistry);
+		localBuffer.putLong(0, localBuffer.position() - FSUtil.MAPPED_BINARY_HEADER_SIZE);
+	}
+
+	@Override
+	protected void prepareFile(final String filename) throws IOException {
+		this.closeSegment();
+		this.file = new RandomAccessFile(filename, "rw");
+		this.channel = this.file.getChannel();
+		this.buffer = this.channel.map(MapMode.READ_WRITE, 0, this.segmentSize);
+		this.buffer.putLong(0L);
+	}
+
+	@Override
+	protected void cleanup() {
+		try {
+			this.closeSegment();
+		} catch (final IOException ex) {
+			LOG.error("Failed to close channel.", ex);
+		}
+	}
+
+	/**
+	 * Forces the content of the current segment to the storage device, unmaps it, and truncates the segment file to its actual size.
+	 */
+	private void closeSegment() throws IOException {
+		if (this.file != null) {
+			final MappedByteBuffer localBuffer = this.buffer;
+			final int usedBytes = localBuffer.position();
+			localBuffer.force();
+			this.buffer = null; // NOPMD (null)
+			if (BinaryMappedFsWriterThread.unmap(localBuffer)) {
+				try {
+					this.channel.truncate(usedBytes);
+				} catch (final IOException ex) {
+					// the header still marks the end of the segment
+					LOG.warn("Failed to truncate memory-mapped segment: " + ex.getMessage());
+				}
+			} else if (LOG.isDebugEnabled()) {
+				LOG.debug("Failed to unmap the memory-mapped segment; the segment is not truncated");
+			}
+			this.file.close();
+			this.file = null; // NOPMD (null)
+			this.channel = null; // NOPMD (null)
+		}
+	}
+
+	/**
+	 * Releases the mapping of the given buffer immediately instead of waiting for the garbage collector. The buffer must not be accessed afterwards. As there
+	 * is no public API for this, the cleaner of the buffer is invoked via reflection.
+	 *
+	 * @return true if the buffer has been unmapped, false if the JVM does not allow to unmap it
+	 */
+	private static boolean unmap(final MappedByteBuffer buffer) {
+		try {
+			// Java 9 and later
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			invokeCleaner.invoke(theUnsafe.get(null), buffer);
+			return true;
+		} catch (final NoSuchMethodException ex) { // NOPMD (fall through to the cleaner of earlier Java versions)
+			try {
+				final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				final Object cleaner = cleanerMethod.invoke(buffer);
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+				return true;
+			} catch (final Exception ex2) { // NOPMD NOCS (IllegalCatchCheck)
+				return false;
+			}
+		} catch (final Exception ex) { // NOPMD NOCS (IllegalCatchCheck)
+			return false;
+		}
+	}
+}
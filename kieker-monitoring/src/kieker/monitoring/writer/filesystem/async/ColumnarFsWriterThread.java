@@ -0,0 +1,103 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.filesystem.async;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.filesystem.ColumnarArchiveWriter;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.writer.filesystem.map.MappingFileWriter;
+
+/**
+ * Writes the records into columnar archives (see {@link ColumnarArchiveWriter}). Records of unsupported types are dropped with a warning.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class ColumnarFsWriterThread extends AbstractFsWriterThread {
+	private static final Log LOG = LogFactory.getLog(ColumnarFsWriterThread.class);
+
+	private final int rowGroupSize;
+
+	private ColumnarArchiveWriter archive;
+	private boolean unsupportedTypeWarningShown;
+
+	/**
+	 * Create a new ColumnarFsWriterThread.
+	 *
+	 * @param monitoringController
+	 *            the monitoring controller accessed by this thread
+	 * @param writeQueue
+	 *            the queue where the writer fetches its records from
+	 * @param mappingFileWriter
+	 *            writer for the mapping file (the file where class names are mapped to record ids)
+	 * @param path
+	 *            location where to files should go to (the path must point to a directory)
+	 * @param maxEntriesInFile
+	 *            limit for the number of records per log file
+	 * @param maxLogSize
+	 *            limit of the log file size
+	 * @param maxLogFiles
+	 *            limit of the number of log files
+	 * @param rowGroupSize
+	 *            the number of records per row group
+	 */
+	public ColumnarFsWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
+			final MappingFileWriter mappingFileWriter, final String path, final int maxEntriesInFile, final int maxLogSize, final int maxLogFiles,
+			final int rowGroupSize) {
+		super(monitoringController, writeQueue, mappingFileWriter, path, maxEntriesInFile, maxLogSize, maxLogFiles);
+		this.fileExtension = FSUtil.COLUMNAR_FILE_EXTENSION;
+		this.rowGroupSize = rowGroupSize;
+	}
+
+	@Override
+	protected void write(final IMonitoringRecord monitoringRecord) throws IOException {
+		if (!this.archive.add(monitoringRecord) && !this.unsupportedTypeWarningShown) {
+			this.unsupportedTypeWarningShown = true;
+			LOG.warn("Dropping records of unsupported type " + monitoringRecord.getClass().getName() + " (and possibly further types)");
+		}
+	}
+
+	@Override
+	protected void prepareFile(final String filename) throws IOException {
+		this.closeFile();
+		this.archive = new ColumnarArchiveWriter(new File(filename), this.rowGroupSize);
+	}
+
+	@Override
+	protected void cleanup() {
+		try {
+			this.closeFile();
+		} catch (final IOException ex) {
+			LOG.error("Failed to close archive.", ex);
+		}
+	}
+
+	private void closeFile() throws IOException {
+		if (this.archive != null) {
+			this.archive.close();
+			this.archive = null; // NOPMD (null)
+		}
+	}
+}
@@ -26,6 +26,7 @@ import java.io.UnsupportedEncodingException;
 import java.util.concurrent.BlockingQueue;
 
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.filesystem.AsciiRecordCodec;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.writer.filesystem.map.MappingFileWriter;
 
@@ -39,6 +40,7 @@ public final class FsWriterThread extends AbstractFsWriterThread {
 	private static final String ENCODING = "UTF-8";
 
 	private PrintWriter pos = null; // NOPMD (init for findbugs)
+	private final AsciiRecordCodec asciiCodec = new AsciiRecordCodec();
 	private final boolean autoflush;
 	private final int bufferSize;
 
@@ -74,17 +76,22 @@ public final class FsWriterThread extends AbstractFsWriterThread {
 
 	@Override
 	protected final void write(final IMonitoringRecord monitoringRecord) throws IOException {
-		final Object[] recordFields = monitoringRecord.toArray();
-		final StringBuilder sb = new StringBuilder(256);
-		sb.append('$');
-		sb.append(this.monitoringController.getUniqueIdForString(monitoringRecord.getClass().getName()));
-		sb.append(';');
-		sb.append(monitoringRecord.getLoggingTimestamp());
-		for (final Object recordField : recordFields) {
+		final int classId = this.monitoringController.getUniqueIdForString(monitoringRecord.getClass().getName());
+		// the codec avoids formatting the fields via Object[] and String for all common record types
+		if (!this.asciiCodec.write(monitoringRecord, classId, this.pos)) {
+			final Object[] recordFields = monitoringRecord.toArray();
+			final StringBuilder sb = new StringBuilder(256);
+			sb.append('$');
+			sb.append(classId);
 			sb.append(';');
-			sb.append(String.valueOf(recordField));
+			sb.append(monitoringRecord.getLoggingTimestamp());
+			for (final Object recordField : recordFields) {
+				sb.append(';');
+				sb.append(String.valueOf(recordField));
+			}
+			this.pos.print(sb.toString());
 		}
-		this.pos.println(sb.toString());
+		this.pos.println();
 	}
 
 	/**
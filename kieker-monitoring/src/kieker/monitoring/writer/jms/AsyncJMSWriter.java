@@ -19,6 +19,7 @@ package kieker.monitoring.writer.jms;
 import java.util.Hashtable;
 import java.util.concurrent.BlockingQueue;
 
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.DeliveryMode;
@@ -35,11 +36,15 @@ import kieker.common.configuration.Configuration;
 import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.misc.RegistryRecord;
+import kieker.common.util.frame.RecordBatchEncoder;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.writer.AbstractAsyncThread;
 import kieker.monitoring.writer.AbstractAsyncWriter;
 
 /**
+ * Sends each record as an object message or, if a batch size is configured, many records encoded with a {@link RecordBatchEncoder} as a single bytes
+ * message. A batch is sent as soon as it reaches the batch size or the maximal flush delay has elapsed.
  * 
  * @author Matthias Rohr, Andre van Hoorn, Jan Waller
  * 
@@ -52,12 +57,18 @@ public final class AsyncJMSWriter extends AbstractAsyncWriter {
 	public static final String CONFIG_CONTEXTFACTORYTYPE = PREFIX + "ContextFactoryType"; // NOCS (afterPREFIX)
 	public static final String CONFIG_FACTORYLOOKUPNAME = PREFIX + "FactoryLookupName"; // NOCS (afterPREFIX)
 	public static final String CONFIG_MESSAGETTL = PREFIX + "MessageTimeToLive"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the size of record batches in bytes (0 sends each record as an object message). */
+	public static final String CONFIG_BATCHSIZE = PREFIX + "BatchSize"; // NOCS (afterPREFIX)
+	/** The name of the configuration property for the maximal time (in milliseconds) a record is delayed in an incomplete batch. */
+	public static final String CONFIG_MAXFLUSHDELAY = PREFIX + "MaxFlushDelay"; // NOCS (afterPREFIX)
 
 	private final String configContextFactoryType;
 	private final String configProviderUrl;
 	private final String configFactoryLookupName;
 	private final String configTopic;
 	private final long configMessageTimeToLive;
+	private final int configBatchSize;
+	private final long configMaxFlushDelay;
 
 	/**
 	 * Creates a new instance of this class using the given parameters.
@@ -72,14 +83,20 @@ public final class AsyncJMSWriter extends AbstractAsyncWriter {
 		this.configFactoryLookupName = configuration.getStringProperty(CONFIG_FACTORYLOOKUPNAME);
 		this.configTopic = configuration.getStringProperty(CONFIG_TOPIC);
 		this.configMessageTimeToLive = configuration.getLongProperty(CONFIG_MESSAGETTL);
+		this.configBatchSize = configuration.getIntProperty(CONFIG_BATCHSIZE);
+		this.configMaxFlushDelay = configuration.getLongProperty(CONFIG_MAXFLUSHDELAY);
 	}
 
 	@Override
 	protected void init() throws Exception {
-		this.addWorker(new JMSWriterThread(this.monitoringController, this.blockingQueue, this.configContextFactoryType,
-				this.configProviderUrl, this.configFactoryLookupName, this.configTopic, this.configMessageTimeToLive));
+		final JMSWriterThread recordWorker = new JMSWriterThread(this.monitoringController, this.blockingQueue, this.configContextFactoryType,
+				this.configProviderUrl, this.configFactoryLookupName, this.configTopic, this.configMessageTimeToLive, this.configBatchSize);
+		if (this.configBatchSize > 0) {
+			recordWorker.setMaxFlushDelay(this.configMaxFlushDelay);
+		}
+		this.addWorker(recordWorker);
 		this.addWorker(new JMSWriterThread(this.monitoringController, this.prioritizedBlockingQueue, this.configContextFactoryType,
-				this.configProviderUrl, this.configFactoryLookupName, this.configTopic, this.configMessageTimeToLive));
+				this.configProviderUrl, this.configFactoryLookupName, this.configTopic, this.configMessageTimeToLive, this.configBatchSize));
 	}
 }
 
@@ -102,10 +119,15 @@ final class JMSWriterThread extends AbstractAsyncThread {
 	private Session session;
 	private Connection connection;
 	private MessageProducer sender;
+	/** The size of the record batches in bytes (0 if records are sent as object messages). */
+	private final int batchSize;
+	/** The encoder of the current batch (created with the first batched record, i.e., never for the worker of the registry records). */
+	private RecordBatchEncoder batchEncoder;
 
 	public JMSWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue, final String contextFactoryType,
-			final String providerUrl, final String factoryLookupName, final String topic, final long messageTimeToLive) throws Exception {
+			final String providerUrl, final String factoryLookupName, final String topic, final long messageTimeToLive, final int batchSize) throws Exception {
 		super(monitoringController, writeQueue);
+		this.batchSize = batchSize;
 		try {
 			final Hashtable<String, String> properties = new Hashtable<String, String>(); // NOPMD NOCS (IllegalTypeCheck, InitialContext requires Hashtable)
 			properties.put(Context.INITIAL_CONTEXT_FACTORY, contextFactoryType);
@@ -166,15 +188,49 @@ final class JMSWriterThread extends AbstractAsyncThread {
 
 	@Override
 	protected final void consume(final IMonitoringRecord monitoringRecord) throws Exception {
-		try {
-			this.sender.send(this.session.createObjectMessage(monitoringRecord));
-		} catch (final JMSException ex) {
-			throw new Exception("Error sending jms message", ex);
+		if (this.batchSize <= 0) {
+			try {
+				this.sender.send(this.session.createObjectMessage(monitoringRecord));
+			} catch (final JMSException ex) {
+				throw new Exception("Error sending jms message", ex);
+			}
+		} else if (!(monitoringRecord instanceof RegistryRecord)) { // each batch contains its strings
+			RecordBatchEncoder encoder = this.batchEncoder;
+			if (encoder == null) {
+				encoder = new RecordBatchEncoder(this.batchSize);
+				this.batchEncoder = encoder;
+			}
+			if (!encoder.add(monitoringRecord)) {
+				this.flush();
+				encoder.add(monitoringRecord);
+			}
+		}
+	}
+
+	/**
+	 * Sends the current batch of records (if any).
+	 */
+	@Override
+	protected final void flush() throws Exception {
+		final RecordBatchEncoder encoder = this.batchEncoder;
+		if ((encoder != null) && !encoder.isEmpty()) {
+			try {
+				final BytesMessage message = this.session.createBytesMessage();
+				message.writeBytes(encoder.encode());
+				this.sender.send(message);
+			} catch (final JMSException ex) {
+				throw new Exception("Error sending jms message", ex);
+			}
 		}
 	}
 
 	@Override
 	protected final void cleanup() {
+		try {
+			this.flush();
+		} catch (final Exception ex) { // NOPMD NOCS (IllegalCatchCheck)
+			JMSWriterThread.LOG.error("Error sending the last batch of records", ex);
+		}
 		try {
 			if (this.sender != null) {
 				this.sender.close();
@@ -0,0 +1,178 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.monitoring.writer.namedRecordPipe;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.logging.Log;
+import kieker.common.logging.LogFactory;
+import kieker.common.namedRecordPipe.Broker;
+import kieker.common.namedRecordPipe.Pipe;
+import kieker.common.record.IMonitoringRecord;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.writer.AbstractAsyncThread;
+import kieker.monitoring.writer.AbstractAsyncWriter;
+
+/**
+ * An asynchronous variant of the {@link PipeWriter}. The records are passed to the pipe by a dedicated thread instead of the monitored thread. Hence, an
+ * analysis reading from the pipe (e.g., using the {@code PipeReader}) runs decoupled from the monitored application. The behavior in case of a full queue
+ * ({@code QueueFullBehavior}), the queue implementation ({@code QueueType}), and the number of records delivered at once ({@code QueueDrainBatchSize}) are
+ * configured like for every other asynchronous writer.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public final class AsyncPipeWriter extends AbstractAsyncWriter {
+	private static final String PREFIX = AsyncPipeWriter.class.getName() + ".";
+	/** The name of the configuration property for the name of the pipe. */
+	public static final String CONFIG_PIPENAME = PREFIX + "pipeName"; // NOCS (afterPREFIX)
+
+	private final Pipe pipe;
+	private final AtomicInteger activeWorkers = new AtomicInteger();
+	private final AtomicLong deliveredRecords = new AtomicLong();
+	private final AtomicLong undeliveredRecords = new AtomicLong();
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 * 
+	 * @param configuration
+	 *            The configuration used to initialize the pipe writer.
+	 */
+	public AsyncPipeWriter(final Configuration configuration) {
+		super(configuration);
+		final String pipeName = configuration.getStringProperty(CONFIG_PIPENAME);
+		if (pipeName.length() == 0) {
+			throw new IllegalArgumentException("Invalid or missing value for property '" + CONFIG_PIPENAME + "': '" + pipeName + "'");
+		}
+		this.pipe = Broker.INSTANCE.acquirePipe(pipeName);
+	}
+
+	@Override
+	protected void init() throws Exception {
+		this.activeWorkers.set(2);
+		this.addWorker(new PipeWriterThread(super.monitoringController, super.blockingQueue, this.pipe, this.activeWorkers, this.deliveredRecords,
+				this.undeliveredRecords));
+		this.addWorker(new PipeWriterThread(super.monitoringController, super.prioritizedBlockingQueue, this.pipe, this.activeWorkers, this.deliveredRecords,
+				this.undeliveredRecords));
+	}
+
+	/**
+	 * Delivers the number of records which have been passed to the pipe reader so far.
+	 * 
+	 * @return The number of delivered records.
+	 */
+	public long getDeliveredRecords() {
+		return this.deliveredRecords.get();
+	}
+
+	/**
+	 * Delivers the number of records which have been rejected by the pipe so far, e.g., because no reader has been registered yet.
+	 * 
+	 * @return The number of undelivered records.
+	 */
+	public long getUndeliveredRecords() {
+		return this.undeliveredRecords.get();
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder(128);
+		sb.append(super.toString());
+		sb.append("\n\tConnected to pipe: '");
+		sb.append(this.pipe.getName());
+		sb.append("'\n\tRecords delivered: ");
+		sb.append(this.deliveredRecords.get());
+		sb.append("\n\tRecords undelivered: ");
+		sb.append(this.undeliveredRecords.get());
+		return sb.toString();
+	}
+}
+
+/**
+ * Passes the records of a queue to the pipe. The last finishing thread closes the pipe.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+final class PipeWriterThread extends AbstractAsyncThread {
+	private static final Log LOG = LogFactory.getLog(PipeWriterThread.class);
+
+	private final Pipe pipe;
+	private final AtomicInteger activeWorkers;
+	private final AtomicLong deliveredRecords;
+	private final AtomicLong undeliveredRecords;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 * 
+	 * @param monitoringController
+	 *            The monitoring controller accessing this thread.
+	 * @param writeQueue
+	 *            The queue where the writer reads the records from.
+	 * @param pipe
+	 *            The pipe the records are passed to.
+	 * @param activeWorkers
+	 *            The number of threads of the writer which have not finished yet.
+	 * @param deliveredRecords
+	 *            The counter for records accepted by the pipe.
+	 * @param undeliveredRecords
+	 *            The counter for records rejected by the pipe.
+	 */
+	public PipeWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue, final Pipe pipe,
+			final AtomicInteger activeWorkers, final AtomicLong deliveredRecords, final AtomicLong undeliveredRecords) {
+		super(monitoringController, writeQueue);
+		this.pipe = pipe;
+		this.activeWorkers = activeWorkers;
+		this.deliveredRecords = deliveredRecords;
+		this.undeliveredRecords = undeliveredRecords;
+	}
+
+	@Override
+	protected void consume(final IMonitoringRecord monitoringRecord) {
+		if (this.pipe.writeMonitoringRecord(monitoringRecord)) {
+			this.deliveredRecords.incrementAndGet();
+		} else {
+			final long tmpUndeliveredRecords = this.undeliveredRecords.incrementAndGet();
+			if ((tmpUndeliveredRecords % 1024) == 1) {
+				// warn upon the first failed element and upon all 1024th one
+				LOG.warn("Failed to pass record to pipe '" + this.pipe.getName() + "'. Current number of undelivered records: " + tmpUndeliveredRecords);
+			}
+		}
+	}
+
+	@Override
+	protected void cleanup() {
+		if (this.activeWorkers.decrementAndGet() == 0) {
+			this.pipe.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder(64);
+		sb.append(super.toString());
+		sb.append("; Pipe: '");
+		sb.append(this.pipe.getName());
+		sb.append('\'');
+		return sb.toString();
+	}
+}
@@ -19,6 +19,7 @@ import kieker.common.configuration.Configuration;
 import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.util.frame.FrameCompression;
 import kieker.monitoring.writer.AbstractAsyncWriter;
 
 /**
@@ -35,6 +36,9 @@ public class SingleSocketTcpWriter extends AbstractAsyncWriter {
 	public static final String CONFIG_PORT1 = PREFIX + "port1"; // NOCS (afterPREFIX)
 	public static final String CONFIG_BUFFERSIZE = PREFIX + "bufferSize"; // NOCS (afterPREFIX)
 	public static final String CONFIG_FLUSH = PREFIX + "flush"; // NOCS (afterPREFIX)
+	public static final String CONFIG_MAXFLUSHDELAY = PREFIX + "maxFlushDelay"; // NOCS (afterPREFIX)
+	public static final String CONFIG_FRAMED = PREFIX + "framed"; // NOCS (afterPREFIX)
+	public static final String CONFIG_COMPRESSION = PREFIX + "compression"; // NOCS (afterPREFIX)
 
 	// private Queue<IMonitoringRecord> queue;
 
@@ -42,6 +46,8 @@ public class SingleSocketTcpWriter extends AbstractAsyncWriter {
 	private final int port1;
 	private final int bufferSize;
 	private final boolean flush;
+	private final long maxFlushDelay;
+	private final FrameCompression frameCompression;
 
 	private SingleSocketTcpWriterThread worker;
 
@@ -51,23 +57,53 @@ public class SingleSocketTcpWriter extends AbstractAsyncWriter {
 		this.port1 = configuration.getIntProperty(CONFIG_PORT1);
 		this.bufferSize = configuration.getIntProperty(CONFIG_BUFFERSIZE);
 		this.flush = configuration.getBooleanProperty(CONFIG_FLUSH);
+		this.maxFlushDelay = configuration.getLongProperty(CONFIG_MAXFLUSHDELAY);
+		if (configuration.getBooleanProperty(CONFIG_FRAMED)) {
+			final String compression = configuration.getStringProperty(CONFIG_COMPRESSION);
+			FrameCompression frameCompressionTmp;
+			try {
+				frameCompressionTmp = FrameCompression.valueOf(compression);
+			} catch (final IllegalArgumentException ex) {
+				LOG.warn("Invalid value '" + compression + "' for " + CONFIG_COMPRESSION + "; using default value " + FrameCompression.NONE);
+				frameCompressionTmp = FrameCompression.NONE;
+			}
+			this.frameCompression = frameCompressionTmp;
+		} else {
+			this.frameCompression = null;
+		}
 	}
 
 	@Override
 	protected void init() throws Exception {
-		this.worker = new SingleSocketTcpWriterThread(this.monitoringController, this.blockingQueue, this.hostname, this.port1, this.bufferSize, this.flush);
+		this.worker = new SingleSocketTcpWriterThread(this.monitoringController, this.blockingQueue, this.hostname, this.port1, this.bufferSize, this.flush,
+				this.frameCompression);
+		this.worker.setMaxFlushDelay(this.maxFlushDelay);
 		this.addWorker(this.worker);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @since 1.13
+	 */
+	@Override
+	public boolean supportsSerializedRecordBatches() {
+		return true;
+	}
+
 	@Override
-	// only invoked by the WriterController and only by the worker thread.
-	// hence, it does not need to be synchronized.
-	// it must not be added to the blockingQueue because the currently serialized record would then be transferred before its class name.
+	// only invoked by the WriterController, mostly by the worker thread.
+	// in this case, it must not be added to the blockingQueue because the currently serialized record would then be transferred before its class name.
+	// strings registered by other threads (e.g., while serializing a SerializedRecordBatch) are passed through the blockingQueue instead, since the buffer
+	// of the worker must only be accessed by the worker itself. As the registering thread passes its records afterwards, they still follow their strings.
 	public boolean newMonitoringRecordNonBlocking(final IMonitoringRecord monitoringRecord) {
-		// delegates string registry records to the worker directly and thus ignores the prioritizedBlockingQueue
 		try {
-			this.worker.consume(monitoringRecord);
-			// this.blockingQueue.add(monitoringRecord);
+			if (Thread.currentThread() == this.worker) { // NOPMD (CompareObjectsWithEquals)
+				// delegates string registry records to the worker directly and thus ignores the prioritizedBlockingQueue
+				this.worker.consume(monitoringRecord);
+			} else {
+				this.blockingQueue.put(monitoringRecord);
+			}
 			return true;
 		} catch (final Exception e) { // NOPMD (must be caught due to Kieker's bad API)
 			LOG.warn("An exception occurred while consuming a registry record.", e);
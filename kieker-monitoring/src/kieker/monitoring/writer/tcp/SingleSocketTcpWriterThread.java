@@ -25,10 +25,14 @@ import kieker.common.logging.Log;
 import kieker.common.logging.LogFactory;
 import kieker.common.record.AbstractMonitoringRecord;
 import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.misc.RegistryRecord;
+import kieker.common.util.frame.FrameCompression;
+import kieker.common.util.frame.FrameEncoder;
 import kieker.common.util.registry.IRegistry;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.writer.AbstractAsyncThread;
 import kieker.monitoring.writer.RecordSerializer;
+import kieker.monitoring.writer.SerializedRecordBatch;
 
 /**
  * @author Christian Wulf
@@ -41,53 +45,113 @@ class SingleSocketTcpWriterThread extends AbstractAsyncThread {
 	private final SocketChannel socketChannel;
 	private final ByteBuffer byteBuffer;
 	private final boolean flush;
+	private final IRegistry<String> stringRegistry;
 	private final RecordSerializer recordSerializer;
+	/** The encoder of the frames (null if the records are not framed). */
+	private final FrameEncoder frameEncoder;
 
 	public SingleSocketTcpWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue, final String hostname,
 			final int port, final int bufferSize, final boolean flush) throws IOException {
+		this(monitoringController, writeQueue, hostname, port, bufferSize, flush, null);
+	}
+
+	/**
+	 * @param frameCompression
+	 *            the compression of the frames or null if the records are sent without frames
+	 *
+	 * @since 1.13
+	 */
+	public SingleSocketTcpWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue, final String hostname,
+			final int port, final int bufferSize, final boolean flush, final FrameCompression frameCompression) throws IOException {
 		super(monitoringController, writeQueue);
-		this.byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+		if (null == frameCompression) {
+			this.frameEncoder = null;
+			this.byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+		} else {
+			this.frameEncoder = new FrameEncoder(bufferSize, frameCompression);
+			this.byteBuffer = this.frameEncoder.getPayload();
+		}
 		this.socketChannel = SocketChannel.open(new InetSocketAddress(hostname, port));
 		this.flush = flush;
-		final IRegistry<String> stringRegistry = this.monitoringController.getStringRegistry();
-		this.recordSerializer = new RecordSerializer(stringRegistry);
+		this.stringRegistry = this.monitoringController.getStringRegistry();
+		this.recordSerializer = new RecordSerializer(this.stringRegistry);
 	}
 
 	@Override
 	protected void consume(final IMonitoringRecord monitoringRecord) throws Exception {
+		if (!(monitoringRecord instanceof RegistryRecord)) {
+			// register the strings first, since the resulting registry records are written into the buffer immediately
+			monitoringRecord.registerStrings(this.stringRegistry);
+			this.stringRegistry.get(monitoringRecord.getClass().getName());
+		}
+
 		final ByteBuffer buffer = this.byteBuffer;
 		final int requiredBufferSize = monitoringRecord.getSize() + AbstractMonitoringRecord.TYPE_SIZE_INT + AbstractMonitoringRecord.TYPE_SIZE_LONG;
 
 		if (requiredBufferSize > buffer.remaining()) {
-			buffer.flip();
-			while (buffer.hasRemaining()) {
-				this.socketChannel.write(buffer);
-			}
-			buffer.clear();
+			this.send();
 		}
 
 		this.recordSerializer.serialize(monitoringRecord, buffer);
 
 		if (this.flush) {
-			buffer.flip();
-			while (buffer.hasRemaining()) {
-				this.socketChannel.write(buffer);
+			this.send();
+		}
+	}
+
+	/**
+	 * {@inheritDoc} The batch already contains the records in the binary format, hence its content is copied into the buffer (and thus into a frame) as a
+	 * whole or, if it does not fit, record by record.
+	 */
+	@Override
+	protected void consumeBatch(final SerializedRecordBatch batch) throws IOException {
+		final ByteBuffer buffer = this.byteBuffer;
+		while (!batch.transferTo(buffer)) {
+			if (buffer.position() == 0) {
+				throw new IOException("A record of the batch exceeds the buffer size of " + buffer.capacity() + " bytes");
 			}
-			buffer.clear();
+			this.send();
+		}
+		if (this.flush) {
+			this.send();
 		}
 	}
 
+	@Override
+	protected void flush() throws IOException {
+		this.send();
+	}
+
+	/**
+	 * Sends the buffered records, as a frame if configured.
+	 */
+	private void send() throws IOException {
+		final ByteBuffer buffer;
+		if (null == this.frameEncoder) {
+			buffer = this.byteBuffer;
+			buffer.flip();
+		} else if (this.frameEncoder.isEmpty()) {
+			return;
+		} else {
+			buffer = this.frameEncoder.encode();
+		}
+		while (buffer.hasRemaining()) {
+			this.socketChannel.write(buffer);
+		}
+		this.byteBuffer.clear();
+	}
+
 	@Override
 	protected void cleanup() {
 		try {
-			final ByteBuffer buffer = this.byteBuffer;
-			buffer.flip();
-			while (buffer.hasRemaining()) {
-				this.socketChannel.write(buffer);
-			}
+			this.send();
 			this.socketChannel.close();
 		} catch (final IOException ex) {
 			LOG.error("Error closing connection", ex);
+		} finally {
+			if (null != this.frameEncoder) {
+				this.frameEncoder.close();
+			}
 		}
 	}
 }
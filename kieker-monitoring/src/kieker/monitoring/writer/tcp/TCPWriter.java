@@ -31,6 +31,7 @@ import kieker.common.util.registry.IRegistry;
 import kieker.monitoring.core.controller.IMonitoringController;
 import kieker.monitoring.writer.AbstractAsyncThread;
 import kieker.monitoring.writer.AbstractAsyncWriter;
+import kieker.monitoring.writer.SerializedRecordBatch;
 
 /**
  * 
@@ -45,12 +46,14 @@ public final class TCPWriter extends AbstractAsyncWriter {
 	public static final String CONFIG_PORT2 = PREFIX + "port2"; // NOCS (afterPREFIX)
 	public static final String CONFIG_BUFFERSIZE = PREFIX + "bufferSize"; // NOCS (afterPREFIX)
 	public static final String CONFIG_FLUSH = PREFIX + "flush"; // NOCS (afterPREFIX)
+	public static final String CONFIG_MAXFLUSHDELAY = PREFIX + "maxFlushDelay"; // NOCS (afterPREFIX)
 
 	private final String hostname;
 	private final int port1;
 	private final int port2;
 	private final int bufferSize;
 	private final boolean flush;
+	private final long maxFlushDelay;
 
 	public TCPWriter(final Configuration configuration) {
 		super(configuration);
@@ -60,13 +63,27 @@ public final class TCPWriter extends AbstractAsyncWriter {
 		// should be check for buffers too small for a single record?
 		this.bufferSize = configuration.getIntProperty(CONFIG_BUFFERSIZE);
 		this.flush = configuration.getBooleanProperty(CONFIG_FLUSH);
+		this.maxFlushDelay = configuration.getLongProperty(CONFIG_MAXFLUSHDELAY);
 	}
 
 	@Override
 	protected void init() throws Exception {
-		this.addWorker(new TCPWriterThread(this.monitoringController, this.blockingQueue, this.hostname, this.port1, this.bufferSize, this.flush));
+		final TCPWriterThread recordWorker = new TCPWriterThread(this.monitoringController, this.blockingQueue, this.hostname, this.port1, this.bufferSize,
+				this.flush);
+		recordWorker.setMaxFlushDelay(this.maxFlushDelay);
+		this.addWorker(recordWorker);
 		this.addWorker(new TCPWriterThread(this.monitoringController, this.prioritizedBlockingQueue, this.hostname, this.port2, this.bufferSize, this.flush));
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @since 1.13
+	 */
+	@Override
+	public boolean supportsSerializedRecordBatches() {
+		return true;
+	}
 }
 
 /**
@@ -123,6 +140,36 @@ final class TCPWriterThread extends AbstractAsyncThread {
 		}
 	}
 
+	/**
+	 * {@inheritDoc} The batch already contains the records in the binary format, hence its content is copied into the buffer as a whole or, if it does not
+	 * fit, record by record.
+	 */
+	@Override
+	protected void consumeBatch(final SerializedRecordBatch batch) throws IOException {
+		final ByteBuffer buffer = this.byteBuffer;
+		while (!batch.transferTo(buffer)) {
+			if (buffer.position() == 0) {
+				throw new IOException("A record of the batch exceeds the buffer size of " + buffer.capacity() + " bytes");
+			}
+			this.flush();
+		}
+		if (this.flush) {
+			this.flush();
+		}
+	}
+
+	@Override
+	protected void flush() throws IOException {
+		final ByteBuffer buffer = this.byteBuffer;
+		if (buffer.position() > 0) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				this.socketChannel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+
 	@Override
 	protected void cleanup() {
 		try {
@@ -0,0 +1,171 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.junit.core.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.namedRecordPipe.Broker;
+import kieker.common.namedRecordPipe.IPipeReader;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.misc.EmptyRecord;
+import kieker.common.record.misc.TraceSamplingRecord;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.core.registry.TraceRegistry;
+import kieker.monitoring.writer.AbstractAsyncWriter;
+import kieker.monitoring.writer.namedRecordPipe.AsyncPipeWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+import kieker.test.monitoring.util.NamedPipeFactory;
+
+/**
+ * Tests the adaptive sampling of traces depending on the fill level of the queue of the writer.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestAdaptiveTraceSampling extends AbstractKiekerTest {
+
+	private static final int QUEUE_SIZE = 8;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestAdaptiveTraceSampling() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests whether the sampling rate follows the fill level of the queue and whether the records of unsampled traces are dropped.
+	 * 
+	 * @throws InterruptedException
+	 *             If the test has been interrupted.
+	 */
+	@Test
+	public void testSamplingFollowsQueueFillLevel() throws InterruptedException {
+		final String pipeName = NamedPipeFactory.createPipeName();
+		final List<IMonitoringRecord> receivedRecords = Collections.synchronizedList(new ArrayList<IMonitoringRecord>());
+		final CountDownLatch analysisEntered = new CountDownLatch(1);
+		final CountDownLatch analysisBlocked = new CountDownLatch(1);
+		final CountDownLatch pipeClosed = new CountDownLatch(1);
+		Broker.INSTANCE.acquirePipe(pipeName).setPipeReader(new IPipeReader() {
+
+			@Override
+			public boolean newMonitoringRecord(final IMonitoringRecord record) {
+				analysisEntered.countDown();
+				try {
+					analysisBlocked.await();
+				} catch (final InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return receivedRecords.add(record);
+			}
+
+			@Override
+			public void notifyPipeClosed() {
+				pipeClosed.countDown();
+			}
+		});
+
+		final String writerPrefix = AsyncPipeWriter.class.getName() + ".";
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, AsyncPipeWriter.class.getName());
+		configuration.setProperty(AsyncPipeWriter.CONFIG_PIPENAME, pipeName);
+		configuration.setProperty(writerPrefix + AbstractAsyncWriter.CONFIG_QUEUESIZE, Integer.toString(QUEUE_SIZE));
+		configuration.setProperty(writerPrefix + AbstractAsyncWriter.CONFIG_BEHAVIOR, "2");
+		configuration.setProperty(writerPrefix + AbstractAsyncWriter.CONFIG_DRAIN_BATCHSIZE, "1");
+		configuration.setProperty(ConfigurationFactory.TRACE_SAMPLING, "true");
+		configuration.setProperty(ConfigurationFactory.TRACE_SAMPLING_LOW_WATERMARK, "0.5");
+		configuration.setProperty(ConfigurationFactory.TRACE_SAMPLING_HIGH_WATERMARK, "0.9");
+		configuration.setProperty(ConfigurationFactory.TRACE_SAMPLING_MIN_RATE, "0.25");
+		configuration.setProperty(ConfigurationFactory.TRACE_SAMPLING_UPDATE_INTERVAL, "0");
+		final IMonitoringController monitoringController = MonitoringController.createInstance(configuration);
+
+		Assert.assertTrue("Traces must be sampled with an empty queue", monitoringController.isNewTraceSampled());
+
+		// the analysis is blocked, hence the queue fills up
+		int sampledTraces = 0;
+		try {
+			monitoringController.newMonitoringRecord(new EmptyRecord());
+			Assert.assertTrue("Record not passed to the analysis", analysisEntered.await(10, TimeUnit.SECONDS));
+			for (int i = 0; i < QUEUE_SIZE; i++) {
+				monitoringController.newMonitoringRecord(new EmptyRecord());
+			}
+			for (int i = 0; i < 100; i++) {
+				if (monitoringController.isNewTraceSampled()) {
+					sampledTraces++;
+				}
+			}
+		} finally {
+			analysisBlocked.countDown();
+		}
+		Assert.assertEquals("Unexpected number of sampled traces with a full queue", 25, sampledTraces);
+
+		final long deadline = System.currentTimeMillis() + 10000;
+		while ((TestAdaptiveTraceSampling.count(receivedRecords, EmptyRecord.class) <= QUEUE_SIZE) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(10);
+		}
+		for (int i = 0; i < 100; i++) {
+			Assert.assertTrue("Traces must be sampled again with an empty queue", monitoringController.isNewTraceSampled());
+		}
+
+		monitoringController.newMonitoringRecord(new BeforeOperationEvent(1L, TraceRegistry.UNSAMPLED_TRACE_ID, 0, "op", "clazz"));
+		monitoringController.newMonitoringRecord(new BeforeOperationEvent(2L, 42L, 0, "op", "clazz"));
+		monitoringController.terminateMonitoring();
+		Assert.assertTrue("Pipe not closed", pipeClosed.await(10, TimeUnit.SECONDS));
+
+		Assert.assertEquals("Records of unsampled traces must be dropped", 1, TestAdaptiveTraceSampling.count(receivedRecords, BeforeOperationEvent.class));
+		final List<Double> samplingRates = new ArrayList<Double>();
+		synchronized (receivedRecords) {
+			for (final IMonitoringRecord record : receivedRecords) {
+				if (record instanceof TraceSamplingRecord) {
+					samplingRates.add(((TraceSamplingRecord) record).getSamplingRate());
+				} else if (record instanceof BeforeOperationEvent) {
+					Assert.assertEquals("Unexpected trace", 42L, ((BeforeOperationEvent) record).getTraceId());
+				}
+			}
+		}
+		Collections.sort(samplingRates);
+		Assert.assertEquals("Unexpected number of sampling rate changes", 2, samplingRates.size());
+		Assert.assertEquals("Unexpected minimal sampling rate", 0.25, samplingRates.get(0), 0.0001);
+		Assert.assertEquals("Unexpected final sampling rate", 1.0, samplingRates.get(1), 0.0001);
+	}
+
+	private static int count(final List<IMonitoringRecord> records, final Class<? extends IMonitoringRecord> type) {
+		int count = 0;
+		synchronized (records) {
+			for (final IMonitoringRecord record : records) {
+				if (type.isInstance(record)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+}
@@ -30,6 +30,7 @@ import java.io.UnsupportedEncodingException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -198,6 +199,28 @@ public class TestProbeController extends AbstractKiekerTest {
 
 	}
 
+	/**
+	 * Test if the probe pattern version changes with each modification of the probe patterns, such that probes caching their activation state notice it.
+	 */
+	@Test
+	public void testProbePatternVersion() {
+		final Configuration configuration = ConfigurationFactory.createSingletonConfiguration();
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, DummyWriter.class.getName());
+		configuration.setProperty(ConfigurationFactory.ADAPTIVE_MONITORING_ENABLED, "true");
+		final IMonitoringController ctrl = MonitoringController.createInstance(configuration);
+		final int initialVersion = ctrl.getProbePatternVersion();
+		Assert.assertTrue(ctrl.isProbeActivated("void test.Test()"));
+		Assert.assertEquals(initialVersion, ctrl.getProbePatternVersion());
+		ctrl.deactivateProbe("*");
+		final int deactivatedVersion = ctrl.getProbePatternVersion();
+		Assert.assertTrue(deactivatedVersion != initialVersion);
+		Assert.assertFalse(ctrl.isProbeActivated("void test.Test()"));
+		ctrl.setProbePatternList(Collections.singletonList("+*"));
+		Assert.assertTrue(ctrl.getProbePatternVersion() != deactivatedVersion);
+		Assert.assertTrue(ctrl.isProbeActivated("void test.Test()"));
+		ctrl.terminateMonitoring();
+	}
+
 	/**
 	 * Test if automated reading from test file works.
 	 * 
@@ -336,6 +359,51 @@ public class TestProbeController extends AbstractKiekerTest {
 		ctrl.terminateMonitoring();
 	}
 
+	/**
+	 * Test that cached decisions are updated by later pattern changes.
+	 */
+	@Test
+	public void testCachedDecisionsAfterPatternChanges() {
+		final Configuration configuration = ConfigurationFactory.createSingletonConfiguration();
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, DummyWriter.class.getName());
+		configuration.setProperty(ConfigurationFactory.ADAPTIVE_MONITORING_ENABLED, "true");
+		configuration.setProperty(ConfigurationFactory.ADAPTIVE_MONITORING_CONFIG_FILE, this.configFile.getAbsolutePath());
+		final IMonitoringController ctrl = MonitoringController.createInstance(configuration);
+
+		final String signatureGet = "public void kieker.test.Clazz.get()";
+		final String signatureSet = "public void kieker.test.Clazz.set(int)";
+		final String signatureOther = "public void kieker.other.Other.run()";
+
+		// fill the cache
+		Assert.assertTrue(ctrl.isProbeActivated(signatureGet));
+		Assert.assertTrue(ctrl.isProbeActivated(signatureSet));
+		Assert.assertTrue(ctrl.isProbeActivated(signatureOther));
+
+		Assert.assertTrue(ctrl.deactivateProbe("* kieker.test.*.*(..)"));
+		Assert.assertFalse(ctrl.isProbeActivated(signatureGet));
+		Assert.assertFalse(ctrl.isProbeActivated(signatureSet));
+		Assert.assertTrue(ctrl.isProbeActivated(signatureOther));
+
+		Assert.assertTrue(ctrl.activateProbe("* kieker.test.Clazz.get()"));
+		Assert.assertTrue(ctrl.isProbeActivated(signatureGet));
+		Assert.assertFalse(ctrl.isProbeActivated(signatureSet));
+		Assert.assertTrue(ctrl.isProbeActivated(signatureOther));
+
+		final List<String> patterns = new ArrayList<String>();
+		patterns.add("-*");
+		patterns.add("+* kieker.test.Clazz.set(..)");
+		ctrl.setProbePatternList(patterns);
+		Assert.assertFalse(ctrl.isProbeActivated(signatureGet));
+		Assert.assertTrue(ctrl.isProbeActivated(signatureSet));
+		Assert.assertFalse(ctrl.isProbeActivated(signatureOther));
+
+		ctrl.setProbePatternList(new ArrayList<String>(0));
+		Assert.assertTrue(ctrl.isProbeActivated(signatureGet));
+		Assert.assertTrue(ctrl.isProbeActivated(signatureSet));
+		Assert.assertTrue(ctrl.isProbeActivated(signatureOther));
+		ctrl.terminateMonitoring();
+	}
+
 	/**
 	 * Test if activation and deactivation work for sample probes.
 	 */
@@ -0,0 +1,150 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.test.monitoring.junit.core.registry;
+
+import java.lang.reflect.Field;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.monitoring.core.registry.ControlFlowRegistry;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the thread-local control flow information of the {@link ControlFlowRegistry}.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestControlFlowRegistry extends AbstractKiekerTest {
+
+	private static final ControlFlowRegistry CFREGISTRY = ControlFlowRegistry.INSTANCE;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestControlFlowRegistry() {
+		// empty default constructor
+	}
+
+	/**
+	 * Unsets all thread-local information after each test.
+	 */
+	@After
+	public void cleanup() {
+		CFREGISTRY.unsetThreadLocalTraceId();
+		CFREGISTRY.unsetThreadLocalEOI();
+		CFREGISTRY.unsetThreadLocalESS();
+	}
+
+	/**
+	 * Tests storing, recalling, and unsetting the trace id.
+	 */
+	@Test
+	public void testTraceId() {
+		Assert.assertEquals(-1L, CFREGISTRY.recallThreadLocalTraceId());
+		final long traceId = CFREGISTRY.getAndStoreUniqueThreadLocalTraceId();
+		Assert.assertEquals(traceId, CFREGISTRY.recallThreadLocalTraceId());
+		CFREGISTRY.storeThreadLocalTraceId(17L);
+		Assert.assertEquals(17L, CFREGISTRY.recallThreadLocalTraceId());
+		CFREGISTRY.unsetThreadLocalTraceId();
+		Assert.assertEquals(-1L, CFREGISTRY.recallThreadLocalTraceId());
+	}
+
+	/**
+	 * Tests the execution order index and the execution stack size as used by the operation execution probes.
+	 */
+	@Test
+	public void testEoiAndEss() {
+		Assert.assertEquals(-1, CFREGISTRY.recallThreadLocalEOI());
+		Assert.assertEquals(-1, CFREGISTRY.recallAndIncrementThreadLocalESS());
+
+		CFREGISTRY.storeThreadLocalEOI(0);
+		CFREGISTRY.storeThreadLocalESS(1);
+		Assert.assertEquals(1, CFREGISTRY.incrementAndRecallThreadLocalEOI());
+		Assert.assertEquals(1, CFREGISTRY.recallAndIncrementThreadLocalESS());
+		Assert.assertEquals(1, CFREGISTRY.recallThreadLocalEOI());
+		Assert.assertEquals(2, CFREGISTRY.recallThreadLocalESS());
+
+		CFREGISTRY.unsetThreadLocalEOI();
+		CFREGISTRY.unsetThreadLocalESS();
+		Assert.assertEquals(-1, CFREGISTRY.incrementAndRecallThreadLocalEOI());
+		Assert.assertEquals(-1, CFREGISTRY.recallThreadLocalESS());
+	}
+
+	/**
+	 * Tests that the control flow information is not shared between threads.
+	 * 
+	 * @throws InterruptedException
+	 *             If the test has been interrupted.
+	 */
+	@Test
+	public void testThreadLocality() throws InterruptedException {
+		CFREGISTRY.storeThreadLocalTraceId(23L);
+		CFREGISTRY.storeThreadLocalEOI(5);
+		final long[] recalled = new long[2];
+		final Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				recalled[0] = CFREGISTRY.recallThreadLocalTraceId();
+				recalled[1] = CFREGISTRY.recallThreadLocalEOI();
+			}
+		});
+		thread.start();
+		thread.join();
+		Assert.assertEquals(-1L, recalled[0]);
+		Assert.assertEquals(-1L, recalled[1]);
+		Assert.assertEquals(23L, CFREGISTRY.recallThreadLocalTraceId());
+		Assert.assertEquals(5, CFREGISTRY.recallThreadLocalEOI());
+	}
+
+	/**
+	 * Tests that the thread-local context is reused during a trace and removed once the trace has ended, such that pooled threads do not keep Kieker instances
+	 * alive.
+	 * 
+	 * @throws Exception
+	 *             If the thread-local field cannot be accessed.
+	 */
+	@Test
+	public void testContextRemovedAfterTrace() throws Exception { // NOPMD (JUnit throws)
+		final Field field = ControlFlowRegistry.class.getDeclaredField("threadLocalContext");
+		field.setAccessible(true);
+		final ThreadLocal<?> threadLocalContext = (ThreadLocal<?>) field.get(CFREGISTRY);
+
+		Assert.assertEquals(-1L, CFREGISTRY.recallThreadLocalTraceId());
+		Assert.assertNull("Recalling must not create a context", threadLocalContext.get());
+
+		CFREGISTRY.storeThreadLocalTraceId(42L);
+		CFREGISTRY.storeThreadLocalEOI(0);
+		CFREGISTRY.storeThreadLocalESS(1);
+		final Object context = threadLocalContext.get();
+		Assert.assertNotNull(context);
+		CFREGISTRY.storeThreadLocalTraceId(43L);
+		CFREGISTRY.unsetThreadLocalTraceId();
+		CFREGISTRY.unsetThreadLocalEOI();
+		Assert.assertSame("Context must be reused while the trace is running", context, threadLocalContext.get());
+		Assert.assertEquals(1, CFREGISTRY.recallThreadLocalESS());
+
+		CFREGISTRY.unsetThreadLocalESS();
+		Assert.assertNull("Context must be removed after the trace has ended", threadLocalContext.get());
+		Assert.assertEquals(-1, CFREGISTRY.recallThreadLocalESS());
+	}
+}
@@ -0,0 +1,94 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.test.monitoring.junit.core.registry;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.record.flow.trace.TraceMetadata;
+import kieker.monitoring.core.registry.TraceRegistry;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the handoff of split points between threads by the {@link TraceRegistry}.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestTraceRegistry extends AbstractKiekerTest {
+
+	private static final long PARENT_TRACE_ID = 4711L;
+	private static final int PARENT_ORDER_ID = 42;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestTraceRegistry() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that a new trace in another thread uses the split point registered for that thread, but only once.
+	 * 
+	 * @throws InterruptedException
+	 *             If the test has been interrupted.
+	 */
+	@Test
+	public void testSplitPointHandoff() throws InterruptedException {
+		final AtomicReference<TraceMetadata> firstTrace = new AtomicReference<TraceMetadata>();
+		final AtomicReference<TraceMetadata> secondTrace = new AtomicReference<TraceMetadata>();
+		final Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				firstTrace.set(TraceRegistry.INSTANCE.registerTrace());
+				TraceRegistry.INSTANCE.unregisterTrace();
+				secondTrace.set(TraceRegistry.INSTANCE.registerTrace());
+				TraceRegistry.INSTANCE.unregisterTrace();
+			}
+		});
+		TraceRegistry.INSTANCE.setParentTraceId(thread, PARENT_TRACE_ID, PARENT_ORDER_ID);
+		thread.start();
+		thread.join();
+
+		Assert.assertEquals(PARENT_TRACE_ID, firstTrace.get().getParentTraceId());
+		Assert.assertEquals(PARENT_ORDER_ID, firstTrace.get().getParentOrderId());
+		Assert.assertEquals(thread.getId(), firstTrace.get().getThreadId());
+		// the split point is consumed by the first trace
+		Assert.assertEquals(secondTrace.get().getTraceId(), secondTrace.get().getParentTraceId());
+		Assert.assertEquals(-1, secondTrace.get().getParentOrderId());
+	}
+
+	/**
+	 * Tests that a split point registered for one thread does not affect the traces of other threads.
+	 */
+	@Test
+	public void testSplitPointOfOtherThread() {
+		final Thread otherThread = new Thread();
+		TraceRegistry.INSTANCE.setParentTraceId(otherThread, PARENT_TRACE_ID, PARENT_ORDER_ID);
+
+		final TraceMetadata trace = TraceRegistry.INSTANCE.registerTrace();
+		TraceRegistry.INSTANCE.unregisterTrace();
+
+		Assert.assertEquals(trace.getTraceId(), trace.getParentTraceId());
+		Assert.assertEquals(-1, trace.getParentOrderId());
+	}
+}
@@ -0,0 +1,232 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.junit.core.sampler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.logging.LogImplJUnit;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.jvm.MemoryRecord;
+import kieker.common.record.jvm.UptimeRecord;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.core.sampler.ISampler;
+import kieker.monitoring.core.sampler.ScheduledSamplerJob;
+import kieker.monitoring.sampler.mxbean.MemorySampler;
+import kieker.monitoring.sampler.mxbean.UptimeSampler;
+import kieker.monitoring.timer.SystemMilliTimer;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+import kieker.test.monitoring.util.NamedListWriter;
+
+/**
+ * Tests the consolidated scheduling of periodic samplers.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestConsolidatedPeriodicSampling extends AbstractKiekerTest {
+
+	private static final String LIST_NAME = TestConsolidatedPeriodicSampling.class.getName();
+	private static final long PERIOD = 1000; // ms
+
+	/**
+	 * Default constructor.
+	 */
+	public TestConsolidatedPeriodicSampling() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that samplers with the same period share an aligned tick and timestamp and that failing samplers are removed.
+	 * 
+	 * @throws InterruptedException
+	 *             If interrupted
+	 */
+	@Test
+	public void testConsolidatedSamplers() throws InterruptedException {
+		final IMonitoringController monitoringController = TestConsolidatedPeriodicSampling.createMonitoringController();
+		final List<IMonitoringRecord> records = NamedListWriter.createNamedList(LIST_NAME);
+
+		final AtomicInteger numFailingTriggers = new AtomicInteger(0);
+		final ISampler failingSampler = new ISampler() {
+
+			@Override
+			public void sample(final IMonitoringController monitoringController) throws Exception {
+				numFailingTriggers.incrementAndGet();
+				throw new IllegalStateException("expected");
+			}
+		};
+
+		final List<ScheduledSamplerJob> jobs = new ArrayList<ScheduledSamplerJob>();
+		LogImplJUnit.disableThrowable(IllegalStateException.class);
+		try {
+			jobs.add(monitoringController.schedulePeriodicSampler(new MemorySampler(), 0, PERIOD, TimeUnit.MILLISECONDS));
+			jobs.add(monitoringController.schedulePeriodicSampler(new UptimeSampler(), 0, PERIOD, TimeUnit.MILLISECONDS));
+			jobs.add(monitoringController.schedulePeriodicSampler(failingSampler, 0, PERIOD, TimeUnit.MILLISECONDS));
+			Assert.assertTrue(monitoringController.toString().contains("Consolidated ticks: '1'"));
+
+			Thread.sleep(3500);
+
+			for (final ScheduledSamplerJob job : jobs) {
+				monitoringController.removeScheduledSampler(job);
+			}
+		} finally {
+			LogImplJUnit.reset();
+		}
+		Assert.assertTrue(monitoringController.toString().contains("Consolidated ticks: '0'"));
+
+		final List<IMonitoringRecord> recordsBeforeRemoval;
+		synchronized (records) {
+			recordsBeforeRemoval = new ArrayList<IMonitoringRecord>(records);
+		}
+		Thread.sleep(1500);
+		synchronized (records) {
+			Assert.assertEquals("No samples expected after removal", recordsBeforeRemoval.size(), records.size());
+		}
+		Assert.assertEquals("A failing sampler must be removed", 1, numFailingTriggers.get());
+
+		final Set<Long> memoryTimestamps = new HashSet<Long>();
+		final Set<Long> uptimeTimestamps = new HashSet<Long>();
+		for (final IMonitoringRecord record : recordsBeforeRemoval) {
+			if (record instanceof MemoryRecord) {
+				memoryTimestamps.add(((MemoryRecord) record).getTimestamp());
+			} else if (record instanceof UptimeRecord) {
+				uptimeTimestamps.add(((UptimeRecord) record).getTimestamp());
+			}
+		}
+		Assert.assertTrue("Expected at least two ticks, but got " + memoryTimestamps.size(), memoryTimestamps.size() >= 2);
+		Assert.assertEquals("Samplers of the same tick share the timestamp", memoryTimestamps, uptimeTimestamps);
+		for (final long timestamp : memoryTimestamps) {
+			Assert.assertTrue("Tick at " + timestamp + " is not aligned to the period", (timestamp % PERIOD) < (PERIOD / 2));
+		}
+
+		monitoringController.terminateMonitoring();
+	}
+
+	/**
+	 * Tests that a sampler whose period is a multiple of the period of another sampler shares its tick and is only
+	 * triggered on the ticks aligned to its own period.
+	 * 
+	 * @throws InterruptedException
+	 *             If interrupted
+	 */
+	@Test
+	public void testCompatiblePeriodsShareTick() throws InterruptedException {
+		final IMonitoringController monitoringController = TestConsolidatedPeriodicSampling.createMonitoringController();
+		final List<Long> shortTimestamps = new CopyOnWriteArrayList<Long>();
+		final List<Long> longTimestamps = new CopyOnWriteArrayList<Long>();
+
+		// the longer period is scheduled first, so its tick has to be merged into the tick of the shorter one
+		final ScheduledSamplerJob longJob = monitoringController.schedulePeriodicSampler(new TimestampSampler(longTimestamps), 0, 2 * PERIOD,
+				TimeUnit.MILLISECONDS);
+		final ScheduledSamplerJob shortJob = monitoringController.schedulePeriodicSampler(new TimestampSampler(shortTimestamps), 0, PERIOD,
+				TimeUnit.MILLISECONDS);
+		Assert.assertTrue(monitoringController.toString().contains("Consolidated ticks: '1'"));
+
+		Thread.sleep(4500);
+
+		monitoringController.removeScheduledSampler(shortJob);
+		Assert.assertTrue(monitoringController.toString().contains("Consolidated ticks: '1'"));
+		monitoringController.removeScheduledSampler(longJob);
+		Assert.assertTrue(monitoringController.toString().contains("Consolidated ticks: '0'"));
+
+		Assert.assertTrue("Expected at least four short ticks, but got " + shortTimestamps, shortTimestamps.size() >= 4);
+		Assert.assertTrue("Expected at least two long ticks, but got " + longTimestamps, longTimestamps.size() >= 2);
+		for (final long timestamp : longTimestamps) {
+			Assert.assertTrue("Sample at " + timestamp + " is not aligned to the long period", (timestamp % (2 * PERIOD)) < (PERIOD / 2));
+		}
+
+		monitoringController.terminateMonitoring();
+	}
+
+	/**
+	 * Tests that a tick is removed once its last sampler has been removed after failing.
+	 * 
+	 * @throws InterruptedException
+	 *             If interrupted
+	 */
+	@Test
+	public void testEmptyTickRemovedAfterFailure() throws InterruptedException {
+		final IMonitoringController monitoringController = TestConsolidatedPeriodicSampling.createMonitoringController();
+		final ISampler failingSampler = new ISampler() {
+
+			@Override
+			public void sample(final IMonitoringController monitoringController) throws Exception {
+				throw new IllegalStateException("expected");
+			}
+		};
+
+		LogImplJUnit.disableThrowable(IllegalStateException.class);
+		try {
+			monitoringController.schedulePeriodicSampler(failingSampler, 0, PERIOD, TimeUnit.MILLISECONDS);
+			Assert.assertTrue(monitoringController.toString().contains("Consolidated ticks: '1'"));
+
+			Thread.sleep(1500);
+		} finally {
+			LogImplJUnit.reset();
+		}
+		Assert.assertTrue(monitoringController.toString().contains("Consolidated ticks: '0'"));
+
+		monitoringController.terminateMonitoring();
+	}
+
+	private static IMonitoringController createMonitoringController() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.PERIODIC_SENSORS_CONSOLIDATED, "true");
+		configuration.setProperty(ConfigurationFactory.RECORD_BATCH_SIZE, "1024");
+		configuration.setProperty(ConfigurationFactory.RECORD_BATCH_FLUSH_INTERVAL, "0");
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, NamedListWriter.class.getName());
+		configuration.setProperty(NamedListWriter.CONFIG_PROPERTY_NAME_LIST_NAME, LIST_NAME);
+		configuration.setProperty(ConfigurationFactory.TIMER_CLASSNAME, SystemMilliTimer.class.getName());
+		configuration.setProperty(SystemMilliTimer.CONFIG_OFFSET, "0");
+		configuration.setProperty(SystemMilliTimer.CONFIG_UNIT, "2"); // milliseconds since 1970-1-1
+		return MonitoringController.createInstance(configuration);
+	}
+
+	/**
+	 * A sampler collecting the timestamps of its samples.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	private static final class TimestampSampler implements ISampler {
+		private final List<Long> timestamps;
+
+		public TimestampSampler(final List<Long> timestamps) {
+			this.timestamps = timestamps;
+		}
+
+		@Override
+		public void sample(final IMonitoringController monitoringController) throws Exception {
+			this.timestamps.add(monitoringController.getTimeSource().getTime());
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.junit.core.signaturePattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.monitoring.core.signaturePattern.CompiledPatternList;
+import kieker.monitoring.core.signaturePattern.InvalidPatternException;
+import kieker.monitoring.core.signaturePattern.PatternEntry;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests that the {@link CompiledPatternList} decides like checking each {@link PatternEntry} from the last to the first one.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestCompiledPatternList extends AbstractKiekerTest {
+
+	private static final String[] SIGNATURES = {
+		"public void kieker.test.Clazz.get()",
+		"public int kieker.test.Clazz.getValue(int, java.lang.String)",
+		"private static void kieker.test.Clazz.set(int) throws java.io.IOException",
+		"public void kieker.other.Other.run()",
+		"protected java.lang.String kieker.other.Other.toText(kieker.test.Clazz)",
+		"%CPU::0",
+		"%CPU::1",
+		"%MEM_SWAP",
+	};
+
+	/**
+	 * Default constructor.
+	 */
+	public TestCompiledPatternList() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testEmptyList() {
+		for (final String signature : SIGNATURES) {
+			Assert.assertTrue(CompiledPatternList.EMPTY.isActivated(signature));
+		}
+	}
+
+	@Test
+	public void testLastMatchWins() throws InvalidPatternException {
+		final List<PatternEntry> entries = new ArrayList<PatternEntry>();
+		entries.add(new PatternEntry("*", false));
+		entries.add(new PatternEntry("* kieker.test.Clazz.*(..)", true));
+		entries.add(new PatternEntry("public * kieker..*.get*(..)", true));
+		entries.add(new PatternEntry("private static void kieker.test.Clazz.set(int) throws ..", false));
+		entries.add(new PatternEntry("%CPU::.*", true));
+		entries.add(new PatternEntry("%CPU::(\\d)", false)); // contains a capturing group
+		entries.add(new PatternEntry("* kieker.other.Other.*(..)", false));
+		entries.add(new PatternEntry("public void kieker.other.Other.run()", true));
+		entries.add(new PatternEntry("%(?i)mem_swap", true)); // contains an inline flag
+
+		// compare each prefix of the list with the sequential evaluation
+		for (int size = 0; size <= entries.size(); size++) {
+			final List<PatternEntry> prefix = entries.subList(0, size);
+			final CompiledPatternList compiled = new CompiledPatternList(prefix);
+			Assert.assertEquals(size, compiled.getNumberOfEntries());
+			for (final String signature : SIGNATURES) {
+				Assert.assertEquals("Unexpected decision for " + signature + " with " + size + " entries",
+						TestCompiledPatternList.isActivatedSequentially(prefix, signature), compiled.isActivated(signature));
+			}
+		}
+	}
+
+	@Test
+	public void testMergingOfSignaturePatterns() throws InvalidPatternException {
+		final List<PatternEntry> entries = new ArrayList<PatternEntry>();
+		for (int i = 0; i < 100; i++) {
+			entries.add(new PatternEntry("* kieker.test.Clazz" + i + ".*(..)", (i % 3) != 0));
+		}
+		entries.add(new PatternEntry("%CPU::.*", false));
+		entries.add(new PatternEntry("* kieker.other.*.*(..)", false));
+		final CompiledPatternList compiled = new CompiledPatternList(entries);
+		Assert.assertEquals(3, compiled.getNumberOfSegments());
+		Assert.assertTrue(compiled.isActivated("public void kieker.test.Clazz1.get()"));
+		Assert.assertFalse(compiled.isActivated("public void kieker.test.Clazz3.get()"));
+		Assert.assertTrue(compiled.isActivated("public void kieker.test.Clazz100.get()"));
+		Assert.assertFalse(compiled.isActivated("public void kieker.other.Other.run()"));
+		Assert.assertFalse(compiled.isActivated("%CPU::0"));
+	}
+
+	private static boolean isActivatedSequentially(final List<PatternEntry> entries, final String signature) {
+		for (int i = entries.size() - 1; i >= 0; i--) {
+			final PatternEntry entry = entries.get(i);
+			if (entry.getPattern().matcher(signature).matches()) {
+				return entry.isActivated();
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,205 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.junit.queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.monitoring.queue.MpscArrayBlockingQueue;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link MpscArrayBlockingQueue}.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestMpscArrayBlockingQueue extends AbstractKiekerTest {
+
+	private static final int NUMBER_OF_PRODUCERS = 4;
+	private static final int ELEMENTS_PER_PRODUCER = 10000;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestMpscArrayBlockingQueue() {
+		// empty default constructor
+	}
+
+	/**
+	 * Makes sure that the configured capacity is honored exactly, although the underlying ring buffer is larger.
+	 *
+	 * @throws InterruptedException
+	 *             If the test thread is interrupted.
+	 */
+	@Test
+	public void testCapacityIsHonored() throws InterruptedException {
+		final MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(3);
+		Assert.assertTrue(queue.offer(1));
+		Assert.assertTrue(queue.offer(2));
+		Assert.assertTrue(queue.offer(3));
+		Assert.assertFalse(queue.offer(4));
+		Assert.assertFalse(queue.offer(5, 1, TimeUnit.MILLISECONDS));
+		Assert.assertEquals(3, queue.size());
+		Assert.assertEquals(0, queue.remainingCapacity());
+
+		Assert.assertEquals(Integer.valueOf(1), queue.poll());
+		Assert.assertEquals(1, queue.remainingCapacity());
+		Assert.assertTrue(queue.offer(4));
+	}
+
+	/**
+	 * Makes sure that {@code add} fails with an exception if the queue is full, as expected by {@code QueueFullBehavior} 0.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testAddFailsIfFull() {
+		final MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(1);
+		queue.add(1);
+		queue.add(2);
+	}
+
+	/**
+	 * Makes sure that the elements are drained in batches of the given maximal size and in FIFO order.
+	 */
+	@Test
+	public void testDrainTo() {
+		final MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(10);
+		for (int i = 0; i < 10; i++) {
+			queue.add(i);
+		}
+		final List<Integer> batch = new ArrayList<Integer>();
+		Assert.assertEquals(4, queue.drainTo(batch, 4));
+		Assert.assertEquals(6, queue.drainTo(batch));
+		Assert.assertEquals(0, queue.drainTo(batch));
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals(Integer.valueOf(i), batch.get(i));
+		}
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	/**
+	 * Makes sure that the iterator returns the elements in FIFO order, also after the ring buffer has wrapped around, and does not return elements inserted
+	 * after its creation.
+	 */
+	@Test
+	public void testIterator() {
+		final MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(4);
+		for (int i = 0; i < 6; i++) {
+			queue.add(i);
+			if (i >= 2) {
+				queue.poll();
+			}
+		}
+		Assert.assertEquals(Arrays.asList(4, 5), new ArrayList<Integer>(queue));
+		Assert.assertTrue(queue.contains(5));
+		Assert.assertFalse(queue.contains(3));
+
+		final Iterator<Integer> iterator = queue.iterator();
+		Assert.assertTrue(iterator.hasNext());
+		Assert.assertEquals(Integer.valueOf(4), iterator.next());
+		queue.poll(); // removes 4
+		queue.add(6); // not part of the traversal
+		Assert.assertTrue(iterator.hasNext());
+		Assert.assertEquals(Integer.valueOf(5), iterator.next());
+		Assert.assertFalse(iterator.hasNext());
+	}
+
+	/**
+	 * Makes sure that an idle consumer is parked without a timeout and woken up by the next producer.
+	 *
+	 * @throws InterruptedException
+	 *             If the test thread is interrupted.
+	 */
+	@Test
+	public void testIdleTakeIsWokenByProducer() throws InterruptedException {
+		final MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(4);
+		final AtomicReference<Integer> taken = new AtomicReference<Integer>();
+		final Thread consumer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					taken.set(queue.take());
+				} catch (final InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		consumer.setDaemon(true);
+		consumer.start();
+
+		final long deadline = System.currentTimeMillis() + 10000;
+		while ((consumer.getState() != Thread.State.WAITING) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(Thread.State.WAITING, consumer.getState());
+
+		Assert.assertTrue(queue.offer(42));
+		consumer.join(10000);
+		Assert.assertFalse(consumer.isAlive());
+		Assert.assertEquals(Integer.valueOf(42), taken.get());
+		Assert.assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Makes sure that the blocking operations deliver every element of multiple concurrent producers to a single consumer.
+	 *
+	 * @throws InterruptedException
+	 *             If the test thread is interrupted.
+	 */
+	@Test
+	public void testConcurrentProducersWithBlockingPut() throws InterruptedException {
+		final MpscArrayBlockingQueue<Integer> queue = new MpscArrayBlockingQueue<Integer>(16);
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		for (int p = 0; p < NUMBER_OF_PRODUCERS; p++) {
+			final Thread producer = new Thread() {
+				@Override
+				public void run() {
+					try {
+						startLatch.await();
+						for (int i = 0; i < ELEMENTS_PER_PRODUCER; i++) {
+							queue.put(i);
+						}
+					} catch (final InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			};
+			producer.setDaemon(true);
+			producer.start();
+		}
+		startLatch.countDown();
+
+		long sum = 0;
+		for (int i = 0; i < (NUMBER_OF_PRODUCERS * ELEMENTS_PER_PRODUCER); i++) {
+			final Integer element = queue.poll(10, TimeUnit.SECONDS);
+			Assert.assertNotNull("Timeout while waiting for element " + i, element);
+			sum += element;
+		}
+		Assert.assertEquals((long) NUMBER_OF_PRODUCERS * (((long) ELEMENTS_PER_PRODUCER * (ELEMENTS_PER_PRODUCER - 1)) / 2), sum);
+		Assert.assertNull(queue.poll());
+	}
+}
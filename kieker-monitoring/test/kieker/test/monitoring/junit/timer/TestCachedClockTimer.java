@@ -0,0 +1,142 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.junit.timer;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.timer.CachedClockTimer;
+import kieker.monitoring.timer.ITimeSource;
+import kieker.monitoring.writer.DummyWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * This class is a JUnit test for the {@link CachedClockTimer}, testing the timer with different configurations.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public final class TestCachedClockTimer extends AbstractKiekerTest {
+
+	/** the cached time may be outdated by the resolution plus the scheduling delay of the ticker thread. */
+	private static final long MAX_DELAY_IN_MS = 500;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestCachedClockTimer() {
+		// empty default constructor
+	}
+
+	/**
+	 * This method tests the {@link CachedClockTimer} with default configuration.
+	 */
+	@Test
+	public final void testDefault() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		final CachedClockTimer ts = new CachedClockTimer(configuration);
+		Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(1), ts.getResolution());
+		this.testCoarseTime(ts, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * This method tests the {@link CachedClockTimer} with microseconds as time unit.
+	 */
+	@Test
+	public final void testMicroseconds() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(CachedClockTimer.CONFIG_UNIT, "1");
+		configuration.setProperty(CachedClockTimer.CONFIG_RESOLUTION, "100");
+		final ITimeSource ts = new CachedClockTimer(configuration);
+		this.testCoarseTime(ts, TimeUnit.MICROSECONDS);
+	}
+
+	/**
+	 * This method tests the {@link CachedClockTimer} with milliseconds as time unit.
+	 */
+	@Test
+	public final void testMilliseconds() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(CachedClockTimer.CONFIG_UNIT, "2");
+		final ITimeSource ts = new CachedClockTimer(configuration);
+		this.testCoarseTime(ts, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * This method tests that the cached time is updated by the ticker thread.
+	 * 
+	 * @throws InterruptedException
+	 *             If interrupted
+	 */
+	@Test
+	public final void testTimeAdvances() throws InterruptedException {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(CachedClockTimer.CONFIG_RESOLUTION, "100");
+		final ITimeSource ts = new CachedClockTimer(configuration);
+		final long first = ts.getTime();
+		final long deadline = System.currentTimeMillis() + 5000;
+		while ((ts.getTime() == first) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(1);
+		}
+		Assert.assertTrue("The cached time has not been updated", ts.getTime() > first);
+	}
+
+	/**
+	 * This method tests that the ticker thread is stopped when monitoring is terminated.
+	 * 
+	 * @throws Exception
+	 *             If the ticker thread cannot be accessed.
+	 */
+	@Test
+	public final void testTickerStoppedOnTermination() throws Exception { // NOPMD (JUnit throws)
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, DummyWriter.class.getName());
+		configuration.setProperty(ConfigurationFactory.TIMER_CLASSNAME, CachedClockTimer.class.getName());
+		final IMonitoringController monitoringController = MonitoringController.createInstance(configuration);
+		final ITimeSource ts = monitoringController.getTimeSource();
+		Assert.assertTrue(ts instanceof CachedClockTimer);
+		final Field field = CachedClockTimer.class.getDeclaredField("ticker");
+		field.setAccessible(true);
+		final Thread ticker = (Thread) field.get(ts);
+		Assert.assertTrue("The ticker thread has not been started", ticker.isAlive());
+
+		monitoringController.terminateMonitoring();
+		Assert.assertFalse("The ticker thread is still running after the termination", ticker.isAlive());
+	}
+
+	private void testCoarseTime(final ITimeSource timesource, final TimeUnit timeunit) {
+		final long before = System.currentTimeMillis();
+		final long measured = timesource.getTime();
+		final long after = System.currentTimeMillis();
+
+		final long beforeTU = timeunit.convert(before - MAX_DELAY_IN_MS, TimeUnit.MILLISECONDS);
+		final long afterTU = timeunit.convert(after + 2, TimeUnit.MILLISECONDS);
+
+		Assert.assertTrue("Measured time (" + measured + ") has to be >= " + beforeTU, beforeTU <= measured);
+		Assert.assertTrue("Measured time (" + measured + ") has to be <= " + afterTU, measured <= afterTU);
+	}
+}
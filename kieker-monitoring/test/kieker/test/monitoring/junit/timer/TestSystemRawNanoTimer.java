@@ -0,0 +1,106 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.junit.timer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.timer.ITimeSource;
+import kieker.monitoring.timer.SystemRawNanoTimer;
+
+/**
+ * This class is a JUnit test for the {@link SystemRawNanoTimer}.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public final class TestSystemRawNanoTimer extends AbstractTestTimeSource {
+
+	/**
+	 * Default constructor.
+	 */
+	public TestSystemRawNanoTimer() {
+		// empty default constructor
+	}
+
+	/**
+	 * This method tests the {@link SystemRawNanoTimer} with default configuration.
+	 */
+	@Test
+	public final void testDefault() { // NOPMD (assert in superclass)
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		final ITimeSource ts = new SystemRawNanoTimer(configuration);
+		Assert.assertEquals(TimeUnit.NANOSECONDS, ts.getTimeUnit());
+		super.testTime(ts, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * This method tests the {@link SystemRawNanoTimer} with an empty offset, i.e., the time since its creation.
+	 */
+	@Test
+	public final void testEmptyOffset() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(SystemRawNanoTimer.CONFIG_OFFSET, "");
+		final long before = System.currentTimeMillis();
+		final ITimeSource ts = new SystemRawNanoTimer(configuration);
+		final long after = System.currentTimeMillis();
+
+		final long offsetInMs = TimeUnit.NANOSECONDS.toMillis(ts.getOffset());
+		Assert.assertTrue("Offset (" + offsetInMs + ") has to be >= " + (before - 2), (before - 2) <= offsetInMs);
+		Assert.assertTrue("Offset (" + offsetInMs + ") has to be <= " + (after + 2), offsetInMs <= (after + 2));
+
+		// offset and time together result in the time since 1970-1-1
+		final ITimeSource epochTs = new TimeSourceWithOffset(ts);
+		super.testTime(epochTs, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Adds the offset to the time of the given time source.
+	 */
+	private static final class TimeSourceWithOffset implements ITimeSource {
+		private final ITimeSource timesource;
+
+		public TimeSourceWithOffset(final ITimeSource timesource) {
+			this.timesource = timesource;
+		}
+
+		@Override
+		public long getTime() {
+			return this.timesource.getOffset() + this.timesource.getTime();
+		}
+
+		@Override
+		public long getOffset() {
+			return 0;
+		}
+
+		@Override
+		public TimeUnit getTimeUnit() {
+			return this.timesource.getTimeUnit();
+		}
+
+		@Override
+		public String toString() {
+			return this.timesource.toString();
+		}
+	}
+}
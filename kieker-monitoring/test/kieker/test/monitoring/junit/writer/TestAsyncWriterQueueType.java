@@ -0,0 +1,75 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.junit.writer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.writer.AbstractAsyncWriter;
+import kieker.monitoring.writer.database.AsyncDbWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Makes sure that the lock-free single-consumer queues are only used by writers with a single worker per queue.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestAsyncWriterQueueType extends AbstractKiekerTest {
+
+	private static final String PREFIX = AsyncDbWriter.class.getName() + '.';
+
+	/**
+	 * Default constructor.
+	 */
+	public TestAsyncWriterQueueType() {
+		// empty default constructor
+	}
+
+	private static String createDbWriter(final int numberOfConnections) throws Exception { // NOPMD (Exception from the writer)
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(PREFIX + AbstractAsyncWriter.CONFIG_QUEUETYPE, AbstractAsyncWriter.QUEUETYPE_MPSC);
+		configuration.setProperty(AsyncDbWriter.CONFIG_NRCONN, Integer.toString(numberOfConnections));
+		return new AsyncDbWriter(configuration).toString();
+	}
+
+	/**
+	 * Tests that a writer with a single worker per queue uses the configured lock-free queue.
+	 * 
+	 * @throws Exception
+	 *             If the writer could not be created.
+	 */
+	@Test
+	public void testMpscQueueWithSingleConnection() throws Exception { // NOPMD (Exception from the writer)
+		Assert.assertTrue(TestAsyncWriterQueueType.createDbWriter(1).contains("Queue: MpscArrayBlockingQueue"));
+	}
+
+	/**
+	 * Tests that a writer with several workers per queue falls back to the lock-based queue.
+	 * 
+	 * @throws Exception
+	 *             If the writer could not be created.
+	 */
+	@Test
+	public void testArrayBlockingQueueWithMultipleConnections() throws Exception { // NOPMD (Exception from the writer)
+		Assert.assertTrue(TestAsyncWriterQueueType.createDbWriter(4).contains("Queue: ArrayBlockingQueue"));
+	}
+}
@@ -0,0 +1,438 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+
+package kieker.test.monitoring.junit.writer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.record.flow.trace.operation.AfterOperationEvent;
+import kieker.common.record.flow.trace.operation.AfterOperationFailedEvent;
+import kieker.common.record.flow.trace.operation.BeforeOperationEvent;
+import kieker.common.record.misc.RegistryRecord;
+import kieker.common.record.misc.TimestampRecord;
+import kieker.common.util.filesystem.BinaryCompressionMethod;
+import kieker.common.util.filesystem.BlockIndex;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.common.util.registry.ILookup;
+import kieker.common.util.registry.Lookup;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.writer.SerializedRecordBuffer;
+import kieker.monitoring.writer.filesystem.AbstractAsyncFSWriter;
+import kieker.monitoring.writer.filesystem.AsyncBinaryFsWriter;
+import kieker.monitoring.writer.tcp.SingleSocketTcpWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+import kieker.test.monitoring.util.NamedListAsyncWriter;
+import kieker.test.monitoring.util.NamedListWriter;
+
+/**
+ * Tests that events serialized into a {@link SerializedRecordBuffer} arrive at the writers as if they had been passed as records.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestSerializedRecordBuffer extends AbstractKiekerTest {
+
+	private static final int NUMBER_OF_TRACES = 50;
+	private static final int MAX_ENTRIES_IN_FILE = 40;
+	private static final long TIMEOUT = 10000L;
+
+	/** A rule making sure that a temporary folder exists for every test method (which is removed after the test). */
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (Rule has to be public)
+
+	/**
+	 * Default constructor.
+	 */
+	public TestSerializedRecordBuffer() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that the buffer is only available if configured.
+	 */
+	@Test
+	public void testDisabledByDefault() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, NamedListWriter.class.getName());
+		final IMonitoringController ctrl = MonitoringController.createInstance(configuration);
+		Assert.assertNull(ctrl.getSerializedRecordBuffer());
+		ctrl.terminateMonitoring();
+	}
+
+	/**
+	 * Tests that the buffer is not available for writers which do not support batches, even if configured.
+	 */
+	@Test
+	public void testUnsupportedWriter() {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.RECORD_BATCH_SIZE, String.valueOf(SerializedRecordBuffer.MIN_BATCH_SIZE));
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, NamedListWriter.class.getName());
+		final IMonitoringController ctrl = MonitoringController.createInstance(configuration);
+		Assert.assertNull(ctrl.getSerializedRecordBuffer());
+		ctrl.terminateMonitoring();
+	}
+
+	/**
+	 * Tests that an asynchronous writer receives the batches, which contain the events of the flushed traces.
+	 *
+	 * @throws InterruptedException
+	 *             If the test has been interrupted.
+	 */
+	@Test
+	public void testAsynchronousWriter() throws InterruptedException {
+		final List<IMonitoringRecord> receivedRecords = NamedListWriter.createNamedList("TestSerializedRecordBuffer");
+		final IMonitoringController ctrl = this.createNamedListController("TestSerializedRecordBuffer");
+
+		final List<IMonitoringRecord> writtenRecords = this.writeTraces(ctrl);
+		// only the events of flushed traces have been written so far
+		Assert.assertTrue(NamedListAsyncWriter.awaitRecords(receivedRecords, writtenRecords.size() - 3, TIMEOUT));
+		Assert.assertEquals(writtenRecords.subList(0, writtenRecords.size() - 3), this.withoutRegistryRecords(receivedRecords));
+		ctrl.getSerializedRecordBuffer().flush();
+		Assert.assertTrue(NamedListAsyncWriter.awaitRecords(receivedRecords, writtenRecords.size(), TIMEOUT));
+		Assert.assertEquals(writtenRecords, this.withoutRegistryRecords(receivedRecords));
+		Assert.assertEquals(writtenRecords.size(), ctrl.getNumberOfInserts());
+		ctrl.terminateMonitoring();
+	}
+
+	/**
+	 * Tests that the incomplete batches of other threads are written by {@link SerializedRecordBuffer#flushAll()} and on termination.
+	 *
+	 * @throws InterruptedException
+	 *             If the test has been interrupted.
+	 */
+	@Test
+	public void testFlushOfOtherThreads() throws InterruptedException {
+		final List<IMonitoringRecord> receivedRecords = NamedListWriter.createNamedList("TestSerializedRecordBufferFlushAll");
+		final IMonitoringController ctrl = this.createNamedListController("TestSerializedRecordBufferFlushAll");
+		final SerializedRecordBuffer buffer = ctrl.getSerializedRecordBuffer();
+
+		final Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				buffer.newBeforeOperationEvent(1L, 1L, 0, "public void op()", "Class");
+			}
+		});
+		thread.start();
+		thread.join();
+		buffer.newBeforeOperationEvent(2L, 2L, 0, "public void op()", "Class");
+		Assert.assertTrue(this.withoutRegistryRecords(receivedRecords).isEmpty());
+
+		buffer.flushAll();
+		Assert.assertTrue(NamedListAsyncWriter.awaitRecords(receivedRecords, 2, TIMEOUT));
+		Assert.assertEquals(2, this.withoutRegistryRecords(receivedRecords).size());
+
+		buffer.newAfterOperationEvent(3L, 2L, 1, "public void op()", "Class");
+		ctrl.terminateMonitoring();
+		final List<IMonitoringRecord> records = this.withoutRegistryRecords(receivedRecords);
+		Assert.assertEquals(3, records.size());
+		Assert.assertEquals(this.withLoggingTimestamp(new AfterOperationEvent(3L, 2L, 1, "public void op()", "Class"), 3L), records.get(2));
+	}
+
+	/**
+	 * Tests that a record larger than a batch is passed on its own after the batch of the current thread.
+	 *
+	 * @throws InterruptedException
+	 *             If the test has been interrupted.
+	 */
+	@Test
+	public void testRecordLargerThanBatch() throws InterruptedException {
+		final List<IMonitoringRecord> receivedRecords = NamedListWriter.createNamedList("TestSerializedRecordBufferLargeRecord");
+		final IMonitoringController ctrl = this.createNamedListController("TestSerializedRecordBufferLargeRecord");
+		final SerializedRecordBuffer buffer = ctrl.getSerializedRecordBuffer();
+
+		buffer.newBeforeOperationEvent(1L, 1L, 0, "public void op()", "Class");
+		final IMonitoringRecord largeRecord = new LargeRecord(2L);
+		buffer.newRecord(largeRecord);
+		Assert.assertTrue(NamedListAsyncWriter.awaitRecords(receivedRecords, 2, TIMEOUT));
+		final List<IMonitoringRecord> records = this.withoutRegistryRecords(receivedRecords);
+		Assert.assertEquals(2, records.size());
+		Assert.assertTrue(records.get(0) instanceof BeforeOperationEvent);
+		Assert.assertSame(largeRecord, records.get(1));
+		ctrl.terminateMonitoring();
+	}
+
+	/**
+	 * Tests that the asynchronous binary file system writer writes the batches in the same format as single records.
+	 *
+	 * @throws IOException
+	 *             If something went wrong while reading the log.
+	 */
+	@Test
+	public void testBinaryFsWriter() throws IOException {
+		final String writer = AsyncBinaryFsWriter.class.getName();
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.RECORD_BATCH_SIZE, String.valueOf(SerializedRecordBuffer.MIN_BATCH_SIZE));
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, writer);
+		configuration.setProperty(writer + '.' + AbstractAsyncFSWriter.CONFIG_PATH, this.tmpFolder.getRoot().getCanonicalPath());
+		configuration.setProperty(writer + '.' + AbstractAsyncFSWriter.CONFIG_MAXENTRIESINFILE, String.valueOf(MAX_ENTRIES_IN_FILE));
+		final IMonitoringController ctrl = MonitoringController.createInstance(configuration);
+
+		final List<IMonitoringRecord> writtenRecords = this.writeTraces(ctrl);
+		ctrl.getSerializedRecordBuffer().flush();
+		ctrl.terminateMonitoring();
+
+		final File[] logDirs = this.tmpFolder.getRoot().listFiles();
+		Assert.assertEquals(1, logDirs.length);
+		final ILookup<String> stringRegistry = this.readMappingFile(new File(logDirs[0], FSUtil.MAP_FILENAME));
+		final File[] logFiles = logDirs[0].listFiles();
+		Arrays.sort(logFiles);
+		final List<IMonitoringRecord> readRecords = new ArrayList<IMonitoringRecord>(writtenRecords.size());
+		int numberOfLogFiles = 0;
+		for (final File logFile : logFiles) {
+			if (logFile.getName().endsWith(BinaryCompressionMethod.NONE.getFileExtension())) {
+				this.readBinaryFile(logFile, stringRegistry, readRecords);
+				numberOfLogFiles++;
+			}
+		}
+		Assert.assertEquals(writtenRecords, readRecords);
+		Assert.assertTrue("Expected several log files, but found " + numberOfLogFiles, numberOfLogFiles > 1);
+	}
+
+	/**
+	 * Tests that the asynchronous binary file system writer indexes the records of the batches.
+	 *
+	 * @throws IOException
+	 *             If something went wrong while reading the index.
+	 */
+	@Test
+	public void testBinaryFsWriterIndex() throws IOException {
+		final String writer = AsyncBinaryFsWriter.class.getName();
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.RECORD_BATCH_SIZE, String.valueOf(SerializedRecordBuffer.MIN_BATCH_SIZE));
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, writer);
+		configuration.setProperty(writer + '.' + AbstractAsyncFSWriter.CONFIG_PATH, this.tmpFolder.getRoot().getCanonicalPath());
+		configuration.setProperty(AsyncBinaryFsWriter.CONFIG_INDEX, "true");
+		final IMonitoringController ctrl = MonitoringController.createInstance(configuration);
+
+		final List<IMonitoringRecord> writtenRecords = this.writeTraces(ctrl);
+		ctrl.getSerializedRecordBuffer().flush();
+		ctrl.terminateMonitoring();
+
+		final File[] logDirs = this.tmpFolder.getRoot().listFiles();
+		Assert.assertEquals(1, logDirs.length);
+		int numberOfIndexedRecords = 0;
+		for (final File logFile : logDirs[0].listFiles()) {
+			if (logFile.getName().endsWith(BinaryCompressionMethod.NONE.getFileExtension())) {
+				for (final BlockIndex.Block block : BlockIndex.read(BlockIndex.getIndexFile(logFile)).getBlocks()) {
+					Assert.assertEquals(block.getNumberOfRecords(), block.getNumberOfTraceRecords());
+					Assert.assertTrue(block.getMinTraceId() >= 0);
+					Assert.assertTrue(block.getMaxTraceId() < NUMBER_OF_TRACES);
+					Assert.assertTrue(block.getMaxTimestamp() <= (NUMBER_OF_TRACES + 1));
+					numberOfIndexedRecords += block.getNumberOfRecords();
+				}
+			}
+		}
+		Assert.assertEquals(writtenRecords.size(), numberOfIndexedRecords);
+	}
+
+	/**
+	 * Tests that the single socket TCP writer sends the batches in the same format as single records, even if a batch does not fit into its buffer.
+	 *
+	 * @throws IOException
+	 *             If something went wrong while receiving the records.
+	 */
+	@Test
+	public void testSingleSocketTcpWriter() throws IOException {
+		final ServerSocket serverSocket = new ServerSocket(0);
+		try {
+			final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+			configuration.setProperty(ConfigurationFactory.METADATA, "false");
+			configuration.setProperty(ConfigurationFactory.RECORD_BATCH_SIZE, String.valueOf(SerializedRecordBuffer.MIN_BATCH_SIZE));
+			configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, SingleSocketTcpWriter.class.getName());
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_HOSTNAME, "localhost");
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_PORT1, String.valueOf(serverSocket.getLocalPort()));
+			configuration.setProperty(SingleSocketTcpWriter.CONFIG_BUFFERSIZE, "128"); // smaller than a batch
+			final IMonitoringController ctrl = MonitoringController.createInstance(configuration);
+
+			final List<IMonitoringRecord> writtenRecords = this.writeTraces(ctrl);
+			ctrl.getSerializedRecordBuffer().flush();
+			ctrl.terminateMonitoring();
+
+			final Socket socket = serverSocket.accept();
+			final ByteArrayOutputStream content = new ByteArrayOutputStream();
+			try {
+				final InputStream in = socket.getInputStream();
+				final byte[] chunk = new byte[1024];
+				int length;
+				while ((length = in.read(chunk)) != -1) { // NOPMD (assign)
+					content.write(chunk, 0, length);
+				}
+			} finally {
+				socket.close();
+			}
+			Assert.assertEquals(writtenRecords, this.readTcpStream(ByteBuffer.wrap(content.toByteArray())));
+		} finally {
+			serverSocket.close();
+		}
+	}
+
+	private IMonitoringController createNamedListController(final String listName) {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.RECORD_BATCH_SIZE, String.valueOf(SerializedRecordBuffer.MIN_BATCH_SIZE));
+		configuration.setProperty(ConfigurationFactory.RECORD_BATCH_FLUSH_INTERVAL, "0");
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, NamedListAsyncWriter.class.getName());
+		configuration.setProperty(NamedListAsyncWriter.CONFIG_PROPERTY_NAME_LIST_NAME, listName);
+		return MonitoringController.createInstance(configuration);
+	}
+
+	/**
+	 * Serializes a number of traces, each trace is flushed except for the last one.
+	 */
+	private List<IMonitoringRecord> writeTraces(final IMonitoringController ctrl) {
+		final SerializedRecordBuffer buffer = ctrl.getSerializedRecordBuffer();
+		Assert.assertNotNull(buffer);
+		final List<IMonitoringRecord> writtenRecords = new ArrayList<IMonitoringRecord>();
+		for (int traceId = 0; traceId < NUMBER_OF_TRACES; traceId++) {
+			final String operation = "public void op" + (traceId % 7) + "()";
+			final String clazz = "Class" + (traceId % 3);
+			buffer.newBeforeOperationEvent(traceId, traceId, 0, operation, clazz);
+			writtenRecords.add(this.withLoggingTimestamp(new BeforeOperationEvent(traceId, traceId, 0, operation, clazz), traceId));
+			buffer.newBeforeOperationEvent(traceId + 1, traceId, 1, operation, clazz);
+			writtenRecords.add(this.withLoggingTimestamp(new BeforeOperationEvent(traceId + 1, traceId, 1, operation, clazz), traceId + 1));
+			if ((traceId % 2) == 0) {
+				buffer.newAfterOperationEvent(traceId + 2, traceId, 2, operation, clazz);
+				writtenRecords.add(this.withLoggingTimestamp(new AfterOperationEvent(traceId + 2, traceId, 2, operation, clazz), traceId + 2));
+			} else {
+				buffer.newAfterOperationFailedEvent(traceId + 2, traceId, 2, operation, clazz, "cause" + traceId);
+				writtenRecords.add(this.withLoggingTimestamp(new AfterOperationFailedEvent(traceId + 2, traceId, 2, operation, clazz, "cause" + traceId),
+						traceId + 2));
+			}
+			if (traceId < (NUMBER_OF_TRACES - 1)) {
+				buffer.flush();
+			}
+		}
+		return writtenRecords;
+	}
+
+	private List<IMonitoringRecord> withoutRegistryRecords(final List<IMonitoringRecord> records) {
+		synchronized (records) {
+			final List<IMonitoringRecord> result = new ArrayList<IMonitoringRecord>(records.size());
+			for (final IMonitoringRecord record : records) {
+				if (!(record instanceof RegistryRecord)) {
+					result.add(record);
+				}
+			}
+			return result;
+		}
+	}
+
+	private IMonitoringRecord withLoggingTimestamp(final IMonitoringRecord record, final long loggingTimestamp) {
+		record.setLoggingTimestamp(loggingTimestamp);
+		return record;
+	}
+
+	private ILookup<String> readMappingFile(final File mappingFile) throws IOException {
+		final ILookup<String> stringRegistry = new Lookup<String>();
+		final BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(mappingFile), FSUtil.ENCODING));
+		try {
+			String line;
+			while ((line = in.readLine()) != null) { // NOPMD (assign)
+				final int split = line.indexOf('=');
+				stringRegistry.set(FSUtil.decodeNewline(line.substring(split + 1)), Integer.parseInt(line.substring(1, split)));
+			}
+		} finally {
+			in.close();
+		}
+		return stringRegistry;
+	}
+
+	private void readBinaryFile(final File logFile, final ILookup<String> stringRegistry, final List<IMonitoringRecord> readRecords) throws IOException {
+		final RandomAccessFile file = new RandomAccessFile(logFile, "r");
+		final ByteBuffer buffer;
+		try {
+			final byte[] content = new byte[(int) file.length()];
+			file.readFully(content);
+			buffer = ByteBuffer.wrap(content);
+		} finally {
+			file.close();
+		}
+		while (buffer.hasRemaining()) {
+			final String classname = stringRegistry.get(buffer.getInt());
+			final long loggingTimestamp = buffer.getLong();
+			final IMonitoringRecord record = CachedRecordFactoryCatalog.getInstance().get(classname).create(buffer, stringRegistry);
+			record.setLoggingTimestamp(loggingTimestamp);
+			readRecords.add(record);
+		}
+	}
+
+	private List<IMonitoringRecord> readTcpStream(final ByteBuffer buffer) {
+		final ILookup<String> stringRegistry = new Lookup<String>();
+		final List<IMonitoringRecord> readRecords = new ArrayList<IMonitoringRecord>();
+		while (buffer.hasRemaining()) {
+			final int classId = buffer.getInt();
+			if (classId == RegistryRecord.CLASS_ID) {
+				final int stringId = buffer.getInt();
+				final byte[] stringBytes = new byte[buffer.getInt()];
+				buffer.get(stringBytes);
+				stringRegistry.set(new String(stringBytes, Charset.forName("UTF-8")), stringId);
+			} else {
+				final long loggingTimestamp = buffer.getLong();
+				final IMonitoringRecord record = CachedRecordFactoryCatalog.getInstance().get(stringRegistry.get(classId)).create(buffer, stringRegistry);
+				record.setLoggingTimestamp(loggingTimestamp);
+				readRecords.add(record);
+			}
+		}
+		return readRecords;
+	}
+
+	/**
+	 * A record which claims to be larger than the smallest batch.
+	 *
+	 * @author Christian Stier
+	 */
+	private static final class LargeRecord extends TimestampRecord {
+		private static final long serialVersionUID = 1L;
+
+		public LargeRecord(final long timestamp) {
+			super(timestamp);
+		}
+
+		@Override
+		public int getSize() {
+			return 2 * SerializedRecordBuffer.MIN_BATCH_SIZE;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.junit.writer.filesystem;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.factory.CachedRecordFactoryCatalog;
+import kieker.common.util.filesystem.BinaryCompressionMethod;
+import kieker.common.util.filesystem.FSUtil;
+import kieker.common.util.registry.ILookup;
+import kieker.common.util.registry.Lookup;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.writer.filesystem.AbstractAsyncFSWriter;
+import kieker.monitoring.writer.filesystem.AsyncBinaryFsWriter;
+import kieker.monitoring.writer.filesystem.AsyncBinaryNFsWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Writes records with the binary file system writers and makes sure that they can be read again. The buffer size is chosen smaller than a single record, in
+ * order to exercise the flushing and growing of the reusable buffer.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestBinaryFsWriterRoundTrip extends AbstractKiekerTest {
+
+	private static final int NUMBER_OF_RECORDS = 100;
+	private static final int MAX_ENTRIES_IN_FILE = 30;
+
+	/** A rule making sure that a temporary folder exists for every test method (which is removed after the test). */
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (Rule has to be public)
+
+	/**
+	 * Default constructor.
+	 */
+	public TestBinaryFsWriterRoundTrip() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests the uncompressed, channel-based path of the {@link AsyncBinaryFsWriter}.
+	 *
+	 * @throws IOException
+	 *             If something went wrong while reading the log.
+	 */
+	@Test
+	public void testUncompressedRoundTrip() throws IOException {
+		this.checkRoundTrip(AsyncBinaryFsWriter.class.getName(), AsyncBinaryFsWriter.CONFIG_BUFFER, AsyncBinaryFsWriter.CONFIG_COMPRESS,
+				BinaryCompressionMethod.NONE);
+	}
+
+	/**
+	 * Tests the compressed, stream-based path of the {@link AsyncBinaryFsWriter}.
+	 *
+	 * @throws IOException
+	 *             If something went wrong while reading the log.
+	 */
+	@Test
+	public void testDeflateRoundTrip() throws IOException {
+		this.checkRoundTrip(AsyncBinaryFsWriter.class.getName(), AsyncBinaryFsWriter.CONFIG_BUFFER, AsyncBinaryFsWriter.CONFIG_COMPRESS,
+				BinaryCompressionMethod.DEFLATE);
+	}
+
+	/**
+	 * Tests the {@link AsyncBinaryNFsWriter}.
+	 *
+	 * @throws IOException
+	 *             If something went wrong while reading the log.
+	 */
+	@Test
+	public void testNFsRoundTrip() throws IOException {
+		this.checkRoundTrip(AsyncBinaryNFsWriter.class.getName(), AsyncBinaryNFsWriter.CONFIG_BUFFER, AsyncBinaryNFsWriter.CONFIG_COMPRESS,
+				BinaryCompressionMethod.NONE);
+	}
+
+	private void checkRoundTrip(final String writer, final String bufferProperty, final String compressProperty, final BinaryCompressionMethod method)
+			throws IOException {
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, writer);
+		configuration.setProperty(writer + '.' + AbstractAsyncFSWriter.CONFIG_PATH, this.tmpFolder.getRoot().getCanonicalPath());
+		configuration.setProperty(writer + '.' + AbstractAsyncFSWriter.CONFIG_MAXENTRIESINFILE, String.valueOf(MAX_ENTRIES_IN_FILE));
+		configuration.setProperty(bufferProperty, "16");
+		configuration.setProperty(compressProperty, method.name());
+		final IMonitoringController ctrl = MonitoringController.createInstance(configuration);
+
+		final List<IMonitoringRecord> writtenRecords = new ArrayList<IMonitoringRecord>(NUMBER_OF_RECORDS);
+		for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+			final IMonitoringRecord record = new OperationExecutionRecord("public void op" + (i % 7) + "()", "session", i, i, i + 1, "host", i, 0);
+			record.setLoggingTimestamp(i);
+			writtenRecords.add(record);
+			ctrl.newMonitoringRecord(record);
+		}
+		ctrl.terminateMonitoring();
+
+		final File[] logDirs = this.tmpFolder.getRoot().listFiles();
+		Assert.assertEquals(1, logDirs.length);
+		final ILookup<String> stringRegistry = this.readMappingFile(new File(logDirs[0], FSUtil.MAP_FILENAME));
+		final File[] logFiles = logDirs[0].listFiles();
+		Arrays.sort(logFiles);
+		final List<IMonitoringRecord> readRecords = new ArrayList<IMonitoringRecord>(NUMBER_OF_RECORDS);
+		for (final File logFile : logFiles) {
+			if (logFile.getName().endsWith(method.getFileExtension())) {
+				this.readBinaryFile(logFile, method, stringRegistry, readRecords);
+			}
+		}
+		Assert.assertEquals(writtenRecords, readRecords);
+	}
+
+	private ILookup<String> readMappingFile(final File mappingFile) throws IOException {
+		final ILookup<String> stringRegistry = new Lookup<String>();
+		final BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(mappingFile), FSUtil.ENCODING));
+		try {
+			String line;
+			while ((line = in.readLine()) != null) { // NOPMD (assign)
+				final int split = line.indexOf('=');
+				stringRegistry.set(FSUtil.decodeNewline(line.substring(split + 1)), Integer.parseInt(line.substring(1, split)));
+			}
+		} finally {
+			in.close();
+		}
+		return stringRegistry;
+	}
+
+	private void readBinaryFile(final File logFile, final BinaryCompressionMethod method, final ILookup<String> stringRegistry,
+			final List<IMonitoringRecord> readRecords) throws IOException {
+		final DataInputStream in = method.getDataInputStream(logFile, 1024);
+		try {
+			final byte[] recordBytes = new byte[OperationExecutionRecord.SIZE];
+			while (true) {
+				final int id;
+				try {
+					id = in.readInt();
+				} catch (final EOFException eof) {
+					break; // we are finished
+				}
+				final String classname = stringRegistry.get(id);
+				final long loggingTimestamp = in.readLong();
+				in.readFully(recordBytes);
+				final IMonitoringRecord record = CachedRecordFactoryCatalog.getInstance().get(classname).create(ByteBuffer.wrap(recordBytes), stringRegistry);
+				record.setLoggingTimestamp(loggingTimestamp);
+				readRecords.add(record);
+			}
+		} finally {
+			in.close();
+		}
+	}
+}
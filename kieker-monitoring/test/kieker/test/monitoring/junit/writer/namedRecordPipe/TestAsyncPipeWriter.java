@@ -0,0 +1,104 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.junit.writer.namedRecordPipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.namedRecordPipe.Broker;
+import kieker.common.namedRecordPipe.IPipeReader;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.misc.EmptyRecord;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.writer.AbstractAsyncWriter;
+import kieker.monitoring.writer.namedRecordPipe.AsyncPipeWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+import kieker.test.monitoring.util.NamedPipeFactory;
+
+/**
+ * Tests the {@link AsyncPipeWriter}.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestAsyncPipeWriter extends AbstractKiekerTest {
+
+	/**
+	 * Default constructor.
+	 */
+	public TestAsyncPipeWriter() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests whether the writer passes all records to the pipe using its own thread and closes the pipe on termination.
+	 * 
+	 * @throws InterruptedException
+	 *             If the test has been interrupted.
+	 */
+	@Test
+	public void testRecordsPassedByWriterThread() throws InterruptedException {
+		final String pipeName = NamedPipeFactory.createPipeName();
+		final List<IMonitoringRecord> receivedRecords = Collections.synchronizedList(new ArrayList<IMonitoringRecord>());
+		final List<Thread> receivingThreads = Collections.synchronizedList(new ArrayList<Thread>());
+		final CountDownLatch pipeClosed = new CountDownLatch(1);
+		Broker.INSTANCE.acquirePipe(pipeName).setPipeReader(new IPipeReader() {
+
+			@Override
+			public boolean newMonitoringRecord(final IMonitoringRecord record) {
+				receivingThreads.add(Thread.currentThread());
+				return receivedRecords.add(record);
+			}
+
+			@Override
+			public void notifyPipeClosed() {
+				pipeClosed.countDown();
+			}
+		});
+
+		final Configuration configuration = ConfigurationFactory.createDefaultConfiguration();
+		configuration.setProperty(ConfigurationFactory.METADATA, "false");
+		configuration.setProperty(ConfigurationFactory.WRITER_CLASSNAME, AsyncPipeWriter.class.getName());
+		configuration.setProperty(AsyncPipeWriter.CONFIG_PIPENAME, pipeName);
+		configuration.setProperty(AsyncPipeWriter.class.getName() + "." + AbstractAsyncWriter.CONFIG_QUEUESIZE, "16");
+		configuration.setProperty(AsyncPipeWriter.class.getName() + "." + AbstractAsyncWriter.CONFIG_BEHAVIOR, "1");
+		final IMonitoringController monitoringController = MonitoringController.createInstance(configuration);
+
+		final int numRecordsToSend = 1000;
+		for (int i = 0; i < numRecordsToSend; i++) {
+			Assert.assertTrue(monitoringController.newMonitoringRecord(new EmptyRecord()));
+		}
+		monitoringController.terminateMonitoring();
+
+		Assert.assertTrue("Pipe not closed", pipeClosed.await(10, TimeUnit.SECONDS));
+		Assert.assertEquals("Unexpected number of records received", numRecordsToSend, receivedRecords.size());
+		for (final Thread thread : receivingThreads) {
+			Assert.assertNotSame("Record passed by the monitored thread", Thread.currentThread(), thread);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.monitoring.util;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.misc.RegistryRecord;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.writer.AbstractAsyncThread;
+import kieker.monitoring.writer.AbstractAsyncWriter;
+
+/**
+ * An asynchronous writer adding the records (including the deserialized records of batches of serialized records) to a named list of the
+ * {@link NamedListWriter}. Registry records are not added.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class NamedListAsyncWriter extends AbstractAsyncWriter {
+
+	/** The name of the configuration determining the name of the list used by this writer. */
+	public static final String CONFIG_PROPERTY_NAME_LIST_NAME = NamedListAsyncWriter.class.getName() + ".listName";
+
+	private final List<IMonitoringRecord> myNamedList;
+
+	/**
+	 * Creates a new instance of this class using the given parameters.
+	 *
+	 * @param configuration
+	 *            The configuration used to configure this component.
+	 */
+	public NamedListAsyncWriter(final Configuration configuration) {
+		super(configuration);
+		this.myNamedList = NamedListWriter.createNamedList(configuration.getStringProperty(CONFIG_PROPERTY_NAME_LIST_NAME));
+	}
+
+	@Override
+	protected void init() throws Exception {
+		this.addWorker(new NamedListWriterThread(this.monitoringController, this.blockingQueue, this.myNamedList));
+		this.addWorker(new NamedListWriterThread(this.monitoringController, this.prioritizedBlockingQueue, this.myNamedList));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean supportsSerializedRecordBatches() {
+		return true;
+	}
+
+	/**
+	 * Waits until the given list contains at least the given number of records.
+	 *
+	 * @param list
+	 *            The list to observe.
+	 * @param numberOfRecords
+	 *            The number of records to wait for.
+	 * @param timeout
+	 *            The maximal time to wait in milliseconds.
+	 *
+	 * @return true if and only if the list contains the records in time
+	 *
+	 * @throws InterruptedException
+	 *             If the current thread has been interrupted while waiting.
+	 */
+	public static boolean awaitRecords(final List<IMonitoringRecord> list, final int numberOfRecords, final long timeout) throws InterruptedException {
+		final long end = System.currentTimeMillis() + timeout;
+		while (true) {
+			synchronized (list) {
+				if (list.size() >= numberOfRecords) {
+					return true;
+				}
+			}
+			if (System.currentTimeMillis() >= end) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * @author Christian Stier
+	 *
+	 * @since 1.13
+	 */
+	private static final class NamedListWriterThread extends AbstractAsyncThread {
+		private final List<IMonitoringRecord> namedList;
+
+		public NamedListWriterThread(final IMonitoringController monitoringController, final BlockingQueue<IMonitoringRecord> writeQueue,
+				final List<IMonitoringRecord> namedList) {
+			super(monitoringController, writeQueue);
+			this.namedList = namedList;
+		}
+
+		@Override
+		protected void consume(final IMonitoringRecord monitoringRecord) {
+			if (monitoringRecord instanceof RegistryRecord) {
+				return;
+			}
+			synchronized (this.namedList) {
+				this.namedList.add(monitoringRecord);
+			}
+		}
+
+		@Override
+		protected void cleanup() {
+			// nothing to clean up
+		}
+	}
+}
@@ -38,9 +38,12 @@ import kieker.tools.opad.timeseries.ITimeSeries;
 import kieker.tools.opad.timeseries.TimeSeries;
 import kieker.tools.opad.timeseries.forecast.IForecastResult;
 import kieker.tools.opad.timeseries.forecast.IForecaster;
+import kieker.tools.opad.timeseries.forecast.IIncrementalForecaster;
 
 /**
- * Computes a forecast for every incoming measurement from different applications.
+ * Computes a forecast for every incoming measurement from different applications. Incremental forecasters ({@link IIncrementalForecaster}) are
+ * kept per application and updated with each measurement, all other forecasters are created anew for each measurement. Measurements of
+ * different applications may be processed concurrently.
  *
  * @since 1.10
  * @author Tom Frotscher, Thomas Duellmann, Tobias Rudolph
@@ -73,6 +76,7 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 
 	private final ConcurrentHashMap<String, ITimeSeries<Double>> applicationForecastingWindow;
 	private final ConcurrentHashMap<String, ForecastMeasurementPair> previousFCPair;
+	private final ConcurrentHashMap<String, IIncrementalForecaster<Double>> incrementalForecasters;
 
 	private AtomicInteger timeSeriesWindowCapacity;
 	private AtomicInteger forecastConfidence;
@@ -92,6 +96,7 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 		super(configuration, projectContext);
 		this.applicationForecastingWindow = new ConcurrentHashMap<String, ITimeSeries<Double>>();
 		this.previousFCPair = new ConcurrentHashMap<String, ForecastMeasurementPair>();
+		this.incrementalForecasters = new ConcurrentHashMap<String, IIncrementalForecaster<Double>>();
 		this.setCurrentConfiguration(configuration, false);
 	}
 
@@ -127,6 +132,11 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 		if (!update || this.isPropertyUpdateable(CONFIG_PROPERTY_NAME_FC_CONFIDENCE)) {
 			this.forecastConfidence = new AtomicInteger(config.getIntProperty(CONFIG_PROPERTY_NAME_FC_CONFIDENCE));
 		}
+
+		if (update) {
+			// the cached forecasters have been created with the previous configuration
+			this.incrementalForecasters.clear();
+		}
 	}
 
 	/**
@@ -137,14 +147,12 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 	 */
 	@InputPort(eventTypes = { NamedDoubleTimeSeriesPoint.class }, name = ForecastingFilter.INPUT_PORT_NAME_TSPOINT)
 	public void inputEvent(final NamedDoubleTimeSeriesPoint input) {
-		if (this.checkInitialization(input.getName())) {
-			this.processInput(input, input.getTime(), input.getName());
-		} else {
+		if (!this.checkInitialization(input.getName())) {
 			// Initialization of the forecasting variables for a new application
-			this.applicationForecastingWindow.put(input.getName(),
+			this.applicationForecastingWindow.putIfAbsent(input.getName(),
 					new TimeSeries<Double>(input.getTime(), super.recordsTimeUnitFromProjectContext, this.deltat.get(), this.timeSeriesWindowCapacity.get()));
-			this.processInput(input, input.getTime(), input.getName());
 		}
+		this.processInput(input, input.getTime(), input.getName());
 	}
 
 	/**
@@ -160,68 +168,92 @@ public class ForecastingFilter extends AbstractUpdateableFilterPlugin {
 	public void processInput(final NamedDoubleTimeSeriesPoint input, final long timestamp, final String name) {
 
 		final ITimeSeries<Double> currentWindow = this.applicationForecastingWindow.get(name);
-		currentWindow.append(input.getValue());
-
-		final IForecaster<Double> forecaster = this.forecastMethod.get().getForecaster(currentWindow, this.forecastConfidence.get());
-
-		final IForecastResult result = forecaster.forecast(1);
-		super.deliver(OUTPUT_PORT_NAME_FORECAST, result);
-
-		// Check whether we have forecasted points
-		if (result.getForecast().getPoints().size() > 0) {
-
-			final double confidenceUpper;
-			if (result.getUpper().getValues().size() > 0) {
-				confidenceUpper = result.getUpper().getValues().get(0);
+		// the measurements of one application are processed one after another
+		synchronized (currentWindow) {
+			currentWindow.append(input.getValue());
+
+			final IForecaster<Double> forecaster = this.getForecaster(name, currentWindow, input.getValue());
+
+			final IForecastResult result = forecaster.forecast(1);
+			super.deliver(OUTPUT_PORT_NAME_FORECAST, result);
+
+			// Check whether we have forecasted points
+			if (result.getForecast().getPoints().size() > 0) {
+
+				final double confidenceUpper;
+				if (result.getUpper().getValues().size() > 0) {
+					confidenceUpper = result.getUpper().getValues().get(0);
+				} else {
+					confidenceUpper = Double.NaN;
+				}
+
+				final double confidenceLower;
+				if (result.getLower().getValues().size() > 0) {
+					confidenceLower = result.getLower().getValues().get(0);
+				} else {
+					confidenceLower = Double.NaN;
+				}
+
+				final ForecastMeasurementPair previousForecastPair = this.previousFCPair.get(name);
+
+				Double forecast = Double.NaN;
+				if (previousForecastPair != null) {
+					forecast = previousForecastPair.getForecasted();
+				}
+
+				final ForecastMeasurementPair forecastedAndMeasuredResult = new ForecastMeasurementPair(
+						name,
+						forecast,
+						input.getValue(),
+						timestamp,
+						result.getConfidenceLevel(),
+						confidenceUpper,
+						confidenceLower,
+						result.getMeanAbsoluteScaledError());
+				if (AbstractAnalysisComponent.LOG.isDebugEnabled()) {
+					AbstractAnalysisComponent.LOG.debug("Forecast: " + forecast + ", Measurement: " + input.getValue() + ", MASE: "
+							+ result.getMeanAbsoluteScaledError());
+				}
+				super.deliver(OUTPUT_PORT_NAME_FORECASTED_AND_MEASURED, forecastedAndMeasuredResult);
+
+				final ForecastMeasurementPair currentForecastPair = new ForecastMeasurementPair(
+						name,
+						result.getForecast().getPoints().get(0).getValue(),
+						input.getValue(),
+						timestamp,
+						result.getConfidenceLevel(),
+						confidenceUpper, confidenceLower,
+						result.getMeanAbsoluteScaledError());
+
+				this.previousFCPair.put(name, currentForecastPair);
+
+				super.deliver(OUTPUT_PORT_NAME_FORECASTED_AND_CURRENT, currentForecastPair);
 			} else {
-				confidenceUpper = Double.NaN;
+				this.log.error("There are no forecast points to deliver. Perhaps Rserve is not running?");
 			}
-
-			final double confidenceLower;
-			if (result.getLower().getValues().size() > 0) {
-				confidenceLower = result.getLower().getValues().get(0);
-			} else {
-				confidenceLower = Double.NaN;
-			}
-
-			final ForecastMeasurementPair previousForecastPair = this.previousFCPair.get(name);
-
-			Double forecast = Double.NaN;
-			if (previousForecastPair != null) {
-				forecast = previousForecastPair.getForecasted();
-			}
-
-			final ForecastMeasurementPair forecastedAndMeasuredResult = new ForecastMeasurementPair(
-					name,
-					forecast,
-					input.getValue(),
-					timestamp,
-					result.getConfidenceLevel(),
-					confidenceUpper,
-					confidenceLower,
-					result.getMeanAbsoluteScaledError());
-			if (AbstractAnalysisComponent.LOG.isDebugEnabled()) {
-				AbstractAnalysisComponent.LOG.debug("Forecast: " + forecast + ", Measurement: " + input.getValue() + ", MASE: "
-						+ result.getMeanAbsoluteScaledError());
-			}
-			super.deliver(OUTPUT_PORT_NAME_FORECASTED_AND_MEASURED, forecastedAndMeasuredResult);
-
-			final ForecastMeasurementPair currentForecastPair = new ForecastMeasurementPair(
-					name,
-					result.getForecast().getPoints().get(0).getValue(),
-					input.getValue(),
-					timestamp,
-					result.getConfidenceLevel(),
-					confidenceUpper, confidenceLower,
-					result.getMeanAbsoluteScaledError());
-
-			this.previousFCPair.put(name, currentForecastPair);
-
-			super.deliver(OUTPUT_PORT_NAME_FORECASTED_AND_CURRENT, currentForecastPair);
-		} else {
-			this.log.error("There are no forecast points to deliver. Perhaps Rserve is not running?");
 		}
+	}
 
+	/**
+	 * Returns the forecaster for the current window of the given application. An incremental forecaster of the configured method and confidence
+	 * level is reused and updated with the given value, which has already been appended to the window.
+	 */
+	private IForecaster<Double> getForecaster(final String name, final ITimeSeries<Double> currentWindow, final Double value) {
+		final ForecastMethod method = this.forecastMethod.get();
+		final int confidenceLevel = this.forecastConfidence.get();
+		final IIncrementalForecaster<Double> incrementalForecaster = this.incrementalForecasters.get(name);
+		if ((incrementalForecaster != null) && (incrementalForecaster.getForecastMethod() == method)
+				&& (incrementalForecaster.getConfidenceLevel() == confidenceLevel)) {
+			incrementalForecaster.update(value);
+			return incrementalForecaster;
+		}
+		final IForecaster<Double> forecaster = method.getForecaster(currentWindow, confidenceLevel);
+		if (forecaster instanceof IIncrementalForecaster) {
+			this.incrementalForecasters.put(name, (IIncrementalForecaster<Double>) forecaster);
+		} else if (incrementalForecaster != null) {
+			this.incrementalForecasters.remove(name);
+		}
+		return forecaster;
 	}
 
 	/**
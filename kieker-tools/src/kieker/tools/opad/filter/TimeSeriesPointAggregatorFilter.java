@@ -33,10 +33,12 @@ import kieker.common.configuration.Configuration;
 import kieker.tools.opad.model.NamedDoubleTimeSeriesPoint;
 import kieker.tools.opad.record.AggregationWindow;
 import kieker.tools.opad.timeseries.AggregationMethod;
+import kieker.tools.opad.timeseries.StreamingAggregation;
 import kieker.tools.util.AggregationVariableSet;
 
 /**
  * This Filter aggregates the incoming DoubleTImeSeriesPoints over a configurable period of time.
+ * The points of a window are not buffered; each variable is aggregated in constant memory by a {@link StreamingAggregation}.
  *
  * @author Tom Frotscher, Teerat Pitakrat
  * @since 1.10
@@ -46,6 +48,7 @@ import kieker.tools.util.AggregationVariableSet;
 	@OutputPort(eventTypes = { AggregationWindow.class }, name = TimeSeriesPointAggregatorFilter.OUTPUT_PORT_NAME_AGGREGATION_WINDOW) },
 		configuration = {
 			@Property(name = TimeSeriesPointAggregatorFilter.CONFIG_PROPERTY_NAME_AGGREGATION_METHOD, defaultValue = "MEAN"),
+			@Property(name = TimeSeriesPointAggregatorFilter.CONFIG_PROPERTY_NAME_AGGREGATION_QUANTILE, defaultValue = "0.5"),
 			@Property(name = TimeSeriesPointAggregatorFilter.CONFIG_PROPERTY_NAME_AGGREGATION_SPAN, defaultValue = "1000"),
 			@Property(name = TimeSeriesPointAggregatorFilter.CONFIG_PROPERTY_NAME_AGGREGATION_TIMEUNIT, defaultValue = "MILLISECONDS"),
 			@Property(name = TimeSeriesPointAggregatorFilter.CONFIG_PROPERTY_NAME_AGGREGATION_TIMESCOPE, defaultValue = "perVariable")
@@ -62,6 +65,8 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 
 	/** The name of the property determining the aggregation method. */
 	public static final String CONFIG_PROPERTY_NAME_AGGREGATION_METHOD = "aggregationMethod";
+	/** The name of the property determining the quantile (between 0 and 1) used by the aggregation method QUANTILE. */
+	public static final String CONFIG_PROPERTY_NAME_AGGREGATION_QUANTILE = "quantile";
 	public static final String CONFIG_PROPERTY_NAME_AGGREGATION_SPAN = "aggregationSpan";
 	public static final String CONFIG_PROPERTY_NAME_AGGREGATION_TIMEUNIT = "timeUnit";
 	public static final String CONFIG_PROPERTY_NAME_AGGREGATION_TIMESCOPE = "timeScope";
@@ -81,6 +86,7 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 	private final long aggregationSpan; // default from annotation used
 	private final TimeUnit timeunit; // default from annotation used
 	private final AggregationMethod aggregationMethod; // default from annotation used
+	private final double quantile; // default from annotation used
 	private final boolean aggregationTimescopeGlobal;
 
 	private AggregationWindow recentWindow = new AggregationWindow(0L, 0L);
@@ -111,6 +117,14 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 		}
 		this.aggregationMethod = configAggregationMethod;
 
+		// Determine quantile
+		double configQuantile = configuration.getDoubleProperty(CONFIG_PROPERTY_NAME_AGGREGATION_QUANTILE);
+		if ((configQuantile < 0) || (configQuantile > 1)) {
+			this.log.warn(configQuantile + " is no valid quantile! Using the median instead.");
+			configQuantile = 0.5;
+		}
+		this.quantile = configQuantile;
+
 		// Determine aggregation span
 		this.aggregationSpan = this.timeunit.convert(configuration.getIntProperty(CONFIG_PROPERTY_NAME_AGGREGATION_SPAN), configTimeUnit);
 
@@ -130,6 +144,7 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 		configuration.setProperty(CONFIG_PROPERTY_NAME_AGGREGATION_SPAN, Long.toString(this.aggregationSpan));
 		configuration.setProperty(CONFIG_PROPERTY_NAME_AGGREGATION_TIMEUNIT, this.timeunit.name());
 		configuration.setProperty(CONFIG_PROPERTY_NAME_AGGREGATION_METHOD, this.aggregationMethod.name());
+		configuration.setProperty(CONFIG_PROPERTY_NAME_AGGREGATION_QUANTILE, Double.toString(this.quantile));
 		if (this.aggregationTimescopeGlobal) {
 			configuration.setProperty(CONFIG_PROPERTY_NAME_AGGREGATION_TIMESCOPE, CONFIG_PROPERTY_VALUE_AGGREGATION_TIMESCOPE_GLOBAL);
 		} else {
@@ -148,7 +163,9 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 	@InputPort(eventTypes = { NamedDoubleTimeSeriesPoint.class }, name = TimeSeriesPointAggregatorFilter.INPUT_PORT_NAME_TSPOINT)
 	public void inputTSPoint(final NamedDoubleTimeSeriesPoint input) {
 		final String name = input.getName();
-		this.aggregationVariables.putIfAbsent(name, new AggregationVariableSet());
+		if (!this.aggregationVariables.containsKey(name)) {
+			this.aggregationVariables.putIfAbsent(name, new AggregationVariableSet(new StreamingAggregation(this.aggregationMethod, this.quantile)));
+		}
 
 		if (this.aggregationTimescopeGlobal) {
 			this.processInputGlobalScope(input);
@@ -172,7 +189,7 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 		// check if interval is omitted
 		if (endOfTimestampsInterval > variables.getLastTimestampInCurrentInterval()) {
 			if (variables.getFirstTimestampInCurrentInterval() >= 0) { // don't do this for the first record (only used for initialization of variables)
-				this.calculateAndDeliverAggregationValue(variables);
+				this.calculateAndDeliverAggregationValue(variables, appname);
 				long numIntervalsElapsed = 1; // refined below
 				numIntervalsElapsed = (endOfTimestampsInterval - variables.getLastTimestampInCurrentInterval()) / this.aggregationSpan;
 				if (numIntervalsElapsed > 1) {
@@ -186,9 +203,9 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 			}
 			variables.setFirstTimestampInCurrentInterval(startOfTimestampsInterval);
 			variables.setLastTimestampInCurrentInterval(endOfTimestampsInterval);
-			variables.getAggregationList().clear();
+			variables.getAggregation().clear();
 		}
-		variables.getAggregationList().add(input);
+		variables.getAggregation().add(input.getValue());
 	}
 
 	private synchronized void processInputGlobalScope(final NamedDoubleTimeSeriesPoint input) { // NOPMD (AvoidSynchronizedAtMethodLevel)
@@ -229,7 +246,7 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 
 		// Ignore input if the timestamp is before the current window
 		if (inputTimestamp >= inputVariables.getFirstTimestampInCurrentInterval()) {
-			inputVariables.getAggregationList().add(input);
+			inputVariables.getAggregation().add(input.getValue());
 		}
 
 		for (final long timestamp : orderedTsPoints.keySet()) {
@@ -246,17 +263,13 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 		final long firstTimestampInCurrentInterval = variables.getFirstTimestampInCurrentInterval();
 		final long lastTimestampInCurrentInterval = variables.getLastTimestampInCurrentInterval();
 		synchronized (this) {
-			final int listSize = variables.getAggregationList().size();
-			if (listSize <= 0) {
+			final StreamingAggregation aggregation = variables.getAggregation();
+			if (aggregation.getCount() <= 0) {
 				tsPoint = new NamedDoubleTimeSeriesPoint(lastTimestampInCurrentInterval, Double.NaN, name);
 			} else {
-				final double[] a = new double[listSize];
-				for (int i = 0; i < listSize; i++) {
-					a[i] = variables.getAggregationList().get(i).getValue();
-				}
-				aggregationValue = this.aggregationMethod.getAggregationValue(a);
+				aggregationValue = aggregation.getValue();
 				tsPoint = new NamedDoubleTimeSeriesPoint(lastTimestampInCurrentInterval, aggregationValue, name);
-				variables.getAggregationList().clear();
+				aggregation.clear();
 			}
 			variables.setFirstTimestampInCurrentInterval(firstTimestampInCurrentInterval + this.aggregationSpan);
 			variables.setLastTimestampInCurrentInterval(lastTimestampInCurrentInterval + this.aggregationSpan);
@@ -273,21 +286,14 @@ public class TimeSeriesPointAggregatorFilter extends AbstractFilterPlugin {
 		tsPointList.add(newTsPoint);
 	}
 
-	private void calculateAndDeliverAggregationValue(final AggregationVariableSet variables) {
+	private void calculateAndDeliverAggregationValue(final AggregationVariableSet variables, final String name) {
 		final double aggregationValue;
 		final NamedDoubleTimeSeriesPoint tsPoint;
 		synchronized (this) {
-			final int listSize = variables.getAggregationList().size();
-			final double[] a = new double[listSize];
-			for (int i = 0; i < listSize; i++) {
-				a[i] = variables.getAggregationList().get(i).getValue();
-			}
-			aggregationValue = this.aggregationMethod.getAggregationValue(a);
-			tsPoint = new NamedDoubleTimeSeriesPoint(variables.getLastTimestampInCurrentInterval(),
-					aggregationValue,
-					variables.getAggregationList().get(0).getName()); // use name of first element (any will do)
-			variables.getAggregationList().clear();
-
+			final StreamingAggregation aggregation = variables.getAggregation();
+			aggregationValue = aggregation.getValue();
+			tsPoint = new NamedDoubleTimeSeriesPoint(variables.getLastTimestampInCurrentInterval(), aggregationValue, name);
+			aggregation.clear();
 		}
 		super.deliver(OUTPUT_PORT_NAME_AGGREGATED_TSPOINT, tsPoint);
 	}
@@ -25,9 +25,9 @@ import org.apache.commons.math3.stat.StatUtils;
 public enum AggregationMethod {
 
 	/**
-	 * different aggregationmethods
+	 * different aggregationmethods; QUANTILE uses the median unless another quantile is configured (see {@link StreamingAggregation})
 	 */
-	GEOMETRIC_MEAN, MAX, MEAN, MIN, PERCENTILE90, PERCENTILE95, PRODUCT, SUM, SUMLOG, SUMSQ, VARIANCE;
+	GEOMETRIC_MEAN, MAX, MEAN, MIN, PERCENTILE90, PERCENTILE95, PRODUCT, QUANTILE, SUM, SUMLOG, SUMSQ, VARIANCE;
 
 	/**
 	 * This method returns the result of the aggregation under one of the defined aggregation methods.
@@ -53,6 +53,8 @@ public enum AggregationMethod {
 			return StatUtils.percentile(aggregationValues, 95);
 		case PRODUCT:
 			return StatUtils.product(aggregationValues);
+		case QUANTILE:
+			return StatUtils.percentile(aggregationValues, 50);
 		case SUM:
 			return StatUtils.sum(aggregationValues);
 		case SUMSQ:
@@ -65,4 +67,13 @@ public enum AggregationMethod {
 			return StatUtils.mean(aggregationValues);
 		}
 	}
+
+	/**
+	 * @return true if the aggregation method is a percentile or quantile, which can only be estimated in a streaming aggregation
+	 *
+	 * @since 1.13
+	 */
+	public boolean isQuantile() {
+		return (this == PERCENTILE90) || (this == PERCENTILE95) || (this == QUANTILE);
+	}
 }
@@ -20,13 +20,17 @@ import kieker.tools.opad.timeseries.anomalycalculators.IAnomalyScoreCalculator;
 import kieker.tools.opad.timeseries.anomalycalculators.SimpleAnomalyScoreCalculator;
 import kieker.tools.opad.timeseries.forecast.IForecaster;
 import kieker.tools.opad.timeseries.forecast.arima.ARIMA101Forecaster;
+import kieker.tools.opad.timeseries.forecast.arima.ARIMA101ForecasterJava;
 import kieker.tools.opad.timeseries.forecast.arima.ARIMAForecaster;
 import kieker.tools.opad.timeseries.forecast.croston.CrostonForecaster;
+import kieker.tools.opad.timeseries.forecast.croston.CrostonForecasterJava;
 import kieker.tools.opad.timeseries.forecast.cs.CSForecaster;
 import kieker.tools.opad.timeseries.forecast.ets.ETSForecaster;
+import kieker.tools.opad.timeseries.forecast.ets.ETSForecasterJava;
 import kieker.tools.opad.timeseries.forecast.mean.MeanForecaster;
 import kieker.tools.opad.timeseries.forecast.mean.MeanForecasterJava;
 import kieker.tools.opad.timeseries.forecast.naive.NaiveForecaster;
+import kieker.tools.opad.timeseries.forecast.ses.SESForecasterJava;
 import kieker.tools.opad.timeseries.forecast.ses.SESRForecaster;
 
 /**
@@ -42,15 +46,24 @@ public enum ForecastMethod {
 	/** {@link ARIMA101Forecaster} */
 	ARIMA101,
 
+	/** {@link ARIMA101ForecasterJava} */
+	ARIMA101JAVA,
+
 	/** {@link CrostonForecaster} */
 	CROSTON,
 
+	/** {@link CrostonForecasterJava} */
+	CROSTONJAVA,
+
 	/** {@link CSForecaster} */
 	CS,
 
 	/** {@link ETSForecaster} */
 	ETS,
 
+	/** {@link ETSForecasterJava} */
+	ETSJAVA,
+
 	/** {@link MeanForecaster} */
 	MEAN,
 
@@ -61,7 +74,10 @@ public enum ForecastMethod {
 	NAIVE,
 
 	/** {@link SESRForecaster} */
-	SES;
+	SES,
+
+	/** {@link SESForecasterJava} */
+	SESJAVA;
 
 	/**
 	 *
@@ -79,12 +95,18 @@ public enum ForecastMethod {
 			return new ARIMAForecaster(history);
 		case ARIMA101:
 			return new ARIMA101Forecaster(history);
+		case ARIMA101JAVA:
+			return new ARIMA101ForecasterJava(history);
 		case CROSTON:
 			return new CrostonForecaster(history);
+		case CROSTONJAVA:
+			return new CrostonForecasterJava(history);
 		case CS:
 			return new CSForecaster(history);
 		case ETS:
 			return new ETSForecaster(history);
+		case ETSJAVA:
+			return new ETSForecasterJava(history);
 		case MEAN:
 			return new MeanForecaster(history);
 		case MEANJAVA:
@@ -93,6 +115,8 @@ public enum ForecastMethod {
 			return new NaiveForecaster(history);
 		case SES:
 			return new SESRForecaster(history);
+		case SESJAVA:
+			return new SESForecasterJava(history);
 		default:
 			throw new IllegalArgumentException("No forecaster defined for " + this.toString());
 		}
@@ -116,12 +140,18 @@ public enum ForecastMethod {
 			return new ARIMAForecaster(history, alpha);
 		case ARIMA101:
 			return new ARIMA101Forecaster(history, alpha);
+		case ARIMA101JAVA:
+			return new ARIMA101ForecasterJava(history, alpha);
 		case CROSTON:
 			return new CrostonForecaster(history, alpha);
+		case CROSTONJAVA:
+			return new CrostonForecasterJava(history); // does not support confidence
 		case CS:
 			return new CSForecaster(ForecastMethod.getLastXofTS(history, 30), alpha);
 		case ETS:
 			return new ETSForecaster(history, alpha);
+		case ETSJAVA:
+			return new ETSForecasterJava(history, alpha);
 		case MEAN:
 			return new MeanForecaster(ForecastMethod.getLastXofTS(history, 10), alpha);
 		case MEANJAVA:
@@ -130,6 +160,8 @@ public enum ForecastMethod {
 			return new NaiveForecaster(history, alpha);
 		case SES:
 			return new SESRForecaster(history, alpha);
+		case SESJAVA:
+			return new SESForecasterJava(history, alpha);
 		default:
 			throw new IllegalArgumentException("No forecaster defined for " + this.toString());
 		}
@@ -0,0 +1,321 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.opad.timeseries;
+
+/**
+ * A mergeable sketch estimating quantiles in bounded memory (following the DDSketch approach). Values are counted in logarithmically sized
+ * buckets, such that each estimated quantile has a relative error of at most the configured accuracy. If more than the maximal number of
+ * buckets would be required, the buckets of the smallest absolute values are collapsed (reducing the accuracy for these values only).
+ * 
+ * This class is not thread-safe.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public final class QuantileSketch {
+
+	/** The default relative accuracy of the estimated quantiles. */
+	public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+	/** The default maximal number of buckets for positive and negative values each. */
+	public static final int DEFAULT_MAX_NUMBER_OF_BUCKETS = 2048;
+
+	/** smaller absolute values are counted as zero. */
+	private static final double MIN_INDEXABLE_VALUE = 1e-12;
+
+	private final double relativeAccuracy;
+	private final double gamma;
+	private final double logGamma;
+	private final BucketStore positiveValues;
+	private final BucketStore negativeValues;
+	private long zeroCount;
+	private long count;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Creates a new sketch with the default accuracy and number of buckets.
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_NUMBER_OF_BUCKETS);
+	}
+
+	/**
+	 * Creates a new sketch.
+	 * 
+	 * @param relativeAccuracy
+	 *            The relative accuracy of the estimated quantiles (between 0 and 1, exclusive).
+	 * @param maxNumberOfBuckets
+	 *            The maximal number of buckets for positive and negative values each.
+	 */
+	public QuantileSketch(final double relativeAccuracy, final int maxNumberOfBuckets) {
+		if ((relativeAccuracy <= 0) || (relativeAccuracy >= 1)) {
+			throw new IllegalArgumentException("The relative accuracy must be between 0 and 1, but is " + relativeAccuracy);
+		}
+		if (maxNumberOfBuckets < 1) {
+			throw new IllegalArgumentException("The maximal number of buckets must be positive, but is " + maxNumberOfBuckets);
+		}
+		this.relativeAccuracy = relativeAccuracy;
+		this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+		this.logGamma = Math.log(this.gamma);
+		this.positiveValues = new BucketStore(maxNumberOfBuckets);
+		this.negativeValues = new BucketStore(maxNumberOfBuckets);
+	}
+
+	/**
+	 * Adds a value to the sketch. NaN values are ignored.
+	 * 
+	 * @param value
+	 *            The value to add.
+	 */
+	public void add(final double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		if (value > MIN_INDEXABLE_VALUE) {
+			this.positiveValues.add(this.index(value), 1);
+		} else if (value < -MIN_INDEXABLE_VALUE) {
+			this.negativeValues.add(this.index(-value), 1);
+		} else {
+			this.zeroCount++;
+		}
+		this.count++;
+		if (value < this.min) {
+			this.min = value;
+		}
+		if (value > this.max) {
+			this.max = value;
+		}
+	}
+
+	/**
+	 * Adds all values of the given sketch to this sketch. Both sketches must have the same relative accuracy.
+	 * 
+	 * @param other
+	 *            The sketch to merge into this one.
+	 */
+	public void merge(final QuantileSketch other) {
+		if (Double.compare(this.relativeAccuracy, other.relativeAccuracy) != 0) {
+			throw new IllegalArgumentException("Cannot merge sketches with different accuracies (" + this.relativeAccuracy + " and "
+					+ other.relativeAccuracy + ")");
+		}
+		if (other.count == 0) {
+			return;
+		}
+		this.positiveValues.merge(other.positiveValues);
+		this.negativeValues.merge(other.negativeValues);
+		this.zeroCount += other.zeroCount;
+		this.count += other.count;
+		this.min = Math.min(this.min, other.min);
+		this.max = Math.max(this.max, other.max);
+	}
+
+	/**
+	 * Estimates the given quantile of the added values.
+	 * 
+	 * @param quantile
+	 *            The quantile (between 0 and 1, inclusive), e.g., 0.95 for the 95th percentile.
+	 * 
+	 * @return the estimated quantile or NaN if the sketch is empty
+	 */
+	public double getQuantile(final double quantile) {
+		if ((quantile < 0) || (quantile > 1)) {
+			throw new IllegalArgumentException("The quantile must be between 0 and 1, but is " + quantile);
+		}
+		if (this.count == 0) {
+			return Double.NaN;
+		}
+		final double rank = quantile * (this.count - 1);
+		long seen = 0;
+		final double value;
+		final BucketStore negative = this.negativeValues;
+		if (rank < negative.getTotalCount()) {
+			// the most negative values come first
+			int index = negative.getMaxIndex();
+			while (true) {
+				seen += negative.getCount(index);
+				if (seen > rank) {
+					break;
+				}
+				index--;
+			}
+			value = -this.value(index);
+		} else if (rank < (negative.getTotalCount() + this.zeroCount)) {
+			value = 0;
+		} else {
+			seen = negative.getTotalCount() + this.zeroCount;
+			final BucketStore positive = this.positiveValues;
+			int index = positive.getMinIndex();
+			while (true) {
+				seen += positive.getCount(index);
+				if ((seen > rank) || (index >= positive.getMaxIndex())) {
+					break;
+				}
+				index++;
+			}
+			value = this.value(index);
+		}
+		return Math.max(this.min, Math.min(this.max, value));
+	}
+
+	/**
+	 * @return the number of added values
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * @return the relative accuracy of the estimated quantiles
+	 */
+	public double getRelativeAccuracy() {
+		return this.relativeAccuracy;
+	}
+
+	/**
+	 * Removes all values from the sketch. The allocated buckets are kept for reuse.
+	 */
+	public void clear() {
+		this.positiveValues.clear();
+		this.negativeValues.clear();
+		this.zeroCount = 0;
+		this.count = 0;
+		this.min = Double.POSITIVE_INFINITY;
+		this.max = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * The bucket i contains the values in (gamma^(i-1), gamma^i].
+	 */
+	private int index(final double positiveValue) {
+		return (int) Math.ceil(Math.log(positiveValue) / this.logGamma);
+	}
+
+	/**
+	 * The value of the bucket with the smallest relative error to all values of the bucket.
+	 */
+	private double value(final int index) {
+		return (2 * Math.pow(this.gamma, index)) / (this.gamma + 1);
+	}
+
+	/**
+	 * Counts per bucket index in a contiguous range of at most the maximal number of buckets.
+	 * 
+	 * @author Christian Stier
+	 * 
+	 * @since 1.13
+	 */
+	private static final class BucketStore {
+		private static final int INITIAL_NUMBER_OF_BUCKETS = 64;
+
+		private final int maxNumberOfBuckets;
+		private long[] counts = new long[0];
+		/** the index of counts[0]. */
+		private int offset;
+		private int minIndex;
+		private int maxIndex;
+		private long totalCount;
+
+		public BucketStore(final int maxNumberOfBuckets) {
+			this.maxNumberOfBuckets = maxNumberOfBuckets;
+		}
+
+		public void add(final int index, final long n) {
+			int targetIndex = index;
+			if (this.totalCount == 0) {
+				this.minIndex = index;
+				this.maxIndex = index;
+			}
+			final int low = Math.min(this.minIndex, index);
+			final int high = Math.max(this.maxIndex, index);
+			if (((long) high - low) >= this.maxNumberOfBuckets) {
+				// collapse the buckets of the smallest absolute values
+				final int collapsedLow = (high - this.maxNumberOfBuckets) + 1;
+				if ((this.minIndex < collapsedLow) || (collapsedLow < this.offset) || (high >= (this.offset + this.counts.length))) {
+					this.resize(collapsedLow, high);
+				}
+				targetIndex = Math.max(index, collapsedLow);
+			} else if ((low < this.offset) || (high >= (this.offset + this.counts.length))) {
+				this.resize(low, high);
+			}
+			this.counts[targetIndex - this.offset] += n;
+			this.minIndex = Math.min(this.minIndex, targetIndex);
+			this.maxIndex = Math.max(this.maxIndex, targetIndex);
+			this.totalCount += n;
+		}
+
+		public void merge(final BucketStore other) {
+			if (other.totalCount == 0) {
+				return;
+			}
+			for (int index = other.minIndex; index <= other.maxIndex; index++) {
+				final long n = other.getCount(index);
+				if (n > 0) {
+					this.add(index, n);
+				}
+			}
+		}
+
+		/**
+		 * Ensures that the range [low, high] can be stored. Counts of buckets below low are added to the bucket low.
+		 */
+		private void resize(final int low, final int high) {
+			final int span = (high - low) + 1;
+			final int length = Math.min(this.maxNumberOfBuckets, Math.max(span, Math.max(INITIAL_NUMBER_OF_BUCKETS, this.counts.length * 2)));
+			int newOffset = low - ((length - span) / 2);
+			newOffset = Math.min(newOffset, low);
+			newOffset = Math.max(newOffset, (high - length) + 1);
+			final long[] newCounts = new long[length];
+			if (this.totalCount > 0) {
+				for (int index = this.minIndex; index <= this.maxIndex; index++) {
+					newCounts[Math.max(index, low) - newOffset] += this.counts[index - this.offset];
+				}
+				this.minIndex = Math.max(this.minIndex, low);
+			}
+			this.counts = newCounts;
+			this.offset = newOffset;
+		}
+
+		public long getCount(final int index) {
+			if ((index < this.offset) || (index >= (this.offset + this.counts.length))) {
+				return 0;
+			}
+			return this.counts[index - this.offset];
+		}
+
+		public long getTotalCount() {
+			return this.totalCount;
+		}
+
+		public int getMinIndex() {
+			return this.minIndex;
+		}
+
+		public int getMaxIndex() {
+			return this.maxIndex;
+		}
+
+		public void clear() {
+			if (this.totalCount > 0) {
+				for (int index = this.minIndex; index <= this.maxIndex; index++) {
+					this.counts[index - this.offset] = 0;
+				}
+			}
+			this.totalCount = 0;
+		}
+	}
+}
@@ -0,0 +1,176 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.opad.timeseries;
+
+/**
+ * Aggregates a stream of values according to an {@link AggregationMethod} in constant memory, i.e., without buffering the values.
+ * Sums, products, extremes, mean, and variance are updated with each value (the variance using Welford's algorithm). Percentiles and
+ * other quantiles are estimated by a {@link QuantileSketch}, which is only allocated for these methods.
+ * 
+ * This class is not thread-safe.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public final class StreamingAggregation {
+
+	private final AggregationMethod aggregationMethod;
+	private final double quantile;
+	private final QuantileSketch sketch;
+
+	private long count;
+	private double sum;
+	private double sumSq;
+	private double sumLog;
+	private double product;
+	private double min;
+	private double max;
+	private double mean;
+	private double m2;
+
+	/**
+	 * Creates a new aggregation using the median for the method {@link AggregationMethod#QUANTILE}.
+	 * 
+	 * @param aggregationMethod
+	 *            The aggregation method.
+	 */
+	public StreamingAggregation(final AggregationMethod aggregationMethod) {
+		this(aggregationMethod, 0.5);
+	}
+
+	/**
+	 * Creates a new aggregation.
+	 * 
+	 * @param aggregationMethod
+	 *            The aggregation method.
+	 * @param quantile
+	 *            The quantile (between 0 and 1) used for the method {@link AggregationMethod#QUANTILE}.
+	 */
+	public StreamingAggregation(final AggregationMethod aggregationMethod, final double quantile) {
+		if ((quantile < 0) || (quantile > 1)) {
+			throw new IllegalArgumentException("The quantile must be between 0 and 1, but is " + quantile);
+		}
+		this.aggregationMethod = aggregationMethod;
+		switch (aggregationMethod) {
+		case PERCENTILE90:
+			this.quantile = 0.90;
+			break;
+		case PERCENTILE95:
+			this.quantile = 0.95;
+			break;
+		default:
+			this.quantile = quantile;
+			break;
+		}
+		if (aggregationMethod.isQuantile()) {
+			this.sketch = new QuantileSketch();
+		} else {
+			this.sketch = null; // NOPMD (null)
+		}
+		this.clear();
+	}
+
+	/**
+	 * Adds a value to the aggregation.
+	 * 
+	 * @param value
+	 *            The value to add.
+	 */
+	public void add(final double value) {
+		this.count++;
+		this.sum += value;
+		this.sumSq += value * value;
+		this.sumLog += Math.log(value);
+		this.product *= value;
+		if (value < this.min) {
+			this.min = value;
+		}
+		if (value > this.max) {
+			this.max = value;
+		}
+		final double delta = value - this.mean;
+		this.mean += delta / this.count;
+		this.m2 += delta * (value - this.mean);
+		if (this.sketch != null) {
+			this.sketch.add(value);
+		}
+	}
+
+	/**
+	 * @return the aggregated value of all added values or NaN if no values have been added
+	 */
+	public double getValue() {
+		if (this.count == 0) {
+			return Double.NaN;
+		}
+		switch (this.aggregationMethod) {
+		case GEOMETRIC_MEAN:
+			return Math.exp(this.sumLog / this.count);
+		case MAX:
+			return this.max;
+		case MIN:
+			return this.min;
+		case PERCENTILE90:
+		case PERCENTILE95:
+		case QUANTILE:
+			return this.sketch.getQuantile(this.quantile);
+		case PRODUCT:
+			return this.product;
+		case SUM:
+			return this.sum;
+		case SUMSQ:
+			return this.sumSq;
+		case SUMLOG:
+			return this.sumLog;
+		case VARIANCE:
+			return (this.count == 1) ? 0.0 : (this.m2 / (this.count - 1)); // NOCS (inline conditional) bias corrected
+		case MEAN:
+		default:
+			return this.mean;
+		}
+	}
+
+	/**
+	 * @return the number of added values
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Removes all values, e.g., at the end of an aggregation window.
+	 */
+	public void clear() {
+		this.count = 0;
+		this.sum = 0;
+		this.sumSq = 0;
+		this.sumLog = 0;
+		this.product = 1;
+		this.min = Double.POSITIVE_INFINITY;
+		this.max = Double.NEGATIVE_INFINITY;
+		this.mean = 0;
+		this.m2 = 0;
+		if (this.sketch != null) {
+			this.sketch.clear();
+		}
+	}
+
+	public AggregationMethod getAggregationMethod() {
+		return this.aggregationMethod;
+	}
+}
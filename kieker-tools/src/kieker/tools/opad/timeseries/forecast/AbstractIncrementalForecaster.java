@@ -0,0 +1,200 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.opad.timeseries.forecast;
+
+import org.apache.commons.math3.special.Erf;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+
+/**
+ * Convenience class to implement an {@link IIncrementalForecaster} in Java. The quality of the forecasts (the mean absolute scaled error)
+ * and the width of the prediction intervals are derived from the errors of all previous one-step forecasts, such that neither requires
+ * another pass over the history.
+ * 
+ * Concrete forecasters have to call {@link #updateAll(ITimeSeries)} at the end of their constructors. This class is not thread-safe.
+ * 
+ * @author Christian Stier
+ * @since 1.13
+ */
+public abstract class AbstractIncrementalForecaster extends AbstractForecaster<Double> implements IIncrementalForecaster<Double> {
+
+	private final ForecastMethod strategy;
+	/** the quantile of the standard normal distribution for the confidence level (NaN if disabled). */
+	private final double confidenceQuantile;
+
+	private long numObservations;
+	private double lastValue = Double.NaN;
+
+	private long numForecastErrors;
+	private double sumOfAbsoluteForecastErrors;
+	private double sumOfSquaredForecastErrors;
+	private double sumOfAbsoluteNaiveErrors;
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries
+	 * @param confidenceLevel
+	 *            value of confidencelevel (0 if disabled)
+	 * @param strategy
+	 *            FC strategy
+	 */
+	public AbstractIncrementalForecaster(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel, final ForecastMethod strategy) {
+		super(historyTimeseries, confidenceLevel);
+		if ((confidenceLevel < 0) || (confidenceLevel >= 100)) {
+			throw new IllegalArgumentException("The confidence level must be between 0 and 100, but is " + confidenceLevel);
+		}
+		this.strategy = strategy;
+		if ((confidenceLevel > 0) && this.supportsConfidence()) {
+			this.confidenceQuantile = Math.sqrt(2) * Erf.erfInv(confidenceLevel / 100.0d);
+		} else {
+			this.confidenceQuantile = Double.NaN;
+		}
+	}
+
+	/**
+	 * Updates the model with all values of the given time series.
+	 * 
+	 * @param history
+	 *            timeseries
+	 */
+	protected final void updateAll(final ITimeSeries<Double> history) {
+		for (final Double value : history.getValues()) {
+			this.update(value);
+		}
+	}
+
+	@Override
+	public final void update(final Double value) {
+		if ((null == value) || Double.isNaN(value)) {
+			return;
+		}
+		final double v = value;
+		if (this.numObservations > 0) {
+			final double error = v - this.pointForecast(1);
+			if (!Double.isNaN(error)) {
+				this.numForecastErrors++;
+				this.sumOfAbsoluteForecastErrors += Math.abs(error);
+				this.sumOfSquaredForecastErrors += error * error;
+			}
+			this.sumOfAbsoluteNaiveErrors += Math.abs(v - this.lastValue);
+		}
+		this.updateModel(v);
+		this.lastValue = v;
+		this.numObservations++;
+	}
+
+	@Override
+	public IForecastResult forecast(final int numForecastSteps) {
+		final ITimeSeries<Double> tsForecast = this.prepareForecastTS();
+		final Double[] forecastValues = new Double[numForecastSteps];
+		for (int h = 1; h <= numForecastSteps; h++) {
+			forecastValues[h - 1] = this.pointForecast(h);
+		}
+		tsForecast.appendAll(forecastValues);
+
+		if (Double.isNaN(this.confidenceQuantile) || (this.numForecastErrors < 2)) {
+			return new ForecastResult(tsForecast, this.getTsOriginal(), this.getConfidenceLevel(), this.getMeanAbsoluteScaledError(), tsForecast,
+					tsForecast, this.strategy);
+		}
+		final ITimeSeries<Double> tsLower = this.prepareForecastTS();
+		final ITimeSeries<Double> tsUpper = this.prepareForecastTS();
+		final Double[] lowerValues = new Double[numForecastSteps];
+		final Double[] upperValues = new Double[numForecastSteps];
+		final double standardDeviation = Math.sqrt(this.sumOfSquaredForecastErrors / this.numForecastErrors);
+		for (int h = 1; h <= numForecastSteps; h++) {
+			final double halfWidth = this.confidenceQuantile * standardDeviation * Math.sqrt(this.getForecastVarianceFactor(h));
+			lowerValues[h - 1] = forecastValues[h - 1] - halfWidth;
+			upperValues[h - 1] = forecastValues[h - 1] + halfWidth;
+		}
+		tsLower.appendAll(lowerValues);
+		tsUpper.appendAll(upperValues);
+		return new ForecastResult(tsForecast, this.getTsOriginal(), this.getConfidenceLevel(), this.getMeanAbsoluteScaledError(), tsLower,
+				tsUpper, this.strategy);
+	}
+
+	/**
+	 * The mean absolute error of the one-step forecasts divided by the mean absolute error of the naive one-step forecasts.
+	 * 
+	 * @return the MASE of all previous one-step forecasts or NaN if not yet known
+	 */
+	protected double getMeanAbsoluteScaledError() {
+		if ((this.numForecastErrors == 0) || (this.sumOfAbsoluteNaiveErrors == 0)) {
+			return Double.NaN;
+		}
+		return (this.sumOfAbsoluteForecastErrors / this.numForecastErrors) / (this.sumOfAbsoluteNaiveErrors / (this.numObservations - 1));
+	}
+
+	@Override
+	public ForecastMethod getForecastMethod() {
+		return this.strategy;
+	}
+
+	/**
+	 * @return the number of values the model has been updated with
+	 */
+	protected long getNumObservations() {
+		return this.numObservations;
+	}
+
+	/**
+	 * @return the last value the model has been updated with (NaN if none)
+	 */
+	protected double getLastValue() {
+		return this.lastValue;
+	}
+
+	/**
+	 * Updates the model with the next value in constant time.
+	 * 
+	 * @param value
+	 *            the next value (never NaN)
+	 */
+	protected abstract void updateModel(double value);
+
+	/**
+	 * @param h
+	 *            the forecast horizon (1 for the next value)
+	 * @return the point forecast h steps ahead (NaN if not available)
+	 */
+	protected abstract double pointForecast(int h);
+
+	/**
+	 * The variance of the error of an h-step forecast relative to the variance of the one-step forecast errors. The default assumes a random
+	 * walk.
+	 * 
+	 * @param h
+	 *            the forecast horizon (1 for the next value)
+	 * @return the factor (1 for h = 1)
+	 */
+	protected double getForecastVarianceFactor(final int h) {
+		return h;
+	}
+
+	/**
+	 * @return the index of the smallest value in the given array
+	 */
+	protected static int indexOfMinimum(final double[] values) {
+		int index = 0;
+		for (int i = 1; i < values.length; i++) {
+			if (values[i] < values[index]) {
+				index = i;
+			}
+		}
+		return index;
+	}
+}
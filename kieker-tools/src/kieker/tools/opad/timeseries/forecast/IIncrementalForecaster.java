@@ -0,0 +1,50 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.opad.timeseries.forecast;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+
+/**
+ * A forecaster which keeps its model between forecasts and updates it with each new value of the time series in constant time, instead of
+ * fitting a new model to the whole history for each forecast.
+ * 
+ * @author Christian Stier
+ * @since 1.13
+ * 
+ * @param <T>
+ *            The type of the forecaster.
+ */
+public interface IIncrementalForecaster<T> extends IForecaster<T> {
+
+	/**
+	 * Updates the model with the next value of the time series. The value is not appended to the original time series
+	 * ({@link #getTsOriginal()}), this remains the responsibility of the caller.
+	 * 
+	 * @param value
+	 *            the next value of the time series (null and NaN values are ignored)
+	 * 
+	 * @since 1.13
+	 */
+	public void update(final T value);
+
+	/**
+	 * Returns the forecast method implemented by this forecaster.
+	 * 
+	 * @since 1.13
+	 */
+	public ForecastMethod getForecastMethod();
+}
@@ -0,0 +1,190 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.opad.timeseries.forecast.arima;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.forecast.AbstractIncrementalForecaster;
+
+/**
+ * A Java-based incremental implementation of an ARIMA(1,0,1) model with intercept, i.e., y(t) = c + phi * y(t-1) + theta * e(t-1) + e(t).
+ * The parameters are estimated by recursive (extended) least squares with exponential forgetting, using the previous residual as regressor
+ * of the moving average term. Before the parameters are estimated, the model corresponds to a random walk. Forecasts beyond the next value
+ * use stationary and invertible coefficients only.
+ * 
+ * @author Christian Stier
+ * @since 1.13
+ */
+public class ARIMA101ForecasterJava extends AbstractIncrementalForecaster {
+
+	/** the default forgetting factor (an effective memory of about 50 values). */
+	public static final double DEFAULT_FORGETTING_FACTOR = 0.98;
+
+	private static final int NUM_PARAMETERS = 3;
+	private static final double INITIAL_COVARIANCE = 100;
+	/** the covariance is not inflated any further beyond this trace (avoids a wind-up for series without variation). */
+	private static final double MAX_COVARIANCE_TRACE = 1e6;
+	/** the limit of the coefficients for forecasts beyond the next value. */
+	private static final double MAX_ABS_COEFFICIENT = 0.99;
+
+	private final double forgettingFactor;
+	/** c, phi, theta. */
+	private final double[] parameters = { 0, 1, 0 };
+	private final double[][] covariance = new double[NUM_PARAMETERS][NUM_PARAMETERS];
+	private final double[] regressors = new double[NUM_PARAMETERS];
+	private final double[] gain = new double[NUM_PARAMETERS];
+	private double previousResidual;
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 */
+	public ARIMA101ForecasterJava(final ITimeSeries<Double> historyTimeseries) {
+		this(historyTimeseries, 0);
+	}
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 * @param confidenceLevel
+	 *            confidenceLevel
+	 */
+	public ARIMA101ForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel) {
+		this(historyTimeseries, confidenceLevel, DEFAULT_FORGETTING_FACTOR);
+	}
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 * @param confidenceLevel
+	 *            confidenceLevel
+	 * @param forgettingFactor
+	 *            the weight of older values per step (between 0 and 1; 1 weights all values equally)
+	 */
+	public ARIMA101ForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel, final double forgettingFactor) {
+		super(historyTimeseries, confidenceLevel, ForecastMethod.ARIMA101JAVA);
+		if ((forgettingFactor <= 0) || (forgettingFactor > 1)) {
+			throw new IllegalArgumentException("The forgetting factor must be between 0 and 1, but is " + forgettingFactor);
+		}
+		this.forgettingFactor = forgettingFactor;
+		for (int i = 0; i < NUM_PARAMETERS; i++) {
+			this.covariance[i][i] = INITIAL_COVARIANCE;
+		}
+		this.updateAll(historyTimeseries);
+	}
+
+	@Override
+	protected void updateModel(final double value) {
+		if (this.getNumObservations() == 0) {
+			return;
+		}
+		final double[] x = this.regressors;
+		x[0] = 1;
+		x[1] = this.getLastValue();
+		x[2] = this.previousResidual;
+
+		// gain = P x / (lambda + x' P x)
+		double denominator = this.forgettingFactor;
+		for (int i = 0; i < NUM_PARAMETERS; i++) {
+			double px = 0;
+			for (int j = 0; j < NUM_PARAMETERS; j++) {
+				px += this.covariance[i][j] * x[j];
+			}
+			this.gain[i] = px;
+			denominator += x[i] * px;
+		}
+		final double error = value - this.predict(x);
+		for (int i = 0; i < NUM_PARAMETERS; i++) {
+			this.gain[i] /= denominator;
+			this.parameters[i] += this.gain[i] * error;
+		}
+
+		// P = (P - gain x' P) / lambda, where x' P = (P x)' = denominator * gain'
+		double trace = 0;
+		for (int i = 0; i < NUM_PARAMETERS; i++) {
+			for (int j = 0; j <= i; j++) {
+				final double p = this.covariance[i][j] - (this.gain[i] * this.gain[j] * denominator);
+				this.covariance[i][j] = p;
+				this.covariance[j][i] = p;
+			}
+			trace += this.covariance[i][i];
+		}
+		if (trace < MAX_COVARIANCE_TRACE) {
+			for (int i = 0; i < NUM_PARAMETERS; i++) {
+				for (int j = 0; j < NUM_PARAMETERS; j++) {
+					this.covariance[i][j] /= this.forgettingFactor;
+				}
+			}
+		}
+
+		this.previousResidual = value - this.predict(x);
+	}
+
+	private double predict(final double[] x) {
+		double prediction = 0;
+		for (int i = 0; i < NUM_PARAMETERS; i++) {
+			prediction += this.parameters[i] * x[i];
+		}
+		return prediction;
+	}
+
+	@Override
+	protected double pointForecast(final int h) {
+		if (this.getNumObservations() == 0) {
+			return Double.NaN;
+		}
+		double forecast = this.parameters[0] + (this.parameters[1] * this.getLastValue()) + (this.parameters[2] * this.previousResidual);
+		final double phi = this.getPhi();
+		for (int step = 2; step <= h; step++) {
+			forecast = this.parameters[0] + (phi * forecast);
+		}
+		return forecast;
+	}
+
+	@Override
+	protected double getForecastVarianceFactor(final int h) {
+		final double phi = this.getPhi();
+		double psi = phi + this.getTheta();
+		double factor = 1;
+		for (int j = 1; j < h; j++) {
+			factor += psi * psi;
+			psi *= phi;
+		}
+		return factor;
+	}
+
+	/**
+	 * @return the intercept c
+	 */
+	public double getIntercept() {
+		return this.parameters[0];
+	}
+
+	/**
+	 * @return the autoregressive coefficient phi used for forecasts beyond the next value
+	 */
+	public double getPhi() {
+		return Math.max(-MAX_ABS_COEFFICIENT, Math.min(MAX_ABS_COEFFICIENT, this.parameters[1]));
+	}
+
+	/**
+	 * @return the moving average coefficient theta used for forecasts beyond the next value
+	 */
+	public double getTheta() {
+		return Math.max(-MAX_ABS_COEFFICIENT, Math.min(MAX_ABS_COEFFICIENT, this.parameters[2]));
+	}
+}
@@ -0,0 +1,97 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.opad.timeseries.forecast.croston;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.forecast.AbstractIncrementalForecaster;
+
+/**
+ * A Java-based incremental implementation of Croston's method for intermittent time series. The sizes of the non-zero values and the
+ * intervals between them are smoothed separately; the forecast is their ratio.
+ * 
+ * @author Christian Stier
+ * @since 1.13
+ */
+public class CrostonForecasterJava extends AbstractIncrementalForecaster {
+
+	/** the default smoothing parameter (as in the R forecast package). */
+	public static final double DEFAULT_ALPHA = 0.1;
+
+	private final double alpha;
+	/** the smoothed size of non-zero values (NaN before the first non-zero value). */
+	private double size = Double.NaN;
+	/** the smoothed interval between non-zero values. */
+	private double interval;
+	private long periodsSinceLastDemand;
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 */
+	public CrostonForecasterJava(final ITimeSeries<Double> historyTimeseries) {
+		this(historyTimeseries, DEFAULT_ALPHA);
+	}
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 * @param alpha
+	 *            the smoothing parameter of sizes and intervals (between 0 and 1)
+	 */
+	public CrostonForecasterJava(final ITimeSeries<Double> historyTimeseries, final double alpha) {
+		super(historyTimeseries, 0, ForecastMethod.CROSTONJAVA);
+		if ((alpha <= 0) || (alpha > 1)) {
+			throw new IllegalArgumentException("The smoothing parameter must be between 0 and 1, but is " + alpha);
+		}
+		this.alpha = alpha;
+		this.updateAll(historyTimeseries);
+	}
+
+	@Override
+	protected void updateModel(final double value) {
+		this.periodsSinceLastDemand++;
+		if (value == 0) { // NOPMD (exact comparison intended)
+			return;
+		}
+		if (Double.isNaN(this.size)) {
+			this.size = value;
+			this.interval = this.periodsSinceLastDemand;
+		} else {
+			this.size += this.alpha * (value - this.size);
+			this.interval += this.alpha * (this.periodsSinceLastDemand - this.interval);
+		}
+		this.periodsSinceLastDemand = 0;
+	}
+
+	@Override
+	protected double pointForecast(final int h) {
+		if (this.getNumObservations() == 0) {
+			return Double.NaN;
+		}
+		if (Double.isNaN(this.size)) {
+			return 0;
+		}
+		return this.size / this.interval;
+	}
+
+	@Override
+	protected boolean supportsConfidence() {
+		// Does not support confidence;
+		return false;
+	}
+}
@@ -0,0 +1,202 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.opad.timeseries.forecast.ets;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.forecast.AbstractIncrementalForecaster;
+
+/**
+ * A Java-based incremental implementation of the additive Holt-Winters method, i.e., exponential smoothing with an additive trend and an
+ * optional additive season (ETS models "AAN" and "AAA"). The model is smoothed with several candidate parameters in parallel and the
+ * forecast uses the candidate with the smallest sum of squared one-step errors so far.
+ * 
+ * Without a season length, the model corresponds to Holt's linear trend method. Otherwise the first season is used to initialize the
+ * seasonal components; until then the mean of the observed values is forecasted.
+ * 
+ * @author Christian Stier
+ * @since 1.13
+ */
+public class ETSForecasterJava extends AbstractIncrementalForecaster {
+
+	private static final double[] ALPHAS = { 0.1, 0.3, 0.5, 0.7, 0.9 };
+	private static final double[] BETAS = { 0.01, 0.1, 0.3 };
+	private static final double GAMMA = 0.1;
+
+	private final int seasonLength;
+	private final double[] levels;
+	private final double[] trends;
+	private final double[][] seasonals;
+	private final double[] sumsOfSquaredErrors;
+	/** the values of the first season (null without season). */
+	private final double[] initialSeason;
+	/** the index of the seasonal component of the next value. */
+	private int seasonIndex;
+	private int best;
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 */
+	public ETSForecasterJava(final ITimeSeries<Double> historyTimeseries) {
+		this(historyTimeseries, 0);
+	}
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 * @param confidenceLevel
+	 *            confidenceLevel
+	 */
+	public ETSForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel) {
+		this(historyTimeseries, confidenceLevel, 0);
+	}
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 * @param confidenceLevel
+	 *            confidenceLevel
+	 * @param seasonLength
+	 *            the number of values per season (0 or 1 to disable the season)
+	 */
+	public ETSForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel, final int seasonLength) {
+		super(historyTimeseries, confidenceLevel, ForecastMethod.ETSJAVA);
+		if (seasonLength < 0) {
+			throw new IllegalArgumentException("The season length must not be negative, but is " + seasonLength);
+		}
+		final int numCandidates = ALPHAS.length * BETAS.length;
+		if (seasonLength > 1) {
+			this.seasonLength = seasonLength;
+			this.initialSeason = new double[seasonLength];
+		} else {
+			this.seasonLength = 0;
+			this.initialSeason = null;
+		}
+		this.levels = new double[numCandidates];
+		this.trends = new double[numCandidates];
+		this.seasonals = new double[numCandidates][this.seasonLength];
+		this.sumsOfSquaredErrors = new double[numCandidates];
+		this.updateAll(historyTimeseries);
+	}
+
+	@Override
+	protected void updateModel(final double value) {
+		final long numObservations = this.getNumObservations();
+		if (this.initialSeason != null) {
+			if (numObservations < this.seasonLength) {
+				this.initialSeason[(int) numObservations] = value;
+				if (numObservations == (this.seasonLength - 1)) {
+					this.initializeSeason();
+				}
+				return;
+			}
+		} else if (numObservations < 2) {
+			for (int i = 0; i < this.levels.length; i++) {
+				if (numObservations > 0) { // the first difference is the initial trend
+					this.trends[i] = value - this.levels[i];
+				}
+				this.levels[i] = value;
+			}
+			return;
+		}
+		for (int i = 0; i < this.levels.length; i++) {
+			final double alpha = ALPHAS[i / BETAS.length];
+			final double beta = BETAS[i % BETAS.length];
+			double seasonal = 0;
+			if (this.initialSeason != null) {
+				seasonal = this.seasonals[i][this.seasonIndex];
+			}
+			final double error = value - (this.levels[i] + this.trends[i] + seasonal);
+			this.sumsOfSquaredErrors[i] += error * error;
+			final double level = this.levels[i] + this.trends[i] + (alpha * error);
+			this.trends[i] += alpha * beta * error;
+			this.levels[i] = level;
+			if (this.initialSeason != null) {
+				this.seasonals[i][this.seasonIndex] = (GAMMA * (value - level)) + ((1 - GAMMA) * seasonal);
+			}
+		}
+		if (this.initialSeason != null) {
+			this.seasonIndex = (this.seasonIndex + 1) % this.seasonLength;
+		}
+		this.best = AbstractIncrementalForecaster.indexOfMinimum(this.sumsOfSquaredErrors);
+	}
+
+	private void initializeSeason() {
+		double mean = 0;
+		for (final double value : this.initialSeason) {
+			mean += value;
+		}
+		mean /= this.seasonLength;
+		for (int i = 0; i < this.levels.length; i++) {
+			this.levels[i] = mean;
+			this.trends[i] = 0;
+			for (int j = 0; j < this.seasonLength; j++) {
+				this.seasonals[i][j] = this.initialSeason[j] - mean;
+			}
+		}
+		this.seasonIndex = 0;
+	}
+
+	@Override
+	protected double pointForecast(final int h) {
+		final long numObservations = this.getNumObservations();
+		if (numObservations == 0) {
+			return Double.NaN;
+		}
+		if (this.initialSeason == null) {
+			return this.levels[this.best] + (h * this.trends[this.best]);
+		}
+		if (numObservations < this.seasonLength) {
+			double mean = 0;
+			for (int j = 0; j < numObservations; j++) {
+				mean += this.initialSeason[j];
+			}
+			return mean / numObservations;
+		}
+		return this.levels[this.best] + (h * this.trends[this.best]) + this.seasonals[this.best][(this.seasonIndex + h - 1) % this.seasonLength];
+	}
+
+	/**
+	 * The factor of the model without season (the seasonal contribution is neglected).
+	 */
+	@Override
+	protected double getForecastVarianceFactor(final int h) {
+		final double alpha = ALPHAS[this.best / BETAS.length];
+		final double beta = BETAS[this.best % BETAS.length];
+		double factor = 1;
+		for (int j = 1; j < h; j++) {
+			final double c = alpha * (1 + (j * beta));
+			factor += c * c;
+		}
+		return factor;
+	}
+
+	/**
+	 * @return the smoothing parameter of the level currently used for the forecast
+	 */
+	public double getAlpha() {
+		return ALPHAS[this.best / BETAS.length];
+	}
+
+	/**
+	 * @return the smoothing parameter of the trend currently used for the forecast
+	 */
+	public double getBeta() {
+		return BETAS[this.best % BETAS.length];
+	}
+}
@@ -0,0 +1,119 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.tools.opad.timeseries.forecast.ses;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.forecast.AbstractIncrementalForecaster;
+
+/**
+ * A Java-based incremental implementation of simple exponential smoothing (ETS model "ANN"). Unless a smoothing parameter is given, the
+ * model is smoothed with several candidate parameters in parallel and the forecast uses the one with the smallest sum of squared one-step
+ * errors so far.
+ * 
+ * @author Christian Stier
+ * @since 1.13
+ */
+public class SESForecasterJava extends AbstractIncrementalForecaster {
+
+	private static final double[] DEFAULT_ALPHAS = { 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9 };
+
+	private final double[] alphas;
+	private final double[] levels;
+	private final double[] sumsOfSquaredErrors;
+	private int best;
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 */
+	public SESForecasterJava(final ITimeSeries<Double> historyTimeseries) {
+		this(historyTimeseries, 0);
+	}
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 * @param confidenceLevel
+	 *            confidenceLevel
+	 */
+	public SESForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel) {
+		this(historyTimeseries, confidenceLevel, DEFAULT_ALPHAS);
+	}
+
+	/**
+	 * @param historyTimeseries
+	 *            timeseries used by forecating algo
+	 * @param confidenceLevel
+	 *            confidenceLevel
+	 * @param alpha
+	 *            the smoothing parameter of the level (between 0 and 1)
+	 */
+	public SESForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel, final double alpha) {
+		this(historyTimeseries, confidenceLevel, new double[] { alpha });
+	}
+
+	private SESForecasterJava(final ITimeSeries<Double> historyTimeseries, final int confidenceLevel, final double[] alphas) {
+		super(historyTimeseries, confidenceLevel, ForecastMethod.SESJAVA);
+		for (final double alpha : alphas) {
+			if ((alpha <= 0) || (alpha > 1)) {
+				throw new IllegalArgumentException("The smoothing parameter must be between 0 and 1, but is " + alpha);
+			}
+		}
+		this.alphas = alphas;
+		this.levels = new double[alphas.length];
+		this.sumsOfSquaredErrors = new double[alphas.length];
+		this.updateAll(historyTimeseries);
+	}
+
+	@Override
+	protected void updateModel(final double value) {
+		if (this.getNumObservations() == 0) {
+			for (int i = 0; i < this.alphas.length; i++) {
+				this.levels[i] = value;
+			}
+			return;
+		}
+		for (int i = 0; i < this.alphas.length; i++) {
+			final double error = value - this.levels[i];
+			this.sumsOfSquaredErrors[i] += error * error;
+			this.levels[i] += this.alphas[i] * error;
+		}
+		this.best = AbstractIncrementalForecaster.indexOfMinimum(this.sumsOfSquaredErrors);
+	}
+
+	@Override
+	protected double pointForecast(final int h) {
+		if (this.getNumObservations() == 0) {
+			return Double.NaN;
+		}
+		return this.levels[this.best];
+	}
+
+	@Override
+	protected double getForecastVarianceFactor(final int h) {
+		final double alpha = this.alphas[this.best];
+		return 1 + ((h - 1) * alpha * alpha);
+	}
+
+	/**
+	 * @return the smoothing parameter currently used for the forecast
+	 */
+	public double getAlpha() {
+		return this.alphas[this.best];
+	}
+}
@@ -16,11 +16,7 @@
 
 package kieker.tools.util;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
-import kieker.tools.opad.model.NamedDoubleTimeSeriesPoint;
+import kieker.tools.opad.timeseries.StreamingAggregation;
 
 /**
  * 
@@ -33,17 +29,20 @@ public class AggregationVariableSet {
 	private long firstTimestampInCurrentInterval;
 	private long lastTimestampInCurrentInterval;
 	private long firstIntervalStart;
-	private List<NamedDoubleTimeSeriesPoint> aggregationList;
+	private final StreamingAggregation aggregation;
 
 	/**
 	 * Creates an instance of this class.
 	 * Initializes the variables needed for the aggregation.
+	 *
+	 * @param aggregation
+	 *            The aggregation of the values in the current interval.
 	 */
-	public AggregationVariableSet() {
+	public AggregationVariableSet(final StreamingAggregation aggregation) {
 		this.firstTimestampInCurrentInterval = -1;
 		this.lastTimestampInCurrentInterval = -1;
 		this.firstIntervalStart = -1;
-		this.aggregationList = Collections.synchronizedList(new ArrayList<NamedDoubleTimeSeriesPoint>());
+		this.aggregation = aggregation;
 	}
 
 	public long getFirstTimestampInCurrentInterval() {
@@ -70,12 +69,13 @@ public class AggregationVariableSet {
 		this.firstIntervalStart = firstIntervalStart;
 	}
 
-	public List<NamedDoubleTimeSeriesPoint> getAggregationList() {
-		return this.aggregationList;
-	}
-
-	public void setAggregationList(final List<NamedDoubleTimeSeriesPoint> aggregationList) {
-		this.aggregationList = aggregationList;
+	/**
+	 * @return the aggregation of the values in the current interval
+	 *
+	 * @since 1.13
+	 */
+	public StreamingAggregation getAggregation() {
+		return this.aggregation;
 	}
 
 }
@@ -0,0 +1,175 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.tools.junit.opad.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.AnalysisControllerThread;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.filter.forward.ListCollectionFilter;
+import kieker.analysis.plugin.reader.list.ListReader;
+import kieker.common.configuration.Configuration;
+import kieker.tools.opad.filter.ForecastingFilter;
+import kieker.tools.opad.model.NamedDoubleTimeSeriesPoint;
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.TimeSeries;
+import kieker.tools.opad.timeseries.forecast.IForecastResult;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests that the {@link ForecastingFilter} reuses incremental forecasters only as long as the configured forecast method does not change.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class ForecastingFilterIncrementalTest extends AbstractKiekerTest {
+
+	private static final String OP_SIGNATURE_A = "a.A.opA";
+	private static final double EPSILON = 1e-9;
+
+	private AnalysisController controller;
+	private AnalysisControllerThread controllerThread;
+	private ForecastingFilter forecastingFilter;
+	private ListCollectionFilter<IForecastResult> sinkPlugin;
+
+	private final List<Double> values = new ArrayList<Double>();
+
+	/**
+	 * Default constructor.
+	 */
+	public ForecastingFilterIncrementalTest() {
+		// empty default constructor
+	}
+
+	/**
+	 * Starts an analysis with a forecasting filter using the incremental SES forecaster. The measurements are passed to the filter directly.
+	 *
+	 * @throws AnalysisConfigurationException
+	 *             If the analysis could not be configured.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the analysis to start.
+	 */
+	@Before
+	public void setUp() throws AnalysisConfigurationException, InterruptedException {
+		this.controller = new AnalysisController();
+
+		final Configuration readerConfiguration = new Configuration();
+		readerConfiguration.setProperty(ListReader.CONFIG_PROPERTY_NAME_AWAIT_TERMINATION, Boolean.TRUE.toString());
+		final ListReader<NamedDoubleTimeSeriesPoint> reader = new ListReader<NamedDoubleTimeSeriesPoint>(readerConfiguration, this.controller);
+
+		final Configuration forecastConfiguration = new Configuration();
+		forecastConfiguration.setProperty(ForecastingFilter.CONFIG_PROPERTY_NAME_FC_METHOD, ForecastMethod.SESJAVA.name());
+		this.forecastingFilter = new ForecastingFilter(forecastConfiguration, this.controller);
+
+		this.sinkPlugin = new ListCollectionFilter<IForecastResult>(new Configuration(), this.controller);
+
+		this.controller.connect(reader, ListReader.OUTPUT_PORT_NAME, this.forecastingFilter, ForecastingFilter.INPUT_PORT_NAME_TSPOINT);
+		this.controller.connect(this.forecastingFilter, ForecastingFilter.OUTPUT_PORT_NAME_FORECAST, this.sinkPlugin, ListCollectionFilter.INPUT_PORT_NAME);
+
+		this.controllerThread = new AnalysisControllerThread(this.controller);
+		this.controllerThread.start();
+		while (this.controller.getState() != AnalysisController.STATE.RUNNING) {
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Terminates the analysis.
+	 */
+	@After
+	public void tearDown() {
+		this.controllerThread.terminate();
+	}
+
+	/**
+	 * Tests that the forecasts of the reused incremental forecaster match the forecasts of a forecaster created for the whole window.
+	 */
+	@Test
+	public void testReuse() {
+		for (int i = 0; i < 20; i++) {
+			final IForecastResult result = this.forecast(ForecastingFilterIncrementalTest.valueAt(i));
+			Assert.assertEquals(ForecastMethod.SESJAVA, result.getFcStrategy());
+			Assert.assertEquals(this.expectedForecast(ForecastMethod.SESJAVA), this.forecastValue(result), EPSILON);
+		}
+	}
+
+	/**
+	 * Tests that switching the forecast method replaces the incremental forecaster and that switching back does not reuse the outdated forecaster.
+	 */
+	@Test
+	public void testSwitchMethods() {
+		for (int i = 0; i < 10; i++) {
+			this.forecast(ForecastingFilterIncrementalTest.valueAt(i));
+		}
+
+		this.setForecastMethod(ForecastMethod.MEANJAVA);
+		IForecastResult result = this.forecast(ForecastingFilterIncrementalTest.valueAt(10));
+		Assert.assertEquals(ForecastMethod.MEAN, result.getFcStrategy());
+		Assert.assertEquals(this.expectedForecast(ForecastMethod.MEANJAVA), this.forecastValue(result), EPSILON);
+
+		this.setForecastMethod(ForecastMethod.SESJAVA);
+		for (int i = 11; i < 15; i++) {
+			result = this.forecast(ForecastingFilterIncrementalTest.valueAt(i));
+			Assert.assertEquals(ForecastMethod.SESJAVA, result.getFcStrategy());
+			Assert.assertEquals(this.expectedForecast(ForecastMethod.SESJAVA), this.forecastValue(result), EPSILON);
+		}
+	}
+
+	private static double valueAt(final int i) {
+		return 10 + (i % 3) + (0.5 * i);
+	}
+
+	private void setForecastMethod(final ForecastMethod method) {
+		final Configuration configuration = this.forecastingFilter.getCurrentConfiguration();
+		configuration.setProperty(ForecastingFilter.CONFIG_PROPERTY_NAME_FC_METHOD, method.name());
+		this.forecastingFilter.setCurrentConfiguration(configuration, true);
+	}
+
+	private IForecastResult forecast(final double value) {
+		this.values.add(value);
+		this.forecastingFilter.inputEvent(new NamedDoubleTimeSeriesPoint(System.currentTimeMillis(), value, OP_SIGNATURE_A));
+		final List<IForecastResult> results = this.sinkPlugin.getList();
+		Assert.assertEquals(this.values.size(), results.size());
+		return results.get(results.size() - 1);
+	}
+
+	private double forecastValue(final IForecastResult result) {
+		return result.getForecast().getValues().get(0);
+	}
+
+	/**
+	 * Computes the forecast of a new forecaster of the given method for all measurements passed to the filter.
+	 */
+	private double expectedForecast(final ForecastMethod method) {
+		final ITimeSeries<Double> history = new TimeSeries<Double>(0, TimeUnit.MILLISECONDS, 1000);
+		for (final Double value : this.values) {
+			history.append(value);
+		}
+		return this.forecastValue(method.getForecaster(history, 0).forecast(1));
+	}
+}
@@ -0,0 +1,181 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.tools.junit.opad.timeseries;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.tools.opad.timeseries.ForecastMethod;
+import kieker.tools.opad.timeseries.ITimeSeries;
+import kieker.tools.opad.timeseries.TimeSeries;
+import kieker.tools.opad.timeseries.forecast.IForecastResult;
+import kieker.tools.opad.timeseries.forecast.IIncrementalForecaster;
+import kieker.tools.opad.timeseries.forecast.arima.ARIMA101ForecasterJava;
+import kieker.tools.opad.timeseries.forecast.croston.CrostonForecasterJava;
+import kieker.tools.opad.timeseries.forecast.ets.ETSForecasterJava;
+import kieker.tools.opad.timeseries.forecast.ses.SESForecasterJava;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the Java-based incremental forecasters against manually calculated forecasts and checks that updating a forecaster yields the
+ * same forecasts as creating a new one for the whole history.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestIncrementalForecasters extends AbstractKiekerTest {
+
+	private static final double EXACT = 1e-9;
+
+	private static final ForecastMethod[] INCREMENTAL_METHODS = {
+		ForecastMethod.ARIMA101JAVA, ForecastMethod.CROSTONJAVA, ForecastMethod.ETSJAVA, ForecastMethod.SESJAVA,
+	};
+
+	/**
+	 * Default constructor.
+	 */
+	public TestIncrementalForecasters() {
+		// empty default constructor
+	}
+
+	private static ITimeSeries<Double> createTimeSeries(final double... values) {
+		final ITimeSeries<Double> timeseries = new TimeSeries<Double>(0, TimeUnit.MILLISECONDS, 1000);
+		for (final double value : values) {
+			timeseries.append(value);
+		}
+		return timeseries;
+	}
+
+	private static void assertForecast(final IForecastResult result, final double... expected) {
+		final List<Double> forecast = result.getForecast().getValues();
+		Assert.assertEquals(expected.length, forecast.size());
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals("Forecast " + (i + 1) + " steps ahead", expected[i], forecast.get(i), EXACT);
+		}
+	}
+
+	@Test
+	public void testSimpleExponentialSmoothing() {
+		final SESForecasterJava forecaster = new SESForecasterJava(TestIncrementalForecasters.createTimeSeries(1, 2, 3), 0, 0.5);
+		// 1 -> 1 + 0.5 * (2 - 1) = 1.5 -> 1.5 + 0.5 * (3 - 1.5) = 2.25
+		TestIncrementalForecasters.assertForecast(forecaster.forecast(2), 2.25, 2.25);
+		forecaster.update(Double.NaN);
+		forecaster.update(null);
+		forecaster.update(4.25d);
+		TestIncrementalForecasters.assertForecast(forecaster.forecast(1), 3.25);
+	}
+
+	@Test
+	public void testHoltLinearTrend() {
+		final double[] values = new double[20];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 5 + (2 * i);
+		}
+		final IForecastResult result = new ETSForecasterJava(TestIncrementalForecasters.createTimeSeries(values)).forecast(3);
+		TestIncrementalForecasters.assertForecast(result, 45, 47, 49);
+	}
+
+	@Test
+	public void testHoltWintersSeason() {
+		final double[] season = { 1, 5, 3, 7 };
+		final double[] values = new double[(season.length * 10) + 1];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = season[i % season.length];
+		}
+		final ETSForecasterJava forecaster = new ETSForecasterJava(TestIncrementalForecasters.createTimeSeries(1, 5), 0, season.length);
+		// the mean of the first values until the first season is complete
+		TestIncrementalForecasters.assertForecast(forecaster.forecast(1), 3);
+		for (int i = 2; i < values.length; i++) {
+			forecaster.update(values[i]);
+		}
+		TestIncrementalForecasters.assertForecast(forecaster.forecast(5), 5, 3, 7, 1, 5);
+	}
+
+	@Test
+	public void testCroston() {
+		final CrostonForecasterJava forecaster = new CrostonForecasterJava(TestIncrementalForecasters.createTimeSeries(0, 0));
+		TestIncrementalForecasters.assertForecast(forecaster.forecast(1), 0);
+		// first demand of size 3 after an interval of 3
+		forecaster.update(3d);
+		TestIncrementalForecasters.assertForecast(forecaster.forecast(2), 1, 1);
+		forecaster.update(0d);
+		forecaster.update(0d);
+		forecaster.update(0d);
+		// second demand of size 3 after an interval of 4
+		forecaster.update(3d);
+		TestIncrementalForecasters.assertForecast(forecaster.forecast(1), 3 / (3 + (0.1 * (4 - 3))));
+	}
+
+	@Test
+	public void testARIMA101EstimatesAutoregressiveProcess() {
+		final Random random = new Random(42);
+		final ITimeSeries<Double> timeseries = TestIncrementalForecasters.createTimeSeries();
+		double value = 25;
+		for (int i = 0; i < 5000; i++) {
+			value = 10 + (0.6 * value) + random.nextGaussian();
+			timeseries.append(value);
+		}
+		final ARIMA101ForecasterJava forecaster = new ARIMA101ForecasterJava(timeseries, 95, 1.0);
+		Assert.assertEquals(0.6, forecaster.getPhi(), 0.05);
+		Assert.assertEquals(0.0, forecaster.getTheta(), 0.1);
+		Assert.assertEquals(10, forecaster.getIntercept(), 1.5);
+
+		final IForecastResult result = forecaster.forecast(100);
+		// converges to the mean of the process
+		Assert.assertEquals(25, result.getForecast().getValues().get(99), 0.5);
+		// the prediction interval widens with the horizon
+		final double firstWidth = result.getUpper().getValues().get(0) - result.getLower().getValues().get(0);
+		final double lastWidth = result.getUpper().getValues().get(99) - result.getLower().getValues().get(99);
+		Assert.assertEquals(2 * 1.96, firstWidth, 0.2);
+		Assert.assertTrue(lastWidth > firstWidth);
+		Assert.assertTrue(result.getMeanAbsoluteScaledError() < 1);
+	}
+
+	@Test
+	public void testUpdateEqualsNewForecaster() {
+		final Random random = new Random(7);
+		final double[] values = new double[200];
+		for (int i = 0; i < values.length; i++) {
+			if (random.nextInt(3) == 0) {
+				values[i] = 0;
+			} else {
+				values[i] = 50 + (0.1 * i) + (10 * random.nextGaussian());
+			}
+		}
+		for (final ForecastMethod method : INCREMENTAL_METHODS) {
+			final ITimeSeries<Double> timeseries = TestIncrementalForecasters.createTimeSeries(values[0]);
+			final IIncrementalForecaster<Double> updated = (IIncrementalForecaster<Double>) method.getForecaster(timeseries, 90);
+			Assert.assertSame(method, updated.getForecastMethod());
+			for (int i = 1; i < values.length; i++) {
+				timeseries.append(values[i]);
+				updated.update(values[i]);
+			}
+			final IForecastResult expected = method.getForecaster(timeseries, 90).forecast(3);
+			final IForecastResult actual = updated.forecast(3);
+			Assert.assertEquals(method.name(), expected.getForecast().getValues(), actual.getForecast().getValues());
+			Assert.assertEquals(method.name(), expected.getLower().getValues(), actual.getLower().getValues());
+			Assert.assertEquals(method.name(), expected.getUpper().getValues(), actual.getUpper().getValues());
+			Assert.assertEquals(method.name(), expected.getMeanAbsoluteScaledError(), actual.getMeanAbsoluteScaledError(), 0);
+		}
+	}
+}
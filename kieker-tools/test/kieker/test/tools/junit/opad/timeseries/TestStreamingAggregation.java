@@ -0,0 +1,130 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.tools.junit.opad.timeseries;
+
+import java.util.Random;
+
+import org.apache.commons.math3.stat.StatUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.tools.opad.timeseries.AggregationMethod;
+import kieker.tools.opad.timeseries.QuantileSketch;
+import kieker.tools.opad.timeseries.StreamingAggregation;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Compares the {@link StreamingAggregation} with the aggregation of all buffered values by {@link AggregationMethod#getAggregationValue(double[])}.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestStreamingAggregation extends AbstractKiekerTest {
+
+	private static final double EXACT = 1e-9;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestStreamingAggregation() {
+		// empty default constructor
+	}
+
+	@Test
+	public void testExactAggregations() {
+		final double[] values = { 3.5, 1.25, 8.0, 2.0, 2.0, 7.75, 0.5, 4.0 };
+		for (final AggregationMethod method : AggregationMethod.values()) {
+			if (method.isQuantile()) {
+				continue;
+			}
+			final StreamingAggregation aggregation = new StreamingAggregation(method);
+			Assert.assertTrue(Double.isNaN(aggregation.getValue()));
+			for (final double value : values) {
+				aggregation.add(value);
+			}
+			final double expected = method.getAggregationValue(values);
+			Assert.assertEquals(method.name(), expected, aggregation.getValue(), Math.abs(expected) * EXACT);
+
+			// reuse after the end of a window
+			aggregation.clear();
+			Assert.assertEquals(0, aggregation.getCount());
+			aggregation.add(values[0]);
+			Assert.assertEquals(method.name(), method.getAggregationValue(new double[] { values[0] }), aggregation.getValue(), EXACT);
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		final Random random = new Random(42);
+		final double[] values = new double[20000];
+		final StreamingAggregation p90 = new StreamingAggregation(AggregationMethod.PERCENTILE90);
+		final StreamingAggregation p95 = new StreamingAggregation(AggregationMethod.PERCENTILE95);
+		final StreamingAggregation p99 = new StreamingAggregation(AggregationMethod.QUANTILE, 0.99);
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Math.exp(random.nextGaussian()) * 1000000; // response times around 1 ms (in ns)
+			p90.add(values[i]);
+			p95.add(values[i]);
+			p99.add(values[i]);
+		}
+		final double tolerance = 2 * QuantileSketch.DEFAULT_RELATIVE_ACCURACY;
+		TestStreamingAggregation.assertRelativelyEquals(StatUtils.percentile(values, 90), p90.getValue(), tolerance);
+		TestStreamingAggregation.assertRelativelyEquals(StatUtils.percentile(values, 95), p95.getValue(), tolerance);
+		TestStreamingAggregation.assertRelativelyEquals(StatUtils.percentile(values, 99), p99.getValue(), tolerance);
+	}
+
+	@Test
+	public void testSketchWithNegativeValuesAndMerge() {
+		final QuantileSketch first = new QuantileSketch();
+		final QuantileSketch second = new QuantileSketch();
+		final double[] values = new double[2001];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i - 1000; // -1000 .. 1000
+			if ((i % 2) == 0) {
+				first.add(values[i]);
+			} else {
+				second.add(values[i]);
+			}
+		}
+		first.merge(second);
+		Assert.assertEquals(values.length, first.getCount());
+		Assert.assertEquals(-1000, first.getQuantile(0), EXACT);
+		Assert.assertEquals(1000, first.getQuantile(1), EXACT);
+		Assert.assertEquals(0, first.getQuantile(0.5), EXACT);
+		TestStreamingAggregation.assertRelativelyEquals(-500, first.getQuantile(0.25), 2 * QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+		TestStreamingAggregation.assertRelativelyEquals(900, first.getQuantile(0.95), 2 * QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+	}
+
+	@Test
+	public void testBoundedNumberOfBuckets() {
+		final QuantileSketch sketch = new QuantileSketch(0.01, 100);
+		// values spanning many more orders of magnitude than 100 buckets can represent
+		for (int i = -100; i <= 100; i++) {
+			sketch.add(Math.pow(10, i / 10.0));
+		}
+		Assert.assertEquals(201, sketch.getCount());
+		// the largest values are kept accurately, the smallest are collapsed
+		TestStreamingAggregation.assertRelativelyEquals(Math.pow(10, 10), sketch.getQuantile(1), EXACT);
+		TestStreamingAggregation.assertRelativelyEquals(Math.pow(10, 9.5), sketch.getQuantile(0.975), 2 * 0.01);
+		Assert.assertTrue(sketch.getQuantile(0) >= Math.pow(10, -10));
+	}
+
+	private static void assertRelativelyEquals(final double expected, final double actual, final double relativeTolerance) {
+		Assert.assertEquals(expected, actual, Math.abs(expected) * relativeTolerance);
+	}
+}
@@ -0,0 +1,213 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.tools.junit.writeRead.amqp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.IProjectContext;
+import kieker.analysis.plugin.reader.AbstractStringRegistryReaderPlugin;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.record.misc.RegistryRecord;
+import kieker.common.util.registry.IRegistryRecordReceiver;
+import kieker.common.util.registry.Registry;
+import kieker.monitoring.writer.amqp.AMQPMessageEncoder;
+import kieker.monitoring.writer.amqp.AMQPWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests that the messages of the {@link AMQPMessageEncoder} are decoded by the record handlers of the {@link kieker.analysis.plugin.reader.amqp.AMQPReader},
+ * in particular batches of records sharing a single envelope.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class TestAMQPMessageEncoderReader extends AbstractKiekerTest {
+
+	private static final int NUMBER_OF_RECORDS = 50;
+	private static final long TIMEOUT_IN_MS = 10000;
+
+	/**
+	 * Default constructor.
+	 */
+	public TestAMQPMessageEncoderReader() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests that records published as batches are read as sent.
+	 *
+	 * @throws InterruptedException
+	 *             If the test thread is interrupted while waiting for the records.
+	 */
+	@Test
+	public void testBatches() throws InterruptedException {
+		final Registry<String> stringRegistry = new Registry<String>();
+		final List<byte[]> registryMessages = TestAMQPMessageEncoderReader.collectRegistryMessages(stringRegistry);
+		final AMQPMessageEncoder encoder = new AMQPMessageEncoder(stringRegistry, 256);
+
+		final List<IMonitoringRecord> records = TestAMQPMessageEncoderReader.createRecords();
+		final List<byte[]> batches = new ArrayList<byte[]>();
+		for (final IMonitoringRecord record : records) {
+			if (encoder.addToBatch(record)) {
+				batches.add(encoder.completeBatch());
+			}
+		}
+		final byte[] lastBatch = encoder.completeBatch();
+		if (lastBatch != null) { // unless the last record completed a full batch
+			batches.add(lastBatch);
+		}
+		Assert.assertNull("A completed batch must be empty", encoder.completeBatch());
+		Assert.assertTrue("Expected several batches", batches.size() > 1);
+
+		final MessageReader reader = new MessageReader(new Configuration(), new AnalysisController());
+		Assert.assertTrue(reader.init());
+		for (final byte[] message : registryMessages) {
+			reader.receive(message);
+		}
+		for (final byte[] batch : batches) {
+			Assert.assertEquals(AMQPWriter.BATCH_RECORD_ID, batch[0]);
+			reader.receive(batch);
+		}
+		Assert.assertEquals(records, reader.awaitRecords(records.size()));
+	}
+
+	/**
+	 * Tests that records published as single messages are read as sent.
+	 *
+	 * @throws InterruptedException
+	 *             If the test thread is interrupted while waiting for the records.
+	 */
+	@Test
+	public void testSingleRecords() throws InterruptedException {
+		final Registry<String> stringRegistry = new Registry<String>();
+		final List<byte[]> registryMessages = TestAMQPMessageEncoderReader.collectRegistryMessages(stringRegistry);
+		final AMQPMessageEncoder encoder = new AMQPMessageEncoder(stringRegistry, 0);
+
+		final List<IMonitoringRecord> records = TestAMQPMessageEncoderReader.createRecords();
+		final List<byte[]> messages = new ArrayList<byte[]>();
+		for (final IMonitoringRecord record : records) {
+			messages.add(encoder.encodeRecord(record));
+		}
+
+		final MessageReader reader = new MessageReader(new Configuration(), new AnalysisController());
+		Assert.assertTrue(reader.init());
+		for (final byte[] message : registryMessages) {
+			reader.receive(message);
+		}
+		for (final byte[] message : messages) {
+			Assert.assertEquals(AMQPWriter.REGULAR_RECORD_ID, message[0]);
+			reader.receive(message);
+		}
+		Assert.assertEquals(records, reader.awaitRecords(records.size()));
+	}
+
+	/**
+	 * Encodes the registry records of the given registry as messages, as the registry records are published before the records using their strings.
+	 */
+	private static List<byte[]> collectRegistryMessages(final Registry<String> stringRegistry) {
+		final List<byte[]> registryMessages = new ArrayList<byte[]>();
+		final AMQPMessageEncoder registryEncoder = new AMQPMessageEncoder(stringRegistry, 0);
+		stringRegistry.setRecordReceiver(new IRegistryRecordReceiver() {
+
+			@Override
+			public boolean newRegistryRecord(final RegistryRecord registryRecord) {
+				return registryMessages.add(registryEncoder.encodeRegistryRecord(registryRecord));
+			}
+		});
+		return registryMessages;
+	}
+
+	private static List<IMonitoringRecord> createRecords() {
+		final List<IMonitoringRecord> records = new ArrayList<IMonitoringRecord>(NUMBER_OF_RECORDS);
+		for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+			final OperationExecutionRecord record = new OperationExecutionRecord("public void op" + (i % 7) + "()", "session", i, i, i + 1, "host", i, 0);
+			record.setLoggingTimestamp(i);
+			records.add(record);
+		}
+		return records;
+	}
+
+	/**
+	 * A reader dispatching the messages like the {@link kieker.analysis.plugin.reader.amqp.AMQPReader} without an AMQP connection.
+	 *
+	 * @author Christian Stier
+	 *
+	 * @since 1.13
+	 */
+	private static final class MessageReader extends AbstractStringRegistryReaderPlugin {
+
+		private final List<IMonitoringRecord> records = new ArrayList<IMonitoringRecord>();
+
+		public MessageReader(final Configuration configuration, final IProjectContext projectContext) {
+			super(configuration, projectContext);
+		}
+
+		public void receive(final byte[] message) {
+			this.ensureThreadsStarted();
+			final ByteBuffer buffer = ByteBuffer.wrap(message);
+			final byte recordType = buffer.get();
+			if (recordType == AMQPWriter.REGISTRY_RECORD_ID) {
+				this.handleRegistryRecord(buffer);
+			} else {
+				this.handleRegularRecord(buffer);
+			}
+		}
+
+		public List<IMonitoringRecord> awaitRecords(final int numberOfRecords) throws InterruptedException {
+			final long end = System.currentTimeMillis() + TIMEOUT_IN_MS;
+			synchronized (this.records) {
+				while ((this.records.size() < numberOfRecords) && (System.currentTimeMillis() < end)) {
+					this.records.wait(100);
+				}
+				return new ArrayList<IMonitoringRecord>(this.records);
+			}
+		}
+
+		@Override
+		protected void deliverRecord(final IMonitoringRecord monitoringRecord) {
+			synchronized (this.records) {
+				this.records.add(monitoringRecord);
+				this.records.notifyAll();
+			}
+		}
+
+		@Override
+		public boolean read() {
+			return true;
+		}
+
+		@Override
+		public void terminate(final boolean error) {
+			// nothing to terminate
+		}
+
+		@Override
+		public Configuration getCurrentConfiguration() {
+			return new Configuration();
+		}
+	}
+}
@@ -80,7 +80,13 @@ public abstract class AbstractTestDbWriterReader extends AbstractWriterReaderTes
 
 	@Override
 	protected void inspectRecords(final List<IMonitoringRecord> eventsPassedToController, final List<IMonitoringRecord> eventsFromMonitoringLog) throws Exception {
-		// the reader screws the order completely, so we have to sort for the test
+		// the reader delivers the records ordered by their logging timestamps
+		long lastLoggingTimestamp = Long.MIN_VALUE;
+		for (final IMonitoringRecord record : eventsFromMonitoringLog) {
+			Assert.assertTrue("Records not ordered by their logging timestamps", lastLoggingTimestamp <= record.getLoggingTimestamp());
+			lastLoggingTimestamp = record.getLoggingTimestamp();
+		}
+		// but the order of records with equal logging timestamps differs, so we have to sort for the test
 		final IMonitoringRecord[] eventsPassed = eventsPassedToController.toArray(new IMonitoringRecord[eventsPassedToController.size()]);
 		Arrays.sort(eventsPassed);
 		final IMonitoringRecord[] eventsFrom = eventsFromMonitoringLog.toArray(new IMonitoringRecord[eventsFromMonitoringLog.size()]);
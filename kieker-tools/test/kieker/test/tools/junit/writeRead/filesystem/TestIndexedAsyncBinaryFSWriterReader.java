@@ -0,0 +1,173 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.tools.junit.writeRead.filesystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.filter.forward.ListCollectionFilter;
+import kieker.analysis.plugin.reader.filesystem.FSReader;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.controlflow.OperationExecutionRecord;
+import kieker.common.util.filesystem.BinaryCompressionMethod;
+import kieker.common.util.filesystem.BlockIndex;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.writer.filesystem.AbstractAsyncFSWriter;
+import kieker.monitoring.writer.filesystem.AsyncBinaryFsWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the block index written by the {@link AsyncBinaryFsWriter} and the selection of timestamp and trace id ranges by the {@link FSReader}.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class TestIndexedAsyncBinaryFSWriterReader extends AbstractKiekerTest {
+
+	private static final int NUMBER_OF_RECORDS = 10000;
+	private static final int RECORDS_PER_TRACE = 10;
+
+	/**
+	 * A rule making sure that a temporary folder exists for every test method (which is removed after the test).
+	 */
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder(); // NOCS (@Rule must be public)
+
+	/**
+	 * Default constructor.
+	 */
+	public TestIndexedAsyncBinaryFSWriterReader() {
+		// empty default constructor
+	}
+
+	/**
+	 * Tests reading ranges of an indexed uncompressed log.
+	 * 
+	 * @throws Exception
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testUncompressed() throws Exception {
+		this.testRanges(BinaryCompressionMethod.NONE);
+	}
+
+	/**
+	 * Tests reading ranges of an indexed deflate-compressed log.
+	 * 
+	 * @throws Exception
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testDeflate() throws Exception {
+		this.testRanges(BinaryCompressionMethod.DEFLATE);
+	}
+
+	private void testRanges(final BinaryCompressionMethod method) throws Exception {
+		final List<IMonitoringRecord> writtenRecords = this.writeLog(method);
+		final String logDir = this.checkIndex(method);
+
+		// timestamps only
+		this.assertRange(writtenRecords, logDir, 4000, 4999, Long.MIN_VALUE, Long.MAX_VALUE);
+		// trace ids only
+		this.assertRange(writtenRecords, logDir, Long.MIN_VALUE, Long.MAX_VALUE, 120, 129);
+		// both
+		this.assertRange(writtenRecords, logDir, 4000, 4999, 420, 459);
+		// nothing
+		this.assertRange(writtenRecords, logDir, 4000, 4999, 900, 999);
+	}
+
+	private List<IMonitoringRecord> writeLog(final BinaryCompressionMethod method) throws IOException {
+		final Configuration config = ConfigurationFactory.createDefaultConfiguration();
+		config.setProperty(ConfigurationFactory.METADATA, "false");
+		config.setProperty(ConfigurationFactory.AUTO_SET_LOGGINGTSTAMP, "false");
+		config.setProperty(ConfigurationFactory.WRITER_CLASSNAME, AsyncBinaryFsWriter.class.getName());
+		config.setProperty(AsyncBinaryFsWriter.class.getName() + "." + AbstractAsyncFSWriter.CONFIG_PATH, this.tmpFolder.getRoot().getCanonicalPath());
+		config.setProperty(AsyncBinaryFsWriter.CONFIG_BUFFER, "1024");
+		config.setProperty(AsyncBinaryFsWriter.CONFIG_COMPRESS, method.name());
+		config.setProperty(AsyncBinaryFsWriter.CONFIG_INDEX, "true");
+		final IMonitoringController ctrl = MonitoringController.createInstance(config);
+
+		final List<IMonitoringRecord> writtenRecords = new ArrayList<IMonitoringRecord>(NUMBER_OF_RECORDS);
+		for (int i = 0; i < NUMBER_OF_RECORDS; i++) {
+			final IMonitoringRecord record = new OperationExecutionRecord("public void op()", "session", i / RECORDS_PER_TRACE, i, i + 1, "host", 0, 0);
+			record.setLoggingTimestamp(i);
+			writtenRecords.add(record);
+			ctrl.newMonitoringRecord(record);
+		}
+		ctrl.terminateMonitoring();
+		return writtenRecords;
+	}
+
+	private String checkIndex(final BinaryCompressionMethod method) throws IOException {
+		final File[] logDirs = this.tmpFolder.getRoot().listFiles();
+		Assert.assertEquals(1, logDirs.length);
+		int numberOfIndexedRecords = 0;
+		for (final File logFile : logDirs[0].listFiles()) {
+			if (logFile.getName().endsWith(method.getFileExtension())) {
+				final File indexFile = BlockIndex.getIndexFile(logFile);
+				Assert.assertTrue("Missing index " + indexFile, indexFile.isFile());
+				final List<BlockIndex.Block> blocks = BlockIndex.read(indexFile).getBlocks();
+				Assert.assertTrue("Expected multiple blocks per file", blocks.size() > 1);
+				for (final BlockIndex.Block block : blocks) {
+					numberOfIndexedRecords += block.getNumberOfRecords();
+				}
+			}
+		}
+		Assert.assertEquals(NUMBER_OF_RECORDS, numberOfIndexedRecords);
+		return logDirs[0].getCanonicalPath();
+	}
+
+	private void assertRange(final List<IMonitoringRecord> writtenRecords, final String logDir, final long fromTimestamp, final long toTimestamp,
+			final long fromTraceId, final long toTraceId) throws AnalysisConfigurationException {
+		final List<IMonitoringRecord> expectedRecords = new ArrayList<IMonitoringRecord>();
+		for (final IMonitoringRecord record : writtenRecords) {
+			final long traceId = ((OperationExecutionRecord) record).getTraceId();
+			if ((record.getLoggingTimestamp() >= fromTimestamp) && (record.getLoggingTimestamp() <= toTimestamp)
+					&& (traceId >= fromTraceId) && (traceId <= toTraceId)) {
+				expectedRecords.add(record);
+			}
+		}
+
+		final AnalysisController analysisController = new AnalysisController();
+		final Configuration readerConfiguration = new Configuration();
+		readerConfiguration.setProperty(FSReader.CONFIG_PROPERTY_NAME_INPUTDIRS, logDir);
+		readerConfiguration.setProperty(FSReader.CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TIMESTAMP, Long.toString(fromTimestamp));
+		readerConfiguration.setProperty(FSReader.CONFIG_PROPERTY_NAME_IGNORE_AFTER_TIMESTAMP, Long.toString(toTimestamp));
+		readerConfiguration.setProperty(FSReader.CONFIG_PROPERTY_NAME_IGNORE_BEFORE_TRACE_ID, Long.toString(fromTraceId));
+		readerConfiguration.setProperty(FSReader.CONFIG_PROPERTY_NAME_IGNORE_AFTER_TRACE_ID, Long.toString(toTraceId));
+		final FSReader reader = new FSReader(readerConfiguration, analysisController);
+		final ListCollectionFilter<IMonitoringRecord> sinkPlugin = new ListCollectionFilter<IMonitoringRecord>(new Configuration(), analysisController);
+		analysisController.connect(reader, FSReader.OUTPUT_PORT_NAME_RECORDS, sinkPlugin, ListCollectionFilter.INPUT_PORT_NAME);
+		analysisController.run();
+
+		Assert.assertEquals(expectedRecords, sinkPlugin.getList());
+	}
+}
@@ -54,6 +54,7 @@ public class BasicJMSWriterReaderTest extends AbstractWriterReaderTest { // NOPM
 		config.setProperty(ConfigurationFactory.WRITER_CLASSNAME, AsyncJMSWriter.class.getName());
 		config.setProperty(AsyncJMSWriter.CONFIG_CONTEXTFACTORYTYPE, FakeInitialContextFactory.class.getName());
 		config.setProperty(AsyncJMSWriter.CONFIG_FACTORYLOOKUPNAME, "ConnectionFactory");
+		this.configureWriter(config);
 		final IMonitoringController ctrl = MonitoringController.createInstance(config);
 		Thread.sleep(1000);
 		final Configuration jmsReaderConfig = new Configuration();
@@ -69,6 +70,16 @@ public class BasicJMSWriterReaderTest extends AbstractWriterReaderTest { // NOPM
 		return ctrl;
 	}
 
+	/**
+	 * Inheriting tests may override this method in order to configure the writer further.
+	 * 
+	 * @param config
+	 *            The configuration of the monitoring controller.
+	 */
+	protected void configureWriter(final Configuration config) { // NOPMD (empty default implementation)
+		// no further configuration by default
+	}
+
 	@Override
 	protected void checkControllerStateBeforeRecordsPassedToController(final IMonitoringController monitoringController) {
 		Assert.assertTrue(monitoringController.isMonitoringEnabled());
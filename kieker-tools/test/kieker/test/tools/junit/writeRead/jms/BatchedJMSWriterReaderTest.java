@@ -0,0 +1,44 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.tools.junit.writeRead.jms;
+
+import kieker.common.configuration.Configuration;
+import kieker.monitoring.writer.jms.AsyncJMSWriter;
+
+/**
+ * Tests the {@link AsyncJMSWriter} and the {@link kieker.analysis.plugin.reader.jms.JMSReader} with records sent in batches.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class BatchedJMSWriterReaderTest extends BasicJMSWriterReaderTest { // NOPMD NOCS (TestClassWithoutTestCases)
+
+	/**
+	 * Default constructor.
+	 */
+	public BatchedJMSWriterReaderTest() {
+		// empty default constructor
+	}
+
+	@Override
+	protected void configureWriter(final Configuration config) {
+		// small batches in order to send several full batches and a final one by the flush delay
+		config.setProperty(AsyncJMSWriter.CONFIG_BATCHSIZE, "128");
+		config.setProperty(AsyncJMSWriter.CONFIG_MAXFLUSHDELAY, "100");
+	}
+}
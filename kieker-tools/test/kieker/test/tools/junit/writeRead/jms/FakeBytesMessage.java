@@ -0,0 +1,629 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.tools.junit.writeRead.jms; // NOPMD (Too many public methods)
+
+import java.io.ByteArrayOutputStream;
+import java.util.Enumeration;
+
+import javax.jms.BytesMessage;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+
+/**
+ * This class is part of a very basic fake JMS message broker. It uses a very simple design to deliver messages synchronously from a singleton producer to a
+ * singleton consumer. It has only been designed for test purposes ({@link BasicJMSWriterReaderTest}) and should <b>not</b> be used outside this test.
+ * 
+ * @author Christian Stier
+ * 
+ * @since 1.13
+ */
+public class FakeBytesMessage implements BytesMessage {
+
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+	private int readPosition;
+
+	/**
+	 * Default constructor.
+	 */
+	public FakeBytesMessage() {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void acknowledge() throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clearBody() throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clearProperties() throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean getBooleanProperty(final String arg0) throws JMSException {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte getByteProperty(final String arg0) throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getDoubleProperty(final String arg0) throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public float getFloatProperty(final String arg0) throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getIntProperty(final String arg0) throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getJMSCorrelationID() throws JMSException {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte[] getJMSCorrelationIDAsBytes() throws JMSException {
+		return new byte[0];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getJMSDeliveryMode() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Destination getJMSDestination() throws JMSException {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getJMSExpiration() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getJMSMessageID() throws JMSException {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getJMSPriority() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean getJMSRedelivered() throws JMSException { // NOPMD (get -> is)
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Destination getJMSReplyTo() throws JMSException {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getJMSTimestamp() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getJMSType() throws JMSException {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getLongProperty(final String arg0) throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object getObjectProperty(final String arg0) throws JMSException {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Enumeration getPropertyNames() throws JMSException {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public short getShortProperty(final String arg0) throws JMSException { // NOPMD (no short)
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getStringProperty(final String arg0) throws JMSException {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean propertyExists(final String arg0) throws JMSException {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setBooleanProperty(final String arg0, final boolean arg1) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setByteProperty(final String arg0, final byte arg1) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDoubleProperty(final String arg0, final double arg1) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setFloatProperty(final String arg0, final float arg1) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setIntProperty(final String arg0, final int arg1) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSCorrelationID(final String arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSCorrelationIDAsBytes(final byte[] arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSDeliveryMode(final int arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSDestination(final Destination arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSExpiration(final long arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSMessageID(final String arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSPriority(final int arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSRedelivered(final boolean arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSReplyTo(final Destination arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSTimestamp(final long arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setJMSType(final String arg0) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setLongProperty(final String arg0, final long arg1) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setObjectProperty(final String arg0, final Object arg1) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setShortProperty(final String arg0, final short arg1) throws JMSException { // NOPMD (no short)
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setStringProperty(final String arg0, final String arg1) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getBodyLength() throws JMSException {
+		return this.body.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean readBoolean() throws JMSException {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte readByte() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readUnsignedByte() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public short readShort() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readUnsignedShort() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public char readChar() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readInt() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long readLong() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public float readFloat() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double readDouble() throws JMSException {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String readUTF() throws JMSException {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readBytes(final byte[] value) throws JMSException {
+		return this.readBytes(value, value.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readBytes(final byte[] value, final int length) throws JMSException {
+		final byte[] bytes = this.body.toByteArray();
+		final int numberOfBytes = Math.min(length, bytes.length - this.readPosition);
+		if (numberOfBytes <= 0) {
+			return -1;
+		}
+		System.arraycopy(bytes, this.readPosition, value, 0, numberOfBytes);
+		this.readPosition += numberOfBytes;
+		return numberOfBytes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeBoolean(final boolean value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeByte(final byte value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeShort(final short value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeChar(final char value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeInt(final int value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeLong(final long value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeFloat(final float value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeDouble(final double value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeUTF(final String value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeObject(final Object value) throws JMSException {
+		// No code necessary
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeBytes(final byte[] value) throws JMSException {
+		this.body.write(value, 0, value.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeBytes(final byte[] value, final int offset, final int length) throws JMSException {
+		this.body.write(value, offset, length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void reset() throws JMSException {
+		this.readPosition = 0;
+	}
+}
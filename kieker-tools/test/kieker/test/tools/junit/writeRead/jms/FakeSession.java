@@ -94,7 +94,7 @@ public class FakeSession implements Session {
 	 */
 	@Override
 	public BytesMessage createBytesMessage() throws JMSException {
-		return null;
+		return new FakeBytesMessage();
 	}
 
 	/**
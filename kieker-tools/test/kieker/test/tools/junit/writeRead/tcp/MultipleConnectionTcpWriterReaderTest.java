@@ -0,0 +1,256 @@
+/***************************************************************************
+ * Copyright 2016 Kieker Project (http://kieker-monitoring.net)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ***************************************************************************/
+
+package kieker.test.tools.junit.writeRead.tcp;
+
+import java.io.DataOutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import kieker.analysis.AnalysisController;
+import kieker.analysis.AnalysisControllerThread;
+import kieker.analysis.exception.AnalysisConfigurationException;
+import kieker.analysis.plugin.filter.forward.ListCollectionFilter;
+import kieker.analysis.plugin.reader.tcp.MultipleConnectionTcpReader;
+import kieker.common.configuration.Configuration;
+import kieker.common.record.IMonitoringRecord;
+import kieker.common.record.misc.TimestampRecord;
+import kieker.common.util.frame.FrameCompression;
+import kieker.monitoring.core.configuration.ConfigurationFactory;
+import kieker.monitoring.core.controller.IMonitoringController;
+import kieker.monitoring.core.controller.MonitoringController;
+import kieker.monitoring.writer.AbstractAsyncWriter;
+import kieker.monitoring.writer.tcp.SingleSocketTcpWriter;
+
+import kieker.test.common.junit.AbstractKiekerTest;
+
+/**
+ * Tests the {@link MultipleConnectionTcpReader} with several concurrent {@link SingleSocketTcpWriter}s.
+ *
+ * @author Christian Stier
+ *
+ * @since 1.13
+ */
+public class MultipleConnectionTcpWriterReaderTest extends AbstractKiekerTest {
+
+	private static final String PORT = "10335";
+	private static final int NUMBER_OF_WRITERS = 4;
+	private static final int RECORDS_PER_WRITER = 1000;
+	private static final long TIMEOUT_IN_MS = 10000;
+
+	private volatile ListCollectionFilter<IMonitoringRecord> sinkFilter = null; // NOPMD (init for findbugs)
+	private volatile AnalysisController analysisController = null; // NOPMD (init for findbugs)
+	private volatile AnalysisControllerThread analysisThread = null; // NOPMD (init for findbugs)
+
+	/**
+	 * Default constructor.
+	 */
+	public MultipleConnectionTcpWriterReaderTest() {
+		// empty default constructor
+	}
+
+	/**
+	 * Starts the analysis with the reader.
+	 *
+	 * @throws Exception
+	 *             If the analysis could not be started.
+	 */
+	@Before
+	public void startAnalysis() throws Exception {
+		this.startAnalysis(1, false);
+	}
+
+	/**
+	 * Terminates the analysis.
+	 *
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the termination.
+	 */
+	@After
+	public void terminateAnalysis() throws InterruptedException {
+		this.analysisController.terminate();
+		this.analysisThread.awaitTermination();
+		Assert.assertEquals(AnalysisController.STATE.TERMINATED, this.analysisController.getState());
+	}
+
+	private void startAnalysis(final int numberOfWorkers, final boolean framed) throws AnalysisConfigurationException, InterruptedException {
+		if (null != this.analysisController) {
+			this.terminateAnalysis();
+		}
+		this.analysisController = new AnalysisController();
+
+		final Configuration readerConfig = new Configuration();
+		readerConfig.setProperty(MultipleConnectionTcpReader.CONFIG_PROPERTY_NAME_PORT, PORT);
+		readerConfig.setProperty(MultipleConnectionTcpReader.CONFIG_PROPERTY_NAME_WORKERS, Integer.toString(numberOfWorkers));
+		readerConfig.setProperty(MultipleConnectionTcpReader.CONFIG_PROPERTY_NAME_FRAMED, Boolean.toString(framed));
+		final MultipleConnectionTcpReader tcpReader = new MultipleConnectionTcpReader(readerConfig, this.analysisController);
+		this.sinkFilter = new ListCollectionFilter<IMonitoringRecord>(new Configuration(), this.analysisController);
+		this.analysisController.connect(tcpReader, MultipleConnectionTcpReader.OUTPUT_PORT_NAME_RECORDS, this.sinkFilter, ListCollectionFilter.INPUT_PORT_NAME);
+		this.analysisThread = new AnalysisControllerThread(this.analysisController);
+		this.analysisThread.start();
+
+		Thread.sleep(1000);
+		Assert.assertEquals(AnalysisController.STATE.RUNNING, this.analysisController.getState());
+	}
+
+	/**
+	 * Tests whether the records of all writers are received with a single worker.
+	 *
+	 * @throws Exception
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testMultipleWriters() throws Exception {
+		this.writeAndCheckRecords(new Configuration(), false);
+	}
+
+	/**
+	 * Tests whether the records of all writers are received if the connections are decoded in parallel.
+	 *
+	 * @throws Exception
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testMultipleWritersWithParallelDecoding() throws Exception {
+		this.startAnalysis(3, false);
+		this.writeAndCheckRecords(new Configuration(), false);
+	}
+
+	/**
+	 * Tests whether the records of all writers are received if they are sent in compressed frames. The records are flushed by the maximal delay only.
+	 *
+	 * @throws Exception
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testMultipleWritersWithCompressedFrames() throws Exception {
+		this.startAnalysis(2, true);
+		final Configuration writerConfig = new Configuration();
+		writerConfig.setProperty(SingleSocketTcpWriter.CONFIG_FRAMED, "true");
+		writerConfig.setProperty(SingleSocketTcpWriter.CONFIG_COMPRESSION, FrameCompression.DEFLATE.name());
+		writerConfig.setProperty(SingleSocketTcpWriter.CONFIG_MAXFLUSHDELAY, "100");
+		this.writeAndCheckRecords(writerConfig, true);
+	}
+
+	/**
+	 * Tests whether a framed reader closes a connection which does not send frames, e.g., from a writer which is not configured for frames, and still
+	 * serves the other connections.
+	 *
+	 * @throws Exception
+	 *             If something went wrong during the test.
+	 */
+	@Test
+	public void testUnframedWriterToFramedReader() throws Exception {
+		this.startAnalysis(1, true);
+		final Socket socket = new Socket("localhost", Integer.parseInt(PORT));
+		try {
+			socket.setSoTimeout((int) TIMEOUT_IN_MS);
+			// a string registry entry as sent by an unframed writer: -1, id, length, and the string
+			final byte[] string = TimestampRecord.class.getName().getBytes("UTF-8");
+			final DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			out.writeInt(-1);
+			out.writeInt(0);
+			out.writeInt(string.length);
+			out.write(string);
+			out.flush();
+			// the reader never sends anything, hence, the read returns as soon as the connection is closed (or fails after the timeout)
+			Assert.assertEquals("The reader must close the connection", -1, socket.getInputStream().read());
+		} finally {
+			socket.close();
+		}
+		Assert.assertEquals(AnalysisController.STATE.RUNNING, this.analysisController.getState());
+
+		final Configuration writerConfig = new Configuration();
+		writerConfig.setProperty(SingleSocketTcpWriter.CONFIG_FRAMED, "true");
+		this.writeAndCheckRecords(writerConfig, false);
+	}
+
+	/**
+	 * @param flushedByDelay
+	 *            whether the writers flush their buffers after a maximal delay; otherwise, the buffers are flushed by terminating the writers.
+	 */
+	private void writeAndCheckRecords(final Configuration writerConfig, final boolean flushedByDelay) throws InterruptedException {
+		final List<IMonitoringController> monitoringControllers = new ArrayList<IMonitoringController>(NUMBER_OF_WRITERS);
+		for (int i = 0; i < NUMBER_OF_WRITERS; i++) {
+			final Configuration monitoringConfig = ConfigurationFactory.createDefaultConfiguration();
+			monitoringConfig.setProperty(ConfigurationFactory.WRITER_CLASSNAME, SingleSocketTcpWriter.class.getName());
+			monitoringConfig.setProperty(SingleSocketTcpWriter.CONFIG_PORT1, PORT);
+			monitoringConfig.setProperty(SingleSocketTcpWriter.class.getName() + "." + AbstractAsyncWriter.CONFIG_BEHAVIOR, "1"); // block on full queue
+			monitoringConfig.putAll(writerConfig);
+			final IMonitoringController monitoringController = MonitoringController.createInstance(monitoringConfig);
+			Assert.assertTrue(monitoringController.isMonitoringEnabled());
+			monitoringControllers.add(monitoringController);
+		}
+
+		// interleave the records of the writers
+		for (int r = 0; r < RECORDS_PER_WRITER; r++) {
+			for (int w = 0; w < NUMBER_OF_WRITERS; w++) {
+				monitoringControllers.get(w).newMonitoringRecord(new TimestampRecord(((long) w * RECORDS_PER_WRITER) + r));
+			}
+		}
+		if (!flushedByDelay) {
+			this.terminateMonitoring(monitoringControllers);
+		}
+
+		final List<TimestampRecord> records = this.awaitRecords(NUMBER_OF_WRITERS * RECORDS_PER_WRITER);
+		Assert.assertEquals(NUMBER_OF_WRITERS * RECORDS_PER_WRITER, records.size());
+		if (flushedByDelay) {
+			this.terminateMonitoring(monitoringControllers);
+		}
+
+		// the records of each writer must arrive completely and in order
+		final long[] nextTimestamps = new long[NUMBER_OF_WRITERS];
+		for (int w = 0; w < NUMBER_OF_WRITERS; w++) {
+			nextTimestamps[w] = (long) w * RECORDS_PER_WRITER;
+		}
+		for (final TimestampRecord record : records) {
+			final int writer = (int) (record.getTimestamp() / RECORDS_PER_WRITER);
+			Assert.assertEquals(nextTimestamps[writer]++, record.getTimestamp());
+		}
+	}
+
+	private void terminateMonitoring(final List<IMonitoringController> monitoringControllers) {
+		for (final IMonitoringController monitoringController : monitoringControllers) {
+			monitoringController.terminateMonitoring();
+		}
+	}
+
+	private List<TimestampRecord> awaitRecords(final int expectedNumberOfRecords) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TIMEOUT_IN_MS;
+		List<TimestampRecord> records = this.getTimestampRecords();
+		while ((records.size() < expectedNumberOfRecords) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(50);
+			records = this.getTimestampRecords();
+		}
+		return records;
+	}
+
+	private List<TimestampRecord> getTimestampRecords() {
+		final List<TimestampRecord> records = new ArrayList<TimestampRecord>();
+		for (final IMonitoringRecord record : this.sinkFilter.getList()) {
+			if (record instanceof TimestampRecord) {
+				records.add((TimestampRecord) record);
+			}
+		}
+		return records;
+	}
+}